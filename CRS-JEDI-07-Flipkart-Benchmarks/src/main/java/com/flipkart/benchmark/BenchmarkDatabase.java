@@ -0,0 +1,141 @@
+package com.flipkart.benchmark;
+
+import com.flipkart.constants.Courses;
+import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.dao.CourseCatalogCache;
+import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.SchemaMigrator;
+import com.flipkart.utils.SeatInventory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * Embedded database shared by all the benchmarks of a fork.
+ * <p>
+ * The schema is loaded from db_dump.sql (set {@code -Dcrs.dump=<path>} when not running from the module
+ * directory) into the in-memory H2 database of the benchmark config.properties, migrated by
+ * {@link SchemaMigrator} and filled by the {@link DataGenerator}. The application's connection pool, seat inventory and catalog cache are used as is.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    private static final long SEED = 42;
+
+    @Param({"2000"})
+    public int students;
+
+    @Param({"100"})
+    public int courses;
+
+    @Param({"150"})
+    public int registrationStudents;
+
+    private DataGenerator generator;
+
+    /**
+     * Method to load the schema and generate the data
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        generator = new DataGenerator(SEED, students, courses, registrationStudents, registrationCourses());
+        try (Connection conn = DBUtil.getConnection()) {
+            loadSchema(conn);
+            SchemaMigrator.migrate();
+            generator.generate(conn);
+        }
+        reloadCaches();
+    }
+
+    /**
+     * Method to close the connection pool
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DBUtil.shutdown();
+    }
+
+    /**
+     * Method to undo the registrations of the registration students, optionally selecting their courses again
+     *
+     * @param selectCourses whether the registration students should have their courses selected
+     */
+    public void resetRegistrations(boolean selectCourses) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            generator.resetRegistrations(conn);
+            if (selectCourses) {
+                generator.selectCourses(conn);
+            }
+        }
+        reloadCaches();
+    }
+
+    /**
+     * Getter for the data generator
+     *
+     * @return generator
+     */
+    public DataGenerator getGenerator() {
+        return generator;
+    }
+
+    private int registrationCourses() {
+        // enough seats for every registration student to get all of the primary courses
+        return (int) Math.ceil((double) registrationStudents * Courses.MAX_PRIMARY_COURSES / Courses.MAX_STUDENT_LIMIT) + 10;
+    }
+
+    private static void reloadCaches() {
+        SeatInventory.getInstance().load(new AdminDaoOperation().viewCourses());
+        CourseCatalogCache.getInstance().invalidate();
+    }
+
+    private static void loadSchema(Connection conn) throws SQLException, IOException {
+        String dump = new String(Files.readAllBytes(Paths.get(System.getProperty("crs.dump", "../db_dump.sql"))), StandardCharsets.UTF_8);
+        List<String> pending = new ArrayList<String>();
+        for (String statement : dump.split(";\\s*\\n")) {
+            String sql = statement
+                    .replaceAll("(?s)/\\*.*?\\*/", "")
+                    .replaceAll("(?m)^--.*$", "")
+                    .replaceAll("DEFAULT CHARSET=\\w+", "")
+                    .trim();
+            if (!sql.isEmpty()) {
+                pending.add(sql);
+            }
+        }
+
+        // the dump creates tables before the tables they reference, failed statements are retried
+        // until every table exists
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            while (!pending.isEmpty()) {
+                List<String> failed = new ArrayList<String>();
+                SQLException lastError = null;
+                for (String sql : pending) {
+                    try {
+                        st.execute(sql);
+                    } catch (SQLException e) {
+                        failed.add(sql);
+                        lastError = e;
+                    }
+                }
+                if (failed.size() == pending.size()) {
+                    throw lastError;
+                }
+                pending = failed;
+            }
+        }
+    }
+}
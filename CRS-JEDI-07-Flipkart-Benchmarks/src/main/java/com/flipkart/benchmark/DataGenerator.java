@@ -0,0 +1,338 @@
+package com.flipkart.benchmark;
+
+import com.flipkart.bean.Student;
+import com.flipkart.constants.Courses;
+import com.flipkart.constants.Roles;
+import com.flipkart.utils.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author JEDI-07
+ * Synthetic data for the benchmarks, generated from a fixed seed so every run sees the same database.
+ * <p>
+ * Two cohorts of approved students are generated:
+ * <ul>
+ * <li>graded students, registered and paid for the semester with allotted and graded courses and notifications,
+ * spread over the catalog courses;</li>
+ * <li>registration students, with nothing selected yet, registering for a separate set of empty courses.</li>
+ * </ul>
+ */
+public class DataGenerator {
+    public static final String PASSWORD = "password";
+    // every user shares one hash, hashing a password per generated user would dominate the setup
+    private static final String PASSWORD_HASH = PasswordHasher.hash(PASSWORD);
+    public static final int NOTIFICATIONS_PER_STUDENT = 20;
+    private static final int BATCH_SIZE = 500;
+    private static final int PROFESSORS = 20;
+
+    private final Random random;
+    private final int gradedStudents;
+    private final int catalogCourses;
+    private final int registrationStudents;
+    private final int registrationCourses;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param seed                 seed of the generated data
+     * @param gradedStudents       number of registered and graded students
+     * @param catalogCourses       number of courses the graded students are spread over
+     * @param registrationStudents number of students left to register
+     * @param registrationCourses  number of empty courses for the registration students
+     */
+    public DataGenerator(long seed, int gradedStudents, int catalogCourses, int registrationStudents, int registrationCourses) {
+        this.random = new Random(seed);
+        this.gradedStudents = gradedStudents;
+        this.catalogCourses = catalogCourses;
+        this.registrationStudents = registrationStudents;
+        this.registrationCourses = registrationCourses;
+    }
+
+    /**
+     * Method to insert all the generated rows into an empty schema
+     *
+     * @param conn connection to the benchmark database
+     */
+    public void generate(Connection conn) throws SQLException {
+        int totalStudents = gradedStudents + registrationStudents;
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO user(id, name, email, password, role, phone) VALUES (?, ?, ?, ?, ?, ?)")) {
+            addUser(ps, 1, "admin", "admin@crs.bench", Roles.Admin);
+            for (int p = 1; p <= PROFESSORS; p++) {
+                addUser(ps, 1 + p, "professor" + p, "professor" + p + "@crs.bench", Roles.Professor);
+            }
+            for (int s = 1; s <= totalStudents; s++) {
+                addUser(ps, studentUserId(s), "student" + s, studentEmail(s), Roles.Student);
+                flushIfFull(ps, s);
+            }
+            ps.executeBatch();
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO admin(id, userId) VALUES (1, 1)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO professor(id, userId, department, designation) VALUES (?, ?, ?, ?)")) {
+            for (int p = 1; p <= PROFESSORS; p++) {
+                ps.setInt(1, p);
+                ps.setInt(2, 1 + p);
+                ps.setString(3, "department" + (p % 5));
+                ps.setString(4, "Professor");
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO student(id, userId, isApproved) VALUES (?, ?, 1)")) {
+            for (int s = 1; s <= totalStudents; s++) {
+                ps.setInt(1, s);
+                ps.setInt(2, studentUserId(s));
+                ps.addBatch();
+                flushIfFull(ps, s);
+            }
+            ps.executeBatch();
+        }
+
+        insertCourses(conn, 1, catalogCourses, true);
+        int[] studentCounts = new int[catalogCourses + 1];
+        try (PreparedStatement registrationPs = conn.prepareStatement(
+                "INSERT INTO semesterregistration(id, studentId, registrationStatus, feeStatus, totalFees) VALUES (?, ?, 1, 1, ?)");
+             PreparedStatement optedPs = conn.prepareStatement(
+                     "INSERT INTO optedcourse(courseId, semesterRegistrationId, isPrimary, isAllotted, studentId) VALUES (?, ?, 1, 1, ?)");
+             PreparedStatement gradePs = conn.prepareStatement("INSERT INTO grade(courseId, studentId, gpa) VALUES (?, ?, ?)");
+             PreparedStatement notificationPs = conn.prepareStatement("INSERT INTO notification(notificationContent, studentId) VALUES (?, ?)")) {
+            for (int s = 1; s <= gradedStudents; s++) {
+                registrationPs.setInt(1, s);
+                registrationPs.setInt(2, s);
+                registrationPs.setDouble(3, 4000);
+                registrationPs.addBatch();
+                for (int courseId : pick(1, catalogCourses, Courses.MAX_PRIMARY_COURSES)) {
+                    optedPs.setInt(1, courseId);
+                    optedPs.setInt(2, s);
+                    optedPs.setInt(3, s);
+                    optedPs.addBatch();
+                    gradePs.setInt(1, courseId);
+                    gradePs.setInt(2, s);
+                    gradePs.setDouble(3, 5 + random.nextInt(6));
+                    gradePs.addBatch();
+                    studentCounts[courseId]++;
+                }
+                for (int n = 0; n < NOTIFICATIONS_PER_STUDENT; n++) {
+                    notificationPs.setString(1, "Notification " + n + " for student" + s);
+                    notificationPs.setInt(2, s);
+                    notificationPs.addBatch();
+                }
+                if (s % BATCH_SIZE == 0) {
+                    registrationPs.executeBatch();
+                    optedPs.executeBatch();
+                    gradePs.executeBatch();
+                    notificationPs.executeBatch();
+                }
+            }
+            registrationPs.executeBatch();
+            optedPs.executeBatch();
+            gradePs.executeBatch();
+            notificationPs.executeBatch();
+        }
+        try (Statement st = conn.createStatement()) {
+            // the grades are inserted directly, their summaries are built like V5 builds them for existing grades
+            st.executeUpdate("INSERT INTO gradesummary(studentId, gradeSum, gradeCount, cgpa, updatedAt) "
+                    + "SELECT studentId, SUM(gpa), COUNT(*), AVG(gpa), CURRENT_TIMESTAMP FROM grade GROUP BY studentId");
+        }
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE course SET studentCount = ? WHERE id = ?")) {
+            for (int courseId = 1; courseId <= catalogCourses; courseId++) {
+                ps.setInt(1, studentCounts[courseId]);
+                ps.setInt(2, courseId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        insertCourses(conn, catalogCourses + 1, registrationCourses, false);
+
+        // rows were inserted with explicit ids, rows inserted by the application continue after them
+        for (String table : new String[]{"user", "professor", "student", "course", "semesterregistration"}) {
+            restartIdentity(conn, table);
+        }
+    }
+
+    /**
+     * Method to undo all the registrations of the registration students
+     *
+     * @param conn connection to the benchmark database
+     */
+    public void resetRegistrations(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM optedcourse WHERE studentId > " + gradedStudents);
+            st.executeUpdate("DELETE FROM notification WHERE studentId > " + gradedStudents);
+            st.executeUpdate("DELETE FROM semesterregistration WHERE studentId > " + gradedStudents);
+            st.executeUpdate("UPDATE course SET studentCount = 0 WHERE id > " + catalogCourses);
+        }
+    }
+
+    /**
+     * Method to select {@link Courses#MAX_PRIMARY_COURSES} primary and {@link Courses#MAX_SECONDARY_COURSES}
+     * secondary registration courses for every registration student
+     *
+     * @param conn connection to the benchmark database
+     */
+    public void selectCourses(Connection conn) throws SQLException {
+        try (PreparedStatement registrationPs = conn.prepareStatement(
+                "INSERT INTO semesterregistration(studentId, registrationStatus, feeStatus) VALUES (?, 0, 0)");
+             PreparedStatement optedPs = conn.prepareStatement(
+                     "INSERT INTO optedcourse(courseId, semesterRegistrationId, isPrimary, isAllotted, studentId) "
+                             + "VALUES (?, (SELECT id FROM semesterregistration WHERE studentId = ?), ?, 0, ?)")) {
+            for (int i = 1; i <= registrationStudents; i++) {
+                int studentId = gradedStudents + i;
+                registrationPs.setInt(1, studentId);
+                registrationPs.addBatch();
+                List<Integer> choices = registrationChoices(i);
+                for (int c = 0; c < choices.size(); c++) {
+                    optedPs.setInt(1, choices.get(c));
+                    optedPs.setInt(2, studentId);
+                    optedPs.setInt(3, c < Courses.MAX_PRIMARY_COURSES ? 1 : 0);
+                    optedPs.setInt(4, studentId);
+                    optedPs.addBatch();
+                }
+            }
+            registrationPs.executeBatch();
+            optedPs.executeBatch();
+        }
+    }
+
+    /**
+     * Method to get the course choices of a registration student, primary choices first
+     *
+     * @param index index of the registration student, from 1
+     * @return course ids
+     */
+    public List<Integer> registrationChoices(int index) {
+        Random choices = new Random(index);
+        List<Integer> courseIds = new ArrayList<Integer>();
+        for (int c = 1; c <= registrationCourses; c++) {
+            courseIds.add(catalogCourses + c);
+        }
+        Collections.shuffle(courseIds, choices);
+        return courseIds.subList(0, Courses.MAX_PRIMARY_COURSES + Courses.MAX_SECONDARY_COURSES);
+    }
+
+    /**
+     * Method to get a graded student
+     *
+     * @param index index of the student, from 1
+     * @return student with its ids and email set
+     */
+    public Student gradedStudent(int index) {
+        return student(index);
+    }
+
+    /**
+     * Method to get a registration student
+     *
+     * @param index index of the registration student, from 1
+     * @return student with its ids and email set
+     */
+    public Student registrationStudent(int index) {
+        return student(gradedStudents + index);
+    }
+
+    /**
+     * Method to get the email of a student
+     *
+     * @param studentId unique Id for a student
+     * @return email the student logs in with
+     */
+    public static String studentEmail(int studentId) {
+        return "student" + studentId + "@crs.bench";
+    }
+
+    /**
+     * Getter for the number of graded students
+     *
+     * @return gradedStudents
+     */
+    public int getGradedStudents() {
+        return gradedStudents;
+    }
+
+    /**
+     * Getter for the number of registration students
+     *
+     * @return registrationStudents
+     */
+    public int getRegistrationStudents() {
+        return registrationStudents;
+    }
+
+    private Student student(int studentId) {
+        Student student = new Student("student" + studentId, studentEmail(studentId), PASSWORD, "9999999999");
+        student.setId(studentUserId(studentId));
+        student.setStudentId(studentId);
+        student.setRole(Roles.Student);
+        student.setApproved(true);
+        return student;
+    }
+
+    private void insertCourses(Connection conn, int firstId, int count, boolean assignProfessors) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO course(id, courseName, courseDescription, professorId, courseFee, studentCount) VALUES (?, ?, ?, ?, ?, 0)")) {
+            for (int courseId = firstId; courseId < firstId + count; courseId++) {
+                ps.setInt(1, courseId);
+                ps.setString(2, "course" + courseId);
+                ps.setString(3, "description of course" + courseId);
+                if (assignProfessors) {
+                    ps.setInt(4, 1 + courseId % PROFESSORS);
+                } else {
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.setDouble(5, 500 + random.nextInt(10) * 100);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private List<Integer> pick(int firstId, int count, int picks) {
+        List<Integer> picked = new ArrayList<Integer>();
+        while (picked.size() < picks) {
+            int courseId = firstId + random.nextInt(count);
+            if (!picked.contains(courseId)) {
+                picked.add(courseId);
+            }
+        }
+        return picked;
+    }
+
+    private int studentUserId(int studentId) {
+        return 1 + PROFESSORS + studentId;
+    }
+
+    private static void restartIdentity(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            int next = rs.getInt(1);
+            st.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    private static void addUser(PreparedStatement ps, int id, String name, String email, String role) throws SQLException {
+        ps.setInt(1, id);
+        ps.setString(2, name);
+        ps.setString(3, email);
+        ps.setString(4, PASSWORD_HASH);
+        ps.setString(5, role);
+        ps.setString(6, "9999999999");
+        ps.addBatch();
+    }
+
+    private static void flushIfFull(PreparedStatement ps, int rows) throws SQLException {
+        if (rows % BATCH_SIZE == 0) {
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.flipkart.benchmark;
+
+import com.flipkart.constants.SqlQueries;
+import com.flipkart.utils.DBUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Benchmarks of the rewritten queries of {@link SqlQueries} against the queries they replaced, run as plain
+ * JDBC on the same connection so only the query differs. The enrolled students of a course were read through
+ * an IN-subquery and are now read through a join from the course's opted courses, the existence checks read
+ * every column of the matching rows and now stop at the first one. Compare the pairs on a large cohort:
+ * <code>java -jar target/benchmarks.jar QueryCatalogBenchmarks -p students=100000</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryCatalogBenchmarks {
+    private static final String VIEW_ENROLLED_STUDENTS_IN_SUBQUERY = "SELECT student.id, user.name, user.email, user.phone "
+            + "FROM student INNER JOIN user ON student.userId = user.id "
+            + "WHERE student.id in (SELECT studentId FROM optedcourse where isAllotted = 1 AND courseId = ?)";
+    private static final String IS_STUDENT_ENROLLED_SELECT_ALL = "SELECT * FROM optedcourse WHERE studentId = ? AND courseId = ?";
+    private static final String IS_STUDENT_ALREADY_GRADED_SELECT_ALL = "SELECT * FROM grade WHERE studentId = ? AND courseId = ?";
+
+    @Benchmark
+    public int enrolledStudentsInSubquery(BenchmarkDatabase db) throws SQLException {
+        return rows(VIEW_ENROLLED_STUDENTS_IN_SUBQUERY, randomCourse(db));
+    }
+
+    @Benchmark
+    public int enrolledStudentsJoin(BenchmarkDatabase db) throws SQLException {
+        return rows(SqlQueries.VIEW_ENROLLED_STUDENTS, randomCourse(db));
+    }
+
+    @Benchmark
+    public int studentEnrolledSelectAll(BenchmarkDatabase db) throws SQLException {
+        return rows(IS_STUDENT_ENROLLED_SELECT_ALL, randomStudent(db), randomCourse(db));
+    }
+
+    @Benchmark
+    public int studentEnrolledSelectOne(BenchmarkDatabase db) throws SQLException {
+        return rows(SqlQueries.CHECK_COURSE_STUDENT, randomStudent(db), randomCourse(db));
+    }
+
+    @Benchmark
+    public int studentGradedSelectAll(BenchmarkDatabase db) throws SQLException {
+        return rows(IS_STUDENT_ALREADY_GRADED_SELECT_ALL, randomStudent(db), randomCourse(db));
+    }
+
+    @Benchmark
+    public int studentGradedSelectOne(BenchmarkDatabase db) throws SQLException {
+        return rows(SqlQueries.IS_STUDENT_ALREADY_GRADED, randomStudent(db), randomCourse(db));
+    }
+
+    private static int rows(String sql, int... params) throws SQLException {
+        try (Connection conn = DBUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setInt(i + 1, params[i]);
+            }
+            int rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static int randomStudent(BenchmarkDatabase db) {
+        return 1 + ThreadLocalRandom.current().nextInt(db.getGenerator().getGradedStudents());
+    }
+
+    private static int randomCourse(BenchmarkDatabase db) {
+        return 1 + ThreadLocalRandom.current().nextInt(db.courses);
+    }
+}
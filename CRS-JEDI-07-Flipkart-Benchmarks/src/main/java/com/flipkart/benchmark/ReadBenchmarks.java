@@ -0,0 +1,94 @@
+package com.flipkart.benchmark;
+
+import com.flipkart.bean.Course;
+import com.flipkart.bean.GradeCard;
+import com.flipkart.bean.Notification;
+import com.flipkart.bean.User;
+import com.flipkart.business.CourseInterface;
+import com.flipkart.business.CourseOperation;
+import com.flipkart.business.StudentInterface;
+import com.flipkart.business.StudentOperation;
+import com.flipkart.business.UserInterface;
+import com.flipkart.business.UserOperation;
+import com.flipkart.constants.Notifications;
+import com.flipkart.dao.AdminDaoInterface;
+import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.dao.NotificationDaoInterface;
+import com.flipkart.dao.NotificationDaoOperation;
+import com.flipkart.dao.UserDaoInterface;
+import com.flipkart.dao.UserDaoOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Benchmarks of the read paths hit on every page load: login, the course catalog, the grade card and notifications.
+ * Every call picks a random graded student so the database caches are not warmed for a single row. Logins are
+ * answered by the credential cache once a student has logged in, {@code getLoginProfile} is the database read
+ * of a login that is not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmarks {
+    private final UserDaoInterface userDao = new UserDaoOperation();
+    private final UserInterface userOperation = new UserOperation();
+    private final AdminDaoInterface adminDao = new AdminDaoOperation();
+    private final NotificationDaoInterface notificationDao = new NotificationDaoOperation();
+    private final CourseInterface courseOperation = new CourseOperation();
+    private final StudentInterface studentOperation = new StudentOperation();
+
+    @Benchmark
+    public User login(BenchmarkDatabase db) {
+        int studentId = randomStudent(db);
+        return userOperation.validateUser(DataGenerator.studentEmail(studentId), DataGenerator.PASSWORD);
+    }
+
+    @Benchmark
+    public User getLoginProfile(BenchmarkDatabase db) throws Exception {
+        return userDao.getLoginProfile(DataGenerator.studentEmail(randomStudent(db)));
+    }
+
+    @Benchmark
+    public List<Course> viewCourses(BenchmarkDatabase db) {
+        return adminDao.viewCourses();
+    }
+
+    @Benchmark
+    public List<Course> getCoursesFromCatalog(BenchmarkDatabase db) {
+        return courseOperation.getCourses();
+    }
+
+    @Benchmark
+    public GradeCard getGradeCard(BenchmarkDatabase db) throws Exception {
+        return studentOperation.getGradeCard(db.getGenerator().gradedStudent(randomStudent(db)));
+    }
+
+    @Benchmark
+    public List<Notification> getNotifications(BenchmarkDatabase db) {
+        return notificationDao.getNotifications(randomStudent(db));
+    }
+
+    @Benchmark
+    public List<Notification> getNotificationsAfter(BenchmarkDatabase db) {
+        return notificationDao.getNotificationsAfter(randomStudent(db), 0, Notifications.DEFAULT_PAGE_SIZE);
+    }
+
+    private static int randomStudent(BenchmarkDatabase db) {
+        return 1 + ThreadLocalRandom.current().nextInt(db.getGenerator().getGradedStudents());
+    }
+}
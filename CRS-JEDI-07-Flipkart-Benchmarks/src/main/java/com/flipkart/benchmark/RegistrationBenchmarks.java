@@ -0,0 +1,86 @@
+package com.flipkart.benchmark;
+
+import com.flipkart.bean.AllotmentResult;
+import com.flipkart.business.SemesterRegistrationInterface;
+import com.flipkart.business.SemesterRegistrationOperation;
+import com.flipkart.constants.Courses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Benchmarks of the registration write paths. Both change the database, so every iteration starts from
+ * reset registrations and runs a fixed batch of calls; the reported time is per batch.
+ * The batch sizes cover every student of the default {@code registrationStudents} parameter once.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RegistrationBenchmarks {
+    private static final int CHOICES = Courses.MAX_PRIMARY_COURSES + Courses.MAX_SECONDARY_COURSES;
+
+    /**
+     * Registration students with no course selected, each batch adds every course choice of every student
+     */
+    @State(Scope.Benchmark)
+    public static class AddCourseState {
+        final SemesterRegistrationInterface semesterRegistration = new SemesterRegistrationOperation();
+        int next;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkDatabase db) throws SQLException {
+            db.resetRegistrations(false);
+            next = 0;
+        }
+    }
+
+    /**
+     * Registration students with their courses selected, each batch submits every student once
+     */
+    @State(Scope.Benchmark)
+    public static class SubmitState {
+        final SemesterRegistrationInterface semesterRegistration = new SemesterRegistrationOperation();
+        int next;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkDatabase db) throws SQLException {
+            db.resetRegistrations(true);
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    @Measurement(iterations = 10, batchSize = 150 * CHOICES)
+    @Warmup(iterations = 5, batchSize = 150 * CHOICES)
+    public boolean addCourse(BenchmarkDatabase db, AddCourseState state) throws Exception {
+        int call = state.next++;
+        int student = 1 + call / CHOICES;
+        int choice = call % CHOICES;
+        List<Integer> choices = db.getGenerator().registrationChoices(student);
+        return state.semesterRegistration.addCourse(db.getGenerator().registrationStudent(student),
+                choices.get(choice), choice < Courses.MAX_PRIMARY_COURSES ? 1 : 0);
+    }
+
+    @Benchmark
+    @Measurement(iterations = 10, batchSize = 150)
+    @Warmup(iterations = 5, batchSize = 150)
+    public AllotmentResult submitCourseChoices(BenchmarkDatabase db, SubmitState state) throws Exception {
+        int student = 1 + state.next++;
+        return state.semesterRegistration.submitCourseChoices(db.getGenerator().registrationStudent(student));
+    }
+}
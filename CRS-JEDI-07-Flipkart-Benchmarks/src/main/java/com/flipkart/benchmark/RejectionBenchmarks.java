@@ -0,0 +1,98 @@
+package com.flipkart.benchmark;
+
+import com.flipkart.business.SemesterRegistrationInterface;
+import com.flipkart.business.SemesterRegistrationOperation;
+import com.flipkart.exceptions.RejectedRequestException;
+import com.flipkart.exceptions.SeatNotAvailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Benchmarks of the rejected requests of the registration rush. {@code addCourseRejected} is a choice of a
+ * catalog course by a student who has already submitted, rejected by the locked add-course transaction, so it
+ * costs one round trip and the rejection. The other pair throws a rejection from {@code stackDepth} frames down and catches it at the top,
+ * as a request thread under Jetty and Jersey does, once with a stack trace filled in like the rejections used
+ * to be and once with the stackless {@link RejectedRequestException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectionBenchmarks {
+    private final SemesterRegistrationInterface semesterRegistration = new SemesterRegistrationOperation();
+
+    @Param({"120"})
+    public int stackDepth;
+
+    @Benchmark
+    public int addCourseRejected(BenchmarkDatabase db) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int student = 1 + random.nextInt(db.getGenerator().getGradedStudents());
+        try {
+            semesterRegistration.addCourse(db.getGenerator().gradedStudent(student), 1 + random.nextInt(db.courses), 1);
+            return 0;
+        } catch (RejectedRequestException e) {
+            return e.getStatus();
+        }
+    }
+
+    @Benchmark
+    public String rejectionWithStackTrace() {
+        try {
+            throwFrom(stackDepth, true);
+            return null;
+        } catch (Exception e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String rejectionWithoutStackTrace() {
+        try {
+            throwFrom(stackDepth, false);
+            return null;
+        } catch (Exception e) {
+            return e.getMessage();
+        }
+    }
+
+    private static void throwFrom(int depth, boolean stackTrace) throws Exception {
+        if (depth > 0) {
+            throwFrom(depth - 1, stackTrace);
+            return;
+        }
+        int courseId = ThreadLocalRandom.current().nextInt(100);
+        throw stackTrace ? new FilledSeatNotAvailableException(courseId) : new SeatNotAvailableException(courseId);
+    }
+
+    /**
+     * A seat rejection as it was before the rejections dropped their stack trace
+     */
+    private static final class FilledSeatNotAvailableException extends Exception {
+        private final int courseId;
+
+        private FilledSeatNotAvailableException(int courseId) {
+            this.courseId = courseId;
+        }
+
+        @Override
+        public String getMessage() {
+            return "Maximum limit of students for courseId " + courseId + " reached.";
+        }
+    }
+}
@@ -1,37 +1,183 @@
 package com.flipkart.application;
 
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.bean.Course;
+import com.flipkart.bean.UserSession;
+import com.flipkart.dao.AdminDaoInterface;
+import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.dao.CourseCatalogCache;
+import com.flipkart.dao.GradeCardCache;
+import com.flipkart.dao.NotificationOutbox;
 import com.flipkart.restController.AdminRestAPI;
 import com.flipkart.restController.ProfessorRestAPI;
+import com.flipkart.restController.RejectedRequestMapper;
+import com.flipkart.restController.SessionAuthenticator;
 import com.flipkart.restController.StudentRestAPI;
 import com.flipkart.restController.UserRestAPI;
+import com.flipkart.utils.CredentialCache;
+import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.DbExecutor;
+import com.flipkart.utils.NotificationHub;
+import com.flipkart.utils.SchemaMigrator;
+import com.flipkart.utils.SeatInventory;
+import com.flipkart.utils.SessionStore;
+import com.flipkart.utils.StatementMetrics;
 import io.dropwizard.Application;
 import io.dropwizard.Configuration;
+import io.dropwizard.auth.AuthDynamicFeature;
+import io.dropwizard.auth.AuthValueFactoryProvider;
+import io.dropwizard.auth.oauth.OAuthCredentialAuthFilter;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import org.glassfish.jersey.media.sse.SseFeature;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 public class App extends Application<Configuration> {
     private static final Logger LOGGER = LoggerFactory.getLogger(App.class);
+    private static final long SESSION_TTL_MINUTES = 30;
+    private static final long SEAT_RECONCILE_MINUTES = 5;
+    private static final long NOTIFICATION_HEARTBEAT_SECONDS = 20;
+    private static final long DB_EXECUTOR_SHUTDOWN_SECONDS = 30;
 
     @Override
     public void initialize(Bootstrap<Configuration> b) {
+        b.addCommand(new ImportCommand());
+        b.addCommand(new MigrateCommand());
     }
 
     @Override
     public void run(Configuration c, Environment e) throws Exception {
+        LOGGER.info("Starting database connection pool");
+        DBUtil.registerMetrics(e.metrics());
+        StatementMetrics.registerMetrics(e.metrics());
+        DaoMetrics.registerMetrics(e.metrics());
+        e.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void stop() {
+                DBUtil.shutdown();
+            }
+        });
+
+        LOGGER.info("Applying schema migrations");
+        SchemaMigrator.migrate();
+
+        LOGGER.info("Starting database executor");
+        final DbExecutor dbExecutor = DbExecutor.getInstance();
+        dbExecutor.registerMetrics(e.metrics());
+        // stops before the pool is closed, the running requests finish with their connections
+        e.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void stop() {
+                dbExecutor.shutdown(TimeUnit.SECONDS.toMillis(DB_EXECUTOR_SHUTDOWN_SECONDS));
+            }
+        });
+
+        CourseCatalogCache.getInstance().registerMetrics(e.metrics());
+        GradeCardCache.getInstance().registerMetrics(e.metrics());
+        CredentialCache.getInstance().registerMetrics(e.metrics());
+
+        LOGGER.info("Starting notification outbox");
+        final NotificationOutbox notificationOutbox = NotificationOutbox.getInstance();
+        notificationOutbox.registerMetrics(e.metrics());
+        // managed objects stop in reverse order, the outbox is flushed before the pool is closed
+        e.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {
+                notificationOutbox.start();
+            }
+
+            @Override
+            public void stop() {
+                notificationOutbox.stop();
+            }
+        });
+
+        LOGGER.info("Loading seat inventory");
+        final AdminDaoInterface adminDao = DaoMetrics.instrument(AdminDaoInterface.class, new AdminDaoOperation());
+        final SeatInventory seatInventory = SeatInventory.getInstance();
+        List<Course> courses = adminDao.viewCourses();
+        if (courses == null) {
+            throw new IllegalStateException("Unable to load courses for the seat inventory");
+        }
+        seatInventory.load(courses);
+        e.metrics().register(MetricRegistry.name(SeatInventory.class, "courses"), (Gauge<Integer>) seatInventory::size);
+        ScheduledExecutorService seatReconciler = e.lifecycle().scheduledExecutorService("seat-reconciler").build();
+        seatReconciler.scheduleWithFixedDelay(() -> {
+            List<Course> current = adminDao.viewCourses();
+            if (current != null) {
+                int drift = seatInventory.reconcile(current);
+                if (drift > 0) {
+                    LOGGER.warn("Seat inventory was off by {} seats, re-synced with the database", drift);
+                }
+            }
+        }, SEAT_RECONCILE_MINUTES, SEAT_RECONCILE_MINUTES, TimeUnit.MINUTES);
+
+        LOGGER.info("Starting notification streams");
+        final NotificationHub notificationHub = NotificationHub.getInstance();
+        notificationHub.registerMetrics(e.metrics());
+        e.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void stop() {
+                notificationHub.closeAll();
+            }
+        });
+        ScheduledExecutorService notificationHeartbeat = e.lifecycle().scheduledExecutorService("notification-heartbeat").build();
+        notificationHeartbeat.scheduleWithFixedDelay(notificationHub::heartbeat,
+                NOTIFICATION_HEARTBEAT_SECONDS, NOTIFICATION_HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        e.jersey().register(SseFeature.class);
+
+        LOGGER.info("Registering session authentication");
+        final SessionStore sessionStore = new SessionStore(TimeUnit.MINUTES.toMillis(SESSION_TTL_MINUTES));
+        e.metrics().register(MetricRegistry.name(SessionStore.class, "sessions"), (Gauge<Integer>) sessionStore::size);
+        ScheduledExecutorService sessionEvictor = e.lifecycle().scheduledExecutorService("session-evictor").build();
+        sessionEvictor.scheduleWithFixedDelay(sessionStore::evictExpired, 1, 1, TimeUnit.MINUTES);
+        e.jersey().register(new AuthDynamicFeature(
+                new OAuthCredentialAuthFilter.Builder<UserSession>()
+                        .setAuthenticator(new SessionAuthenticator(sessionStore))
+                        .setPrefix("Bearer")
+                        .setUnauthorizedHandler((prefix, realm) -> Response
+                                .status(401)
+                                .entity("Login Required.")
+                                .type(MediaType.TEXT_PLAIN)
+                                .build())
+                        .buildAuthFilter()));
+        e.jersey().register(new AuthValueFactoryProvider.Binder<>(UserSession.class));
+
         LOGGER.info("Registering REST resources");
 
         //registering all the RESTful service classes.
         e.jersey().register(new AdminRestAPI());
         e.jersey().register(new ProfessorRestAPI());
         e.jersey().register(new StudentRestAPI());
-        e.jersey().register(new UserRestAPI());
+        e.jersey().register(new UserRestAPI(sessionStore));
+        e.jersey().register(new RejectedRequestMapper());
     }
 
     public static void main(String[] args) throws Exception {
         new App().run(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.flipkart.application;
+
+import com.flipkart.bean.ImportResult;
+import com.flipkart.bean.ImportRowError;
+import com.flipkart.business.ImportInterface;
+import com.flipkart.business.ImportOperation;
+import com.flipkart.constants.Imports;
+import com.flipkart.utils.DBUtil;
+import io.dropwizard.cli.Command;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * @author JEDI-07
+ * Command line bulk import of students, professors or courses, run without starting the server:
+ * <code>java -jar crs.jar import students intake.csv</code>. The file is streamed to the database
+ * through {@link ImportInterface} and the throughput and rejected rows are printed when it is done.
+ */
+public class ImportCommand extends Command {
+
+    public ImportCommand() {
+        super("import", "Imports students, professors or courses from a CSV file with a header line");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        subparser.addArgument("kind")
+                .choices(Imports.STUDENTS, Imports.PROFESSORS, Imports.COURSES)
+                .help("rows held by the file");
+        subparser.addArgument("file")
+                .help("CSV file to import, - to read standard input");
+    }
+
+    @Override
+    public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
+        String kind = namespace.getString("kind");
+        String file = namespace.getString("file");
+        ImportInterface importInterface = new ImportOperation();
+        ImportResult result;
+        try (Reader csv = "-".equals(file)
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            result = importInterface.importCsv(kind, csv);
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.out.printf("Imported %d %s, rejected %d in %d ms (%.0f rows/s)%n", result.getImported(), kind,
+                result.getRejected(), result.getElapsedMillis(), result.getRowsPerSecond());
+        for (ImportRowError error : result.getErrors()) {
+            System.out.printf("line %d, %s: %s%n", error.getRow(), error.getKey(), error.getMessage());
+        }
+        if (result.getRejected() > result.getErrors().size()) {
+            System.out.printf("... %d more rejected rows%n", result.getRejected() - result.getErrors().size());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.flipkart.application;
+
+import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.SchemaMigrator;
+import io.dropwizard.cli.Command;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+/**
+ * @author JEDI-07
+ * Command line schema migration, run without starting the server: <code>java -jar crs.jar migrate</code>.
+ * The server applies pending migrations at startup as well, running them once beforehand keeps instances
+ * started together from applying the same migration.
+ */
+public class MigrateCommand extends Command {
+
+    public MigrateCommand() {
+        super("migrate", "Applies the pending schema migrations");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+    }
+
+    @Override
+    public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
+        int applied;
+        try {
+            applied = SchemaMigrator.migrate();
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.out.printf("Applied %d schema migrations%n", applied);
+    }
+}
@@ -0,0 +1,83 @@
+package com.flipkart.bean;
+
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * AdmissionPage Bean, one page of the queue of students waiting for approval
+ */
+public class AdmissionPage {
+    private List<Student> students;
+    private int nextCursor;
+    private boolean hasMore;
+
+    public AdmissionPage() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param students   Students of the page, by student Id
+     * @param nextCursor Id of the last student of the page, to be sent as the cursor of the next page
+     * @param hasMore    Whether more students are waiting after the page
+     */
+    public AdmissionPage(List<Student> students, int nextCursor, boolean hasMore) {
+        this.students = students;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Getter for the students
+     *
+     * @return students, by student Id
+     */
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    /**
+     * Setter for the students
+     *
+     * @param students Students of the page
+     */
+    public void setStudents(List<Student> students) {
+        this.students = students;
+    }
+
+    /**
+     * Getter for the cursor of the next page
+     *
+     * @return Id of the last student of the page
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Setter for the cursor of the next page
+     *
+     * @param nextCursor Id of the last student of the page
+     */
+    public void setNextCursor(int nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Getter for hasMore
+     *
+     * @return true if more students are waiting after the page
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Setter for hasMore
+     *
+     * @param hasMore Whether more students are waiting after the page
+     */
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
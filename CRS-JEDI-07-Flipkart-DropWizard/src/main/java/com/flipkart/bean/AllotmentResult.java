@@ -0,0 +1,62 @@
+package com.flipkart.bean;
+
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * AllotmentResult Bean, outcome of submitting the course choices of a student
+ */
+public class AllotmentResult {
+    private List<OptedCourse> allottedCourses;
+    private double totalFee;
+
+    public AllotmentResult() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param allottedCourses Courses in which the student got a seat
+     * @param totalFee        Sum of the fee of the allotted courses
+     */
+    public AllotmentResult(List<OptedCourse> allottedCourses, double totalFee) {
+        this.allottedCourses = allottedCourses;
+        this.totalFee = totalFee;
+    }
+
+    /**
+     * Getter for allotted courses
+     *
+     * @return allotted courses
+     */
+    public List<OptedCourse> getAllottedCourses() {
+        return allottedCourses;
+    }
+
+    /**
+     * Setter for allotted courses
+     *
+     * @param allottedCourses Courses in which the student got a seat
+     */
+    public void setAllottedCourses(List<OptedCourse> allottedCourses) {
+        this.allottedCourses = allottedCourses;
+    }
+
+    /**
+     * Getter for total fee
+     *
+     * @return total fee
+     */
+    public double getTotalFee() {
+        return totalFee;
+    }
+
+    /**
+     * Setter for total fee
+     *
+     * @param totalFee Sum of the fee of the allotted courses
+     */
+    public void setTotalFee(double totalFee) {
+        this.totalFee = totalFee;
+    }
+}
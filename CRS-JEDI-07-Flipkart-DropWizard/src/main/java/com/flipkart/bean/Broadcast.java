@@ -0,0 +1,138 @@
+package com.flipkart.bean;
+
+/**
+ * @author JEDI-07
+ * Broadcast Bean, one message sent to a whole cohort of students
+ */
+public class Broadcast {
+    private int broadcastId;
+    private int senderId;
+    private String audience;
+    private int courseId;
+    private String content;
+    private int recipients;
+
+    public Broadcast() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param audience cohort receiving the broadcast, one of the audiences of {@link com.flipkart.constants.Notifications}
+     * @param courseId Unique Id of the course, for the course audience
+     * @param content  Broadcast content
+     */
+    public Broadcast(String audience, int courseId, String content) {
+        this.audience = audience;
+        this.courseId = courseId;
+        this.content = content;
+    }
+
+    /**
+     * Getter for broadcast Id
+     *
+     * @return broadcast Id
+     */
+    public int getBroadcastId() {
+        return broadcastId;
+    }
+
+    /**
+     * Setter for broadcast Id
+     *
+     * @param broadcastId Unique Id for a Broadcast
+     */
+    public void setBroadcastId(int broadcastId) {
+        this.broadcastId = broadcastId;
+    }
+
+    /**
+     * Getter for sender Id
+     *
+     * @return user Id of the sender
+     */
+    public int getSenderId() {
+        return senderId;
+    }
+
+    /**
+     * Setter for sender Id
+     *
+     * @param senderId user Id of the sender
+     */
+    public void setSenderId(int senderId) {
+        this.senderId = senderId;
+    }
+
+    /**
+     * Getter for the audience
+     *
+     * @return cohort receiving the broadcast
+     */
+    public String getAudience() {
+        return audience;
+    }
+
+    /**
+     * Setter for the audience
+     *
+     * @param audience cohort receiving the broadcast
+     */
+    public void setAudience(String audience) {
+        this.audience = audience;
+    }
+
+    /**
+     * Getter for course Id
+     *
+     * @return course Id
+     */
+    public int getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * Setter for course Id
+     *
+     * @param courseId Unique Id of the course
+     */
+    public void setCourseId(int courseId) {
+        this.courseId = courseId;
+    }
+
+    /**
+     * Getter for Broadcast Content
+     *
+     * @return Broadcast Content
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Setter for Broadcast Content
+     *
+     * @param content Broadcast Content
+     */
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Getter for the number of recipients
+     *
+     * @return number of students notified
+     */
+    public int getRecipients() {
+        return recipients;
+    }
+
+    /**
+     * Setter for the number of recipients
+     *
+     * @param recipients number of students notified
+     */
+    public void setRecipients(int recipients) {
+        this.recipients = recipients;
+    }
+}
@@ -0,0 +1,81 @@
+package com.flipkart.bean;
+
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * BulkApproval Bean, the students to approve at once, either listed by Id or matched by a name or email prefix
+ */
+public class BulkApproval {
+    private List<Integer> studentIds;
+    private String prefix;
+    private int approved;
+
+    public BulkApproval() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param studentIds Unique Ids of the Students to approve, null to approve by prefix
+     * @param prefix     prefix of the name or email of the Students to approve, empty for every waiting student
+     */
+    public BulkApproval(List<Integer> studentIds, String prefix) {
+        this.studentIds = studentIds;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Getter for the student Ids
+     *
+     * @return Unique Ids of the Students to approve
+     */
+    public List<Integer> getStudentIds() {
+        return studentIds;
+    }
+
+    /**
+     * Setter for the student Ids
+     *
+     * @param studentIds Unique Ids of the Students to approve
+     */
+    public void setStudentIds(List<Integer> studentIds) {
+        this.studentIds = studentIds;
+    }
+
+    /**
+     * Getter for the prefix
+     *
+     * @return prefix of the name or email of the Students to approve
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Setter for the prefix
+     *
+     * @param prefix prefix of the name or email of the Students to approve, empty for every waiting student
+     */
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Getter for the number of approved students
+     *
+     * @return students approved and notified, students approved earlier are not counted
+     */
+    public int getApproved() {
+        return approved;
+    }
+
+    /**
+     * Setter for the number of approved students
+     *
+     * @param approved students approved and notified
+     */
+    public void setApproved(int approved) {
+        this.approved = approved;
+    }
+}
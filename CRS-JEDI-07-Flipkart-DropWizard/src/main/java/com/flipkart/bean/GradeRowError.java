@@ -0,0 +1,81 @@
+package com.flipkart.bean;
+
+/**
+ * @author JEDI-07
+ * GradeRowError Bean, a row of a grade upload that was not inserted
+ */
+public class GradeRowError {
+    private int row;
+    private int studentId;
+    private String message;
+
+    public GradeRowError() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param row       1-based position of the grade in the upload
+     * @param studentId Unique Id of the Student
+     * @param message   reason the grade was not inserted
+     */
+    public GradeRowError(int row, int studentId, String message) {
+        this.row = row;
+        this.studentId = studentId;
+        this.message = message;
+    }
+
+    /**
+     * Getter for the row
+     *
+     * @return 1-based position of the grade in the upload
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Setter for the row
+     *
+     * @param row 1-based position of the grade in the upload
+     */
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    /**
+     * Getter for Student Id
+     *
+     * @return Student Id
+     */
+    public int getStudentId() {
+        return studentId;
+    }
+
+    /**
+     * Setter for Student Id
+     *
+     * @param studentId Unique Id of the Student
+     */
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    /**
+     * Getter for the message
+     *
+     * @return reason the grade was not inserted
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for the message
+     *
+     * @param message reason the grade was not inserted
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,144 @@
+package com.flipkart.bean;
+
+/**
+ * @author JEDI-07
+ * GradeSummary Bean, the materialized grade totals of a student together with its semester status
+ */
+public class GradeSummary {
+    private int studentId;
+    private boolean registered;
+    private boolean feePaid;
+    private double gradeSum;
+    private int gradeCount;
+    private double cgpa;
+    private long updatedAt;
+
+    public GradeSummary() {
+    }
+
+    /**
+     * Getter for Student Id
+     *
+     * @return Student Id
+     */
+    public int getStudentId() {
+        return studentId;
+    }
+
+    /**
+     * Setter for Student Id
+     *
+     * @param studentId Unique Id of the Student
+     */
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    /**
+     * Getter for the registration status
+     *
+     * @return true if the student submitted the semester registration
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Setter for the registration status
+     *
+     * @param registered whether the student submitted the semester registration
+     */
+    public void setRegistered(boolean registered) {
+        this.registered = registered;
+    }
+
+    /**
+     * Getter for the payment status
+     *
+     * @return true if the student paid the semester fee
+     */
+    public boolean isFeePaid() {
+        return feePaid;
+    }
+
+    /**
+     * Setter for the payment status
+     *
+     * @param feePaid whether the student paid the semester fee
+     */
+    public void setFeePaid(boolean feePaid) {
+        this.feePaid = feePaid;
+    }
+
+    /**
+     * Getter for the sum of the grades
+     *
+     * @return sum of the gpa of all the graded courses
+     */
+    public double getGradeSum() {
+        return gradeSum;
+    }
+
+    /**
+     * Setter for the sum of the grades
+     *
+     * @param gradeSum sum of the gpa of all the graded courses
+     */
+    public void setGradeSum(double gradeSum) {
+        this.gradeSum = gradeSum;
+    }
+
+    /**
+     * Getter for the number of grades
+     *
+     * @return number of graded courses
+     */
+    public int getGradeCount() {
+        return gradeCount;
+    }
+
+    /**
+     * Setter for the number of grades
+     *
+     * @param gradeCount number of graded courses
+     */
+    public void setGradeCount(int gradeCount) {
+        this.gradeCount = gradeCount;
+    }
+
+    /**
+     * Getter for the CGPA
+     *
+     * @return CGPA, 0 when the student has no grade
+     */
+    public double getCgpa() {
+        return cgpa;
+    }
+
+    /**
+     * Setter for the CGPA
+     *
+     * @param cgpa CGPA of the student
+     */
+    public void setCgpa(double cgpa) {
+        this.cgpa = cgpa;
+    }
+
+    /**
+     * Getter for the time of the last grade
+     *
+     * @return epoch millis of the last update, 0 when the student has no grade
+     */
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Setter for the time of the last grade
+     *
+     * @param updatedAt epoch millis of the last update
+     */
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.flipkart.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * GradeUploadResult Bean, outcome of a bulk grade upload for a course
+ */
+public class GradeUploadResult {
+    private int courseId;
+    private int graded;
+    private List<GradeRowError> errors = new ArrayList<GradeRowError>();
+
+    public GradeUploadResult() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param courseId Unique Id of the Course
+     */
+    public GradeUploadResult(int courseId) {
+        this.courseId = courseId;
+    }
+
+    /**
+     * Getter for course Id
+     *
+     * @return course Id
+     */
+    public int getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * Setter for course Id
+     *
+     * @param courseId Unique Id of the Course
+     */
+    public void setCourseId(int courseId) {
+        this.courseId = courseId;
+    }
+
+    /**
+     * Getter for the number of inserted grades
+     *
+     * @return inserted grades
+     */
+    public int getGraded() {
+        return graded;
+    }
+
+    /**
+     * Setter for the number of inserted grades
+     *
+     * @param graded inserted grades
+     */
+    public void setGraded(int graded) {
+        this.graded = graded;
+    }
+
+    /**
+     * Getter for the rejected rows
+     *
+     * @return rejected rows, in upload order
+     */
+    public List<GradeRowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Setter for the rejected rows
+     *
+     * @param errors rejected rows
+     */
+    public void setErrors(List<GradeRowError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,127 @@
+package com.flipkart.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * ImportResult Bean, outcome of a bulk import of students, professors or courses
+ */
+public class ImportResult {
+    private String kind;
+    private int imported;
+    private int rejected;
+    private List<ImportRowError> errors = new ArrayList<ImportRowError>();
+    private long elapsedMillis;
+
+    public ImportResult() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param kind imported rows, one of the kinds of {@link com.flipkart.constants.Imports}
+     */
+    public ImportResult(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Getter for the kind
+     *
+     * @return imported rows
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Setter for the kind
+     *
+     * @param kind imported rows
+     */
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Getter for the number of inserted rows
+     *
+     * @return inserted rows
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    /**
+     * Setter for the number of inserted rows
+     *
+     * @param imported inserted rows
+     */
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * Getter for the number of rejected rows
+     *
+     * @return rejected rows, including those not listed in the errors
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Setter for the number of rejected rows
+     *
+     * @param rejected rejected rows
+     */
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * Getter for the rejected rows
+     *
+     * @return first rejected rows, in import order
+     */
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Setter for the rejected rows
+     *
+     * @param errors rejected rows
+     */
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Getter for the duration of the import
+     *
+     * @return milliseconds spent reading and inserting the rows
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Setter for the duration of the import
+     *
+     * @param elapsedMillis milliseconds spent reading and inserting the rows
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Getter for the throughput of the import
+     *
+     * @return rows read per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (imported + rejected) * 1000.0 / elapsedMillis;
+    }
+}
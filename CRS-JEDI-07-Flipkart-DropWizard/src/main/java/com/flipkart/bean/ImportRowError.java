@@ -0,0 +1,81 @@
+package com.flipkart.bean;
+
+/**
+ * @author JEDI-07
+ * ImportRowError Bean, a row of a bulk import that was not inserted
+ */
+public class ImportRowError {
+    private int row;
+    private String key;
+    private String message;
+
+    public ImportRowError() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param row     1-based line of the row in the upload
+     * @param key     email of the user or name of the course on the row
+     * @param message reason the row was not inserted
+     */
+    public ImportRowError(int row, String key, String message) {
+        this.row = row;
+        this.key = key;
+        this.message = message;
+    }
+
+    /**
+     * Getter for the row
+     *
+     * @return 1-based line of the row in the upload
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Setter for the row
+     *
+     * @param row 1-based line of the row in the upload
+     */
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    /**
+     * Getter for the key
+     *
+     * @return email of the user or name of the course on the row
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Setter for the key
+     *
+     * @param key email of the user or name of the course on the row
+     */
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Getter for the message
+     *
+     * @return reason the row was not inserted
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for the message
+     *
+     * @param message reason the row was not inserted
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,60 @@
+package com.flipkart.bean;
+
+/**
+ * @author JEDI-07
+ * LoginResponse Bean
+ */
+public class LoginResponse {
+    private String message;
+    private String token;
+
+    public LoginResponse() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param message Login status message
+     * @param token   Session token to send as bearer token, null if login failed
+     */
+    public LoginResponse(String message, String token) {
+        this.message = message;
+        this.token = token;
+    }
+
+    /**
+     * Getter for message
+     *
+     * @return message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for message
+     *
+     * @param message Login status message
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Getter for token
+     *
+     * @return session token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Setter for token
+     *
+     * @param token Session token
+     */
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -8,6 +8,7 @@ public class Notification {
     private int notificationId;
     private int studentId;
     private String content;
+    private boolean read;
 
     public Notification() {
     }
@@ -76,4 +77,22 @@ public class Notification {
     public void setStudentId(int studentId) {
         this.studentId = studentId;
     }
+
+    /**
+     * Getter for the read marker
+     *
+     * @return true if the student has read the notification
+     */
+    public boolean isRead() {
+        return read;
+    }
+
+    /**
+     * Setter for the read marker
+     *
+     * @param read true if the student has read the notification
+     */
+    public void setRead(boolean read) {
+        this.read = read;
+    }
 }
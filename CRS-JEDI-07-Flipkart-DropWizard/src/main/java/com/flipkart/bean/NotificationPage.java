@@ -0,0 +1,83 @@
+package com.flipkart.bean;
+
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * NotificationPage Bean, one page of the notification feed of a student
+ */
+public class NotificationPage {
+    private List<Notification> notifications;
+    private int nextCursor;
+    private boolean hasMore;
+
+    public NotificationPage() {
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param notifications Notifications of the page, oldest first
+     * @param nextCursor    Id of the last notification of the page, to be sent as the cursor of the next page
+     * @param hasMore       Whether notifications after the page already exist
+     */
+    public NotificationPage(List<Notification> notifications, int nextCursor, boolean hasMore) {
+        this.notifications = notifications;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Getter for the notifications
+     *
+     * @return notifications, oldest first
+     */
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    /**
+     * Setter for the notifications
+     *
+     * @param notifications Notifications of the page, oldest first
+     */
+    public void setNotifications(List<Notification> notifications) {
+        this.notifications = notifications;
+    }
+
+    /**
+     * Getter for the cursor of the next page
+     *
+     * @return id of the last notification of the page
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Setter for the cursor of the next page
+     *
+     * @param nextCursor Id of the last notification of the page
+     */
+    public void setNextCursor(int nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Getter for hasMore
+     *
+     * @return whether notifications after the page already exist
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Setter for hasMore
+     *
+     * @param hasMore Whether notifications after the page already exist
+     */
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,106 @@
+package com.flipkart.bean;
+
+import java.security.Principal;
+
+/**
+ * @author JEDI-07
+ * UserSession Bean, the authenticated principal of a request
+ */
+public class UserSession implements Principal {
+    private final String token;
+    private final User user;
+    private final Student student;
+    private final Professor professor;
+    private volatile long expiresAt;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param token     Opaque session token issued at login
+     * @param user      Logged in User
+     * @param student   Student profile of the user, null if the user is not a student
+     * @param professor Professor profile of the user, null if the user is not a professor
+     * @param expiresAt Epoch millis after which the session is no longer valid
+     */
+    public UserSession(String token, User user, Student student, Professor professor, long expiresAt) {
+        this.token = token;
+        this.user = user;
+        this.student = student;
+        this.professor = professor;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Getter for the session token
+     *
+     * @return token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Getter for the logged in User
+     *
+     * @return user
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Getter for the Student profile
+     *
+     * @return student, null if the user is not a student
+     */
+    public Student getStudent() {
+        return student;
+    }
+
+    /**
+     * Getter for the Professor profile
+     *
+     * @return professor, null if the user is not a professor
+     */
+    public Professor getProfessor() {
+        return professor;
+    }
+
+    /**
+     * Getter for the expiry time
+     *
+     * @return epoch millis after which the session expires
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Setter for the expiry time
+     *
+     * @param expiresAt epoch millis after which the session expires
+     */
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Method to check if the user has the given role
+     *
+     * @param role role to check against
+     * @return returns true if the user has the role
+     */
+    public boolean hasRole(String role) {
+        return role.equals(user.getRole());
+    }
+
+    /**
+     * Getter for the principal name
+     *
+     * @return emailId of the logged in user
+     */
+    @Override
+    public String getName() {
+        return user.getUserEmailId();
+    }
+}
@@ -1,7 +1,8 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.AdmissionPage;
+import com.flipkart.bean.BulkApproval;
 import com.flipkart.bean.Professor;
-import com.flipkart.bean.Student;
 import com.flipkart.exceptions.CourseNotFoundException;
 import com.flipkart.exceptions.StudentAlreadyApprovedException;
 import com.flipkart.exceptions.StudentNotFoundException;
@@ -49,16 +50,28 @@ public interface AdminInterface {
      * @param phoneNo     Phone Number of the Professor
      * @param department  Department of the Professor
      * @param designation Designation of the Professor
-     * @return returns true if Professor is added successfully
+     * @return returns the added Professor with its user Id and professor Id
      */
-    boolean addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException;
+    Professor addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException;
 
     /**
-     * method for getting all admission requests
+     * method for getting a page of the admission requests
      *
-     * @return List of Students who made Admission Request
+     * @param cursor   id of the last student already seen, 0 for the first page
+     * @param prefix   prefix of the name or email of the students, null or empty for every student
+     * @param pageSize requested number of students, capped at {@link com.flipkart.constants.Admissions#MAX_PAGE_SIZE}
+     * @return page of Students who made Admission Request, null on error
      */
-    List<Student> getAdmissionRequests();
+    AdmissionPage getAdmissionRequests(int cursor, String prefix, int pageSize);
+
+    /**
+     * method for approving many admission requests at once and notifying the approved students
+     *
+     * @param approval    students to approve, listed by id or matched by a name or email prefix
+     * @param adminUserId user Id of the approving admin, sender of the notification
+     * @return the same approval with the number of approved students set, null on error
+     */
+    BulkApproval approveStudentRequests(BulkApproval approval, int adminUserId);
 
     /**
      * method for getting all the professors
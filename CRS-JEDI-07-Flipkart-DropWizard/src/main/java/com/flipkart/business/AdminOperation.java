@@ -1,14 +1,20 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.AdmissionPage;
+import com.flipkart.bean.Broadcast;
+import com.flipkart.bean.BulkApproval;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
+import com.flipkart.constants.Admissions;
 import com.flipkart.dao.AdminDaoInterface;
 import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.dao.NotificationOutbox;
 import com.flipkart.dao.StudentDaoInterface;
 import com.flipkart.dao.StudentDaoOperation;
 import com.flipkart.exceptions.CourseNotFoundException;
 import com.flipkart.exceptions.StudentAlreadyApprovedException;
 import com.flipkart.exceptions.StudentNotFoundException;
+import com.flipkart.utils.DaoMetrics;
 import org.apache.log4j.Logger;
 
 import java.sql.SQLException;
@@ -20,8 +26,9 @@ import java.util.List;
  */
 public class AdminOperation implements AdminInterface {
     private static Logger logger = Logger.getLogger(AdminOperation.class);
-    AdminDaoInterface adminDaoInterface = new AdminDaoOperation();
-    StudentDaoInterface studentDaoInterface = new StudentDaoOperation();
+    AdminDaoInterface adminDaoInterface = DaoMetrics.instrument(AdminDaoInterface.class, new AdminDaoOperation());
+    StudentDaoInterface studentDaoInterface = DaoMetrics.instrument(StudentDaoInterface.class, new StudentDaoOperation());
+    NotificationInterface notificationInterface = new NotificationOperation();
 
     /**
      * method for adding course into the catalogue
@@ -44,16 +51,11 @@ public class AdminOperation implements AdminInterface {
      */
     @Override
     public boolean removeCourse(int courseId) throws CourseNotFoundException {
-        try {
-            boolean courseRemoved = adminDaoInterface.removeCourse(courseId);
-            if (courseRemoved) {
-                throw new CourseNotFoundException(courseId);
-            }
-            return true;
-        } catch (CourseNotFoundException e) {
-            logger.info(e.getMessage());
-            throw e;
+        boolean courseRemoved = adminDaoInterface.removeCourse(courseId);
+        if (!courseRemoved) {
+            throw new CourseNotFoundException(courseId);
         }
+        return true;
     }
 
     /**
@@ -64,22 +66,18 @@ public class AdminOperation implements AdminInterface {
      */
     @Override
     public boolean approveStudentRequest(int studentId) throws StudentNotFoundException, StudentAlreadyApprovedException {
-        try {
-            Student student = studentDaoInterface.getStudentByStudentId(studentId);
-            if (student == null) {
-                throw new StudentNotFoundException(studentId);
-            }
-            if (student.isApproved()) {
-                throw new StudentAlreadyApprovedException(studentId);
-            }
-            return adminDaoInterface.approveStudent(studentId);
-        } catch (StudentNotFoundException e) {
-            logger.info(e.getMessage());
-            throw e;
-        } catch (StudentAlreadyApprovedException e) {
-            logger.info(e.getMessage());
-            throw e;
+        Student student = studentDaoInterface.getStudentByStudentId(studentId);
+        if (student == null) {
+            throw new StudentNotFoundException(studentId);
+        }
+        if (student.isApproved()) {
+            throw new StudentAlreadyApprovedException(studentId);
         }
+        if (!adminDaoInterface.approveStudent(studentId)) {
+            return false;
+        }
+        NotificationOutbox.getInstance().send(studentId, Admissions.APPROVED_NOTIFICATION);
+        return true;
     }
 
     /**
@@ -91,10 +89,10 @@ public class AdminOperation implements AdminInterface {
      * @param phoneNo     Phone Number of the Professor
      * @param department  Department of the Professor
      * @param designation Designation of the Professor
-     * @return returns true if Professor is added successfully
+     * @return returns the added Professor with its user Id and professor Id
      */
     @Override
-    public boolean addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException {
+    public Professor addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException {
         try{
             return adminDaoInterface.addProfessor(name, emailId, password, phoneNo, department, designation);
         }catch (SQLException e) {
@@ -103,13 +101,46 @@ public class AdminOperation implements AdminInterface {
     }
 
     /**
-     * method for getting all admission requests
+     * method for getting a page of the admission requests
+     *
+     * @param cursor   id of the last student already seen, 0 for the first page
+     * @param prefix   prefix of the name or email of the students, null or empty for every student
+     * @param pageSize requested number of students, capped at {@link Admissions#MAX_PAGE_SIZE}
+     * @return page of Students who made Admission Request, null on error
+     */
+    @Override
+    public AdmissionPage getAdmissionRequests(int cursor, String prefix, int pageSize) {
+        int limit = pageSize <= 0 ? Admissions.DEFAULT_PAGE_SIZE : Math.min(pageSize, Admissions.MAX_PAGE_SIZE);
+        // one extra row tells whether there is a next page
+        List<Student> students = adminDaoInterface.getPendingAdmissions(Math.max(cursor, 0), prefix, limit + 1);
+        if (students == null) {
+            return null;
+        }
+        boolean hasMore = students.size() > limit;
+        if (hasMore) {
+            students = students.subList(0, limit);
+        }
+        int nextCursor = students.isEmpty() ? Math.max(cursor, 0) : students.get(students.size() - 1).getStudentId();
+        return new AdmissionPage(students, nextCursor, hasMore);
+    }
+
+    /**
+     * method for approving many admission requests at once and notifying the approved students, the students
+     * are approved by one set-based update and notified through one broadcast
      *
-     * @return List of Students who made Admission Request
+     * @param approval    students to approve, listed by id or matched by a name or email prefix
+     * @param adminUserId user Id of the approving admin, sender of the notification
+     * @return the same approval with the number of approved students set, null on error
      */
     @Override
-    public List<Student> getAdmissionRequests() {
-        return adminDaoInterface.getPendingAdmissions();
+    public BulkApproval approveStudentRequests(BulkApproval approval, int adminUserId) {
+        Broadcast broadcast = new Broadcast(null, 0, Admissions.APPROVED_NOTIFICATION);
+        broadcast.setSenderId(adminUserId);
+        if (!adminDaoInterface.approveStudents(approval, broadcast)) {
+            return null;
+        }
+        notificationInterface.publish(broadcast);
+        return approval;
     }
 
     /**
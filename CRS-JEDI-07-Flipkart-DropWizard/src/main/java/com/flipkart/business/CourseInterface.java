@@ -1,6 +1,7 @@
 package com.flipkart.business;
 
 import com.flipkart.bean.Course;
+import com.flipkart.utils.Export;
 
 import java.util.List;
 
@@ -15,4 +16,18 @@ public interface CourseInterface {
      * @return List of courses.
      */
     List<Course> getCourses();
+
+    /**
+     * method for reloading the catalogue from the database
+     *
+     * @return version of the reloaded catalogue, -1 if it could not be loaded
+     */
+    long refreshCourses();
+
+    /**
+     * method for exporting the whole catalogue, read from the database rather than the cache
+     *
+     * @return export of the courses
+     */
+    Export exportCourses();
 }
@@ -6,6 +6,9 @@ import java.util.List;
 import com.flipkart.bean.Course;
 import com.flipkart.dao.AdminDaoInterface;
 import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.dao.CourseCatalogCache;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.Export;
 import org.apache.log4j.Logger;
 
 /**
@@ -14,7 +17,8 @@ import org.apache.log4j.Logger;
  */
 public class CourseOperation implements CourseInterface {
     private static Logger logger = Logger.getLogger(CourseOperation.class);
-    AdminDaoInterface adminDaoInterface = new AdminDaoOperation();
+    CourseCatalogCache courseCatalogCache = CourseCatalogCache.getInstance();
+    AdminDaoInterface adminDaoInterface = DaoMetrics.instrument(AdminDaoInterface.class, new AdminDaoOperation());
 
     /**
      * method for viewing all the available courses in catalogue
@@ -23,6 +27,32 @@ public class CourseOperation implements CourseInterface {
      */
     @Override
     public List<Course> getCourses() {
-        return adminDaoInterface.viewCourses();
+        CourseCatalogCache.Snapshot catalog = courseCatalogCache.getSnapshot();
+        return catalog == null ? null : catalog.getCourses();
+    }
+
+    /**
+     * method for reloading the catalogue from the database
+     *
+     * @return version of the reloaded catalogue, -1 if it could not be loaded
+     */
+    @Override
+    public long refreshCourses() {
+        CourseCatalogCache.Snapshot catalog = courseCatalogCache.refresh();
+        if (catalog == null) {
+            logger.info("Error: Course catalog could not be refreshed");
+            return -1;
+        }
+        return catalog.getVersion();
+    }
+
+    /**
+     * method for exporting the whole catalogue, read from the database rather than the cache
+     *
+     * @return export of the courses
+     */
+    @Override
+    public Export exportCourses() {
+        return adminDaoInterface::exportCourses;
     }
 }
@@ -0,0 +1,25 @@
+package com.flipkart.business;
+
+import com.flipkart.bean.ImportResult;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * @author JEDI-07
+ * Bulk Import Interface
+ */
+public interface ImportInterface {
+    /**
+     * method for importing students, professors or courses from a CSV upload with a header line.
+     * Students need the columns name, email, password and optionally phone, professors also department
+     * and optionally designation, courses need courseName, courseDescription and courseFee.
+     *
+     * @param kind one of the kinds of {@link com.flipkart.constants.Imports}
+     * @param csv  CSV upload, read as it arrives
+     * @return number of imported and rejected rows, the rejected rows and the throughput
+     * @throws IOException              if the upload cannot be read
+     * @throws IllegalArgumentException if the kind is unknown, a column is missing or a quoted field is not closed
+     */
+    ImportResult importCsv(String kind, Reader csv) throws IOException;
+}
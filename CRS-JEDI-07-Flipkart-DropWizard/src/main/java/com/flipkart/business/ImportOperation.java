@@ -0,0 +1,273 @@
+package com.flipkart.business;
+
+import com.flipkart.bean.Course;
+import com.flipkart.bean.ImportResult;
+import com.flipkart.bean.ImportRowError;
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
+import com.flipkart.bean.User;
+import com.flipkart.constants.Imports;
+import com.flipkart.constants.Roles;
+import com.flipkart.dao.AdminDaoInterface;
+import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.dao.StudentDaoInterface;
+import com.flipkart.dao.StudentDaoOperation;
+import com.flipkart.utils.CsvReader;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.PasswordHasher;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author JEDI-07
+ * Implementation of Bulk Import Interface.
+ * <p>
+ * The upload is read record by record and the valid rows are inserted in batches of {@link Imports#BATCH_SIZE},
+ * one transaction per batch, so memory does not grow with the size of the upload and a failed batch does not
+ * undo the batches before it. Rows are rejected, with their line, when a field is invalid, when the email is
+ * taken, or when their batch could not be inserted.
+ * <p>
+ * The passwords of a batch are hashed before its transaction borrows a connection, on a pool of
+ * {@link Imports#HASH_THREADS} threads shared by all imports; when its queue is full the importing thread
+ * hashes the password itself.
+ */
+public class ImportOperation implements ImportInterface {
+    private static Logger logger = Logger.getLogger(ImportOperation.class);
+    StudentDaoInterface studentDaoInterface = DaoMetrics.instrument(StudentDaoInterface.class, new StudentDaoOperation());
+    AdminDaoInterface adminDaoInterface = DaoMetrics.instrument(AdminDaoInterface.class, new AdminDaoOperation());
+    private static final ThreadPoolExecutor HASH_EXECUTOR = hashExecutor();
+
+    /**
+     * method for importing students, professors or courses from a CSV upload with a header line
+     *
+     * @param kind one of the kinds of {@link Imports}
+     * @param csv  CSV upload, read as it arrives
+     * @return number of imported and rejected rows, the rejected rows and the throughput
+     * @throws IOException              if the upload cannot be read
+     * @throws IllegalArgumentException if the kind is unknown, a column is missing or a quoted field is not closed
+     */
+    @Override
+    public ImportResult importCsv(String kind, Reader csv) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult(kind);
+        try (CsvReader reader = new CsvReader(csv)) {
+            String[] header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The upload is empty");
+            }
+            Columns columns = new Columns(header);
+            if (Imports.STUDENTS.equals(kind)) {
+                columns.require("name", "email", "password");
+                load(reader, columns, "email", fields -> student(columns, fields), hashed(studentDaoInterface::addStudents), result);
+            } else if (Imports.PROFESSORS.equals(kind)) {
+                columns.require("name", "email", "password", "department");
+                load(reader, columns, "email", fields -> professor(columns, fields), hashed(adminDaoInterface::addProfessors), result);
+            } else if (Imports.COURSES.equals(kind)) {
+                columns.require("courseName", "courseDescription", "courseFee");
+                load(reader, columns, "courseName", fields -> course(columns, fields), adminDaoInterface::addCourses, result);
+            } else {
+                throw new IllegalArgumentException("Unknown import " + kind + ", expected "
+                        + Imports.STUDENTS + ", " + Imports.PROFESSORS + " or " + Imports.COURSES);
+            }
+        }
+        result.getErrors().sort(Comparator.comparingInt(ImportRowError::getRow));
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Imported " + result.getImported() + " " + kind + ", rejected " + result.getRejected()
+                + " in " + result.getElapsedMillis() + " ms (" + Math.round(result.getRowsPerSecond()) + " rows/s)");
+        return result;
+    }
+
+    private static <T> void load(CsvReader reader, Columns columns, String keyColumn, Function<String[], T> rowMapper,
+                                 Function<List<T>, List<ImportRowError>> batchWriter, ImportResult result) throws IOException {
+        Batch<T> batch = new Batch<T>();
+        String[] fields;
+        while ((fields = reader.next()) != null) {
+            String key = columns.get(fields, keyColumn);
+            try {
+                batch.add(rowMapper.apply(fields), reader.getLine(), key);
+            } catch (IllegalArgumentException e) {
+                reject(result, new ImportRowError(reader.getLine(), key, e.getMessage()));
+            }
+            if (batch.rows.size() == Imports.BATCH_SIZE) {
+                batch.flush(batchWriter, result);
+            }
+        }
+        batch.flush(batchWriter, result);
+    }
+
+    private static ThreadPoolExecutor hashExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(Imports.HASH_THREADS, Imports.HASH_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Imports.BATCH_SIZE), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Wraps a batch writer of users so that it receives the users with their password replaced by its hash
+     */
+    private static <T extends User> Function<List<T>, List<ImportRowError>> hashed(Function<List<T>, List<ImportRowError>> batchWriter) {
+        return users -> hashPasswords(users) ? batchWriter.apply(users) : null;
+    }
+
+    private static boolean hashPasswords(List<? extends User> users) {
+        List<Future<String>> hashes = new ArrayList<Future<String>>(users.size());
+        for (User user : users) {
+            String password = user.getUserPassword();
+            hashes.add(HASH_EXECUTOR.submit(() -> PasswordHasher.hash(password)));
+        }
+        try {
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).setUserPassword(hashes.get(i).get());
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Error: " + e.getMessage());
+        } catch (ExecutionException e) {
+            logger.info("Error: " + e.getCause().getMessage());
+        }
+        for (Future<String> hash : hashes) {
+            hash.cancel(false);
+        }
+        return false;
+    }
+
+    private static void reject(ImportResult result, ImportRowError error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < Imports.MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        }
+    }
+
+    private static Student student(Columns columns, String[] fields) {
+        return new Student(required(columns, fields, "name"), email(columns, fields),
+                required(columns, fields, "password"), optional(columns, fields, "phone"));
+    }
+
+    private static Professor professor(Columns columns, String[] fields) {
+        return new Professor(required(columns, fields, "name"), email(columns, fields),
+                required(columns, fields, "password"), Roles.Professor, optional(columns, fields, "phone"),
+                required(columns, fields, "department"), optional(columns, fields, "designation"));
+    }
+
+    private static Course course(Columns columns, String[] fields) {
+        String fee = required(columns, fields, "courseFee");
+        double courseFee;
+        try {
+            courseFee = Double.parseDouble(fee);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("courseFee " + fee + " is not a number");
+        }
+        if (!(courseFee >= 0) || Double.isInfinite(courseFee)) {
+            throw new IllegalArgumentException("courseFee " + fee + " is not a valid fee");
+        }
+        return new Course(required(columns, fields, "courseName"), required(columns, fields, "courseDescription"), courseFee);
+    }
+
+    private static String email(Columns columns, String[] fields) {
+        String email = required(columns, fields, "email");
+        if (email.indexOf('@') < 1) {
+            throw new IllegalArgumentException("email " + email + " is not valid");
+        }
+        return email;
+    }
+
+    private static String required(Columns columns, String[] fields, String column) {
+        String value = optional(columns, fields, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Columns columns, String[] fields, String column) {
+        String value = columns.get(fields, column);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > Imports.MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException(column + " is longer than " + Imports.MAX_FIELD_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    /**
+     * Position of the columns named in the header line, names are matched without case
+     */
+    private static final class Columns {
+        private final Map<String, Integer> positions = new HashMap<String, Integer>();
+
+        private Columns(String[] header) {
+            for (int i = 0; i < header.length; i++) {
+                positions.putIfAbsent(header[i].toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        private void require(String... columns) {
+            for (String column : columns) {
+                if (!positions.containsKey(column.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("Missing column " + column);
+                }
+            }
+        }
+
+        private String get(String[] fields, String column) {
+            Integer position = positions.get(column.toLowerCase(Locale.ROOT));
+            return position == null || position >= fields.length ? null : fields[position];
+        }
+    }
+
+    /**
+     * Valid rows waiting to be inserted, with the line and key they are reported under
+     */
+    private static final class Batch<T> {
+        private final List<T> rows = new ArrayList<T>();
+        private final List<Integer> lines = new ArrayList<Integer>();
+        private final List<String> keys = new ArrayList<String>();
+
+        private void add(T row, int line, String key) {
+            rows.add(row);
+            lines.add(line);
+            keys.add(key);
+        }
+
+        private void flush(Function<List<T>, List<ImportRowError>> batchWriter, ImportResult result) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<ImportRowError> errors = batchWriter.apply(rows);
+            if (errors == null) {
+                for (int i = 0; i < rows.size(); i++) {
+                    reject(result, new ImportRowError(lines.get(i), keys.get(i), "Batch could not be inserted"));
+                }
+            } else {
+                for (ImportRowError error : errors) {
+                    error.setRow(lines.get(error.getRow() - 1));
+                    reject(result, error);
+                }
+                result.setImported(result.getImported() + rows.size() - errors.size());
+            }
+            rows.clear();
+            lines.clear();
+            keys.clear();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Notification;
+import com.flipkart.bean.NotificationPage;
 
 import java.util.List;
 
@@ -12,15 +14,59 @@ public interface NotificationInterface {
     /**
      * method for sending notification to student
      *
+     * @param studentId           unique Id for a student
      * @param notificationContent Content of the Notification
      * @return returns true if the Notification is sent successfully
      */
-    public boolean sendNotification(String notificationContent);
+    public boolean sendNotification(int studentId, String notificationContent);
 
     /**
      * method for retrieving all the notifications
      *
+     * @param studentId unique Id for a student
      * @return list of all the notifications
      */
-    public List<Notification> getNotifications();
+    public List<Notification> getNotifications(int studentId);
+
+    /**
+     * method for retrieving a page of the notification feed
+     *
+     * @param studentId unique Id for a student
+     * @param cursor    id of the last notification already seen, 0 for the first page
+     * @param pageSize  requested number of notifications, capped at {@link com.flipkart.constants.Notifications#MAX_PAGE_SIZE}
+     * @return page of notifications, null on error
+     */
+    public NotificationPage getNotificationPage(int studentId, int cursor, int pageSize);
+
+    /**
+     * method for counting the unread notifications
+     *
+     * @param studentId unique Id for a student
+     * @return number of unread notifications, -1 on error
+     */
+    public int getUnreadCount(int studentId);
+
+    /**
+     * method for marking the notifications up to the given one as read
+     *
+     * @param studentId      unique Id for a student
+     * @param notificationId id of the last notification read
+     * @return returns true if the notifications were marked as read
+     */
+    public boolean markNotificationsRead(int studentId, int notificationId);
+
+    /**
+     * method for sending one notification to a whole cohort of students
+     *
+     * @param broadcast broadcast with audience, courseId, content and senderId set, its id and number of recipients are set once sent
+     * @return returns true if the broadcast is sent successfully
+     */
+    public boolean broadcast(Broadcast broadcast);
+
+    /**
+     * method for pushing a stored broadcast to the students with an open notification stream
+     *
+     * @param broadcast stored broadcast with its id, content and number of recipients set
+     */
+    public void publish(Broadcast broadcast);
 }
@@ -1,8 +1,14 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Notification;
+import com.flipkart.bean.NotificationPage;
+import com.flipkart.constants.Notifications;
 import com.flipkart.dao.NotificationDaoInterface;
 import com.flipkart.dao.NotificationDaoOperation;
+import com.flipkart.dao.NotificationOutbox;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.NotificationHub;
 
 import java.util.List;
 
@@ -11,26 +17,111 @@ import java.util.List;
  * Implementation of Notification Interface
  */
 public class NotificationOperation implements NotificationInterface {
-    NotificationDaoInterface notificationDaoInterface = new NotificationDaoOperation();
+    NotificationDaoInterface notificationDaoInterface = DaoMetrics.instrument(NotificationDaoInterface.class, new NotificationDaoOperation());
 
     /**
-     * method for sending notification to student
+     * method for sending notification to student, the notification is inserted by the {@link NotificationOutbox}
      *
+     * @param studentId           unique Id for a student
      * @param notificationContent Content of the Notification
      * @return returns true if the Notification is sent successfully
      */
     @Override
-    public boolean sendNotification(String notificationContent) {
-        return notificationDaoInterface.sendNotification(StudentOperation.student.getStudentId(), notificationContent);
+    public boolean sendNotification(int studentId, String notificationContent) {
+        return NotificationOutbox.getInstance().send(studentId, notificationContent);
     }
 
     /**
      * method for retrieving all the notifications
      *
+     * @param studentId unique Id for a student
      * @return list of all the notifications
      */
     @Override
-    public List<Notification> getNotifications() {
-        return notificationDaoInterface.getNotifications(StudentOperation.student.getStudentId());
+    public List<Notification> getNotifications(int studentId) {
+        return notificationDaoInterface.getNotifications(studentId);
+    }
+
+    /**
+     * method for retrieving a page of the notification feed
+     *
+     * @param studentId unique Id for a student
+     * @param cursor    id of the last notification already seen, 0 for the first page
+     * @param pageSize  requested number of notifications, capped at {@link Notifications#MAX_PAGE_SIZE}
+     * @return page of notifications, null on error
+     */
+    @Override
+    public NotificationPage getNotificationPage(int studentId, int cursor, int pageSize) {
+        int limit = pageSize <= 0 ? Notifications.DEFAULT_PAGE_SIZE : Math.min(pageSize, Notifications.MAX_PAGE_SIZE);
+        // one extra row tells whether there is a next page
+        List<Notification> notifications = notificationDaoInterface.getNotificationsAfter(studentId, Math.max(cursor, 0), limit + 1);
+        if (notifications == null) {
+            return null;
+        }
+        boolean hasMore = notifications.size() > limit;
+        if (hasMore) {
+            notifications = notifications.subList(0, limit);
+        }
+        int nextCursor = notifications.isEmpty() ? Math.max(cursor, 0) : notifications.get(notifications.size() - 1).getNotificationId();
+        return new NotificationPage(notifications, nextCursor, hasMore);
+    }
+
+    /**
+     * method for counting the unread notifications
+     *
+     * @param studentId unique Id for a student
+     * @return number of unread notifications, -1 on error
+     */
+    @Override
+    public int getUnreadCount(int studentId) {
+        return notificationDaoInterface.getUnreadCount(studentId);
+    }
+
+    /**
+     * method for marking the notifications up to the given one as read
+     *
+     * @param studentId      unique Id for a student
+     * @param notificationId id of the last notification read
+     * @return returns true if the notifications were marked as read
+     */
+    @Override
+    public boolean markNotificationsRead(int studentId, int notificationId) {
+        return notificationDaoInterface.markNotificationsRead(studentId, notificationId);
+    }
+
+    /**
+     * method for sending one notification to a whole cohort of students, the content is stored once
+     * and the notifications of the cohort reference it
+     *
+     * @param broadcast broadcast with audience, courseId, content and senderId set, its id and number of recipients are set once sent
+     * @return returns true if the broadcast is sent successfully
+     */
+    @Override
+    public boolean broadcast(Broadcast broadcast) {
+        if (!notificationDaoInterface.broadcast(broadcast)) {
+            return false;
+        }
+        publish(broadcast);
+        return true;
+    }
+
+    /**
+     * method for pushing a stored broadcast to the students with an open notification stream, the
+     * notifications are only read back when someone is listening
+     *
+     * @param broadcast stored broadcast with its id, content and number of recipients set
+     */
+    @Override
+    public void publish(Broadcast broadcast) {
+        NotificationHub hub = NotificationHub.getInstance();
+        if (hub.size() > 0 && broadcast.getRecipients() > 0) {
+            List<Notification> notifications = notificationDaoInterface.getBroadcastNotifications(broadcast.getBroadcastId());
+            if (notifications != null) {
+                for (Notification notification : notifications) {
+                    notification.setContent(broadcast.getContent());
+                }
+                hub.publish(notifications);
+            }
+        }
     }
 }
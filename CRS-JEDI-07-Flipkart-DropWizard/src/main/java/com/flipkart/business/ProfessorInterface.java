@@ -1,8 +1,13 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Course;
+import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeUploadResult;
+import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
 import com.flipkart.exceptions.*;
+import com.flipkart.utils.Export;
 
 import java.util.List;
 
@@ -11,49 +16,80 @@ import java.util.List;
  * Professor Interface
  */
 public interface ProfessorInterface {
-
     /**
      * method to add Grade in the database
      *
+     * @param professor logged in Professor
      * @param studentId unique Id for a student
      * @param courseId  unique Id to represent a course
      * @param grade     Grade assigned to student for a course
      * @return returns true if the grade is added successfully by professor
      */
-    boolean addGrade(int studentId, int courseId, double grade) throws CourseNotSelectedException, StudentNotEnrolledInCourseException, StudentAlreadyGradedException;
+    boolean addGrade(Professor professor, int studentId, int courseId, double grade) throws CourseNotSelectedException, StudentNotEnrolledInCourseException, StudentAlreadyGradedException;
 
     /**
      * Method to view all enrolled students in a particular course
      *
-     * @param courseId unique Id to represent a course
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
      * @return List of Students
      */
 
-    List<Student> getEnrolledStudents(int courseId) throws CourseNotSelectedExcpetion;
+    List<Student> getEnrolledStudents(Professor professor, int courseId) throws CourseNotSelectedExcpetion;
+
+    /**
+     * method to add the grades of many students in a course at once
+     *
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
+     * @param grades    grades with studentId and gpa set
+     * @return inserted count and the rows that were rejected, null if the grades could not be inserted
+     */
+    GradeUploadResult addGrades(Professor professor, int courseId, List<Grade> grades) throws CourseNotSelectedException;
+
+    /**
+     * method to export the students allotted to a course taught by the professor
+     *
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
+     * @return export of the roster
+     */
+    Export exportRoster(Professor professor, int courseId) throws CourseNotSelectedExcpetion;
+
+    /**
+     * method to export the grades of a course taught by the professor
+     *
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
+     * @return export of the grade sheet
+     */
+    Export exportGradeSheet(Professor professor, int courseId) throws CourseNotSelectedExcpetion;
 
     /**
      * method to view all selected course
      *
+     * @param professor logged in Professor
      * @return list of selected courses
      */
-    List<Course> getSelectedCourses();
+    List<Course> getSelectedCourses(Professor professor);
 
     /**
      * method to select the course to teach
      *
-     * @param courseId unique Id to represent a course
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
      * @return returns true if course is selected successfully
      */
-    boolean selectCourse(int courseId) throws CourseNotAvailableException;
+    boolean selectCourse(Professor professor, int courseId) throws CourseNotAvailableException;
 
     /**
      * method to deselect the course
      *
-     * @param courseId unique Id to represent a course
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
      * @return returns true if deselection of course is successful
      */
-    boolean deselectCourse(int courseId) throws CourseNotSelectedExcpetion;
-
+    boolean deselectCourse(Professor professor, int courseId) throws CourseNotSelectedExcpetion;
 
     /**
      * method to view all available courses
@@ -63,8 +99,12 @@ public interface ProfessorInterface {
     List<Course> getAvailableCourses();
 
     /**
-     * method to retrieve Professor Details
+     * method to send one notification to all the students enrolled in a course taught by the professor
+     *
+     * @param professor logged in Professor
+     * @param broadcast broadcast with courseId, content and senderId set
+     * @return returns true if the broadcast is sent successfully
      */
-    void getProfessor();
+    boolean broadcastToCourse(Professor professor, Broadcast broadcast) throws CourseNotSelectedExcpetion;
 
 }
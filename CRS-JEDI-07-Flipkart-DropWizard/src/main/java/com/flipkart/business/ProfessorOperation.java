@@ -1,11 +1,18 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Course;
+import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeUploadResult;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
+import com.flipkart.constants.Notifications;
+import com.flipkart.dao.CourseCatalogCache;
 import com.flipkart.dao.ProfessorDaoInterface;
 import com.flipkart.dao.ProfessorDaoOperation;
 import com.flipkart.exceptions.*;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.Export;
 import org.apache.log4j.Logger;
 
 import java.util.Formatter;
@@ -17,104 +24,138 @@ import java.util.List;
  */
 public class ProfessorOperation implements ProfessorInterface {
     private static Logger logger = Logger.getLogger(ProfessorOperation.class);
-    public static Professor professor = null;
-    ProfessorDaoInterface professorDaoInterface = new ProfessorDaoOperation();
-
-    /**
-     * method to retrieve Professor Details
-     */
-    public void getProfessor() {
-        professor = professorDaoInterface.getProfessorByUserId(UserOperation.user.getId());
-    }
+    ProfessorDaoInterface professorDaoInterface = DaoMetrics.instrument(ProfessorDaoInterface.class, new ProfessorDaoOperation());
+    CourseCatalogCache courseCatalogCache = CourseCatalogCache.getInstance();
+    NotificationInterface notificationInterface = new NotificationOperation();
 
     /**
      * method to add Grade in the database
      *
+     * @param professor logged in Professor
      * @param studentId unique Id for a student
      * @param courseId  unique Id to represent a course
      * @param grade     Grade assigned to student for a course
      * @return returns true if the grade is added successfully by professor
      */
     @Override
-    public boolean addGrade(int studentId, int courseId, double grade) throws CourseNotSelectedException, StudentNotEnrolledInCourseException, StudentAlreadyGradedException {
-
-        try {
-            boolean courseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
-            if (!courseSelected) {
-                throw new CourseNotSelectedException(courseId);
-            }
-            boolean isStudentEnrolled = professorDaoInterface.isStudentEnrolled(studentId, courseId);
-            if (!isStudentEnrolled) {
-                throw new StudentNotEnrolledInCourseException(courseId, studentId);
-            }
-            boolean studentGraded = professorDaoInterface.isStudentAlreadyGraded(studentId, courseId);
-            if (studentGraded) {
-                throw new StudentAlreadyGradedException(studentId, courseId);
-            }
-            return professorDaoInterface.addGrade(studentId, courseId, grade);
-        } catch (CourseNotSelectedException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
-        } catch (StudentNotEnrolledInCourseException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
-        } catch (StudentAlreadyGradedException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
+    public boolean addGrade(Professor professor, int studentId, int courseId, double grade) throws CourseNotSelectedException, StudentNotEnrolledInCourseException, StudentAlreadyGradedException {
+
+        boolean courseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
+        if (!courseSelected) {
+            throw new CourseNotSelectedException(courseId);
+        }
+        boolean isStudentEnrolled = professorDaoInterface.isStudentEnrolled(studentId, courseId);
+        if (!isStudentEnrolled) {
+            throw new StudentNotEnrolledInCourseException(courseId, studentId);
+        }
+        boolean studentGraded = professorDaoInterface.isStudentAlreadyGraded(studentId, courseId);
+        if (studentGraded) {
+            throw new StudentAlreadyGradedException(studentId, courseId);
+        }
+        return professorDaoInterface.addGrade(studentId, courseId, grade);
+    }
+
+    /**
+     * method to add the grades of many students in a course at once, the ownership of the course is checked
+     * once and the enrollments and existing grades of the whole upload are checked by the dao
+     *
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
+     * @param grades    grades with studentId and gpa set
+     * @return inserted count and the rows that were rejected, null if the grades could not be inserted
+     */
+    @Override
+    public GradeUploadResult addGrades(Professor professor, int courseId, List<Grade> grades) throws CourseNotSelectedException {
+        boolean courseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
+        if (!courseSelected) {
+            throw new CourseNotSelectedException(courseId);
+        }
+        GradeUploadResult result = professorDaoInterface.addGrades(courseId, grades);
+        if (result != null) {
+            logger.info(result.getGraded() + " grades added for course " + courseId + ", " + result.getErrors().size() + " rejected");
+        }
+        return result;
+    }
+
+    /**
+     * method to export the students allotted to a course taught by the professor, the ownership is checked
+     * now and the rows are read when the export is written
+     *
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
+     * @return export of the roster
+     */
+    @Override
+    public Export exportRoster(Professor professor, int courseId) throws CourseNotSelectedExcpetion {
+        checkCourseSelected(professor, courseId);
+        return writer -> professorDaoInterface.exportRoster(courseId, writer);
+    }
+
+    /**
+     * method to export the grades of a course taught by the professor, the ownership is checked
+     * now and the rows are read when the export is written
+     *
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
+     * @return export of the grade sheet
+     */
+    @Override
+    public Export exportGradeSheet(Professor professor, int courseId) throws CourseNotSelectedExcpetion {
+        checkCourseSelected(professor, courseId);
+        return writer -> professorDaoInterface.exportGradeSheet(courseId, writer);
+    }
+
+    private void checkCourseSelected(Professor professor, int courseId) throws CourseNotSelectedExcpetion {
+        if (!professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId)) {
+            throw new CourseNotSelectedExcpetion(courseId);
         }
     }
 
     /**
      * Method to view all enrolled students in a particular course
      *
-     * @param courseId unique Id to represent a course
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
      * @return List of Students
      */
     @Override
-    public List<Student> getEnrolledStudents(int courseId) throws CourseNotSelectedExcpetion {
-        try {
-            boolean courseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
-            if (!courseSelected) {
-                throw new CourseNotSelectedExcpetion(courseId);
-            }
-            return professorDaoInterface.getEnrolledStudents(courseId);
-        } catch (CourseNotSelectedExcpetion e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
+    public List<Student> getEnrolledStudents(Professor professor, int courseId) throws CourseNotSelectedExcpetion {
+        boolean courseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
+        if (!courseSelected) {
+            throw new CourseNotSelectedExcpetion(courseId);
         }
+        return professorDaoInterface.getEnrolledStudents(courseId);
     }
 
     /**
      * method to view all selected course
      *
+     * @param professor logged in Professor
      * @return list of selected courses
      */
     @Override
-    public List<Course> getSelectedCourses() {
-        return professorDaoInterface.getCoursesByProfessorId(professor.getProfessorId());
+    public List<Course> getSelectedCourses(Professor professor) {
+        CourseCatalogCache.Snapshot catalog = courseCatalogCache.getSnapshot();
+        return catalog == null ? null : catalog.getCoursesByProfessor(professor.getProfessorId());
     }
 
     /**
      * method to select the course to teach
      *
-     * @param courseId unique Id to represent a course
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
      * @return returns true if course is selected successfully
      */
     @Override
-    public boolean selectCourse(int courseId) throws CourseNotAvailableException {
-        try {
-            boolean courseAvailable = professorDaoInterface.isCourseAvailable(courseId);
-
-            if (!courseAvailable) {
-                throw new CourseNotAvailableException(courseId);
-            }
-            boolean isCourseSelected = professorDaoInterface.selectCourse(professor.getProfessorId(), courseId);
-            if (isCourseSelected) {
-                return true;
-            }
-        } catch (CourseNotAvailableException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
+    public boolean selectCourse(Professor professor, int courseId) throws CourseNotAvailableException {
+        boolean courseAvailable = professorDaoInterface.isCourseAvailable(courseId);
+
+        if (!courseAvailable) {
+            throw new CourseNotAvailableException(courseId);
+        }
+        boolean isCourseSelected = professorDaoInterface.selectCourse(professor.getProfessorId(), courseId);
+        if (isCourseSelected) {
+            return true;
         }
         return false;
     }
@@ -122,24 +163,20 @@ public class ProfessorOperation implements ProfessorInterface {
     /**
      * method to deselect the course
      *
-     * @param courseId unique Id to represent a course
+     * @param professor logged in Professor
+     * @param courseId  unique Id to represent a course
      * @return returns true if deselection of course is successful
      */
     @Override
-    public boolean deselectCourse(int courseId) throws CourseNotSelectedExcpetion {
-        try {
-            boolean isCourseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
-            if (!isCourseSelected) throw new CourseNotSelectedExcpetion(courseId);
-
-            boolean isCourseDeselected = professorDaoInterface.deselectCourse(courseId);
-            if (isCourseDeselected) {
-                return true;
-            }
-
-        } catch (CourseNotSelectedExcpetion e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
+    public boolean deselectCourse(Professor professor, int courseId) throws CourseNotSelectedExcpetion {
+        boolean isCourseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), courseId);
+        if (!isCourseSelected) throw new CourseNotSelectedExcpetion(courseId);
+
+        boolean isCourseDeselected = professorDaoInterface.deselectCourse(courseId);
+        if (isCourseDeselected) {
+            return true;
         }
+
         return false;
     }
 
@@ -150,6 +187,22 @@ public class ProfessorOperation implements ProfessorInterface {
      */
     @Override
     public List<Course> getAvailableCourses() {
-        return professorDaoInterface.getAvailableCourses();
+        CourseCatalogCache.Snapshot catalog = courseCatalogCache.getSnapshot();
+        return catalog == null ? null : catalog.getUnassignedCourses();
+    }
+
+    /**
+     * method to send one notification to all the students enrolled in a course taught by the professor
+     *
+     * @param professor logged in Professor
+     * @param broadcast broadcast with courseId, content and senderId set
+     * @return returns true if the broadcast is sent successfully
+     */
+    @Override
+    public boolean broadcastToCourse(Professor professor, Broadcast broadcast) throws CourseNotSelectedExcpetion {
+        boolean isCourseSelected = professorDaoInterface.isCourseSelected(professor.getProfessorId(), broadcast.getCourseId());
+        if (!isCourseSelected) throw new CourseNotSelectedExcpetion(broadcast.getCourseId());
+        broadcast.setAudience(Notifications.AUDIENCE_COURSE);
+        return notificationInterface.broadcast(broadcast);
     }
 }
@@ -1,6 +1,8 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.AllotmentResult;
 import com.flipkart.bean.OptedCourse;
+import com.flipkart.bean.Student;
 import com.flipkart.exceptions.*;
 
 import java.sql.SQLException;
@@ -15,53 +17,60 @@ public interface SemesterRegistrationInterface {
     /**
      * method for adding course for the logged in user
      *
+     * @param student   logged in Student
      * @param courseId  unique Id to represent a course
      * @param isPrimary isPrimary Indicates if the course is primary or not
      * @return returns true if the course is added successfully
      */
-    boolean addCourse(int courseId, int isPrimary) throws StudentAlreadyRegisteredForSemesterException, MaxCoursesAlreadySelectedException, CourseAlreadyRegisteredException, SeatNotAvailableException, SQLException;
+    boolean addCourse(Student student, int courseId, int isPrimary) throws StudentAlreadyRegisteredForSemesterException, MaxCoursesAlreadySelectedException, CourseAlreadyRegisteredException, SeatNotAvailableException, SQLException;
 
     /**
      * method for dropping course
      *
+     * @param student  logged in Student
      * @param courseId unique Id to represent a course
      * @return returns true if the course is dropped successfully
      */
-    boolean dropCourse(int courseId) throws StudentAlreadyRegisteredForSemesterException, CourseNotRegisteredByStudentException, SQLException;
+    boolean dropCourse(Student student, int courseId) throws StudentAlreadyRegisteredForSemesterException, CourseNotRegisteredByStudentException, SQLException;
 
     /**
      * method for getting registered courses
      *
+     * @param student logged in Student
      * @return list of registered courses
      */
-    List<OptedCourse> getRegisteredCourses() throws NoRegisteredCourseException;
+    List<OptedCourse> getRegisteredCourses(Student student) throws NoRegisteredCourseException;
 
     /**
      * method for getting selected courses
      *
+     * @param student logged in Student
      * @return list of selected courses
      */
-    List<OptedCourse> getSelectedCourses() throws NoRegisteredCourseException;
+    List<OptedCourse> getSelectedCourses(Student student) throws NoRegisteredCourseException;
 
     /**
      * method for submitting course choices
      *
-     * @return returns true if course choices are submitted successfully
+     * @param student logged in Student
+     * @return the allotted courses and total fee, null if the course choices could not be submitted
      */
-    boolean submitCourseChoices() throws RequiredCoursesSelectedException, NoRegisteredCourseException, StudentAlreadyRegisteredForSemesterException, SQLException;
+    AllotmentResult submitCourseChoices(Student student) throws RequiredCoursesSelectedException, NoRegisteredCourseException, StudentAlreadyRegisteredForSemesterException, SQLException;
 
     /**
      * method for getting the pending fee.
      *
+     * @param student logged in Student
      * @return pending Fee
      */
-    double getPendingFee();
+    double getPendingFee(Student student);
 
     /**
      * method for paying fee
      *
-     * @param amount Amount to be paid
+     * @param student logged in Student
+     * @param amount  Amount to be paid
      * @return returns true if payment is successful
      */
-    boolean payFee(double amount);
+    boolean payFee(Student student, double amount);
 }
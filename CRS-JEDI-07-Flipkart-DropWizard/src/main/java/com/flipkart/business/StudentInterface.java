@@ -28,18 +28,16 @@ public interface StudentInterface {
     /**
      * method getting all the grades
      *
+     * @param student logged in Student
      * @return list of grades
      */
-    List<Grade> getGrades();
-
-    /**
-     * method for getting student by emailId
-     */
-    void getStudentByEmailId();
+    List<Grade> getGrades(Student student);
 
     /**
      * method for getting gradecard
-     * @return
+     *
+     * @param student logged in Student
+     * @return GradeCard of the student
      */
-    GradeCard getGradeCard() throws StudentNotRegisteredException, PaymentIncompleteException, SQLException;
+    GradeCard getGradeCard(Student student) throws StudentNotRegisteredException, PaymentIncompleteException, SQLException;
 }
@@ -2,10 +2,12 @@ package com.flipkart.business;
 
 import com.flipkart.bean.Grade;
 import com.flipkart.bean.GradeCard;
+import com.flipkart.bean.GradeSummary;
 import com.flipkart.bean.Student;
 import com.flipkart.dao.*;
 import com.flipkart.exceptions.PaymentIncompleteException;
 import com.flipkart.exceptions.StudentNotRegisteredException;
+import com.flipkart.utils.DaoMetrics;
 import org.apache.log4j.Logger;
 
 import java.sql.SQLException;
@@ -17,10 +19,10 @@ import java.util.List;
  */
 public class StudentOperation implements StudentInterface {
     private static Logger logger = Logger.getLogger(StudentOperation.class);
-    public static Student student = null;
-    StudentDaoInterface studentDaoInterface = new StudentDaoOperation();
-    SemesterRegistrationDaoInterface semesterRegistrationDaoInterface = new SemesterRegistrationDaoOperation();
+    StudentDaoInterface studentDaoInterface = DaoMetrics.instrument(StudentDaoInterface.class, new StudentDaoOperation());
+    SemesterRegistrationDaoInterface semesterRegistrationDaoInterface = DaoMetrics.instrument(SemesterRegistrationDaoInterface.class, new SemesterRegistrationDaoOperation());
     SemesterRegistrationInterface semesterRegistrationInterface = new SemesterRegistrationOperation();
+    GradeCardCache gradeCardCache = GradeCardCache.getInstance();
 
     /**
      * method for registering a student
@@ -35,12 +37,10 @@ public class StudentOperation implements StudentInterface {
     public Student register(String studentName, String studentEmailId, String studentPassword, String studentPhoneNo) throws StudentNotRegisteredException, SQLException {
         Student student = null;
         try {
-            StudentDaoInterface studentDao = new StudentDaoOperation();
-            boolean added = studentDao.addStudent(studentName, studentEmailId, studentPassword, studentPhoneNo);
-            if (!added) {
+            StudentDaoInterface studentDao = DaoMetrics.instrument(StudentDaoInterface.class, new StudentDaoOperation());
+            student = studentDao.addStudent(studentName, studentEmailId, studentPassword, studentPhoneNo);
+            if (student == null) {
                 throw new StudentNotRegisteredException(studentName);
-            } else {
-                student = new Student(studentName, studentEmailId, studentPassword, studentPhoneNo);
             }
         } catch (StudentNotRegisteredException ex) {
             logger.error(ex.getStudentName() + " is not registered.");
@@ -54,20 +54,21 @@ public class StudentOperation implements StudentInterface {
     /**
      * method getting all the grades
      *
+     * @param student logged in Student
      * @return list of grades
      */
     @Override
-    public List<Grade> getGrades() {
+    public List<Grade> getGrades(Student student) {
         try {
-            boolean isRegistered = semesterRegistrationDaoInterface.getRegistrationStatus(StudentOperation.student.getStudentId());
+            boolean isRegistered = semesterRegistrationDaoInterface.getRegistrationStatus(student.getStudentId());
             if (!isRegistered) {
-                throw new StudentNotRegisteredException(StudentOperation.student.getUserName());
+                throw new StudentNotRegisteredException(student.getUserName());
             }
 
-            boolean paymentStatus = semesterRegistrationDaoInterface.getPaymentStatus(StudentOperation.student.getStudentId());
-            if (!paymentStatus) throw new PaymentIncompleteException(StudentOperation.student.getUserName());
+            boolean paymentStatus = semesterRegistrationDaoInterface.getPaymentStatus(student.getStudentId());
+            if (!paymentStatus) throw new PaymentIncompleteException(student.getUserName());
 
-            return studentDaoInterface.getGrades(StudentOperation.student.getStudentId());
+            return studentDaoInterface.getGrades(student.getStudentId());
 
         } catch (StudentNotRegisteredException e) {
             logger.info(e.getMessage());
@@ -78,47 +79,29 @@ public class StudentOperation implements StudentInterface {
     }
 
     /**
-     * method getting gradecard
+     * method getting gradecard, the status checks and the CGPA come from the grade summary of the student
+     * and the grade list from the {@link GradeCardCache}
      *
+     * @param student logged in Student
      * @return list of grades
      */
     @Override
-    public GradeCard getGradeCard() throws StudentNotRegisteredException, PaymentIncompleteException, SQLException {
-        try {
-            boolean isRegistered = semesterRegistrationDaoInterface.getRegistrationStatus(StudentOperation.student.getStudentId());
-            if (!isRegistered) {
-                throw new StudentNotRegisteredException(StudentOperation.student.getUserName());
-            }
-
-            boolean paymentStatus = semesterRegistrationDaoInterface.getPaymentStatus(StudentOperation.student.getStudentId());
-            if (!paymentStatus) {
-                throw new PaymentIncompleteException(StudentOperation.student.getUserName());
-            }
-
-            GradeCard gradeCard = new GradeCard();
-            List<Grade> grades = studentDaoInterface.getGrades(StudentOperation.student.getStudentId());
-            gradeCard.setGrades(grades);
-            double gradeSum = 0;
-            for (Grade grade : grades) {
-                gradeSum += grade.getGpa();
-            }
-            gradeCard.setCgpa(gradeSum / grades.size());
-            return gradeCard;
-
-        } catch (StudentNotRegisteredException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
-        } catch (PaymentIncompleteException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
+    public GradeCard getGradeCard(Student student) throws StudentNotRegisteredException, PaymentIncompleteException, SQLException {
+        GradeSummary summary = studentDaoInterface.getGradeSummary(student.getStudentId());
+        if (summary == null) {
+            throw new SQLException("Grade summary of student " + student.getStudentId() + " cannot be read");
+        }
+        if (!summary.isRegistered()) {
+            throw new StudentNotRegisteredException(student.getUserName());
+        }
+        if (!summary.isFeePaid()) {
+            throw new PaymentIncompleteException(student.getUserName());
         }
-    }
 
-    /**
-     * method for getting student by emailId
-     */
-    @Override
-    public void getStudentByEmailId() {
-        student = studentDaoInterface.getStudentByEmailId(UserOperation.user.getUserEmailId());
+        GradeCard gradeCard = gradeCardCache.getGradeCard(summary);
+        if (gradeCard == null) {
+            throw new SQLException("Grades of student " + student.getStudentId() + " cannot be read");
+        }
+        return gradeCard;
     }
 }
\ No newline at end of file
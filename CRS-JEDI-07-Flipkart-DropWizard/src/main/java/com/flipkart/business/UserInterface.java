@@ -1,5 +1,7 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.User;
+
 /**
  * @author JEDI-07
  * User Interface
@@ -10,23 +12,18 @@ public interface UserInterface {
      *
      * @param emailId  emailId of the User
      * @param password password for the User
-     * @return returns true if validation is successful
+     * @return returns the authenticated Student, Professor or, for an admin, User without its password,
+     * null if validation fails
      */
-    boolean validateUser(String emailId, String password);
+    User validateUser(String emailId, String password);
 
     /**
      * method for updating user password
      *
+     * @param user        logged in User
      * @param newPassword New Password of the user
      * @return returns true if Password is Updated
      */
-    boolean updateUserPassword(String newPassword);
-
-    /**
-     * method for logging out the user.
-     *
-     * @return returns true if user logged out successfully
-     */
-    boolean logout();
+    boolean updateUserPassword(User user, String newPassword);
 
 }
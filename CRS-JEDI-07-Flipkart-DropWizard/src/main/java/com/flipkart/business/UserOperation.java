@@ -1,52 +1,85 @@
 package com.flipkart.business;
 
+import com.flipkart.bean.Student;
 import com.flipkart.bean.User;
 import com.flipkart.dao.UserDaoInterface;
 import com.flipkart.dao.UserDaoOperation;
+import com.flipkart.utils.CredentialCache;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.PasswordHasher;
 import org.apache.log4j.Logger;
 
+import java.sql.SQLException;
+
 /**
  * @author JEDI-07
- * Implementation of User Interface
+ * Implementation of User Interface.
+ * <p>
+ * A login reads the user and its student or professor profile with one query and checks the password against
+ * the stored hash here, recent checks are answered by the {@link CredentialCache} without either. Students
+ * still waiting for approval are not cached, so an approval is seen on their next login.
  */
 public class UserOperation implements UserInterface {
     private static Logger logger = Logger.getLogger(UserOperation.class);
-    public static User user = null;
-    UserDaoInterface userDaoInterface = new UserDaoOperation();
+    UserDaoInterface userDaoInterface = DaoMetrics.instrument(UserDaoInterface.class, new UserDaoOperation());
+    CredentialCache credentialCache = CredentialCache.getInstance();
 
     /**
      * method for validating user with email and password
      *
      * @param emailId  emailId of the User
      * @param password password for the User
-     * @return returns true if validation is successful
+     * @return returns the authenticated Student, Professor or, for an admin, User without its password,
+     * null if validation fails
      */
     @Override
-    public boolean validateUser(String emailId, String password) {
-        user = userDaoInterface.authenticate(emailId, password);
-        return (user != null);
+    public User validateUser(String emailId, String password) {
+        if (emailId == null || password == null) {
+            return null;
+        }
+        User cached = credentialCache.getAccepted(emailId, password);
+        if (cached != null) {
+            return cached;
+        }
+        if (credentialCache.isRejected(emailId, password)) {
+            return null;
+        }
+
+        User user;
+        try {
+            user = userDaoInterface.getLoginProfile(emailId);
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+            return null;
+        }
+        String stored = user == null ? null : user.getUserPassword();
+        if (!PasswordHasher.verify(password, stored)) {
+            credentialCache.reject(emailId, password);
+            return null;
+        }
+        if (PasswordHasher.needsRehash(stored)) {
+            userDaoInterface.updatePassword(user.getId(), password);
+        }
+        user.setUserPassword(null);
+        if (!(user instanceof Student) || ((Student) user).isApproved()) {
+            credentialCache.accept(emailId, password, user);
+        }
+        return user;
     }
 
     /**
      * method for updating user password
      *
+     * @param user        logged in User
      * @param newPassword New Password of the user
      * @return returns true if Password is Updated
      */
     @Override
-    public boolean updateUserPassword(String newPassword) {
-        return userDaoInterface.updatePassword(user.getId(), newPassword);
-    }
-
-    /**
-     * method for logging out the user.
-     *
-     * @return returns true if user logged out successfully
-     */
-    public boolean logout() {
-        user = null;
-        StudentOperation.student = null;
-        ProfessorOperation.professor = null;
+    public boolean updateUserPassword(User user, String newPassword) {
+        if (newPassword == null || !userDaoInterface.updatePassword(user.getId(), newPassword)) {
+            return false;
+        }
+        credentialCache.invalidate(user.getUserEmailId());
         return true;
     }
 }
@@ -0,0 +1,12 @@
+package com.flipkart.constants;
+
+/**
+ * @author JEDI-07
+ * Admission Constant
+ */
+public class Admissions {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_APPROVALS_PER_LIST = 5000;
+    public static final String APPROVED_NOTIFICATION = "Your admission request has been approved.";
+}
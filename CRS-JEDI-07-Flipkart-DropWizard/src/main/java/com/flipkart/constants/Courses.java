@@ -9,4 +9,7 @@ public class Courses {
     public static final int MAX_SECONDARY_COURSES = 2;
     public static final int MAX_STUDENT_LIMIT = 10;
     public static final int MAX_STUDENTS_IN_COURSES = 10;
+    public static final int MAX_GRADES_PER_UPLOAD = 5000;
+    public static final double MIN_GPA = 0;
+    public static final double MAX_GPA = 10;
 }
@@ -0,0 +1,15 @@
+package com.flipkart.constants;
+
+/**
+ * @author JEDI-07
+ * Bulk Import Constant
+ */
+public class Imports {
+    public static final String STUDENTS = "students";
+    public static final String PROFESSORS = "professors";
+    public static final String COURSES = "courses";
+    public static final int BATCH_SIZE = 500;
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    public static final int MAX_FIELD_LENGTH = 30;
+    public static final int HASH_THREADS = 4;
+}
@@ -0,0 +1,13 @@
+package com.flipkart.constants;
+
+/**
+ * @author JEDI-07
+ * Notification Constant
+ */
+public class Notifications {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final String AUDIENCE_COURSE = "course";
+    public static final String AUDIENCE_REGISTERED = "registered";
+    public static final String AUDIENCE_PENDING_FEE = "pendingFee";
+}
@@ -23,75 +23,159 @@ public class SqlQueries {
 
     public static final String DROP_COURSE = "delete from optedCourse where studentId=? AND courseId = ?";
 
-    public static final String CHECK_COURSE_STUDENT = "select * from optedCourse where studentId=? AND courseId=?";
+    public static final String CHECK_COURSE_STUDENT = "SELECT 1 FROM optedcourse WHERE studentId = ? AND courseId = ? LIMIT 1";
 
-    public static final String GET_USER_ID = "select id from user where email = ? ";
+    public static final String ADD_ADMIN = "insert into admin (userId) values (?)";
 
     public static final String GET_REGISTRATION_STATUS = "select registrationStatus from semesterregistration where studentId=?";
 
     public static final String GET_PAYMENT_STATUS = "select feeStatus from semesterregistration where studentId=?";
 
-    public static final String GET_USER_EMAIL_PASSWORD = "SELECT * FROM user WHERE email = ? AND password = ?";
+    public static final String LOGIN_PROFILE = "SELECT user.id, user.name, user.email, user.password, user.role, user.phone, "
+            + "student.id AS studentId, student.isApproved, professor.id AS professorId, professor.department, professor.designation "
+            + "FROM user LEFT JOIN student ON student.userId = user.id LEFT JOIN professor ON professor.userId = user.id "
+            + "WHERE user.email = ?";
 
     public static final String ADD_COURSE = "insert into Course(courseName, courseDescription, courseFee) values (?, ?, ?)";
 
-    public static final String SHOW_NOTIFICATIONS = "select * from notification where studentId=?";
+    public static final String SHOW_NOTIFICATIONS = "SELECT notification.id, "
+            + "COALESCE(notification.notificationContent, broadcast.content) AS notificationContent "
+            + "FROM notification LEFT JOIN broadcast ON broadcast.id = notification.broadcastId "
+            + "WHERE notification.studentId = ? ORDER BY notification.id";
+
+    public static final String NOTIFICATION_PAGE = "SELECT notification.id, "
+            + "COALESCE(notification.notificationContent, broadcast.content) AS notificationContent, "
+            + "notification.id <= student.lastReadNotificationId AS isRead "
+            + "FROM notification INNER JOIN student ON student.id = notification.studentId "
+            + "LEFT JOIN broadcast ON broadcast.id = notification.broadcastId "
+            + "WHERE notification.studentId = ? AND notification.id > ? ORDER BY notification.id LIMIT ?";
+
+    public static final String UNREAD_NOTIFICATION_COUNT = "SELECT COUNT(*) FROM notification "
+            + "WHERE studentId = ? AND id > (SELECT lastReadNotificationId FROM student WHERE id = ?)";
+
+    public static final String MARK_NOTIFICATIONS_READ = "UPDATE student SET lastReadNotificationId = GREATEST(lastReadNotificationId, "
+            + "COALESCE((SELECT MAX(id) FROM notification WHERE studentId = ? AND id <= ?), 0)) WHERE id = ?";
 
     public static final String REMOVE_COURSE = "delete from Course where id = ? and studentCount = 0";
 
     public static final String ADD_PROFESSOR = "insert into professor (userId, department, designation) values (?,?,?)";
 
-    public static final String LIST_APPROVAL_REQUESTS = "SELECT student.id, user.name, user.email FROM student INNER JOIN user ON student.userId=user.id WHERE student.isApproved = 0";
+    public static final String ADMISSION_QUEUE_PAGE = "SELECT student.id, user.name, user.email "
+            + "FROM student INNER JOIN user ON student.userId = user.id "
+            + "WHERE student.isApproved = 0 AND student.id > ? AND (user.name LIKE ? OR user.email LIKE ?) ORDER BY student.id LIMIT ?";
 
-    public static final String APPROVE_ADDMISSION_REQUEST = "UPDATE student SET isApproved = 1 where id = ?";
+    public static final String LOCK_PENDING_BY_ID = "SELECT id FROM student WHERE isApproved = 0 AND id IN (%s) FOR UPDATE";
 
-    public static final String LIST_COURSES = "SELECT * FROM course";
+    public static final String LOCK_PENDING_BY_PREFIX = "SELECT id FROM student WHERE isApproved = 0 "
+            + "AND EXISTS (SELECT 1 FROM user WHERE user.id = student.userId AND (user.name LIKE ? OR user.email LIKE ?)) FOR UPDATE";
 
-    public static final String LIST_PROFESSORS = "SELECT professor.id, user.name, user.email, professor.department, professor.designation FROM professor INNER JOIN user ON professor.userId = user.id";
+    public static final String NOTIFY_APPROVED = "INSERT INTO notification(studentId, broadcastId) VALUES (?, ?)";
 
-    public static final String GET_STUDENT_BY_EMAIL_ID = "SELECT student.id, user.name, user.email, user.phone, student.isApproved FROM user INNER JOIN student ON user.id = student.userId WHERE email = ?";
+    public static final String APPROVE_ADDMISSION_REQUEST = "UPDATE student SET isApproved = 1 where id = ?";
 
-    public static final String VIEW_AVAILABLE_COURSES_PROFESSOR = "SELECT * FROM course where professorId IS NULL";
+    public static final String LIST_COURSES = "SELECT id, courseName, courseDescription, courseFee, professorId, studentCount FROM course";
 
-    public static final String GET_PROFESSOR_BY_USER_ID = "SELECT professor.id, user.name, user.email, professor.department, professor.designation FROM professor INNER JOIN user ON professor.userId = user.id WHERE userId = ?";
+    public static final String LIST_PROFESSORS = "SELECT professor.id, user.name, user.email, professor.department, professor.designation FROM professor INNER JOIN user ON professor.userId = user.id";
 
     public static final String COURSE_AVAILABLE_FOR_PROF = "SELECT professorId from course where id = ?";
 
     public static final String SELECT_COURSE_FOR_PROF = "UPDATE course SET professorId = ? WHERE id = ?";
 
-    public static final String IS_COURSE_SELECTED_BY_PROF = "SELECT * FROM course WHERE professorId = ? AND id = ?";
+    public static final String IS_COURSE_SELECTED_BY_PROF = "SELECT 1 FROM course WHERE professorId = ? AND id = ? LIMIT 1";
 
     public static final String DELSELECT_COURSE_FOR_PROF = "UPDATE course SET professorId = NULL WHERE id = ?";
 
-    public static final String VIEW_SELECTED_COURSES_FOR_PROF = "SELECT * FROM course WHERE professorId = ?";
-
-    public static final String VIEW_ENROLLED_STUDENTS = "SELECT student.id, user.name, user.email, user.phone FROM student INNER JOIN user ON student.userId = user.id WHERE student.id in (SELECT studentId FROM optedcourse where isAllotted = 1 AND courseId = ?)";
+    // optedcourse(studentId, courseId) is not unique, DISTINCT lists a student once like the IN-subquery did
+    public static final String VIEW_ENROLLED_STUDENTS = "SELECT DISTINCT student.id, user.name, user.email, user.phone "
+            + "FROM optedcourse INNER JOIN student ON student.id = optedcourse.studentId INNER JOIN user ON user.id = student.userId "
+            + "WHERE optedcourse.courseId = ? AND optedcourse.isAllotted = 1";
 
-    public static final String IS_STUDENT_ALREADY_GRADED = "SELECT * FROM grade WHERE studentId = ? AND courseId = ?";
+    public static final String IS_STUDENT_ALREADY_GRADED = "SELECT 1 FROM grade WHERE studentId = ? AND courseId = ? LIMIT 1";
 
     public static final String ADD_GRADE = "INSERT INTO grade(studentId, courseId, gpa) values(?, ?, ?)";
 
-    public static final String IS_STUDENT_ENROLLED = "SELECT * FROM optedcourse WHERE studentId = ? AND courseId = ?";
+    // cgpa is assigned first, so it is computed from the old sum and count whether the assignments see the new values or not
+    public static final String ADD_GRADE_TO_SUMMARY = "INSERT INTO gradesummary(studentId, gradeSum, gradeCount, cgpa, updatedAt) "
+            + "VALUES (?, ?, 1, ?, CURRENT_TIMESTAMP) ON DUPLICATE KEY UPDATE "
+            + "cgpa = (gradeSum + VALUES(gradeSum)) / (gradeCount + 1), gradeSum = gradeSum + VALUES(gradeSum), "
+            + "gradeCount = gradeCount + 1, updatedAt = CURRENT_TIMESTAMP";
 
-    public static final String GET_STUDENT_BY_STUDENT_ID = "SELECT student.id, user.name, user.email, user.phone, student.isApproved FROM student INNER JOIN user ON student.userId = user.id WHERE student.id = ?";
+    public static final String LOCK_COURSE_FOR_GRADING = "SELECT id FROM course WHERE id = ? FOR UPDATE";
 
-    public static final String GET_COURSE_COUNT = "SELECT COUNT(*) from optedcourse where studentId = ? and isPrimary = ?";
+    public static final String ENROLLED_STUDENT_IDS = "SELECT DISTINCT studentId FROM optedcourse WHERE courseId = ?";
 
-    public static final String GET_SEMESTER_ID = "SELECT id FROM semesterregistration WHERE studentId = ?";
+    public static final String GRADED_STUDENT_IDS = "SELECT studentId FROM grade WHERE courseId = ?";
 
-    public static final String CHECK_COURSE_AVAILABILITY = "SELECT studentCount FROM course where id = ?";
+    public static final String GET_STUDENT_BY_STUDENT_ID = "SELECT student.id, user.name, user.email, user.phone, student.isApproved FROM student INNER JOIN user ON student.userId = user.id WHERE student.id = ?";
 
     public static final String ALLOT_COURSE = "UPDATE optedcourse SET isAllotted = 1 WHERE courseId = ? AND studentId = ?";
 
     public static final String SUBMIT_REGISTRATION = "UPDATE semesterregistration SET registrationStatus = 1, feeStatus = 0, totalFees = ? WHERE studentId = ?";
 
-    public static final String UPDATE_STUDENT_COUNT = "UPDATE course SET studentCount = studentCount + 1 WHERE id = ?";
-
     public static final String SEND_NOTIFICATION = "INSERT INTO notification(studentId, notificationContent) values(?, ?)";
 
+    public static final String ADD_BROADCAST = "INSERT INTO broadcast(content, senderId) VALUES (?, ?)";
+
+    public static final String BROADCAST_TO_COURSE = "INSERT INTO notification(studentId, broadcastId) "
+            + "SELECT DISTINCT studentId, ? FROM optedcourse WHERE isAllotted = 1 AND courseId = ?";
+
+    public static final String BROADCAST_TO_REGISTERED = "INSERT INTO notification(studentId, broadcastId) "
+            + "SELECT DISTINCT studentId, ? FROM semesterregistration WHERE registrationStatus = 1";
+
+    public static final String BROADCAST_TO_PENDING_FEE = "INSERT INTO notification(studentId, broadcastId) "
+            + "SELECT DISTINCT studentId, ? FROM semesterregistration WHERE registrationStatus = 1 AND feeStatus = 0";
+
+    public static final String GET_BROADCAST_NOTIFICATIONS = "SELECT id, studentId FROM notification WHERE broadcastId = ? ORDER BY id";
+
     public static final String GET_PENDING_FEE = "SELECT totalFees, feeStatus, registrationStatus FROM semesterregistration WHERE studentId = ?";
 
     public static final String PAY_FEE = "UPDATE semesterregistration SET feeStatus = 1 WHERE studentId = ?";
 
+    public static final String LOCK_STUDENT_FOR_ADD_COURSE = "SELECT (SELECT id FROM semesterregistration WHERE studentId = student.id) AS semesterId, "
+            + "(SELECT registrationStatus FROM semesterregistration WHERE studentId = student.id) AS registrationStatus, "
+            + "(SELECT COUNT(*) FROM optedcourse WHERE studentId = student.id AND isPrimary = ?) AS courseCount, "
+            + "EXISTS (SELECT 1 FROM optedcourse WHERE studentId = student.id AND courseId = ?) AS alreadyOpted, "
+            + "(SELECT studentCount FROM course WHERE id = ?) AS studentCount "
+            + "FROM student WHERE id = ? FOR UPDATE";
+
+    public static final String LOCK_STUDENT_FOR_SUBMIT = "SELECT (SELECT registrationStatus FROM semesterregistration WHERE studentId = student.id) AS registrationStatus FROM student WHERE id = ? FOR UPDATE";
+
+    public static final String LOCK_COURSES_FOR_ALLOTMENT = "SELECT id FROM course WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+    public static final String EXISTING_USER_EMAILS = "SELECT email FROM user WHERE email IN (%s)";
+
+    public static final String RESERVE_SEAT = "UPDATE course SET studentCount = studentCount + 1 WHERE id = ? AND studentCount < ?";
+
     public static final String GET_GRADES = "SELECT grade.courseId, course.courseName, grade.gpa from grade INNER JOIN course ON grade.courseId = course.id WHERE grade.studentId = ?";
+
+    public static final String EXPORT_ROSTER = "SELECT student.id, user.name, user.email, user.phone, optedcourse.isPrimary "
+            + "FROM optedcourse INNER JOIN student ON student.id = optedcourse.studentId INNER JOIN user ON user.id = student.userId "
+            + "WHERE optedcourse.courseId = ? AND optedcourse.isAllotted = 1 ORDER BY student.id";
+
+    public static final String EXPORT_GRADE_SHEET = "SELECT student.id, user.name, grade.gpa "
+            + "FROM optedcourse INNER JOIN student ON student.id = optedcourse.studentId INNER JOIN user ON user.id = student.userId "
+            + "LEFT JOIN grade ON grade.studentId = optedcourse.studentId AND grade.courseId = optedcourse.courseId "
+            + "WHERE optedcourse.courseId = ? AND optedcourse.isAllotted = 1 ORDER BY student.id";
+
+    public static final String EXPORT_CATALOG = "SELECT id, courseName, courseDescription, courseFee, professorId, studentCount FROM course ORDER BY id";
+
+    public static final String GET_GRADE_SUMMARY = "SELECT semesterregistration.registrationStatus, semesterregistration.feeStatus, "
+            + "gradesummary.gradeSum, gradesummary.gradeCount, gradesummary.cgpa, gradesummary.updatedAt "
+            + "FROM semesterregistration LEFT JOIN gradesummary ON gradesummary.studentId = semesterregistration.studentId "
+            + "WHERE semesterregistration.studentId = ?";
+
+    public static final String CREATE_SCHEMA_VERSION = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version int NOT NULL, description varchar(100) NOT NULL, "
+            + "appliedAt timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (version))";
+
+    public static final String APPLIED_SCHEMA_VERSIONS = "SELECT version FROM schema_version";
+
+    public static final String ADD_SCHEMA_VERSION = "INSERT INTO schema_version(version, description) VALUES (?, ?)";
+
+    // rows the unique indexes of V1 would fail on, the first column names the table
+    public static final String DUPLICATE_GRADES = "SELECT 'grade' AS tableName, studentId, courseId, COUNT(*) AS copies "
+            + "FROM grade GROUP BY studentId, courseId HAVING COUNT(*) > 1";
+
+    public static final String DUPLICATE_SEMESTER_REGISTRATIONS = "SELECT 'semesterregistration' AS tableName, studentId, COUNT(*) AS copies "
+            + "FROM semesterregistration GROUP BY studentId HAVING COUNT(*) > 1";
 }
@@ -0,0 +1,17 @@
+package com.flipkart.constants;
+
+/**
+ * @author JEDI-07
+ * Timeout Constant, time after which a request still queued for the database executor is answered with 503
+ */
+public class Timeouts {
+    public static final long ADD_COURSE_MS = 10000;
+    public static final long DROP_COURSE_MS = 10000;
+    public static final long SUBMIT_MS = 15000;
+    public static final long SEMESTER_COURSES_MS = 5000;
+    public static final long GRADE_CARD_MS = 5000;
+    public static final long ENROLLED_STUDENTS_MS = 5000;
+    public static final long GRADE_UPLOAD_MS = 30000;
+    public static final long ADMISSION_PAGE_MS = 5000;
+    public static final long BULK_APPROVAL_MS = 60000;
+}
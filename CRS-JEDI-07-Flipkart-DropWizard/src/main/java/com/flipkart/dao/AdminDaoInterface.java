@@ -1,10 +1,15 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.Broadcast;
+import com.flipkart.bean.BulkApproval;
 import com.flipkart.bean.Course;
+import com.flipkart.bean.ImportRowError;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
 import com.flipkart.bean.User;
+import com.flipkart.utils.ExportWriter;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -23,6 +28,14 @@ public interface AdminDaoInterface {
      */
     boolean addCourse(String courseName, String courseDescription, double courseFee);
 
+    /**
+     * method for adding a batch of courses of a bulk import in one transaction
+     *
+     * @param courses courses with name, description and fee
+     * @return rejected rows, numbered by position in courses, null if the batch failed
+     */
+    List<ImportRowError> addCourses(List<Course> courses);
+
     /**
      * method for removing course from the database
      *
@@ -32,11 +45,14 @@ public interface AdminDaoInterface {
     boolean removeCourse(int courseId);
 
     /**
-     * method for getting all Pending admission requests
+     * method for getting a page of the pending admission requests, by student id
      *
-     * @return List of students with pending request
+     * @param cursor student id after which the page starts, 0 for the first page
+     * @param prefix prefix of the name or email of the students, empty for every student
+     * @param limit  maximum number of students
+     * @return List of students with pending request, null on error
      */
-    List<Student> getPendingAdmissions();
+    List<Student> getPendingAdmissions(int cursor, String prefix, int limit);
 
     /**
      * method to approve a student by student id
@@ -47,7 +63,17 @@ public interface AdminDaoInterface {
     boolean approveStudent(int studentId);
 
     /**
-     * method for adding professor into the database
+     * method to approve many students and notify them, in one transaction
+     *
+     * @param approval  students to approve, listed by id or matched by prefix, the number approved is set
+     * @param broadcast notification sent to the approved students, with content and senderId, its id and number
+     *                  of recipients are set
+     * @return returns true if the students are approved
+     */
+    boolean approveStudents(BulkApproval approval, Broadcast broadcast);
+
+    /**
+     * method for adding professor into the database, the user and the professor row are inserted in one transaction
      *
      * @param name        name of the Professor
      * @param emailId     emailId of the Professor
@@ -55,9 +81,17 @@ public interface AdminDaoInterface {
      * @param phoneNo     Phone Number of the Professor
      * @param department  Department of the Professor
      * @param designation Designation of the Professor
-     * @return returns true if Professor is added successfully
+     * @return returns the added Professor with its user Id and professor Id
      */
-    boolean addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException;
+    Professor addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException;
+
+    /**
+     * method for adding a batch of professors of a bulk import in one transaction
+     *
+     * @param professors professors with name, email, password hash, phone number, department and designation
+     * @return rows rejected because their email is taken, numbered by position in professors, null if the batch failed
+     */
+    List<ImportRowError> addProfessors(List<Professor> professors);
 
     /**
      * method for Viewing all the courses in the database
@@ -72,4 +106,13 @@ public interface AdminDaoInterface {
      * @return List of Professors
      */
     List<Professor> getProfessors();
+
+    /**
+     * method for streaming the whole course catalog
+     *
+     * @param writer writer the rows are written to
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    void exportCourses(ExportWriter writer) throws SQLException, IOException;
 }
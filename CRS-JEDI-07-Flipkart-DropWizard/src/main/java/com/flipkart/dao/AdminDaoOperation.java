@@ -1,18 +1,27 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.Broadcast;
+import com.flipkart.bean.BulkApproval;
 import com.flipkart.bean.Course;
+import com.flipkart.bean.ImportRowError;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
 import com.flipkart.constants.Roles;
 import com.flipkart.constants.SqlQueries;
 import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.ExportWriter;
+import com.flipkart.utils.SeatInventory;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,8 +30,7 @@ import java.util.List;
  */
 public class AdminDaoOperation implements AdminDaoInterface {
     private static Logger logger = Logger.getLogger(AdminDaoOperation.class);
-    Connection conn = DBUtil.getConnection();
-    UserDaoInterface userDaoInterface = new UserDaoOperation();
+    UserDaoInterface userDaoInterface = DaoMetrics.instrument(UserDaoInterface.class, new UserDaoOperation());
 
     /**
      * method for adding course into database
@@ -34,13 +42,22 @@ public class AdminDaoOperation implements AdminDaoInterface {
      */
     @Override
     public boolean addCourse(String courseName, String courseDescription, double courseFee) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_COURSE);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_COURSE, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, courseName);
             ps.setString(2, courseDescription);
             ps.setDouble(3, courseFee);
 
-            return ps.executeUpdate() == 1;
+            if (ps.executeUpdate() != 1) {
+                return false;
+            }
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    SeatInventory.getInstance().track(keys.getInt(1), 0);
+                }
+            }
+            CourseCatalogCache.getInstance().invalidate();
+            return true;
 
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
@@ -48,6 +65,54 @@ public class AdminDaoOperation implements AdminDaoInterface {
         return false;
     }
 
+    /**
+     * method for adding a batch of courses of a bulk import in one transaction, the ids are read from the
+     * generated keys of the batch to track the seats of the new courses
+     *
+     * @param courses courses with name, description and fee
+     * @return rejected rows, numbered by position in courses, null if the batch failed
+     */
+    @Override
+    public List<ImportRowError> addCourses(List<Course> courses) {
+        if (courses.isEmpty()) {
+            return new ArrayList<ImportRowError>();
+        }
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_COURSE, Statement.RETURN_GENERATED_KEYS)) {
+                for (Course course : courses) {
+                    ps.setString(1, course.getCourseName());
+                    ps.setString(2, course.getCourseDescription());
+                    ps.setDouble(3, course.getCourseFee());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Course course : courses) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated key for " + course.getCourseName());
+                        }
+                        course.setCourseId(keys.getInt(1));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+            return null;
+        }
+        for (Course course : courses) {
+            SeatInventory.getInstance().track(course.getCourseId(), 0);
+        }
+        CourseCatalogCache.getInstance().invalidate();
+        return new ArrayList<ImportRowError>();
+    }
+
     /**
      * method for removing course from the database
      *
@@ -56,10 +121,15 @@ public class AdminDaoOperation implements AdminDaoInterface {
      */
     @Override
     public boolean removeCourse(int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.REMOVE_COURSE);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.REMOVE_COURSE)) {
             ps.setInt(1, courseId);
-            return ps.executeUpdate() == 1;
+            if (ps.executeUpdate() != 1) {
+                return false;
+            }
+            SeatInventory.getInstance().remove(courseId);
+            CourseCatalogCache.getInstance().invalidate();
+            return true;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -67,24 +137,34 @@ public class AdminDaoOperation implements AdminDaoInterface {
     }
 
     /**
-     * method for getting all Pending admission requests
+     * method for getting a page of the pending admission requests, by student id. The page is read from the
+     * cursor on, so a page deep in the queue costs the same as the first one.
      *
-     * @return List of students with pending request
+     * @param cursor student id after which the page starts, 0 for the first page
+     * @param prefix prefix of the name or email of the students, empty for every student
+     * @param limit  maximum number of students
+     * @return List of students with pending request, null on error
      */
     @Override
-    public List<Student> getPendingAdmissions() {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.LIST_APPROVAL_REQUESTS);
-            ResultSet rs = ps.executeQuery();
-            List<Student> admissions = new ArrayList<Student>();
-            while (rs.next()) {
-                Student s = new Student();
-                s.setStudentId(rs.getInt("id"));
-                s.setUserName(rs.getString("name"));
-                s.setUserEmailId(rs.getString("email"));
-                admissions.add(s);
+    public List<Student> getPendingAdmissions(int cursor, String prefix, int limit) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADMISSION_QUEUE_PAGE)) {
+            String pattern = likePrefix(prefix);
+            ps.setInt(1, cursor);
+            ps.setString(2, pattern);
+            ps.setString(3, pattern);
+            ps.setInt(4, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Student> admissions = new ArrayList<Student>();
+                while (rs.next()) {
+                    Student s = new Student();
+                    s.setStudentId(rs.getInt("id"));
+                    s.setUserName(rs.getString("name"));
+                    s.setUserEmailId(rs.getString("email"));
+                    admissions.add(s);
+                }
+                return admissions;
             }
-            return admissions;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -99,8 +179,8 @@ public class AdminDaoOperation implements AdminDaoInterface {
      */
     @Override
     public boolean approveStudent(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.APPROVE_ADDMISSION_REQUEST);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.APPROVE_ADDMISSION_REQUEST)) {
             ps.setInt(1, studentId);
             int rowAffected = ps.executeUpdate();
             return rowAffected == 1;
@@ -111,7 +191,88 @@ public class AdminDaoOperation implements AdminDaoInterface {
     }
 
     /**
-     * method for adding professor into the database
+     * method to approve many students and notify them, in one transaction. The waiting students are locked
+     * first with a single SELECT ... FOR UPDATE, then exactly the locked students are approved and notified by
+     * two batched statements, the notifications reference one broadcast. A concurrent approval of the same
+     * students either waits for the lock or, when it commits first, removes them from the locked set; students
+     * approved earlier are neither notified nor counted.
+     *
+     * @param approval  students to approve, listed by id or matched by prefix, the number approved is set
+     * @param broadcast notification sent to the approved students, with content and senderId, its id and number
+     *                  of recipients are set
+     * @return returns true if the students are approved
+     */
+    @Override
+    public boolean approveStudents(BulkApproval approval, Broadcast broadcast) {
+        boolean byId = approval.getStudentIds() != null;
+        String lockSql = byId
+                ? String.format(SqlQueries.LOCK_PENDING_BY_ID, String.join(", ", Collections.nCopies(approval.getStudentIds().size(), "?")))
+                : SqlQueries.LOCK_PENDING_BY_PREFIX;
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lockPs = DBUtil.prepareStatement(conn, lockSql);
+                 PreparedStatement addPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_BROADCAST, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement approvePs = DBUtil.prepareStatement(conn, SqlQueries.APPROVE_ADDMISSION_REQUEST);
+                 PreparedStatement notifyPs = DBUtil.prepareStatement(conn, SqlQueries.NOTIFY_APPROVED)) {
+                if (byId) {
+                    for (int i = 0; i < approval.getStudentIds().size(); i++) {
+                        lockPs.setInt(i + 1, approval.getStudentIds().get(i));
+                    }
+                } else {
+                    String pattern = likePrefix(approval.getPrefix());
+                    lockPs.setString(1, pattern);
+                    lockPs.setString(2, pattern);
+                }
+                List<Integer> pending = new ArrayList<Integer>();
+                try (ResultSet rs = lockPs.executeQuery()) {
+                    while (rs.next()) {
+                        pending.add(rs.getInt("id"));
+                    }
+                }
+
+                addPs.setString(1, broadcast.getContent());
+                addPs.setInt(2, broadcast.getSenderId());
+                addPs.executeUpdate();
+                try (ResultSet keys = addPs.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("No id generated for the broadcast");
+                    }
+                    broadcast.setBroadcastId(keys.getInt(1));
+                }
+
+                for (int studentId : pending) {
+                    approvePs.setInt(1, studentId);
+                    approvePs.addBatch();
+                    notifyPs.setInt(1, studentId);
+                    notifyPs.setInt(2, broadcast.getBroadcastId());
+                    notifyPs.addBatch();
+                }
+                if (!pending.isEmpty()) {
+                    approvePs.executeBatch();
+                    notifyPs.executeBatch();
+                }
+                conn.commit();
+                broadcast.setRecipients(pending.size());
+                approval.setApproved(pending.size());
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static String likePrefix(String prefix) {
+        return (prefix == null ? "" : prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_")) + "%";
+    }
+
+    /**
+     * method for adding professor into the database, the user and the professor row are inserted in one transaction
      *
      * @param name        name of the Professor
      * @param emailId     emailId of the Professor
@@ -119,29 +280,49 @@ public class AdminDaoOperation implements AdminDaoInterface {
      * @param phoneNo     Phone Number of the Professor
      * @param department  Department of the Professor
      * @param designation Designation of the Professor
-     * @return returns true if Professor is added successfully
+     * @return returns the added Professor with its user Id and professor Id
+     */
+    @Override
+    public Professor addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException {
+        return userDaoInterface.provisionProfessor(new Professor(name, emailId, password, Roles.Professor, phoneNo, department, designation));
+    }
+
+    /**
+     * method for adding a batch of professors of a bulk import in one transaction, the users and the
+     * professors are each inserted with one batched statement
+     *
+     * @param professors professors with name, email, password hash, phone number, department and designation
+     * @return rows rejected because their email is taken, numbered by position in professors, null if the batch failed
      */
     @Override
-    public boolean addProfessor(String name, String emailId, String password, String phoneNo, String department, String designation) throws SQLException {
-        try {
-            boolean IsUserCreated = userDaoInterface.createUser(name, emailId, password, Roles.Professor, phoneNo);
-            if (IsUserCreated) {
-                int id = userDaoInterface.getUserIdByEmail(emailId);
-                try {
-                    PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_PROFESSOR);
-                    ps.setInt(1, id);
-                    ps.setString(2, department);
-                    ps.setString(3, designation);
-                    return ps.executeUpdate() == 1;
-                } catch (SQLException e) {
-                    logger.info("Error: " + e.getMessage());
+    public List<ImportRowError> addProfessors(List<Professor> professors) {
+        List<ImportRowError> errors = new ArrayList<ImportRowError>();
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_PROFESSOR)) {
+                List<Professor> accepted = UserDaoOperation.acceptNewEmails(conn, professors, errors);
+                UserDaoOperation.createUsers(conn, accepted, Roles.Professor);
+                for (Professor professor : accepted) {
+                    ps.setInt(1, professor.getId());
+                    ps.setString(2, professor.getDepartment());
+                    ps.setString(3, professor.getDesignation());
+                    ps.addBatch();
                 }
+                if (!accepted.isEmpty()) {
+                    ps.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-        }catch (SQLException e) {
+        } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
-            throw e;
+            return null;
         }
-        return false;
+        return errors;
     }
 
     /**
@@ -151,21 +332,22 @@ public class AdminDaoOperation implements AdminDaoInterface {
      */
     @Override
     public List<Course> viewCourses() {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.LIST_COURSES);
-            ResultSet rs = ps.executeQuery();
-            List<Course> courses = new ArrayList<Course>();
-            while (rs.next()) {
-                Course c = new Course();
-                c.setCourseId(rs.getInt("id"));
-                c.setCourseName(rs.getString("courseName"));
-                c.setCourseDescription(rs.getString("courseDescription"));
-                c.setCourseFee(rs.getDouble("courseFee"));
-                c.setStudentCount(rs.getInt("studentCount"));
-                c.setProfessorId(rs.getInt("professorId"));
-                courses.add(c);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.LIST_COURSES)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Course> courses = new ArrayList<Course>();
+                while (rs.next()) {
+                    Course c = new Course();
+                    c.setCourseId(rs.getInt("id"));
+                    c.setCourseName(rs.getString("courseName"));
+                    c.setCourseDescription(rs.getString("courseDescription"));
+                    c.setCourseFee(rs.getDouble("courseFee"));
+                    c.setStudentCount(rs.getInt("studentCount"));
+                    c.setProfessorId(rs.getInt("professorId"));
+                    courses.add(c);
+                }
+                return courses;
             }
-            return courses;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -179,23 +361,42 @@ public class AdminDaoOperation implements AdminDaoInterface {
      */
     @Override
     public List<Professor> getProfessors() {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.LIST_PROFESSORS);
-            ResultSet rs = ps.executeQuery();
-            List<Professor> professors = new ArrayList<Professor>();
-            while (rs.next()) {
-                Professor p = new Professor();
-                p.setProfessorId(rs.getInt("id"));
-                p.setUserName(rs.getString("name"));
-                p.setUserEmailId(rs.getString("email"));
-                p.setDepartment(rs.getString("department"));
-                p.setDesignation(rs.getString("designation"));
-                professors.add(p);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.LIST_PROFESSORS)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Professor> professors = new ArrayList<Professor>();
+                while (rs.next()) {
+                    Professor p = new Professor();
+                    p.setProfessorId(rs.getInt("id"));
+                    p.setUserName(rs.getString("name"));
+                    p.setUserEmailId(rs.getString("email"));
+                    p.setDepartment(rs.getString("department"));
+                    p.setDesignation(rs.getString("designation"));
+                    professors.add(p);
+                }
+                return professors;
             }
-            return professors;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
         return null;
     }
+
+    /**
+     * method for streaming the whole course catalog, the rows go from the cursor to the writer one fetch at a time
+     *
+     * @param writer writer the rows are written to
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    @Override
+    public void exportCourses(ExportWriter writer) throws SQLException, IOException {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStreamingStatement(conn, SqlQueries.EXPORT_CATALOG, ExportWriter.FETCH_SIZE);
+             ResultSet rs = ps.executeQuery()) {
+            writer.start("courseId", "courseName", "courseDescription", "courseFee", "professorId", "studentCount");
+            writer.rows(rs);
+            writer.finish();
+        }
+    }
 }
@@ -0,0 +1,248 @@
+package com.flipkart.dao;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.bean.Course;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.SeatInventory;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author JEDI-07
+ * Read cache of the course catalog.
+ * <p>
+ * The catalog is held as an immutable {@link Snapshot} with the derived views precomputed. DAO writes to the
+ * course rows call {@link #invalidate()}, the next read loads a new snapshot from the database. Seat allotments
+ * call {@link #updateStudentCounts(Collection)} instead, which swaps in a copy with the counts of the
+ * {@link SeatInventory}, so the registration rush does not reload the catalog on every submission.
+ * A snapshot loaded while a write was changing the cache is never installed.
+ */
+public class CourseCatalogCache {
+    private static Logger logger = Logger.getLogger(CourseCatalogCache.class);
+    private static final CourseCatalogCache INSTANCE = new CourseCatalogCache(DaoMetrics.instrument(AdminDaoInterface.class, new AdminDaoOperation()));
+
+    private final AdminDaoInterface adminDaoInterface;
+    private final SeatInventory seatInventory;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>();
+    private final AtomicLong version = new AtomicLong();
+    private final Object loadLock = new Object();
+    private final Object writeLock = new Object();
+    private final Counter hits = new Counter();
+    private final Counter misses = new Counter();
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param adminDaoInterface dao used to read the course table
+     */
+    public CourseCatalogCache(AdminDaoInterface adminDaoInterface) {
+        this(adminDaoInterface, SeatInventory.getInstance());
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param adminDaoInterface dao used to read the course table
+     * @param seatInventory     inventory the student counts of allotted courses are read from
+     */
+    public CourseCatalogCache(AdminDaoInterface adminDaoInterface, SeatInventory seatInventory) {
+        this.adminDaoInterface = adminDaoInterface;
+        this.seatInventory = seatInventory;
+    }
+
+    /**
+     * Method to get the cache shared by the application
+     *
+     * @return shared CourseCatalogCache
+     */
+    public static CourseCatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to get the current catalog, loading it if the cache is empty
+     *
+     * @return current snapshot, null if the catalog could not be loaded
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            hits.inc();
+            return current;
+        }
+        misses.inc();
+        synchronized (loadLock) {
+            current = snapshot.get();
+            if (current != null) {
+                return current;
+            }
+            long loadVersion = version.get();
+            List<Course> courses = adminDaoInterface.viewCourses();
+            if (courses == null) {
+                return null;
+            }
+            Snapshot loaded = new Snapshot(loadVersion, courses);
+            // a write that changed the cache during the load may not be part of the snapshot
+            synchronized (writeLock) {
+                if (version.get() == loadVersion) {
+                    snapshot.set(loaded);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Method to drop the current catalog after a write to the course table
+     */
+    public void invalidate() {
+        synchronized (writeLock) {
+            version.incrementAndGet();
+            snapshot.set(null);
+        }
+    }
+
+    /**
+     * Method to swap in a copy of the current catalog with the student counts of the seat inventory,
+     * after seats were allotted in the given courses. A course the inventory does not track drops the catalog.
+     *
+     * @param courseIds courses whose student count changed
+     */
+    public void updateStudentCounts(Collection<Integer> courseIds) {
+        synchronized (writeLock) {
+            long updated = version.incrementAndGet();
+            Snapshot current = snapshot.get();
+            if (current == null) {
+                return;
+            }
+            Map<Integer, Integer> studentCounts = new HashMap<Integer, Integer>();
+            for (int courseId : courseIds) {
+                int seatsTaken = seatInventory.getSeatsTaken(courseId);
+                if (seatsTaken < 0) {
+                    snapshot.set(null);
+                    return;
+                }
+                studentCounts.put(courseId, seatsTaken);
+            }
+            snapshot.set(current.withStudentCounts(updated, studentCounts));
+        }
+    }
+
+    /**
+     * Method to reload the catalog from the database
+     *
+     * @return the new snapshot, null if the catalog could not be loaded
+     */
+    public Snapshot refresh() {
+        invalidate();
+        Snapshot refreshed = getSnapshot();
+        if (refreshed != null) {
+            logger.info("Course catalog refreshed to version " + refreshed.getVersion());
+        }
+        return refreshed;
+    }
+
+    /**
+     * Method to register the hit and miss counters of the cache
+     *
+     * @param metrics registry of the application
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(CourseCatalogCache.class, "hits"), hits);
+        metrics.register(MetricRegistry.name(CourseCatalogCache.class, "misses"), misses);
+        metrics.register(MetricRegistry.name(CourseCatalogCache.class, "version"), (Gauge<Long>) version::get);
+    }
+
+    /**
+     * Immutable view of the course catalog
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<Course> courses;
+        private final List<Course> unassignedCourses;
+        private final Map<Integer, List<Course>> coursesByProfessor;
+
+        private Snapshot(long version, List<Course> courses) {
+            List<Course> unassigned = new ArrayList<Course>();
+            Map<Integer, List<Course>> byProfessor = new HashMap<Integer, List<Course>>();
+            for (Course course : courses) {
+                if (course.getProfessorId() == 0) {
+                    unassigned.add(course);
+                } else {
+                    byProfessor.computeIfAbsent(course.getProfessorId(), id -> new ArrayList<Course>()).add(course);
+                }
+            }
+            for (Map.Entry<Integer, List<Course>> entry : byProfessor.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            this.version = version;
+            this.courses = Collections.unmodifiableList(new ArrayList<Course>(courses));
+            this.unassignedCourses = Collections.unmodifiableList(unassigned);
+            this.coursesByProfessor = Collections.unmodifiableMap(byProfessor);
+        }
+
+        private Snapshot withStudentCounts(long version, Map<Integer, Integer> studentCounts) {
+            List<Course> updated = new ArrayList<Course>(courses.size());
+            for (Course course : courses) {
+                Integer studentCount = studentCounts.get(course.getCourseId());
+                if (studentCount == null) {
+                    updated.add(course);
+                } else {
+                    Course copy = new Course(course.getProfessorId(), course.getCourseName(), course.getCourseDescription(), course.getCourseFee());
+                    copy.setCourseId(course.getCourseId());
+                    copy.setStudentCount(studentCount);
+                    updated.add(copy);
+                }
+            }
+            return new Snapshot(version, updated);
+        }
+
+        /**
+         * Getter for the version of the catalog the snapshot was loaded at
+         *
+         * @return version
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Getter for all the courses
+         *
+         * @return read-only list of courses
+         */
+        public List<Course> getCourses() {
+            return courses;
+        }
+
+        /**
+         * Getter for the courses without a professor
+         *
+         * @return read-only list of courses
+         */
+        public List<Course> getUnassignedCourses() {
+            return unassignedCourses;
+        }
+
+        /**
+         * Method to get the courses taught by a professor
+         *
+         * @param professorId Unique Id of the Professor
+         * @return read-only list of courses
+         */
+        public List<Course> getCoursesByProfessor(int professorId) {
+            List<Course> taught = coursesByProfessor.get(professorId);
+            return taught == null ? Collections.<Course>emptyList() : taught;
+        }
+    }
+}
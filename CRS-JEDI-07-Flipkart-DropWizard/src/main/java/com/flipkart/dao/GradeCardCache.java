@@ -0,0 +1,122 @@
+package com.flipkart.dao;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeCard;
+import com.flipkart.bean.GradeSummary;
+import com.flipkart.utils.DaoMetrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author JEDI-07
+ * Read cache of the grade cards.
+ * <p>
+ * A cached card is tagged with the grade count and update time of the {@link GradeSummary} it was built from.
+ * The caller reads the summary on every request, one keyed lookup, and the grade list is only read again when
+ * a grade was added since, by this instance or any other. When the cache is full it is emptied and refilled by
+ * the following requests.
+ */
+public class GradeCardCache {
+    private static final GradeCardCache INSTANCE = new GradeCardCache(
+            DaoMetrics.instrument(StudentDaoInterface.class, new StudentDaoOperation()), 100000);
+
+    private final StudentDaoInterface studentDaoInterface;
+    private final int maxSize;
+    private final ConcurrentMap<Integer, Entry> cards = new ConcurrentHashMap<Integer, Entry>();
+    private final Counter hits = new Counter();
+    private final Counter misses = new Counter();
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param studentDaoInterface dao used to read the grades
+     * @param maxSize             maximum number of cached cards
+     */
+    public GradeCardCache(StudentDaoInterface studentDaoInterface, int maxSize) {
+        this.studentDaoInterface = studentDaoInterface;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Method to get the cache shared by the application
+     *
+     * @return shared GradeCardCache
+     */
+    public static GradeCardCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to get the grade card matching a grade summary, reading the grades only if the cached card is older
+     *
+     * @param summary current grade summary of the student
+     * @return grade card, null if the grades could not be read
+     */
+    public GradeCard getGradeCard(GradeSummary summary) {
+        Entry cached = cards.get(summary.getStudentId());
+        if (cached != null && cached.gradeCount == summary.getGradeCount() && cached.updatedAt == summary.getUpdatedAt()) {
+            hits.inc();
+            return cached.card;
+        }
+        misses.inc();
+        List<Grade> grades = summary.getGradeCount() == 0
+                ? Collections.<Grade>emptyList()
+                : studentDaoInterface.getGrades(summary.getStudentId());
+        if (grades == null) {
+            return null;
+        }
+        GradeCard card = new GradeCard(Collections.unmodifiableList(grades), summary.getCgpa());
+        if (cards.size() >= maxSize) {
+            cards.clear();
+        }
+        cards.put(summary.getStudentId(), new Entry(summary.getGradeCount(), summary.getUpdatedAt(), card));
+        return card;
+    }
+
+    /**
+     * Method to drop the cached card of a student after a grade was added
+     *
+     * @param studentId Unique Id of the Student
+     */
+    public void invalidate(int studentId) {
+        cards.remove(studentId);
+    }
+
+    /**
+     * Method to get the number of cached cards
+     *
+     * @return cached cards
+     */
+    public int size() {
+        return cards.size();
+    }
+
+    /**
+     * Method to register the hit and miss counters and the size of the cache
+     *
+     * @param metrics registry of the application
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(GradeCardCache.class, "hits"), hits);
+        metrics.register(MetricRegistry.name(GradeCardCache.class, "misses"), misses);
+        metrics.register(MetricRegistry.name(GradeCardCache.class, "size"), (Gauge<Integer>) this::size);
+    }
+
+    private static final class Entry {
+        private final int gradeCount;
+        private final long updatedAt;
+        private final GradeCard card;
+
+        private Entry(int gradeCount, long updatedAt, GradeCard card) {
+            this.gradeCount = gradeCount;
+            this.updatedAt = updatedAt;
+            this.card = card;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Notification;
 
 import java.sql.SQLException;
@@ -19,6 +20,15 @@ public interface NotificationDaoInterface {
      */
     public boolean sendNotification(int studentId, String notificationContent);
 
+    /**
+     * Method for inserting a batch of notifications in one transaction, the generated ids are set on the notifications.
+     *
+     * @param notifications notifications with studentId and content set
+     * @return true if every notification was inserted, false if none was
+     * @throws SQLException if the batch failed, none of the notifications is inserted
+     */
+    public boolean sendNotifications(List<Notification> notifications) throws SQLException;
+
     /**
      * Method for retrieving Notifications
      *
@@ -27,4 +37,48 @@ public interface NotificationDaoInterface {
      */
     public List<Notification> getNotifications(int studentId);
 
+    /**
+     * Method for retrieving the notifications after a cursor, oldest first
+     *
+     * @param studentId unique Id for a student
+     * @param afterId   id of the last notification already seen, 0 for the first page
+     * @param limit     maximum number of notifications
+     * @return List of Notifications with their read marker set
+     */
+    public List<Notification> getNotificationsAfter(int studentId, int afterId, int limit);
+
+    /**
+     * Method for counting the notifications after the read marker of a student
+     *
+     * @param studentId unique Id for a student
+     * @return number of unread notifications, -1 on error
+     */
+    public int getUnreadCount(int studentId);
+
+    /**
+     * Method for moving the read marker of a student, the marker never moves back
+     *
+     * @param studentId      unique Id for a student
+     * @param notificationId id of the last notification read
+     * @return true if the marker was updated
+     */
+    public boolean markNotificationsRead(int studentId, int notificationId);
+
+    /**
+     * Method for storing a broadcast once and notifying its whole audience in one transaction,
+     * the generated id and the number of recipients are set on the broadcast.
+     *
+     * @param broadcast broadcast with audience, courseId, content and senderId set
+     * @return true if the broadcast was stored
+     */
+    public boolean broadcast(Broadcast broadcast);
+
+    /**
+     * Method for retrieving the notifications of a broadcast, without their content
+     *
+     * @param broadcastId unique Id for a broadcast
+     * @return List of Notifications with id and studentId set
+     */
+    public List<Notification> getBroadcastNotifications(int broadcastId);
+
 }
@@ -1,7 +1,8 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Notification;
-import com.flipkart.business.StudentOperation;
+import com.flipkart.constants.Notifications;
 import com.flipkart.constants.SqlQueries;
 import com.flipkart.utils.DBUtil;
 import org.apache.log4j.Logger;
@@ -10,6 +11,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,7 +21,6 @@ import java.util.List;
  */
 public class NotificationDaoOperation implements NotificationDaoInterface {
 
-    static Connection conn = DBUtil.getConnection();
     private static Logger logger = Logger.getLogger(NotificationDaoOperation.class);
 
 
@@ -32,8 +33,8 @@ public class NotificationDaoOperation implements NotificationDaoInterface {
      */
     @Override
     public boolean sendNotification(int studentId, String notificationContent) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.SEND_NOTIFICATION);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.SEND_NOTIFICATION)) {
             ps.setInt(1, studentId);
             ps.setString(2, notificationContent);
             return ps.executeUpdate() == 1;
@@ -43,6 +44,43 @@ public class NotificationDaoOperation implements NotificationDaoInterface {
         return false;
     }
 
+    /**
+     * Method for inserting a batch of notifications in one transaction, the generated ids are set on the notifications.
+     *
+     * @param notifications notifications with studentId and content set
+     * @return true if every notification was inserted, false if none was
+     * @throws SQLException if the batch failed, none of the notifications is inserted
+     */
+    @Override
+    public boolean sendNotifications(List<Notification> notifications) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.SEND_NOTIFICATION, Statement.RETURN_GENERATED_KEYS)) {
+                for (Notification notification : notifications) {
+                    ps.setInt(1, notification.getStudentId());
+                    ps.setString(2, notification.getContent());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < notifications.size() && keys.next(); i++) {
+                        notifications.get(i).setNotificationId(keys.getInt(1));
+                    }
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Method to show notifications for specific studentID
      *
@@ -51,18 +89,176 @@ public class NotificationDaoOperation implements NotificationDaoInterface {
      */
     @Override
     public List<Notification> getNotifications(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.SHOW_NOTIFICATIONS);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.SHOW_NOTIFICATIONS)) {
 
             ps.setInt(1, studentId);
 
-            ResultSet rs = ps.executeQuery();
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Notification> notifications = new ArrayList<Notification>();
+                while (rs.next()) {
+                    Notification notification = new Notification();
+                    notification.setNotificationId(rs.getInt("id"));
+                    notification.setContent(rs.getString("notificationContent"));
+                    notifications.add(notification);
+                }
+                return notifications;
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Method for retrieving the notifications after a cursor, oldest first.
+     * The (studentId, id) index turns the query into a single range read.
+     *
+     * @param studentId unique Id for a student
+     * @param afterId   id of the last notification already seen, 0 for the first page
+     * @param limit     maximum number of notifications
+     * @return List of Notifications with their read marker set
+     */
+    @Override
+    public List<Notification> getNotificationsAfter(int studentId, int afterId, int limit) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.NOTIFICATION_PAGE)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, afterId);
+            ps.setInt(3, limit);
+
+            List<Notification> notifications = new ArrayList<Notification>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Notification notification = new Notification(rs.getString("notificationContent"), studentId);
+                    notification.setNotificationId(rs.getInt("id"));
+                    notification.setRead(rs.getBoolean("isRead"));
+                    notifications.add(notification);
+                }
+            }
+            return notifications;
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Method for counting the notifications after the read marker of a student
+     *
+     * @param studentId unique Id for a student
+     * @return number of unread notifications, -1 on error
+     */
+    @Override
+    public int getUnreadCount(int studentId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.UNREAD_NOTIFICATION_COUNT)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Method for moving the read marker of a student, the marker never moves back
+     *
+     * @param studentId      unique Id for a student
+     * @param notificationId id of the last notification read
+     * @return true if the marker was updated
+     */
+    @Override
+    public boolean markNotificationsRead(int studentId, int notificationId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.MARK_NOTIFICATIONS_READ)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, notificationId);
+            ps.setInt(3, studentId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Method for storing a broadcast once and notifying its whole audience in one transaction.
+     * The notifications only reference the broadcast, they are inserted by a single INSERT ... SELECT
+     * over the audience instead of one round trip per student.
+     *
+     * @param broadcast broadcast with audience, courseId, content and senderId set
+     * @return true if the broadcast was stored
+     */
+    @Override
+    public boolean broadcast(Broadcast broadcast) {
+        String fanOut;
+        boolean toCourse = Notifications.AUDIENCE_COURSE.equals(broadcast.getAudience());
+        if (toCourse) {
+            fanOut = SqlQueries.BROADCAST_TO_COURSE;
+        } else if (Notifications.AUDIENCE_REGISTERED.equals(broadcast.getAudience())) {
+            fanOut = SqlQueries.BROADCAST_TO_REGISTERED;
+        } else if (Notifications.AUDIENCE_PENDING_FEE.equals(broadcast.getAudience())) {
+            fanOut = SqlQueries.BROADCAST_TO_PENDING_FEE;
+        } else {
+            logger.info("Error: Unknown audience " + broadcast.getAudience());
+            return false;
+        }
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement addPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_BROADCAST, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement fanOutPs = DBUtil.prepareStatement(conn, fanOut)) {
+                addPs.setString(1, broadcast.getContent());
+                addPs.setInt(2, broadcast.getSenderId());
+                addPs.executeUpdate();
+                try (ResultSet keys = addPs.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("No id generated for the broadcast");
+                    }
+                    broadcast.setBroadcastId(keys.getInt(1));
+                }
+
+                fanOutPs.setInt(1, broadcast.getBroadcastId());
+                if (toCourse) {
+                    fanOutPs.setInt(2, broadcast.getCourseId());
+                }
+                broadcast.setRecipients(fanOutPs.executeUpdate());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Method for retrieving the notifications of a broadcast, without their content
+     *
+     * @param broadcastId unique Id for a broadcast
+     * @return List of Notifications with id and studentId set
+     */
+    @Override
+    public List<Notification> getBroadcastNotifications(int broadcastId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_BROADCAST_NOTIFICATIONS)) {
+            ps.setInt(1, broadcastId);
+
             List<Notification> notifications = new ArrayList<Notification>();
-            while (rs.next()) {
-                Notification notification = new Notification();
-                notification.setNotificationId(rs.getInt("id"));
-                notification.setContent(rs.getString("notificationContent"));
-                notifications.add(notification);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Notification notification = new Notification(null, rs.getInt("studentId"));
+                    notification.setNotificationId(rs.getInt("id"));
+                    notifications.add(notification);
+                }
             }
             return notifications;
         } catch (SQLException e) {
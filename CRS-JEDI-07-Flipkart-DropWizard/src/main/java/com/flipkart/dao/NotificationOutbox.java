@@ -0,0 +1,398 @@
+package com.flipkart.dao;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.flipkart.bean.Notification;
+import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.NotificationHub;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Write-behind queue for the notification table.
+ * <p>
+ * While started, {@link #send(int, String)} only puts the notification in a bounded queue and a background
+ * writer inserts the queue in JDBC batches, as soon as a batch is full or the flush interval has passed.
+ * When the queue is full the caller waits for room up to the offer timeout and then inserts the notification
+ * itself, so a slow database slows down the callers instead of growing the queue.
+ * <p>
+ * Notifications that cannot be inserted for now, because the database is unreachable or the insert was rolled
+ * back, and the ones still queued when the writer is stopped, are appended to the spill file
+ * (notification.spillFile in config.properties). A batch failing this way is spilled whole, a batch the database
+ * rejects is retried one by one and the notifications it rejects again, such as one for a deleted student, are
+ * appended to the dead letter file next to the spill file and never retried. {@link #start()} moves the spill
+ * file aside, inserts its notifications again and only then deletes it, so a replay interrupted by a crash is
+ * replayed again on the next start and may insert some notifications twice.
+ * When the outbox is not started notifications are inserted by the caller.
+ * <p>
+ * Inserted notifications are pushed to the open streams of the {@link NotificationHub}.
+ */
+public class NotificationOutbox {
+    private static Logger logger = Logger.getLogger(NotificationOutbox.class);
+    private static final NotificationOutbox INSTANCE = new NotificationOutbox(
+            DaoMetrics.instrument(NotificationDaoInterface.class, new NotificationDaoOperation()),
+            10000, 200, 100, 50, new File(DBUtil.loadProperties().getProperty("notification.spillFile", "notification-outbox.spill")));
+    private static final long STOP_TIMEOUT_MILLIS = 10000;
+    private static final String CONNECTION_SQL_STATE_CLASS = "08";
+    private static final String ROLLBACK_SQL_STATE_CLASS = "40";
+
+    private final NotificationDaoInterface notificationDaoInterface;
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+    private final long flushMillis;
+    private final long offerTimeoutMillis;
+    private final File spillFile;
+    private final File deadLetterFile;
+    private final Timer flushes = new Timer();
+    private final Counter written = new Counter();
+    private final Counter overflows = new Counter();
+    private final Counter spilled = new Counter();
+    private final Counter deadLettered = new Counter();
+    private final Object spillLock = new Object();
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param notificationDaoInterface dao inserting the notifications
+     * @param capacity                 maximum number of queued notifications
+     * @param batchSize                maximum number of notifications inserted in one batch
+     * @param flushMillis              longest time a notification waits for its batch to fill up
+     * @param offerTimeoutMillis       longest time a caller waits for room in a full queue
+     * @param spillFile                file keeping the notifications that could not be inserted, the dead letter
+     *                                 file is the same path ending in .dead
+     */
+    public NotificationOutbox(NotificationDaoInterface notificationDaoInterface, int capacity, int batchSize,
+                              long flushMillis, long offerTimeoutMillis, File spillFile) {
+        this.notificationDaoInterface = notificationDaoInterface;
+        this.queue = new ArrayBlockingQueue<Notification>(capacity);
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.spillFile = spillFile;
+        this.deadLetterFile = new File(spillFile.getPath() + ".dead");
+    }
+
+    /**
+     * Method to get the outbox shared by the application
+     *
+     * @return shared NotificationOutbox
+     */
+    public static NotificationOutbox getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to send a notification
+     *
+     * @param studentId           unique Id for a student
+     * @param notificationContent Content of the Notification
+     * @return true if the notification was queued, inserted or spilled, false if the database rejected it
+     */
+    public boolean send(int studentId, String notificationContent) {
+        Notification notification = new Notification(notificationContent, studentId);
+        if (!running) {
+            return insertOrSpill(notification);
+        }
+        try {
+            if (!queue.offer(notification, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                overflows.inc();
+                return insertOrSpill(notification);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return insertOrSpill(notification);
+        }
+        // the writer may have stopped before the notification was queued
+        if (!running && queue.remove(notification)) {
+            return insertOrSpill(notification);
+        }
+        return true;
+    }
+
+    /**
+     * Method to insert the spilled notifications and start the background writer
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        replaySpillFile();
+        running = true;
+        writer = new Thread(this::drain, "notification-outbox");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Method to stop the background writer after it inserted the queue, notifications it could not insert
+     * in time are spilled
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+            if (writer.isAlive()) {
+                writer.interrupt();
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Notification> remaining = new ArrayList<Notification>();
+        queue.drainTo(remaining);
+        spill(remaining);
+    }
+
+    /**
+     * Method to get the number of queued notifications
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Method to register the queue depth, flush latency and counters of the outbox
+     *
+     * @param metrics registry of the application
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(NotificationOutbox.class, "depth"), (Gauge<Integer>) this::getQueueDepth);
+        metrics.register(MetricRegistry.name(NotificationOutbox.class, "flush"), flushes);
+        metrics.register(MetricRegistry.name(NotificationOutbox.class, "written"), written);
+        metrics.register(MetricRegistry.name(NotificationOutbox.class, "overflows"), overflows);
+        metrics.register(MetricRegistry.name(NotificationOutbox.class, "spilled"), spilled);
+        metrics.register(MetricRegistry.name(NotificationOutbox.class, "deadLettered"), deadLettered);
+    }
+
+    private void drain() {
+        List<Notification> batch = new ArrayList<Notification>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Notification first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Notification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // stop() gave up waiting, the batch in hand is spilled with the queue
+            spill(batch);
+        }
+    }
+
+    private void flush(List<Notification> batch) {
+        Timer.Context context = flushes.time();
+        try {
+            if (insert(batch)) {
+                return;
+            }
+        } catch (SQLException e) {
+            // the database is unreachable, inserting the batch one by one would only stall the writer
+            spill(batch);
+            return;
+        } finally {
+            context.stop();
+        }
+        // one bad notification fails the whole batch, the others are inserted one by one
+        List<Notification> rejected = new ArrayList<Notification>();
+        List<Notification> failed = new ArrayList<Notification>();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                if (!insert(Collections.singletonList(batch.get(i)))) {
+                    rejected.add(batch.get(i));
+                }
+            } catch (SQLException e) {
+                failed.addAll(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+        deadLetter(rejected);
+        spill(failed);
+    }
+
+    private boolean insertOrSpill(Notification notification) {
+        List<Notification> single = Collections.singletonList(notification);
+        try {
+            if (insert(single)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            return spill(single);
+        }
+        deadLetter(single);
+        return false;
+    }
+
+    /**
+     * Method to insert notifications in one batch
+     *
+     * @param notifications notifications to insert
+     * @return true if the notifications were inserted, false if the database rejected them
+     * @throws SQLException if the database could not be reached or rolled the insert back, a later retry may succeed
+     */
+    private boolean insert(List<Notification> notifications) throws SQLException {
+        try {
+            if (!notificationDaoInterface.sendNotifications(notifications)) {
+                return false;
+            }
+        } catch (SQLException e) {
+            if (isRetryable(e)) {
+                throw e;
+            }
+            return false;
+        }
+        written.inc(notifications.size());
+        NotificationHub.getInstance().publish(notifications);
+        return true;
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransientException || e instanceof SQLNonTransientConnectionException
+                || (state != null && (state.startsWith(CONNECTION_SQL_STATE_CLASS) || state.startsWith(ROLLBACK_SQL_STATE_CLASS)));
+    }
+
+    private boolean spill(List<Notification> notifications) {
+        if (!append(spillFile, notifications)) {
+            logger.info("Lost " + notifications.size() + " notifications");
+            return false;
+        }
+        if (!notifications.isEmpty()) {
+            spilled.inc(notifications.size());
+            logger.info("Spilled " + notifications.size() + " notifications to " + spillFile);
+        }
+        return true;
+    }
+
+    private void deadLetter(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        if (append(deadLetterFile, notifications)) {
+            deadLettered.inc(notifications.size());
+            logger.info("Error: the database rejected " + notifications.size() + " notifications, they are kept in "
+                    + deadLetterFile + " and not retried");
+        } else {
+            logger.info("Lost " + notifications.size() + " notifications rejected by the database");
+        }
+    }
+
+    private boolean append(File file, List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return true;
+        }
+        synchronized (spillLock) {
+            try (FileOutputStream out = new FileOutputStream(file, true)) {
+                Writer fileWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                for (Notification notification : notifications) {
+                    fileWriter.write(notification.getStudentId() + "\t" + escape(notification.getContent()) + "\n");
+                }
+                fileWriter.flush();
+                out.getFD().sync();
+                return true;
+            } catch (IOException e) {
+                logger.info("Error: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private void replaySpillFile() {
+        File replayFile = new File(spillFile.getPath() + ".replay");
+        try {
+            // a replay file is only left behind by a replay interrupted by a crash
+            if (replayFile.exists()) {
+                replay(replayFile);
+            }
+            if (spillFile.exists()) {
+                Files.move(spillFile.toPath(), replayFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                replay(replayFile);
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.info("Error: " + e.getMessage());
+        }
+    }
+
+    private void replay(File replayFile) throws IOException {
+        List<Notification> spilledNotifications = new ArrayList<Notification>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(replayFile.toPath()), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator > 0) {
+                    spilledNotifications.add(new Notification(unescape(line.substring(separator + 1)),
+                            Integer.parseInt(line.substring(0, separator))));
+                }
+            }
+        }
+        logger.info("Inserting " + spilledNotifications.size() + " spilled notifications");
+        // notifications failing again are spilled to the spill file, the replayed file can go once all are flushed
+        for (int from = 0; from < spilledNotifications.size(); from += batchSize) {
+            flush(spilledNotifications.subList(from, Math.min(from + batchSize, spilledNotifications.size())));
+        }
+        Files.delete(replayFile.toPath());
+    }
+
+    private static String escape(String content) {
+        return content.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    private static String unescape(String escaped) {
+        StringBuilder content = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length(); i++) {
+            char c = escaped.charAt(i);
+            if (c == '\\' && i + 1 < escaped.length()) {
+                char next = escaped.charAt(++i);
+                content.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next == 't' ? '\t' : next);
+            } else {
+                content.append(c);
+            }
+        }
+        return content.toString();
+    }
+}
@@ -1,9 +1,13 @@
 package com.flipkart.dao;
 
-import com.flipkart.bean.Course;
+import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeUploadResult;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
+import com.flipkart.utils.ExportWriter;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -11,22 +15,6 @@ import java.util.List;
  * Professor Dao Interface
  */
 public interface ProfessorDaoInterface {
-    /**
-     * Method to retrieve Professor Details using userId
-     *
-     * @param userId Unique Id of the User
-     * @return Professor object
-     */
-    Professor getProfessorByUserId(int userId);
-
-    /**
-     * Method to retrieve all the courses according to ProfessorId
-     *
-     * @param professorId Unique Id of the Professor
-     * @return List of courses that professor teach
-     */
-    List<Course> getCoursesByProfessorId(int professorId);
-
     /**
      * Method to retrieve the list of all enrolled students in a given course
      *
@@ -36,7 +24,7 @@ public interface ProfessorDaoInterface {
     List<Student> getEnrolledStudents(int courseId);
 
     /**
-     * Method to add grade in the database for given student in given course
+     * Method to add grade in the database for given student in given course, the grade summary of the student is updated with it
      *
      * @param studentId Unique Id of Student
      * @param courseId  unique Id to represent a course
@@ -54,13 +42,6 @@ public interface ProfessorDaoInterface {
      */
     boolean isStudentAlreadyGraded(int studentId, int courseId);
 
-    /**
-     * method to show the List of available courses
-     *
-     * @return List of available courses
-     */
-    List<Course> getAvailableCourses();
-
     /**
      * method to check if given course is available or not
      *
@@ -103,4 +84,34 @@ public interface ProfessorDaoInterface {
      * @return returns true if student is already enrolled to a given course
      */
     boolean isStudentEnrolled(int studentId, int courseId);
+
+    /**
+     * Method to add the grades of many students in a course in one transaction. Grades of students that are
+     * not enrolled, already graded or repeated in the upload are reported and the others are inserted.
+     *
+     * @param courseId unique Id to represent a course
+     * @param grades   grades with studentId and gpa set
+     * @return inserted count and rejected rows, null if nothing could be inserted
+     */
+    GradeUploadResult addGrades(int courseId, List<Grade> grades);
+
+    /**
+     * Method to stream the students allotted to a course
+     *
+     * @param courseId unique Id to represent a course
+     * @param writer   writer the rows are written to
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    void exportRoster(int courseId, ExportWriter writer) throws SQLException, IOException;
+
+    /**
+     * Method to stream the grade of every student allotted to a course, ungraded students have no gpa
+     *
+     * @param courseId unique Id to represent a course
+     * @param writer   writer the rows are written to
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    void exportGradeSheet(int courseId, ExportWriter writer) throws SQLException, IOException;
 }
@@ -1,18 +1,27 @@
 package com.flipkart.dao;
 
-import com.flipkart.bean.Course;
+import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeRowError;
+import com.flipkart.bean.GradeUploadResult;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
+import com.flipkart.constants.Courses;
 import com.flipkart.constants.SqlQueries;
+import com.flipkart.exceptions.StudentAlreadyGradedException;
+import com.flipkart.exceptions.StudentNotEnrolledInCourseException;
 import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.ExportWriter;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author JEDI-07
@@ -20,66 +29,6 @@ import java.util.List;
  */
 public class ProfessorDaoOperation implements ProfessorDaoInterface {
     private static Logger logger = Logger.getLogger(ProfessorDaoOperation.class);
-    Connection conn = DBUtil.getConnection();
-
-    /**
-     * Method to retrieve Professor Details using userId
-     *
-     * @param userId Unique Id of the User
-     * @return Professor object
-     */
-    @Override
-    public Professor getProfessorByUserId(int userId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_PROFESSOR_BY_USER_ID);
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                Professor professor = new Professor();
-                professor.setProfessorId(rs.getInt("id"));
-                professor.setDesignation(rs.getString("designation"));
-                professor.setDepartment(rs.getString("department"));
-                professor.setUserName(rs.getString("name"));
-                professor.setUserEmailId(rs.getString("email"));
-                return professor;
-            }
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-
-        }
-        return null;
-    }
-
-    /**
-     * Method to retrieve all the courses according to ProfessorId
-     *
-     * @param professorId Unique Id of the Professor
-     * @return List of courses that professor teach
-     */
-    @Override
-    public List<Course> getCoursesByProfessorId(int professorId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.VIEW_SELECTED_COURSES_FOR_PROF);
-            ps.setInt(1, professorId);
-            ResultSet rs = ps.executeQuery();
-
-            List<Course> courses = new ArrayList<Course>();
-            while (rs.next()) {
-                Course c = new Course();
-                c.setCourseId(rs.getInt("id"));
-                c.setCourseName(rs.getString("courseName"));
-                c.setCourseDescription(rs.getString("courseDescription"));
-                c.setCourseFee(rs.getDouble("courseFee"));
-                c.setStudentCount(rs.getInt("studentCount"));
-                c.setProfessorId(rs.getInt("professorId"));
-                courses.add(c);
-            }
-            return courses;
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-        }
-        return null;
-    }
 
     /**
      * Method to retrieve the list of all enrolled students in a given course
@@ -89,20 +38,21 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public List<Student> getEnrolledStudents(int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.VIEW_ENROLLED_STUDENTS);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.VIEW_ENROLLED_STUDENTS)) {
             ps.setInt(1, courseId);
-            ResultSet rs = ps.executeQuery();
-            List<Student> students = new ArrayList<Student>();
-            while (rs.next()) {
-                Student st = new Student();
-                st.setStudentId(rs.getInt("id"));
-                st.setUserName(rs.getString("name"));
-                st.setUserEmailId(rs.getString("email"));
-                st.setPhoneNo(rs.getString("phone"));
-                students.add(st);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Student> students = new ArrayList<Student>();
+                while (rs.next()) {
+                    Student st = new Student();
+                    st.setStudentId(rs.getInt("id"));
+                    st.setUserName(rs.getString("name"));
+                    st.setUserEmailId(rs.getString("email"));
+                    st.setPhoneNo(rs.getString("phone"));
+                    students.add(st);
+                }
+                return students;
             }
-            return students;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -110,7 +60,9 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
     }
 
     /**
-     * Method to add grade in the database for given student in given course
+     * Method to add grade in the database for given student in given course.
+     * The grade summary of the student is updated in the same transaction, so the CGPA is never
+     * recomputed from the whole grade list.
      *
      * @param studentId Unique Id of Student
      * @param courseId  unique Id to represent a course
@@ -120,13 +72,30 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
 
     @Override
     public Boolean addGrade(int studentId, int courseId, double grade) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_GRADE);
-            ps.setInt(1, studentId);
-            ps.setInt(2, courseId);
-            ps.setDouble(3, grade);
-            int rowAffected = ps.executeUpdate();
-            return rowAffected == 1;
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_GRADE);
+                 PreparedStatement summaryPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_GRADE_TO_SUMMARY)) {
+                ps.setInt(1, studentId);
+                ps.setInt(2, courseId);
+                ps.setDouble(3, grade);
+                if (ps.executeUpdate() != 1) {
+                    conn.rollback();
+                    return false;
+                }
+                summaryPs.setInt(1, studentId);
+                summaryPs.setDouble(2, grade);
+                summaryPs.setDouble(3, grade);
+                summaryPs.executeUpdate();
+                conn.commit();
+                GradeCardCache.getInstance().invalidate(studentId);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -142,13 +111,14 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public boolean isStudentAlreadyGraded(int studentId, int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.IS_STUDENT_ALREADY_GRADED);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.IS_STUDENT_ALREADY_GRADED)) {
             ps.setInt(1, studentId);
             ps.setInt(2, courseId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return true;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return true;
+                }
             }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
@@ -156,33 +126,6 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
         return false;
     }
 
-    /**
-     * method to show the List of available courses
-     *
-     * @return List of available courses
-     */
-    @Override
-    public List<Course> getAvailableCourses() {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.VIEW_AVAILABLE_COURSES_PROFESSOR);
-            ResultSet rs = ps.executeQuery();
-            List<Course> courses = new ArrayList<Course>();
-            while (rs.next()) {
-                Course c = new Course();
-                c.setCourseName(rs.getString("courseName"));
-                c.setCourseDescription(rs.getString("courseDescription"));
-                c.setCourseId(rs.getInt("id"));
-                c.setCourseFee(rs.getDouble("courseFee"));
-                c.setStudentCount(rs.getInt("studentCount"));
-                courses.add(c);
-            }
-            return courses;
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-        }
-        return null;
-    }
-
     /**
      * method to check if given course is available or not
      *
@@ -191,12 +134,13 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public boolean isCourseAvailable(int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.COURSE_AVAILABLE_FOR_PROF);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.COURSE_AVAILABLE_FOR_PROF)) {
             ps.setInt(1, courseId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("professorId") == 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("professorId") == 0;
+                }
             }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
@@ -213,11 +157,15 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public boolean selectCourse(int professorId, int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.SELECT_COURSE_FOR_PROF);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.SELECT_COURSE_FOR_PROF)) {
             ps.setInt(1, professorId);
             ps.setInt(2, courseId);
-            return ps.executeUpdate() == 1;
+            if (ps.executeUpdate() != 1) {
+                return false;
+            }
+            CourseCatalogCache.getInstance().invalidate();
+            return true;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -233,13 +181,14 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public boolean isCourseSelected(int professorId, int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.IS_COURSE_SELECTED_BY_PROF);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.IS_COURSE_SELECTED_BY_PROF)) {
             ps.setInt(1, professorId);
             ps.setInt(2, courseId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return true;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return true;
+                }
             }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
@@ -255,10 +204,14 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public boolean deselectCourse(int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.DELSELECT_COURSE_FOR_PROF);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.DELSELECT_COURSE_FOR_PROF)) {
             ps.setInt(1, courseId);
-            return ps.executeUpdate() == 1;
+            if (ps.executeUpdate() != 1) {
+                return false;
+            }
+            CourseCatalogCache.getInstance().invalidate();
+            return true;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -274,15 +227,150 @@ public class ProfessorDaoOperation implements ProfessorDaoInterface {
      */
     @Override
     public boolean isStudentEnrolled(int studentId, int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.IS_STUDENT_ENROLLED);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.CHECK_COURSE_STUDENT)) {
             ps.setInt(1, studentId);
             ps.setInt(2, courseId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) return true;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return true;
+            }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
         return false;
     }
+
+    /**
+     * Method to add the grades of many students in a course in one transaction.
+     * The course row is locked, then the enrolled and the graded students of the course are read with one query
+     * each and checked in memory, the accepted grades and their summary updates are inserted as two JDBC batches.
+     * Missing grades and gpas that are not a number between {@link Courses#MIN_GPA} and {@link Courses#MAX_GPA}
+     * are rejected with their row instead of failing the batch.
+     *
+     * @param courseId unique Id to represent a course
+     * @param grades   grades with studentId and gpa set, null entries are rejected
+     * @return inserted count and rejected rows, null if nothing could be inserted
+     */
+    @Override
+    public GradeUploadResult addGrades(int courseId, List<Grade> grades) {
+        GradeUploadResult result = new GradeUploadResult(courseId);
+        List<Grade> accepted = new ArrayList<Grade>();
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lockPs = DBUtil.prepareStatement(conn, SqlQueries.LOCK_COURSE_FOR_GRADING);
+                 PreparedStatement gradePs = DBUtil.prepareStatement(conn, SqlQueries.ADD_GRADE);
+                 PreparedStatement summaryPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_GRADE_TO_SUMMARY)) {
+                // concurrent uploads for the same course are serialized, a student cannot be graded twice
+                lockPs.setInt(1, courseId);
+                try (ResultSet rs = lockPs.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return null;
+                    }
+                }
+                Set<Integer> enrolled = studentIds(conn, SqlQueries.ENROLLED_STUDENT_IDS, courseId);
+                Set<Integer> graded = studentIds(conn, SqlQueries.GRADED_STUDENT_IDS, courseId);
+
+                for (int row = 1; row <= grades.size(); row++) {
+                    Grade grade = grades.get(row - 1);
+                    if (grade == null) {
+                        result.getErrors().add(new GradeRowError(row, 0, "Grade is missing"));
+                        continue;
+                    }
+                    int studentId = grade.getStudentId();
+                    if (!(grade.getGpa() >= Courses.MIN_GPA && grade.getGpa() <= Courses.MAX_GPA)) {
+                        result.getErrors().add(new GradeRowError(row, studentId,
+                                "gpa " + grade.getGpa() + " is not between " + Courses.MIN_GPA + " and " + Courses.MAX_GPA));
+                    } else if (!enrolled.contains(studentId)) {
+                        result.getErrors().add(new GradeRowError(row, studentId,
+                                new StudentNotEnrolledInCourseException(courseId, studentId).getMessage()));
+                    } else if (!graded.add(studentId)) {
+                        result.getErrors().add(new GradeRowError(row, studentId,
+                                new StudentAlreadyGradedException(studentId, courseId).getMessage()));
+                    } else {
+                        gradePs.setInt(1, studentId);
+                        gradePs.setInt(2, courseId);
+                        gradePs.setDouble(3, grade.getGpa());
+                        gradePs.addBatch();
+                        summaryPs.setInt(1, studentId);
+                        summaryPs.setDouble(2, grade.getGpa());
+                        summaryPs.setDouble(3, grade.getGpa());
+                        summaryPs.addBatch();
+                        accepted.add(grade);
+                    }
+                }
+                if (!accepted.isEmpty()) {
+                    gradePs.executeBatch();
+                    summaryPs.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.info("Error: " + e.getMessage());
+            return null;
+        }
+        for (Grade grade : accepted) {
+            GradeCardCache.getInstance().invalidate(grade.getStudentId());
+        }
+        result.setGraded(accepted.size());
+        return result;
+    }
+
+    /**
+     * Method to stream the students allotted to a course, the rows go from the cursor to the writer
+     * one fetch at a time
+     *
+     * @param courseId unique Id to represent a course
+     * @param writer   writer the rows are written to
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    @Override
+    public void exportRoster(int courseId, ExportWriter writer) throws SQLException, IOException {
+        export(SqlQueries.EXPORT_ROSTER, courseId, writer, "studentId", "name", "email", "phone", "isPrimary");
+    }
+
+    /**
+     * Method to stream the grade of every student allotted to a course, the rows go from the cursor
+     * to the writer one fetch at a time
+     *
+     * @param courseId unique Id to represent a course
+     * @param writer   writer the rows are written to
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    @Override
+    public void exportGradeSheet(int courseId, ExportWriter writer) throws SQLException, IOException {
+        export(SqlQueries.EXPORT_GRADE_SHEET, courseId, writer, "studentId", "name", "gpa");
+    }
+
+    private static void export(String sql, int courseId, ExportWriter writer, String... columns) throws SQLException, IOException {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStreamingStatement(conn, sql, ExportWriter.FETCH_SIZE)) {
+            ps.setInt(1, courseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                writer.start(columns);
+                writer.rows(rs);
+                writer.finish();
+            }
+        }
+    }
+
+    private static Set<Integer> studentIds(Connection conn, String sql, int courseId) throws SQLException {
+        Set<Integer> studentIds = new HashSet<Integer>();
+        try (PreparedStatement ps = DBUtil.prepareStatement(conn, sql)) {
+            ps.setInt(1, courseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    studentIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return studentIds;
+    }
 }
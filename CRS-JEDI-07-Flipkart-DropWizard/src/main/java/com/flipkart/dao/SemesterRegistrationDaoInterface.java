@@ -3,9 +3,14 @@ package com.flipkart.dao;
 import java.sql.SQLException;
 import java.util.List;
 
+import com.flipkart.bean.AllotmentResult;
 import com.flipkart.bean.Course;
 import com.flipkart.bean.Grade;
 import com.flipkart.bean.OptedCourse;
+import com.flipkart.exceptions.CourseAlreadyRegisteredException;
+import com.flipkart.exceptions.MaxCoursesAlreadySelectedException;
+import com.flipkart.exceptions.SeatNotAvailableException;
+import com.flipkart.exceptions.StudentAlreadyRegisteredForSemesterException;
 
 /**
  * @author JEDI-07
@@ -13,28 +18,6 @@ import com.flipkart.bean.OptedCourse;
  */
 public interface SemesterRegistrationDaoInterface {
 
-    /**
-     * method for Student registration for Semester
-     *
-     * @return returns true if student successfully registers
-     */
-    public boolean registerForSemester();
-
-    /**
-     * method to get Semester Id
-     *
-     * @return returns the semesterId
-     */
-    public int getSemesterId();
-
-    /**
-     * method to get number of courses selected by student
-     *
-     * @param isPrimary Indicates if the course is primary or not
-     * @return returns the number of courses selected by student
-     */
-    public int getCourseCount(int isPrimary);
-
     /**
      * method to check if a course is available for the semster
      *
@@ -42,17 +25,17 @@ public interface SemesterRegistrationDaoInterface {
      * @return returns true if course is available for semester
      */
 
-    boolean checkAvailability(int courseId);
-
     /**
-     * Method to add course
+     * Method to check eligibility and add a course for a student in a single transaction.
+     * The student row is locked for the duration of the transaction, so concurrent adds
+     * by the same student are serialized.
      *
-     * @param courseId   unique Id to represent a course
-     * @param semesterId Id of the Current Semester
-     * @param isPrimary  Indicates if the course is primary or not
+     * @param studentId unique Id for a student
+     * @param courseId  unique Id to represent a course
+     * @param isPrimary Indicates if the course is primary or not
      * @return returns true if the course is added successfully
      */
-    boolean addCourse(int courseId, int semesterId, int isPrimary, int studentId);
+    boolean addCourseInTransaction(int studentId, int courseId, int isPrimary) throws StudentAlreadyRegisteredForSemesterException, MaxCoursesAlreadySelectedException, CourseAlreadyRegisteredException, SeatNotAvailableException, SQLException;
 
     /**
      * Method to Drop Course
@@ -101,28 +84,17 @@ public interface SemesterRegistrationDaoInterface {
     boolean getPaymentStatus(int studentId);
 
     /**
-     * Method to allot course
+     * Method to allot seats for the course choices of a student and submit the registration
+     * in a single transaction. Primary courses are allotted first, secondary courses fill the
+     * remaining slots in the given order. A seat is taken with a conditional increment of the
+     * course's student count, so a course can never exceed {@link com.flipkart.constants.Courses#MAX_STUDENT_LIMIT}.
      *
-     * @param courseId unique Id to represent a course
-     * @return returns true if course is allotted successfully
-     */
-    boolean allotCourse(int courseId, int studentId);
-
-    /**
-     * Method to Submit Registration
-     *
-     * @param courseFee Fee assigned to a course
-     * @return returns true if registration submitted successfully
-     */
-    boolean submitRegistration(double courseFee, int studentId);
-
-    /**
-     * Method to Update Student count for a course
-     *
-     * @param courseId unique Id to represent a course
-     * @return returns true if Student count is updated
+     * @param studentId        unique Id for a student
+     * @param primaryCourses   primary course choices of the student
+     * @param secondaryCourses secondary course choices of the student, in order of preference
+     * @return the allotted courses and total fee, null if the registration could not be submitted
      */
-    boolean updateStudentCount(int courseId);
+    AllotmentResult allotCourses(int studentId, List<OptedCourse> primaryCourses, List<OptedCourse> secondaryCourses) throws StudentAlreadyRegisteredForSemesterException, SQLException;
 
     /**
      * Method to get Pending fee
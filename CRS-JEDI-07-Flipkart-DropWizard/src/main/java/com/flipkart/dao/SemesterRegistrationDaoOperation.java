@@ -1,18 +1,27 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.AllotmentResult;
 import com.flipkart.bean.Course;
 import com.flipkart.bean.OptedCourse;
-import com.flipkart.business.StudentOperation;
 import com.flipkart.constants.Courses;
 import com.flipkart.constants.SqlQueries;
+import com.flipkart.exceptions.CourseAlreadyRegisteredException;
+import com.flipkart.exceptions.MaxCoursesAlreadySelectedException;
+import com.flipkart.exceptions.SeatNotAvailableException;
+import com.flipkart.exceptions.StudentAlreadyRegisteredForSemesterException;
 import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.DaoMetrics;
+import com.flipkart.utils.SeatInventory;
 import org.apache.log4j.Logger;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -21,116 +30,105 @@ import java.util.List;
  */
 public class SemesterRegistrationDaoOperation implements SemesterRegistrationDaoInterface {
 
-    static Connection conn = DBUtil.getConnection();
-    NotificationDaoInterface notificationDaoInterface = new NotificationDaoOperation();
+    NotificationDaoInterface notificationDaoInterface = DaoMetrics.instrument(NotificationDaoInterface.class, new NotificationDaoOperation());
+    SeatInventory seatInventory = SeatInventory.getInstance();
 
     private static Logger logger = Logger.getLogger(SemesterRegistrationDaoOperation.class);
+    private static final String DEADLOCK_SQL_STATE = "40001";
+    private static final int MAX_ALLOTMENT_ATTEMPTS = 3;
 
-    /**
-     * method for Student registration for Semester
-     *
-     * @return returns true if student successfully registers
-     */
-    @Override
-    public boolean registerForSemester() {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_SEMESTER_REGISTRATION);
-            ps.setInt(1, StudentOperation.student.getStudentId());
-            return ps.executeUpdate() == 1;
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-        }
-        return false;
-    }
-
-    /**
-     * method to get Semester Id
-     *
-     * @return returns the semesterId
-     */
-    @Override
-    public int getSemesterId() {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_SEMESTER_ID);
-            ps.setInt(1, StudentOperation.student.getStudentId());
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("id");
-            }
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-        }
-        return 0;
-    }
 
     /**
-     * method to get number of courses selected by student
+     * Method to check eligibility and add a course for a student in a single transaction.
+     * The student row is locked for the duration of the transaction, so concurrent adds
+     * by the same student are serialized. The seats are checked last, against the course row and
+     * the {@link SeatInventory}, so a student who cannot add the course anyway is told why.
      *
+     * @param studentId unique Id for a student
+     * @param courseId  unique Id to represent a course
      * @param isPrimary Indicates if the course is primary or not
-     * @return returns the number of courses selected by student
-     */
-    @Override
-    public int getCourseCount(int isPrimary) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_COURSE_COUNT);
-            ps.setInt(1, StudentOperation.student.getStudentId());
-            ps.setInt(2, isPrimary);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-        }
-        return 0;
-    }
-
-    /**
-     * method to check if a course is available for the semster
-     *
-     * @param courseId unique Id to represent a course
-     * @return returns true if course is available for semester
-     */
-    @Override
-    public boolean checkAvailability(int courseId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.CHECK_COURSE_AVAILABILITY);
-            ps.setInt(1, courseId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("studentCount") < Courses.MAX_STUDENT_LIMIT;
-            }
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-        }
-        return false;
-    }
-
-    /**
-     * Method to add course
-     *
-     * @param courseId   unique Id to represent a course
-     * @param semesterId Id of the Current Semester
-     * @param isPrimary  Indicates if the course is primary or not
      * @return returns true if the course is added successfully
      */
     @Override
-    public boolean addCourse(int courseId, int semesterId, int isPrimary, int studentId) {
+    public boolean addCourseInTransaction(int studentId, int courseId, int isPrimary) throws StudentAlreadyRegisteredForSemesterException, MaxCoursesAlreadySelectedException, CourseAlreadyRegisteredException, SeatNotAvailableException, SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Integer semesterId;
+                try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.LOCK_STUDENT_FOR_ADD_COURSE)) {
+                    ps.setInt(1, isPrimary);
+                    ps.setInt(2, courseId);
+                    ps.setInt(3, courseId);
+                    ps.setInt(4, studentId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return false;
+                        }
+
+                        if (rs.getInt("registrationStatus") == 1) {
+                            throw new StudentAlreadyRegisteredForSemesterException();
+                        }
+                        int maxCourses = isPrimary == 1 ? Courses.MAX_PRIMARY_COURSES : Courses.MAX_SECONDARY_COURSES;
+                        if (rs.getInt("courseCount") >= maxCourses) {
+                            throw new MaxCoursesAlreadySelectedException(maxCourses, isPrimary == 1 ? "primary" : "secondary");
+                        }
+                        if (rs.getBoolean("alreadyOpted")) {
+                            throw new CourseAlreadyRegisteredException(courseId);
+                        }
+                        int studentCount = rs.getInt("studentCount");
+                        if (rs.wasNull() || studentCount >= Courses.MAX_STUDENT_LIMIT || !seatInventory.isAvailable(courseId)) {
+                            throw new SeatNotAvailableException(courseId);
+                        }
+
+                        semesterId = rs.getInt("semesterId");
+                        if (rs.wasNull()) {
+                            semesterId = null;
+                        }
+                    }
+                }
 
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_COURSE_STUDENT);
-            ps.setInt(1, courseId);
-            ps.setInt(2, semesterId);
-            ps.setInt(3, isPrimary);
-            ps.setInt(4, studentId);
-            return ps.executeUpdate() == 1;
+                if (semesterId == null) {
+                    try (PreparedStatement registerPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_SEMESTER_REGISTRATION, Statement.RETURN_GENERATED_KEYS)) {
+                        registerPs.setInt(1, studentId);
+                        registerPs.executeUpdate();
+                        try (ResultSet keys = registerPs.getGeneratedKeys()) {
+                            if (!keys.next()) {
+                                conn.rollback();
+                                return false;
+                            }
+                            semesterId = keys.getInt(1);
+                        }
+                    }
+                }
+
+                boolean added;
+                try (PreparedStatement addPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_COURSE_STUDENT)) {
+                    addPs.setInt(1, courseId);
+                    addPs.setInt(2, semesterId);
+                    addPs.setInt(3, isPrimary);
+                    addPs.setInt(4, studentId);
+                    added = addPs.executeUpdate() == 1;
+                }
+                if (added) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return added;
+            } catch (SQLException | StudentAlreadyRegisteredForSemesterException | MaxCoursesAlreadySelectedException
+                    | CourseAlreadyRegisteredException | SeatNotAvailableException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
+            throw e;
         }
-        return false;
     }
 
-
     /**
      * Method to Drop Course
      *
@@ -139,9 +137,8 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public boolean dropCourse(int courseId, int studentId) {
-        try {
-
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.DROP_COURSE);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.DROP_COURSE)) {
             ps.setInt(1, studentId);
             ps.setInt(2, courseId);
 
@@ -160,23 +157,24 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public List<OptedCourse> getRegisteredCourses(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.VIEW_REGISTERED_STUDENT_COURSES);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.VIEW_REGISTERED_STUDENT_COURSES)) {
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            List<OptedCourse> registeredCourseList = new ArrayList<OptedCourse>();
-
-            while (rs.next()) {
-                OptedCourse oc = new OptedCourse();
-                oc.setCourseId(rs.getInt("id"));
-                oc.setCourseName(rs.getString("courseName"));
-                oc.setStudentCount(rs.getInt("studentCount"));
-                oc.setCourseFee(rs.getDouble("courseFee"));
-                oc.setIsPrimary(rs.getInt("isPrimary") == 1);
-
-                registeredCourseList.add(oc);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<OptedCourse> registeredCourseList = new ArrayList<OptedCourse>();
+
+                while (rs.next()) {
+                    OptedCourse oc = new OptedCourse();
+                    oc.setCourseId(rs.getInt("id"));
+                    oc.setCourseName(rs.getString("courseName"));
+                    oc.setStudentCount(rs.getInt("studentCount"));
+                    oc.setCourseFee(rs.getDouble("courseFee"));
+                    oc.setIsPrimary(rs.getInt("isPrimary") == 1);
+
+                    registeredCourseList.add(oc);
+                }
+                return registeredCourseList;
             }
-            return registeredCourseList;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -191,24 +189,24 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public List<OptedCourse> getSelectedCourses(int studentId) {
-        try {
-
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.VIEW_SELECTED_STUDENT_COURSES);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.VIEW_SELECTED_STUDENT_COURSES)) {
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            List<OptedCourse> registeredCourseList = new ArrayList<OptedCourse>();
-
-            while (rs.next()) {
-                OptedCourse oc = new OptedCourse();
-                oc.setCourseId(rs.getInt("id"));
-                oc.setCourseName(rs.getString("courseName"));
-                oc.setStudentCount(rs.getInt("studentCount"));
-                oc.setCourseFee(rs.getDouble("courseFee"));
-                oc.setIsPrimary(rs.getInt("isPrimary") == 1);
-
-                registeredCourseList.add(oc);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<OptedCourse> registeredCourseList = new ArrayList<OptedCourse>();
+
+                while (rs.next()) {
+                    OptedCourse oc = new OptedCourse();
+                    oc.setCourseId(rs.getInt("id"));
+                    oc.setCourseName(rs.getString("courseName"));
+                    oc.setStudentCount(rs.getInt("studentCount"));
+                    oc.setCourseFee(rs.getDouble("courseFee"));
+                    oc.setIsPrimary(rs.getInt("isPrimary") == 1);
+
+                    registeredCourseList.add(oc);
+                }
+                return registeredCourseList;
             }
-            return registeredCourseList;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -225,14 +223,13 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public boolean isCourseAlreadyRegistered(int courseId, int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.CHECK_COURSE_STUDENT);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.CHECK_COURSE_STUDENT)) {
             ps.setInt(1, studentId);
             ps.setInt(2, courseId);
 
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) >= 1;
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
             }
         } catch (SQLException e) {
             logger.info(e.getMessage());
@@ -249,13 +246,14 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public boolean getRegistrationStatus(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_REGISTRATION_STATUS);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_REGISTRATION_STATUS)) {
             ps.setInt(1, studentId);
 
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) == 1;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) == 1;
+                }
             }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
@@ -270,12 +268,13 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public boolean getPaymentStatus(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_PAYMENT_STATUS);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_PAYMENT_STATUS)) {
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next())
-                return rs.getInt(1) == 1;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next())
+                    return rs.getInt(1) == 1;
+            }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
@@ -283,60 +282,187 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
     }
 
     /**
-     * Method to allot course
+     * Method to allot seats for the course choices of a student and submit the registration
+     * in a single transaction. Primary courses are allotted first, secondary courses fill the
+     * remaining slots in the given order. A seat is taken with a conditional increment of the
+     * course's student count, so a course can never exceed {@link Courses#MAX_STUDENT_LIMIT}.
      *
-     * @param courseId unique Id to represent a course
-     * @return returns true if course is allotted successfully
+     * @param studentId        unique Id for a student
+     * @param primaryCourses   primary course choices of the student
+     * @param secondaryCourses secondary course choices of the student, in order of preference
+     * @return the allotted courses and total fee, null if the registration could not be submitted
      */
     @Override
-    public boolean allotCourse(int courseId, int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.ALLOT_COURSE);
-            ps.setInt(1, courseId);
-            ps.setInt(2, studentId);
-            return ps.executeUpdate() == 1;
+    public AllotmentResult allotCourses(int studentId, List<OptedCourse> primaryCourses, List<OptedCourse> secondaryCourses) throws StudentAlreadyRegisteredForSemesterException, SQLException {
+        // course rows are locked in id order, a deadlock reported by the database is still retried
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return allotCoursesOnce(studentId, primaryCourses, secondaryCourses);
+            } catch (SQLException e) {
+                if (!DEADLOCK_SQL_STATE.equals(e.getSQLState()) || attempt >= MAX_ALLOTMENT_ATTEMPTS) {
+                    throw e;
+                }
+                logger.info("Deadlock while allotting courses for studentId " + studentId + ", retrying");
+            }
+        }
+    }
+
+    private AllotmentResult allotCoursesOnce(int studentId, List<OptedCourse> primaryCourses, List<OptedCourse> secondaryCourses) throws StudentAlreadyRegisteredForSemesterException, SQLException {
+        List<OptedCourse> allotted = new ArrayList<OptedCourse>();
+        boolean committed = false;
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement lockPs = DBUtil.prepareStatement(conn, SqlQueries.LOCK_STUDENT_FOR_SUBMIT)) {
+                    lockPs.setInt(1, studentId);
+                    try (ResultSet rs = lockPs.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return null;
+                        }
+                        if (rs.getInt("registrationStatus") == 1) {
+                            throw new StudentAlreadyRegisteredForSemesterException();
+                        }
+                    }
+                }
+
+                lockCourses(conn, primaryCourses, secondaryCourses);
+
+                try (PreparedStatement reservePs = DBUtil.prepareStatement(conn, SqlQueries.RESERVE_SEAT)) {
+                    allotted.addAll(reserveSeats(reservePs, primaryCourses));
 
+                    int next = 0;
+                    while (allotted.size() < Courses.MAX_PRIMARY_COURSES && next < secondaryCourses.size()) {
+                        int end = Math.min(secondaryCourses.size(), next + Courses.MAX_PRIMARY_COURSES - allotted.size());
+                        allotted.addAll(reserveSeats(reservePs, secondaryCourses.subList(next, end)));
+                        next = end;
+                    }
+                }
+
+                double totalFee = 0;
+                if (!allotted.isEmpty()) {
+                    try (PreparedStatement allotPs = DBUtil.prepareStatement(conn, SqlQueries.ALLOT_COURSE)) {
+                        for (OptedCourse course : allotted) {
+                            allotPs.setInt(1, course.getCourseId());
+                            allotPs.setInt(2, studentId);
+                            allotPs.addBatch();
+                            totalFee += course.getCourseFee();
+                        }
+                        allotPs.executeBatch();
+                    }
+                }
+
+                try (PreparedStatement submitPs = DBUtil.prepareStatement(conn, SqlQueries.SUBMIT_REGISTRATION)) {
+                    submitPs.setDouble(1, totalFee);
+                    submitPs.setInt(2, studentId);
+                    if (submitPs.executeUpdate() != 1) {
+                        conn.rollback();
+                        return null;
+                    }
+                }
+                conn.commit();
+                committed = true;
+                if (!allotted.isEmpty()) {
+                    List<Integer> allottedIds = new ArrayList<Integer>();
+                    for (OptedCourse course : allotted) {
+                        allottedIds.add(course.getCourseId());
+                    }
+                    CourseCatalogCache.getInstance().updateStudentCounts(allottedIds);
+                }
+                return new AllotmentResult(allotted, totalFee);
+            } catch (SQLException | StudentAlreadyRegisteredForSemesterException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                if (!committed) {
+                    for (OptedCourse course : allotted) {
+                        seatInventory.release(course.getCourseId());
+                    }
+                }
+            }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
+            throw e;
         }
-        return false;
     }
 
     /**
-     * Method to Submit Registration
+     * Method to lock the rows of all the chosen courses in course id order, so that concurrent
+     * submissions with overlapping choices queue up on the first shared course instead of deadlocking.
      *
-     * @param courseFee Fee assigned to a course
-     * @return returns true if registration submitted successfully
+     * @param conn             connection of the allotment transaction
+     * @param primaryCourses   primary course choices of the student
+     * @param secondaryCourses secondary course choices of the student
      */
-    @Override
-    public boolean submitRegistration(double courseFee, int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.SUBMIT_REGISTRATION);
-            ps.setDouble(1, courseFee);
-            ps.setInt(2, studentId);
-            return ps.executeUpdate() == 1;
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
+    private void lockCourses(Connection conn, List<OptedCourse> primaryCourses, List<OptedCourse> secondaryCourses) throws SQLException {
+        List<Integer> courseIds = new ArrayList<Integer>();
+        for (OptedCourse course : primaryCourses) {
+            courseIds.add(course.getCourseId());
+        }
+        for (OptedCourse course : secondaryCourses) {
+            courseIds.add(course.getCourseId());
+        }
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        courseIds.sort(Comparator.naturalOrder());
+
+        String placeholders = String.join(", ", Collections.nCopies(courseIds.size(), "?"));
+        try (PreparedStatement ps = DBUtil.prepareStatement(conn, String.format(SqlQueries.LOCK_COURSES_FOR_ALLOTMENT, placeholders))) {
+            for (int i = 0; i < courseIds.size(); i++) {
+                ps.setInt(i + 1, courseIds.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // rows are locked as they are read
+                }
+            }
         }
-        return false;
     }
 
     /**
-     * Method to Update Student count for a course
+     * Method to take one seat in each of the given courses. Seats are first taken in the
+     * {@link SeatInventory}, full courses are skipped without touching the database, and the
+     * remaining reservations are written through with a single batch of conditional increments.
+     * A seat the database rejects is given back to the inventory.
      *
-     * @param courseId unique Id to represent a course
-     * @return returns true if Student count is updated
+     * @param reservePs prepared {@link SqlQueries#RESERVE_SEAT} statement
+     * @param courses   courses to take a seat in
+     * @return courses in which a seat was taken
      */
-    @Override
-    public boolean updateStudentCount(int courseId) {
+    private List<OptedCourse> reserveSeats(PreparedStatement reservePs, List<OptedCourse> courses) throws SQLException {
+        List<OptedCourse> candidates = new ArrayList<OptedCourse>();
+        for (OptedCourse course : courses) {
+            if (seatInventory.tryReserve(course.getCourseId())) {
+                candidates.add(course);
+            }
+        }
+        List<OptedCourse> reserved = new ArrayList<OptedCourse>();
+        if (candidates.isEmpty()) {
+            return reserved;
+        }
         try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.UPDATE_STUDENT_COUNT);
-            ps.setInt(1, courseId);
-            return ps.executeUpdate() == 1;
+            for (OptedCourse course : candidates) {
+                reservePs.setInt(1, course.getCourseId());
+                reservePs.setInt(2, Courses.MAX_STUDENT_LIMIT);
+                reservePs.addBatch();
+            }
+            int[] updateCounts = reservePs.executeBatch();
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 1) {
+                    reserved.add(candidates.get(i));
+                } else {
+                    seatInventory.release(candidates.get(i).getCourseId());
+                }
+            }
         } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
+            for (OptedCourse course : candidates) {
+                seatInventory.release(course.getCourseId());
+            }
+            throw e;
         }
-        return false;
+        return reserved;
     }
 
     /**
@@ -346,13 +472,14 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
      */
     @Override
     public double getPendingFee(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_PENDING_FEE);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_PENDING_FEE)) {
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                if (rs.getInt("feeStatus") == 0 && rs.getInt("registrationStatus") == 1) {
-                    return rs.getDouble("totalFees");
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    if (rs.getInt("feeStatus") == 0 && rs.getInt("registrationStatus") == 1) {
+                        return rs.getDouble("totalFees");
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -370,8 +497,8 @@ public class SemesterRegistrationDaoOperation implements SemesterRegistrationDao
 
     @Override
     public boolean payFee(double amount, int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.PAY_FEE);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.PAY_FEE)) {
             ps.setInt(1, studentId);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
@@ -1,6 +1,8 @@
 package com.flipkart.dao;
 
 import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeSummary;
+import com.flipkart.bean.ImportRowError;
 import com.flipkart.bean.Student;
 
 import java.sql.SQLException;
@@ -18,17 +20,17 @@ public interface StudentDaoInterface {
      * @param studentEmailId  EmailId of the Student
      * @param studentPassword Password for the Student
      * @param studentPhoneNo  Phone Number of the Student
-     * @return returns true if student is added successfully to the database
+     * @return returns the added Student with its user Id and student Id
      */
-    boolean addStudent(String studentName, String studentEmailId, String studentPassword, String studentPhoneNo) throws SQLException;
+    Student addStudent(String studentName, String studentEmailId, String studentPassword, String studentPhoneNo) throws SQLException;
 
     /**
-     * Method for getting student by Email Id
+     * Method to add a batch of Students of a bulk import in one transaction
      *
-     * @param emailId Email Id of the Student
-     * @return Returns Student Object
+     * @param students Students with name, email, password hash and phone number
+     * @return rows rejected because their email is taken, numbered by position in students, null if the batch failed
      */
-    Student getStudentByEmailId(String emailId);
+    List<ImportRowError> addStudents(List<Student> students);
 
     /**
      * Method for getting student by student Id
@@ -45,4 +47,12 @@ public interface StudentDaoInterface {
      * @return List of Grades
      */
     List<Grade> getGrades(int studentId);
+
+    /**
+     * Method to get the grade summary and the semester status of a Student in one keyed lookup
+     *
+     * @param studentId Unique Id of the Student
+     * @return GradeSummary, a summary with registered false if the student has no semester registration, null on error
+     */
+    GradeSummary getGradeSummary(int studentId);
 }
\ No newline at end of file
@@ -4,14 +4,18 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeSummary;
+import com.flipkart.bean.ImportRowError;
 import com.flipkart.bean.Student;
 import com.flipkart.constants.Roles;
 import com.flipkart.constants.SqlQueries;
 import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.DaoMetrics;
 import org.apache.log4j.Logger;
 
 /**
@@ -20,67 +24,78 @@ import org.apache.log4j.Logger;
  */
 public class StudentDaoOperation implements StudentDaoInterface {
 
-    static Connection conn = DBUtil.getConnection();
     private static Logger logger = Logger.getLogger(StudentDaoOperation.class);
+    UserDaoInterface userDaoInterface = DaoMetrics.instrument(UserDaoInterface.class, new UserDaoOperation());
 
     /**
-     * Method to add Student to Database
+     * Method to add Student to Database, the user and the student row are inserted in one transaction
      *
      * @param studentName     Name of the Student
      * @param studentEmailId  EmailId of the Student
      * @param studentPassword Password for the Student
      * @param studentPhoneNo  Phone Number of the Student
-     * @return returns true if student is added successfully to the database
+     * @return returns the added Student with its user Id and student Id
      */
     @Override
-    public boolean addStudent(String studentName, String studentEmailId, String studentPassword, String studentPhoneNo) throws SQLException {
-        UserDaoInterface userDaoInterface = new UserDaoOperation();
-        try {
-            boolean isSuccess = userDaoInterface.createUser(studentName, studentEmailId, studentPassword, Roles.Student, studentPhoneNo);
+    public Student addStudent(String studentName, String studentEmailId, String studentPassword, String studentPhoneNo) throws SQLException {
+        return userDaoInterface.provisionStudent(new Student(studentName, studentEmailId, studentPassword, studentPhoneNo));
+    }
 
-            if (isSuccess) {
-                int id = userDaoInterface.getUserIdByEmail(studentEmailId);
-                try {
-                    PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_STUDENT);
-                    ps.setInt(1, id);
+    /**
+     * Method to add a batch of Students of a bulk import in one transaction, the users and the students
+     * are each inserted with one batched statement
+     *
+     * @param students Students with name, email, password hash and phone number
+     * @return rows rejected because their email is taken, numbered by position in students, null if the batch failed
+     */
+    @Override
+    public List<ImportRowError> addStudents(List<Student> students) {
+        List<ImportRowError> errors = new ArrayList<ImportRowError>();
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_STUDENT)) {
+                List<Student> accepted = UserDaoOperation.acceptNewEmails(conn, students, errors);
+                UserDaoOperation.createUsers(conn, accepted, Roles.Student);
+                for (Student student : accepted) {
+                    ps.setInt(1, student.getId());
                     ps.setInt(2, 0);
-
-                    int rowAffected = ps.executeUpdate();
-
-                    return (rowAffected == 1);
-
-                } catch (SQLException e) {
-                    logger.info("Error: " + e.getMessage());
+                    ps.addBatch();
+                }
+                if (!accepted.isEmpty()) {
+                    ps.executeBatch();
                 }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
-            throw e;
+            return null;
         }
-        return false;
+        return errors;
     }
 
-
     /**
-     * Method for getting student by Email Id
+     * Method for getting student by student Id
      *
-     * @param emailId Email Id of the Student
+     * @param studentId Unique Id of the Student
      * @return Returns Student Object
      */
     @Override
-    public Student getStudentByEmailId(String emailId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_STUDENT_BY_EMAIL_ID);
-            ps.setString(1, emailId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                Student st = new Student();
-                st.setStudentId(rs.getInt("id"));
-                st.setUserEmailId(rs.getString("email"));
-                st.setUserName(rs.getString("name"));
-                st.setPhoneNo(rs.getString("phone"));
-                st.setApproved(rs.getInt("isApproved") == 1);
-                return st;
+    public Student getStudentByStudentId(int studentId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_STUDENT_BY_STUDENT_ID)) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    Student st = new Student();
+                    st.setId(studentId);
+                    st.setApproved(rs.getInt("isApproved") == 1);
+                    return st;
+                }
             }
         } catch (SQLException e) {
             logger.info(e.getMessage());
@@ -89,50 +104,59 @@ public class StudentDaoOperation implements StudentDaoInterface {
     }
 
     /**
-     * Method for getting student by student Id
+     * Method to get Grades of a Student
      *
      * @param studentId Unique Id of the Student
-     * @return Returns Student Object
+     * @return List of Grades
      */
     @Override
-    public Student getStudentByStudentId(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_STUDENT_BY_STUDENT_ID);
+    public List<Grade> getGrades(int studentId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_GRADES)) {
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                Student st = new Student();
-                st.setId(studentId);
-                st.setApproved(rs.getInt("isApproved") == 1);
-                return st;
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Grade> grades = new ArrayList<Grade>();
+                while (rs.next()) {
+                    Grade grade = new Grade();
+                    grade.setCourseId(rs.getInt("courseId"));
+                    grade.setCourseName(rs.getString("courseName"));
+                    grade.setGpa(rs.getDouble("gpa"));
+                    grades.add(grade);
+                }
+                return grades;
             }
         } catch (SQLException e) {
-            logger.info(e.getMessage());
+            logger.info("Error: " + e.getMessage());
         }
         return null;
     }
 
     /**
-     * Method to get Grades of a Student
+     * Method to get the grade summary and the semester status of a Student in one keyed lookup
      *
      * @param studentId Unique Id of the Student
-     * @return List of Grades
+     * @return GradeSummary, a summary with registered false if the student has no semester registration, null on error
      */
     @Override
-    public List<Grade> getGrades(int studentId) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_GRADES);
+    public GradeSummary getGradeSummary(int studentId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.GET_GRADE_SUMMARY)) {
             ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            List<Grade> grades = new ArrayList<Grade>();
-            while (rs.next()) {
-                Grade grade = new Grade();
-                grade.setCourseId(rs.getInt("courseId"));
-                grade.setCourseName(rs.getString("courseName"));
-                grade.setGpa(rs.getDouble("gpa"));
-                grades.add(grade);
+            GradeSummary summary = new GradeSummary();
+            summary.setStudentId(studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    summary.setRegistered(rs.getInt("registrationStatus") == 1);
+                    summary.setFeePaid(rs.getInt("feeStatus") == 1);
+                    // a student without grades has no summary row, the columns are null and read as 0
+                    summary.setGradeSum(rs.getDouble("gradeSum"));
+                    summary.setGradeCount(rs.getInt("gradeCount"));
+                    summary.setCgpa(rs.getDouble("cgpa"));
+                    Timestamp updatedAt = rs.getTimestamp("updatedAt");
+                    summary.setUpdatedAt(updatedAt == null ? 0 : updatedAt.getTime());
+                }
             }
-            return grades;
+            return summary;
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
         }
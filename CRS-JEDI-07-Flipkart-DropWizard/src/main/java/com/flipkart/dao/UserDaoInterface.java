@@ -1,5 +1,7 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
 import com.flipkart.bean.User;
 
 import java.sql.SQLException;
@@ -10,16 +12,16 @@ import java.sql.SQLException;
  */
 public interface UserDaoInterface {
     /**
-     * method for authenticating the user with database
+     * method for reading the user and the student or professor profile to log in with, in one query
      *
-     * @param emailId  emailId of User
-     * @param password Password of the user
-     * @return Returns Authenticated User Object
+     * @param emailId emailId of User
+     * @return Student, Professor or, for an admin, User with the stored password hash, null if there is no such user
+     * @throws SQLException if the user could not be read
      */
-    public User authenticate(String emailId, String password);
+    public User getLoginProfile(String emailId) throws SQLException;
 
     /**
-     * method for updating user password
+     * method for updating user password, the password is stored hashed
      *
      * @param userId      Unique Id of the User
      * @param newPassword Password to be set
@@ -28,22 +30,29 @@ public interface UserDaoInterface {
     public boolean updatePassword(int userId, String newPassword);
 
     /**
-     * method for creating a user
+     * method for creating a student, the user and the student row are inserted in one transaction
      *
-     * @param name     name of the User
-     * @param email    Email Id of the User
-     * @param password Password of the User
-     * @param role     Role of the User
-     * @param phoneNo  PhoneNo of the User
-     * @return returns true if the user is created successfully
+     * @param student Student with name, email, password and phone number
+     * @return the same Student with its user Id, student Id and role set
+     * @throws SQLException if either row cannot be inserted, nothing is inserted then
      */
-    public boolean createUser(String name, String email, String password, String role, String phoneNo) throws SQLException;
+    public Student provisionStudent(Student student) throws SQLException;
 
     /**
-     * Method to get UserId by EmailId
+     * method for creating a professor, the user and the professor row are inserted in one transaction
      *
-     * @param email EmailId of the User
-     * @return returns UserId
+     * @param professor Professor with name, email, password, phone number, department and designation
+     * @return the same Professor with its user Id, professor Id and role set
+     * @throws SQLException if either row cannot be inserted, nothing is inserted then
      */
-    public int getUserIdByEmail(String email);
+    public Professor provisionProfessor(Professor professor) throws SQLException;
+
+    /**
+     * method for creating an admin, the user and the admin row are inserted in one transaction
+     *
+     * @param admin User with name, email, password and phone number
+     * @return the same User with its user Id and role set
+     * @throws SQLException if either row cannot be inserted, nothing is inserted then
+     */
+    public User provisionAdmin(User admin) throws SQLException;
 }
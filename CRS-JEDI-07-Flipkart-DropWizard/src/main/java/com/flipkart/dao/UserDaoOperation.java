@@ -1,57 +1,83 @@
 package com.flipkart.dao;
 
+import com.flipkart.bean.ImportRowError;
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
 import com.flipkart.bean.User;
+import com.flipkart.constants.Roles;
 import com.flipkart.constants.SqlQueries;
 import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.PasswordHasher;
 import org.apache.log4j.Logger;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * @author JEDI-07
- * Implementation of User Dao Interface
+ * Implementation of User Dao Interface. Passwords are hashed with {@link PasswordHasher} wherever they are
+ * written, the plaintext password never reaches the database.
  */
 public class UserDaoOperation implements UserDaoInterface {
     private static Logger logger = Logger.getLogger(UserDaoOperation.class);
-    static Connection conn = DBUtil.getConnection();
 
     /**
-     * method for authenticating the user with database
+     * method for reading the user and the student or professor profile to log in with, in one query
      *
-     * @param emailId  emailId of User
-     * @param password Password of the user
-     * @return Returns Authenticated User Object
+     * @param emailId emailId of User
+     * @return Student, Professor or, for an admin, User with the stored password hash, null if there is no such user
+     * @throws SQLException if the user could not be read
      */
     @Override
-    public User authenticate(String emailId, String password) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_USER_EMAIL_PASSWORD);
+    public User getLoginProfile(String emailId) throws SQLException {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.LOGIN_PROFILE)) {
             ps.setString(1, emailId);
-            ps.setString(2, password);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                User user = new User(
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("role"),
-                        rs.getString("phone")
-                );
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String role = rs.getString("role");
+                User user;
+                if (Roles.Student.equals(role)) {
+                    Student student = new Student();
+                    student.setStudentId(rs.getInt("studentId"));
+                    student.setApproved(rs.getInt("isApproved") == 1);
+                    user = student;
+                } else if (Roles.Professor.equals(role)) {
+                    Professor professor = new Professor();
+                    professor.setProfessorId(rs.getInt("professorId"));
+                    professor.setDepartment(rs.getString("department"));
+                    professor.setDesignation(rs.getString("designation"));
+                    user = professor;
+                } else {
+                    user = new User();
+                }
                 user.setId(rs.getInt("id"));
+                user.setUserName(rs.getString("name"));
+                user.setUserEmailId(rs.getString("email"));
+                user.setUserPassword(rs.getString("password"));
+                user.setRole(role);
+                user.setPhoneNo(rs.getString("phone"));
                 return user;
             }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
+            throw e;
         }
-        return null;
     }
 
     /**
-     * method for updating user password
+     * method for updating user password, the password is stored hashed
      *
      * @param userId      Unique Id of the User
      * @param newPassword Password to be set
@@ -59,9 +85,9 @@ public class UserDaoOperation implements UserDaoInterface {
      */
     @Override
     public boolean updatePassword(int userId, String newPassword) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.UPDATE_PASSWORD);
-            ps.setString(1, newPassword);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.UPDATE_PASSWORD)) {
+            ps.setString(1, PasswordHasher.hash(newPassword));
             ps.setInt(2, userId);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
@@ -72,55 +98,177 @@ public class UserDaoOperation implements UserDaoInterface {
 
 
     /**
-     * method for creating a user
+     * method for creating a student, the user and the student row are inserted in one transaction
      *
-     * @param name     name of the User
-     * @param email    Email Id of the User
-     * @param password Password of the User
-     * @param role     Role of the User
-     * @param phoneNo  PhoneNo of the User
-     * @return returns true if the user is created successfully
+     * @param student Student with name, email, password and phone number
+     * @return the same Student with its user Id, student Id and role set
+     * @throws SQLException if either row cannot be inserted, nothing is inserted then
      */
     @Override
-    public boolean createUser(String name, String email, String password, String role, String phoneNo) throws SQLException {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.ADD_USER_QUERY);
-            ps.setString(1, name);
-            ps.setString(2, email);
-            ps.setString(3, password);
-            ps.setString(4, role);
-            ps.setString(5, phoneNo);
-
-            int rowAffected = ps.executeUpdate();
-            return rowAffected == 1;
-        } catch (SQLException e) {
-            logger.info("Error: " + e.getMessage());
-            throw e;
-        }
+    public Student provisionStudent(Student student) throws SQLException {
+        student.setStudentId(provision(student, Roles.Student, SqlQueries.ADD_STUDENT, ps -> ps.setInt(2, 0)));
+        student.setApproved(false);
+        return student;
     }
 
     /**
-     * Method to get UserId by EmailId
+     * method for creating a professor, the user and the professor row are inserted in one transaction
      *
-     * @param email EmailId of the User
-     * @return returns UserId
+     * @param professor Professor with name, email, password, phone number, department and designation
+     * @return the same Professor with its user Id, professor Id and role set
+     * @throws SQLException if either row cannot be inserted, nothing is inserted then
      */
-    public int getUserIdByEmail(String email) {
-        try {
-            PreparedStatement ps = conn.prepareStatement(SqlQueries.GET_USER_ID);
-            ps.setString(1, email);
+    @Override
+    public Professor provisionProfessor(Professor professor) throws SQLException {
+        professor.setProfessorId(provision(professor, Roles.Professor, SqlQueries.ADD_PROFESSOR, ps -> {
+            ps.setString(2, professor.getDepartment());
+            ps.setString(3, professor.getDesignation());
+        }));
+        return professor;
+    }
 
-            ResultSet result = ps.executeQuery();
+    /**
+     * method for creating an admin, the user and the admin row are inserted in one transaction
+     *
+     * @param admin User with name, email, password and phone number
+     * @return the same User with its user Id and role set
+     * @throws SQLException if either row cannot be inserted, nothing is inserted then
+     */
+    @Override
+    public User provisionAdmin(User admin) throws SQLException {
+        provision(admin, Roles.Admin, SqlQueries.ADD_ADMIN, ps -> {
+        });
+        return admin;
+    }
 
-            if (result.next()) {
-                return result.getInt("id");
-            }
+    /**
+     * Inserts the user and then its role row, whose first parameter is the user Id read from the generated
+     * keys of the user insert, on one connection and in one transaction
+     *
+     * @return Id of the role row
+     */
+    private static int provision(User user, String role, String roleSql, RoleColumns roleColumns) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement userPs = DBUtil.prepareStatement(conn, SqlQueries.ADD_USER_QUERY, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement rolePs = DBUtil.prepareStatement(conn, roleSql, Statement.RETURN_GENERATED_KEYS)) {
+                userPs.setString(1, user.getUserName());
+                userPs.setString(2, user.getUserEmailId());
+                userPs.setString(3, PasswordHasher.hash(user.getUserPassword()));
+                userPs.setString(4, role);
+                userPs.setString(5, user.getPhoneNo());
+                userPs.executeUpdate();
+                int userId = generatedKey(userPs);
 
-            return -1;
+                rolePs.setInt(1, userId);
+                roleColumns.set(rolePs);
+                rolePs.executeUpdate();
+                int roleId = generatedKey(rolePs);
 
+                conn.commit();
+                user.setId(userId);
+                user.setRole(role);
+                return roleId;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             logger.info("Error: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static int generatedKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("No generated key returned");
+            }
+            return keys.getInt(1);
+        }
+    }
+
+    /**
+     * Sets the parameters of a role row insert that follow the user Id
+     */
+    private interface RoleColumns {
+        void set(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Method to keep the users of a bulk import whose email is not taken, by an existing user or by an
+     * earlier row of the same import. Emails are compared without case, like the unique key of the table.
+     *
+     * @param conn   connection of the import transaction
+     * @param users  users of the import
+     * @param errors rejected rows are added here, numbered by their 1-based position in users
+     * @return users that can be inserted, in import order
+     */
+    static <T extends User> List<T> acceptNewEmails(Connection conn, List<T> users, List<ImportRowError> errors) throws SQLException {
+        Set<String> taken = new HashSet<String>();
+        if (!users.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(users.size(), "?"));
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, String.format(SqlQueries.EXISTING_USER_EMAILS, placeholders))) {
+                for (int i = 0; i < users.size(); i++) {
+                    ps.setString(i + 1, users.get(i).getUserEmailId());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        taken.add(rs.getString("email").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        Set<String> imported = new HashSet<String>();
+        List<T> accepted = new ArrayList<T>();
+        for (int row = 1; row <= users.size(); row++) {
+            T user = users.get(row - 1);
+            String email = user.getUserEmailId().toLowerCase(Locale.ROOT);
+            if (taken.contains(email)) {
+                errors.add(new ImportRowError(row, user.getUserEmailId(), "A user with this email already exists"));
+            } else if (!imported.add(email)) {
+                errors.add(new ImportRowError(row, user.getUserEmailId(), "Email appears on an earlier row"));
+            } else {
+                accepted.add(user);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Method to insert users in one batch, the id of every user is read from the generated keys of the batch
+     * instead of being queried back by email. The passwords are hashed by the caller, before it borrows the
+     * connection, so the transaction is not held open while they are.
+     *
+     * @param conn  connection of the import transaction
+     * @param users users to insert with their password already hashed by {@link PasswordHasher}, their id is set
+     * @param role  Role of the users
+     */
+    static void createUsers(Connection conn, List<? extends User> users, String role) throws SQLException {
+        if (users.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_USER_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                ps.setString(1, user.getUserName());
+                ps.setString(2, user.getUserEmailId());
+                ps.setString(3, user.getUserPassword());
+                ps.setString(4, role);
+                ps.setString(5, user.getPhoneNo());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (User user : users) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated key for " + user.getUserEmailId());
+                    }
+                    user.setId(keys.getInt(1));
+                }
+            }
         }
-        return -1;
     }
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.flipkart.exceptions;
 
-public class CourseAlreadyRegisteredException extends Exception {
+public class CourseAlreadyRegisteredException extends RejectedRequestException {
     private int courseId;
 
     public CourseAlreadyRegisteredException(int courseId) {
+        super(409);
         this.courseId = courseId;
     }
 
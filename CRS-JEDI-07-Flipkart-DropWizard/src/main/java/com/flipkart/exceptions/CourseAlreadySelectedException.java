@@ -4,10 +4,11 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * Implementation of admin dao interface
  */
-public class CourseAlreadySelectedException extends Exception {
+public class CourseAlreadySelectedException extends RejectedRequestException {
     private int courseId;
 
     public CourseAlreadySelectedException(int courseId) {
+        super(409);
         this.courseId = courseId;
     }
 
@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * CourseCountException
  */
-public class CourseCountException extends Exception {
+public class CourseCountException extends RejectedRequestException {
     private String courseType;
     private int courseCount;
     private int requiredCourseCount;
@@ -18,6 +18,7 @@ public class CourseCountException extends Exception {
      * @param requiredCourseCount: number of courses of the given type to be chosen by the student
      */
     public CourseCountException(String courseType, int courseCount, int requiredCourseCount) {
+        super(400);
         this.courseType = courseType;
         this.courseCount = courseCount;
         this.requiredCourseCount = requiredCourseCount;
@@ -5,7 +5,7 @@ package com.flipkart.exceptions;
  * CourseLimitExceededException
  */
 
-public class CourseLimitExceededException extends Exception {
+public class CourseLimitExceededException extends RejectedRequestException {
 
     private int num;
 
@@ -15,6 +15,7 @@ public class CourseLimitExceededException extends Exception {
      * @param num: number of courses
      */
     public CourseLimitExceededException(int num) {
+        super(400);
         this.num = num;
     }
 
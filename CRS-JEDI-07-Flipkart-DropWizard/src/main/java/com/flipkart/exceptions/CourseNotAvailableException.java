@@ -1,9 +1,10 @@
 package com.flipkart.exceptions;
 
-public class CourseNotAvailableException extends Exception {
+public class CourseNotAvailableException extends RejectedRequestException {
     private int courseId;
 
     public CourseNotAvailableException(int courseId) {
+        super(409);
         this.courseId = courseId;
     }
 
@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * CourseNotFoundException
  */
-public class CourseNotFoundException extends Exception {
+public class CourseNotFoundException extends RejectedRequestException {
     private int courseId;
 
     /**
@@ -13,6 +13,7 @@ public class CourseNotFoundException extends Exception {
      * @param courseCode Unique Id of the Course
      */
     public CourseNotFoundException(int courseCode) {
+        super(404);
         this.courseId = courseCode;
     }
 
@@ -1,9 +1,10 @@
 package com.flipkart.exceptions;
 
-public class CourseNotRegisteredByStudentException extends Exception{
+public class CourseNotRegisteredByStudentException extends RejectedRequestException {
     private int courseId;
 
     public CourseNotRegisteredByStudentException(int courseId) {
+        super(400);
         this.courseId = courseId;
     }
 
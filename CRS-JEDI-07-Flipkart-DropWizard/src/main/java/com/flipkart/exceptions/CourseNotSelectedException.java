@@ -4,10 +4,11 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * CourseNotSelectedException
  */
-public class CourseNotSelectedException extends Exception {
+public class CourseNotSelectedException extends RejectedRequestException {
     private int courseId;
 
     public CourseNotSelectedException(int courseId) {
+        super(400);
         this.courseId = courseId;
     }
 
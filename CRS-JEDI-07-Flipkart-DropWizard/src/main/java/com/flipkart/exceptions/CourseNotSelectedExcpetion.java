@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * CourseNotSelectedException
  */
-public class CourseNotSelectedExcpetion extends Exception {
+public class CourseNotSelectedExcpetion extends RejectedRequestException {
     private int courseId;
 
     /**
@@ -13,6 +13,7 @@ public class CourseNotSelectedExcpetion extends Exception {
      * @param courseId Unique Id of the Course
      */
     public CourseNotSelectedExcpetion(int courseId) {
+        super(400);
         this.courseId = courseId;
     }
 
@@ -1,10 +1,11 @@
 package com.flipkart.exceptions;
 
-public class MaxCoursesAlreadySelectedException extends Exception {
+public class MaxCoursesAlreadySelectedException extends RejectedRequestException {
     private int maxCourseCount;
     private String courseType;
 
     public MaxCoursesAlreadySelectedException(int maxCourseCount, String courseType) {
+        super(409);
         this.maxCourseCount = maxCourseCount;
         this.courseType = courseType;
     }
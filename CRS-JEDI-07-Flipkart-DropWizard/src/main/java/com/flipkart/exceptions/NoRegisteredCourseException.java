@@ -4,9 +4,9 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * NoRegisterdCourseException
  */
-public class NoRegisteredCourseException extends Exception {
+public class NoRegisteredCourseException extends RejectedRequestException {
     public static String msg = "No courses have been registered/selected";
     public NoRegisteredCourseException() {
-        super(msg);
+        super(msg, 400);
     }
 }
@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * StudentNotRegisteredException
  */
-public class PaymentIncompleteException extends Exception {
+public class PaymentIncompleteException extends RejectedRequestException {
     private String studentName;
 
     /**
@@ -13,6 +13,7 @@ public class PaymentIncompleteException extends Exception {
      * @param studentName: name of the student
      */
     public PaymentIncompleteException(String studentName) {
+        super(400);
         this.studentName = studentName;
     }
 
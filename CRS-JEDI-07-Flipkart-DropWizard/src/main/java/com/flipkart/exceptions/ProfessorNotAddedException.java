@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * ProfessorNotAddedException
  */
-public class ProfessorNotAddedException extends Exception {
+public class ProfessorNotAddedException extends RejectedRequestException {
     private int professorId;
 
     /**
@@ -13,6 +13,7 @@ public class ProfessorNotAddedException extends Exception {
      * @param professorId Unique Id of the Professor
      */
     public ProfessorNotAddedException(int professorId) {
+        super(400);
         this.professorId = professorId;
     }
 
@@ -0,0 +1,42 @@
+package com.flipkart.exceptions;
+
+/**
+ * @author JEDI-07
+ * Base of the exceptions for the expected rejections of a request, such as a full course or a student
+ * already graded, answered with their HTTP status by {@link com.flipkart.restController.RejectedRequestMapper}.
+ * <p>
+ * A rejection is an outcome and not a fault, so no stack trace is filled in and no suppressed exceptions
+ * are recorded, creating one costs no more than creating its message.
+ */
+public abstract class RejectedRequestException extends Exception {
+    private final int status;
+
+    /**
+     * Parameterized Constructor, for subclasses building their message in getMessage
+     *
+     * @param status HTTP status the request is answered with
+     */
+    protected RejectedRequestException(int status) {
+        this(null, status);
+    }
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param message reason the request is rejected
+     * @param status  HTTP status the request is answered with
+     */
+    protected RejectedRequestException(String message, int status) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    /**
+     * Getter for the status
+     *
+     * @return HTTP status the request is answered with
+     */
+    public int getStatus() {
+        return status;
+    }
+}
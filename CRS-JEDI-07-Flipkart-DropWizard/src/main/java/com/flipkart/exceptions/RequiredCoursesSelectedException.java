@@ -1,10 +1,7 @@
 package com.flipkart.exceptions;
 
-public class RequiredCoursesSelectedException extends Exception{
-    private String msg="Please Select 4 Primary and 2 Secondary Courses.";
-
-    @Override
-    public String getMessage() {
-        return super.getMessage();
+public class RequiredCoursesSelectedException extends RejectedRequestException {
+    public RequiredCoursesSelectedException() {
+        super("Please Select 4 Primary and 2 Secondary Courses.", 400);
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.flipkart.exceptions;
 
-public class SeatNotAvailableException extends Exception {
+public class SeatNotAvailableException extends RejectedRequestException {
     private int courseId;
 
     /**
@@ -8,6 +8,7 @@ public class SeatNotAvailableException extends Exception {
      * @param courseId: courseId
      */
     public SeatNotAvailableException(int courseId) {
+        super(409);
         this.courseId = courseId;
     }
 
@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * StudentAlreadyApprovedException
  */
-public class StudentAlreadyApprovedException extends Exception {
+public class StudentAlreadyApprovedException extends RejectedRequestException {
     private int studentId;
 
     /**
@@ -13,6 +13,7 @@ public class StudentAlreadyApprovedException extends Exception {
      * @param studentId Unique Id of the Student
      */
     public StudentAlreadyApprovedException(int studentId) {
+        super(409);
         this.studentId = studentId;
     }
 
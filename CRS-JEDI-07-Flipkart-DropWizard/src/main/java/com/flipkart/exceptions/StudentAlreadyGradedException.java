@@ -1,11 +1,12 @@
 package com.flipkart.exceptions;
 
 
-public class StudentAlreadyGradedException extends Exception {
+public class StudentAlreadyGradedException extends RejectedRequestException {
     private int studentId;
     private int courseId;
 
     public StudentAlreadyGradedException(int studentId, int courseId) {
+        super(409);
         this.studentId = studentId;
         this.courseId = courseId;
     }
@@ -1,6 +1,10 @@
 package com.flipkart.exceptions;
 
-public class StudentAlreadyRegisteredForSemesterException extends Exception {
+public class StudentAlreadyRegisteredForSemesterException extends RejectedRequestException {
+    public StudentAlreadyRegisteredForSemesterException() {
+        super(409);
+    }
+
     @Override
     public String getMessage() {
         return "Student already registered for the semester";
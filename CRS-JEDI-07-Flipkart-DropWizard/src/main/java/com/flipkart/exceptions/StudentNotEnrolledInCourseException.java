@@ -1,10 +1,11 @@
 package com.flipkart.exceptions;
 
-public class StudentNotEnrolledInCourseException extends Exception{
+public class StudentNotEnrolledInCourseException extends RejectedRequestException {
     private int courseId;
     private int studentId;
 
     public StudentNotEnrolledInCourseException(int courseId, int studentId) {
+        super(400);
         this.courseId = courseId;
         this.studentId = studentId;
     }
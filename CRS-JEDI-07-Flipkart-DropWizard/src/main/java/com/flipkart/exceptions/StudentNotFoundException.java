@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * StudentNotFoundException
  */
-public class StudentNotFoundException extends Exception {
+public class StudentNotFoundException extends RejectedRequestException {
     private int studentId;
 
     /**
@@ -13,6 +13,7 @@ public class StudentNotFoundException extends Exception {
      * @param studentId Unique Id of the Student
      */
     public StudentNotFoundException(int studentId) {
+        super(404);
         this.studentId = studentId;
     }
 
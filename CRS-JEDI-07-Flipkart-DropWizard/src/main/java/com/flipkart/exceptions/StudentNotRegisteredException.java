@@ -4,7 +4,7 @@ package com.flipkart.exceptions;
  * @author JEDI-07
  * StudentNotRegisteredException
  */
-public class StudentNotRegisteredException extends Exception {
+public class StudentNotRegisteredException extends RejectedRequestException {
     private String studentName;
 
     /**
@@ -13,6 +13,7 @@ public class StudentNotRegisteredException extends Exception {
      * @param studentName: name of the student
      */
     public StudentNotRegisteredException(String studentName) {
+        super(400);
         this.studentName = studentName;
     }
 
@@ -1,17 +1,36 @@
 package com.flipkart.restController;
 
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.Timed;
+import com.flipkart.bean.AdmissionPage;
+import com.flipkart.bean.Broadcast;
+import com.flipkart.bean.BulkApproval;
 import com.flipkart.bean.Course;
+import com.flipkart.bean.ImportResult;
 import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
+import com.flipkart.bean.UserSession;
 import com.flipkart.business.*;
+import com.flipkart.constants.Admissions;
+import com.flipkart.constants.Notifications;
 import com.flipkart.constants.Roles;
+import com.flipkart.constants.Timeouts;
 import com.flipkart.exceptions.RESTResponseException;
+import com.flipkart.exceptions.RejectedRequestException;
+import com.flipkart.utils.DbExecutor;
+import io.dropwizard.auth.Auth;
 import org.apache.log4j.Logger;
 
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -25,43 +44,118 @@ public class AdminRestAPI {
     UserInterface userInterface = new UserOperation();
     AdminInterface adminInterface = new AdminOperation();
     CourseInterface courseInterface = new CourseOperation();
+    NotificationInterface notificationInterface = new NotificationOperation();
+    ImportInterface importInterface = new ImportOperation();
+    DbExecutor dbExecutor = DbExecutor.getInstance();
 
     /**
      * Endpoint for getting all the available courses
      *
      * @return list of courses
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/courses")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Course> getCourses() {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Admin)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public List<Course> getCourses(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
         return courseInterface.getCourses();
     }
 
+    /**
+     * Endpoint for reloading the course catalog from the database
+     *
+     * @return version of the reloaded catalog
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/courses/refresh")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response refreshCourses(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            return Response
+                    .status(403)
+                    .entity("Access Denied")
+                    .build();
+        }
+        long version = courseInterface.refreshCourses();
+        if (version < 0) {
+            return Response
+                    .status(500)
+                    .entity("Course catalog could not be refreshed.")
+                    .build();
+        }
+        return Response
+                .status(200)
+                .entity("Course catalog refreshed to version " + version + ".")
+                .build();
+    }
+
+    /**
+     * Endpoint for downloading the whole course catalog
+     *
+     * @param format csv or json, csv by default
+     * @return streamed catalog
+     */
+    @Timed
+    @ExceptionMetered
+    @GET
+    @Path("/export/courses")
+    @Produces({"text/csv", MediaType.APPLICATION_JSON})
+    public Response exportCourses(@Auth UserSession session, @QueryParam("format") String format) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        return ExportResponses.stream(courseInterface.exportCourses(), format, "courses");
+    }
+
+    /**
+     * Endpoint for importing students, professors or courses from a CSV upload with a header line
+     *
+     * @param kind students, professors or courses
+     * @param csv  uploaded rows
+     * @return number of imported and rejected rows, the rejected rows and the throughput
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/import/{kind}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes("text/csv")
+    public ImportResult importCsv(@Auth UserSession session, @PathParam("kind") String kind, @NotNull InputStream csv) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        try {
+            return importInterface.importCsv(kind, new InputStreamReader(csv, StandardCharsets.UTF_8));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RESTResponseException(e.getMessage(), 400);
+        }
+    }
+
     /**
      * Endpoint for adding a new course
      *
      * @param course course
      * @return isCourseAdded
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/course")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response addCourse(@NotNull Course course) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Admin)) {
+    public Response addCourse(@Auth UserSession session, @NotNull Course course) {
+        if (!session.hasRole(Roles.Admin)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
@@ -92,19 +186,14 @@ public class AdminRestAPI {
      * @param professor professor
      * @return isProfessorAdded
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/professor")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response addProfessor(@NotNull Professor professor) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Admin)) {
+    public Response addProfessor(@Auth UserSession session, @NotNull Professor professor) {
+        if (!session.hasRole(Roles.Admin)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
@@ -112,7 +201,7 @@ public class AdminRestAPI {
                     .build();
         }
         try {
-            boolean isProfessorAdded = adminInterface.addProfessor(
+            Professor added = adminInterface.addProfessor(
                     professor.getUserName(),
                     professor.getUserEmailId(),
                     professor.getUserPassword(),
@@ -120,7 +209,7 @@ public class AdminRestAPI {
                     professor.getDepartment(),
                     professor.getDesignation()
             );
-            if (isProfessorAdded) {
+            if (added != null) {
                 return Response
                         .status(201)
                         .entity("Professor Added Successfully.")
@@ -141,40 +230,31 @@ public class AdminRestAPI {
      * @param course course
      * @return isCourseDeleted
      */
+    @Timed
+    @ExceptionMetered
     @DELETE
     @Path("/course")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response removeCourse(@NotNull Course course) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Admin)) {
+    public Response removeCourse(@Auth UserSession session, @NotNull Course course) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Admin)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
                     .entity("Access Denied")
                     .build();
         }
-        try {
-            boolean isCourseRemoved = adminInterface.removeCourse(course.getCourseId());
-            if (isCourseRemoved) {
-                return Response
-                        .status(204)
-                        .entity("Course Removed Successfully.")
-                        .build();
-            }
+        boolean isCourseRemoved = adminInterface.removeCourse(course.getCourseId());
+        if (isCourseRemoved) {
             return Response
-                    .status(400)
-                    .entity("Course cannot be removed.")
+                    .status(204)
+                    .entity("Course Removed Successfully.")
                     .build();
-        } catch (Exception e) {
-            throw new RESTResponseException(e.getMessage(), 400);
         }
+        return Response
+                .status(400)
+                .entity("Course cannot be removed.")
+                .build();
     }
 
     /**
@@ -182,33 +262,84 @@ public class AdminRestAPI {
      *
      * @return list of professors
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/professors")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Professor> getProfessors() {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Admin)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public List<Professor> getProfessors(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
         return adminInterface.getProfessors();
     }
 
     /**
-     * Endpoint for fetching admission requests
+     * Endpoint for fetching a page of the admission requests, by student id
      *
-     * @return list of students
+     * @param cursor id of the last student already seen, 0 for the first page
+     * @param limit  number of students, 50 by default and at most 500
+     * @param prefix        prefix of the name or email of the students, every student if absent
+     * @param asyncResponse resumed with the page of students and the cursor of the next page, read on the
+     *                      database executor
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/admissions")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Student> getAdmissionRequests() {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Admin)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public void getAdmissionRequests(@Auth UserSession session, @QueryParam("cursor") int cursor,
+                                     @QueryParam("limit") int limit, @QueryParam("prefix") String prefix,
+                                     @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        dbExecutor.submit("getAdmissionRequests", asyncResponse, Timeouts.ADMISSION_PAGE_MS, () -> {
+            AdmissionPage page = adminInterface.getAdmissionRequests(cursor, prefix, limit);
+            if (page == null) {
+                throw new RESTResponseException("Admission requests cannot be fetched", 500);
+            }
+            return page;
+        });
+    }
+
+    /**
+     * Endpoint for approving many admission requests at once, either a list of student ids or every waiting
+     * student whose name or email starts with a prefix, an empty prefix approves every waiting student
+     *
+     * @param approval      studentIds or prefix
+     * @param asyncResponse resumed with the number of approved students, approved on the database executor
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/admissions/approve")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void approveAdmissionRequests(@Auth UserSession session, @NotNull BulkApproval approval,
+                                         @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        List<Integer> studentIds = approval.getStudentIds();
+        if ((studentIds == null) == (approval.getPrefix() == null)) {
+            throw new RESTResponseException("Either studentIds or prefix is required", 400);
+        }
+        if (studentIds != null && (studentIds.isEmpty() || studentIds.size() > Admissions.MAX_APPROVALS_PER_LIST || studentIds.contains(null))) {
+            throw new RESTResponseException("studentIds holds between 1 and " + Admissions.MAX_APPROVALS_PER_LIST + " students", 400);
         }
-        return adminInterface.getAdmissionRequests();
+        dbExecutor.submit("approveAdmissionRequests", asyncResponse, Timeouts.BULK_APPROVAL_MS, () -> {
+            BulkApproval approved = adminInterface.approveStudentRequests(approval, session.getUser().getId());
+            if (approved == null) {
+                throw new RESTResponseException("Admission requests cannot be approved", 500);
+            }
+            return approved;
+        });
     }
 
     /**
@@ -217,40 +348,74 @@ public class AdminRestAPI {
      * @param student student
      * @return isRequestApproved
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/approve")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response approveAdmissionRequest(@NotNull Student student) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
+    public Response approveAdmissionRequest(@Auth UserSession session, @NotNull Student student) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Admin)) {
+            logger.info("Error: Access Denied");
+            return Response
+                    .status(403)
+                    .entity("Access Denied")
+                    .build();
+        }
+        boolean isApproved = adminInterface.approveStudentRequest(student.getStudentId());
+        if (isApproved) {
             return Response
-                    .status(401)
-                    .entity("Login Required.")
+                    .status(200)
+                    .entity("Admission Request for student with student ID: " + student.getStudentId() + " approved successfully.")
                     .build();
         }
-        if (!UserOperation.user.getRole().equals(Roles.Admin)) {
+        return Response
+                .status(400)
+                .entity("Admission Request for student with student ID: " + student.getStudentId() + " cannot be approved.")
+                .build();
+
+    }
+
+    /**
+     * Endpoint for sending one notification to all the students of a course, all the registered students
+     * or all the students with a pending fee
+     *
+     * @param broadcast broadcast with audience, courseId and content
+     * @return sent broadcast with its id and number of recipients
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/broadcast")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response broadcast(@Auth UserSession session, @NotNull Broadcast broadcast) {
+        if (!session.hasRole(Roles.Admin)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
                     .entity("Access Denied")
                     .build();
         }
-        try {
-            boolean isApproved = adminInterface.approveStudentRequest(student.getStudentId());
-            if (isApproved) {
-                return Response
-                        .status(200)
-                        .entity("Admission Request for student with student ID: " + student.getStudentId() + " approved successfully.")
-                        .build();
-            }
+        if (!Notifications.AUDIENCE_COURSE.equals(broadcast.getAudience())
+                && !Notifications.AUDIENCE_REGISTERED.equals(broadcast.getAudience())
+                && !Notifications.AUDIENCE_PENDING_FEE.equals(broadcast.getAudience())) {
+            throw new RESTResponseException("Audience must be one of " + Notifications.AUDIENCE_COURSE + ", "
+                    + Notifications.AUDIENCE_REGISTERED + ", " + Notifications.AUDIENCE_PENDING_FEE, 400);
+        }
+        if (broadcast.getContent() == null || broadcast.getContent().trim().isEmpty()) {
+            throw new RESTResponseException("Broadcast content cannot be empty", 400);
+        }
+        broadcast.setSenderId(session.getUser().getId());
+        if (notificationInterface.broadcast(broadcast)) {
             return Response
-                    .status(400)
-                    .entity("Admission Request for student with student ID: " + student.getStudentId() + " cannot be approved.")
+                    .status(201)
+                    .entity(broadcast)
                     .build();
-        } catch (Exception e) {
-            throw new RESTResponseException(e.getMessage(), 400);
         }
-
+        return Response
+                .status(400)
+                .entity("Broadcast cannot be sent.")
+                .build();
     }
 }
@@ -0,0 +1,59 @@
+package com.flipkart.restController;
+
+import com.flipkart.exceptions.RESTResponseException;
+import com.flipkart.utils.DbExecutor;
+import com.flipkart.utils.Export;
+import com.flipkart.utils.ExportWriter;
+import org.apache.log4j.Logger;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * @author JEDI-07
+ * Streaming responses of the export endpoints, the rows are written to the client while they are read.
+ * Only {@link DbExecutor#tryStartExport()} exports are written at once, the others are answered with 503.
+ */
+final class ExportResponses {
+    private static Logger logger = Logger.getLogger(ExportResponses.class);
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Method to build the response of an export
+     *
+     * @param export   export whose checks have passed
+     * @param format   {@link ExportWriter#CSV} or {@link ExportWriter#JSON}, CSV when null
+     * @param fileName name of the downloaded file, without extension
+     * @return streaming response, 503 with Retry-After when too many exports are being written
+     */
+    static Response stream(Export export, String format, String fileName) {
+        String requested = format == null ? ExportWriter.CSV : format.toLowerCase();
+        String mediaType = ExportWriter.mediaType(requested);
+        if (mediaType == null) {
+            throw new RESTResponseException("Format must be " + ExportWriter.CSV + " or " + ExportWriter.JSON, 400);
+        }
+        DbExecutor dbExecutor = DbExecutor.getInstance();
+        if (!dbExecutor.tryStartExport()) {
+            return dbExecutor.exportsUnavailable();
+        }
+        StreamingOutput output = out -> {
+            try {
+                export.writeTo(ExportWriter.create(requested, out));
+            } catch (SQLException e) {
+                // the status is already sent, the client sees a truncated body
+                logger.info("Error: " + e.getMessage());
+                throw new IOException("Export " + fileName + " failed", e);
+            } finally {
+                dbExecutor.endExport();
+            }
+        };
+        return Response.ok(output, mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + requested + "\"")
+                .build();
+    }
+}
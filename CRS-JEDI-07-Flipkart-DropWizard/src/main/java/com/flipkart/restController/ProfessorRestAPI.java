@@ -1,20 +1,37 @@
 package com.flipkart.restController;
 
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.Timed;
+import com.flipkart.bean.Broadcast;
 import com.flipkart.bean.Course;
 import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeUploadResult;
 import com.flipkart.bean.Student;
+import com.flipkart.bean.UserSession;
 import com.flipkart.business.ProfessorInterface;
 import com.flipkart.business.ProfessorOperation;
 import com.flipkart.business.UserInterface;
 import com.flipkart.business.UserOperation;
+import com.flipkart.constants.Courses;
 import com.flipkart.constants.Roles;
+import com.flipkart.constants.Timeouts;
 import com.flipkart.exceptions.RESTResponseException;
+import com.flipkart.exceptions.RejectedRequestException;
+import com.flipkart.utils.DbExecutor;
+import com.flipkart.utils.GradeCsv;
+import io.dropwizard.auth.Auth;
 import org.apache.log4j.Logger;
 
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -26,6 +43,7 @@ public class ProfessorRestAPI {
     Logger logger = Logger.getLogger(ProfessorRestAPI.class);
     UserInterface userInterface = new UserOperation();
     ProfessorInterface professorInterface = new ProfessorOperation();
+    DbExecutor dbExecutor = DbExecutor.getInstance();
 
     /**
      * Endpoint for fetching courses
@@ -33,17 +51,19 @@ public class ProfessorRestAPI {
      * @param selected selected courses
      * @return list of courses
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/courses")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Course> getCourses(@QueryParam("selected") int selected) {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Professor)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public List<Course> getCourses(@Auth UserSession session, @QueryParam("selected") int selected) {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
         if (selected == 1)
-            return professorInterface.getSelectedCourses();
+            return professorInterface.getSelectedCourses(session.getProfessor());
         return professorInterface.getAvailableCourses();
     }
 
@@ -53,40 +73,31 @@ public class ProfessorRestAPI {
      * @param course course
      * @return isCourseAdded
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/course")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response selectCourse(@NotNull Course course) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Professor)) {
+    public Response selectCourse(@Auth UserSession session, @NotNull Course course) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Professor)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
                     .entity("Access Denied")
                     .build();
         }
-        try {
-            boolean isCourseSelected = professorInterface.selectCourse(course.getCourseId());
-            if (isCourseSelected) {
-                return Response
-                        .status(201)
-                        .entity("Course with course id: " + course.getCourseId() + " selected successfully.")
-                        .build();
-            }
+        boolean isCourseSelected = professorInterface.selectCourse(session.getProfessor(), course.getCourseId());
+        if (isCourseSelected) {
             return Response
-                    .status(400)
-                    .entity("Course with course id: " + course.getCourseId() + " cannot be selected.")
+                    .status(201)
+                    .entity("Course with course id: " + course.getCourseId() + " selected successfully.")
                     .build();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
         }
+        return Response
+                .status(400)
+                .entity("Course with course id: " + course.getCourseId() + " cannot be selected.")
+                .build();
     }
 
     /**
@@ -95,63 +106,93 @@ public class ProfessorRestAPI {
      * @param course course
      * @return isCourseDropped
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/dropcourse")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response dropCourse(@NotNull Course course) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Professor)) {
+    public Response dropCourse(@Auth UserSession session, @NotNull Course course) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Professor)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
                     .entity("Access Denied")
                     .build();
         }
-        try {
-            boolean isCourseDeselected = professorInterface.deselectCourse(course.getCourseId());
-            if (isCourseDeselected) {
-                return Response
-                        .status(200)
-                        .entity("Course with course id: " + course.getCourseId() + " dropped successfully.")
-                        .build();
-            }
+        boolean isCourseDeselected = professorInterface.deselectCourse(session.getProfessor(), course.getCourseId());
+        if (isCourseDeselected) {
             return Response
-                    .status(400)
-                    .entity("Course with course id: " + course.getCourseId() + " cannot be dropped.")
+                    .status(200)
+                    .entity("Course with course id: " + course.getCourseId() + " dropped successfully.")
                     .build();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
         }
+        return Response
+                .status(400)
+                .entity("Course with course id: " + course.getCourseId() + " cannot be dropped.")
+                .build();
 
     }
 
     /**
-     * Endpoint for getting list of enrolled students
+     * Endpoint for getting list of enrolled students, read on the database executor
      *
-     * @param courseId courseId
-     * @return list of students
+     * @param courseId      courseId
+     * @param asyncResponse resumed with the list of students
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/enrolledStudents")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Student> getEnrolledStudents(@QueryParam("courseId") int courseId) {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Professor)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public void getEnrolledStudents(@Auth UserSession session, @QueryParam("courseId") int courseId, @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
-        try {
-            return professorInterface.getEnrolledStudents(courseId);
-        } catch (Exception e) {
-            throw new RESTResponseException(e.getMessage(), 400);
+        dbExecutor.submit("getEnrolledStudents", asyncResponse, Timeouts.ENROLLED_STUDENTS_MS,
+                () -> professorInterface.getEnrolledStudents(session.getProfessor(), courseId));
+    }
+
+    /**
+     * Endpoint for downloading the students allotted to a course
+     *
+     * @param courseId courseId
+     * @param format   csv or json, csv by default
+     * @return streamed roster
+     */
+    @Timed
+    @ExceptionMetered
+    @GET
+    @Path("/export/roster")
+    @Produces({"text/csv", MediaType.APPLICATION_JSON})
+    public Response exportRoster(@Auth UserSession session, @QueryParam("courseId") int courseId, @QueryParam("format") String format) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
+        return ExportResponses.stream(professorInterface.exportRoster(session.getProfessor(), courseId), format, "roster-" + courseId);
+    }
+
+    /**
+     * Endpoint for downloading the grades of a course
+     *
+     * @param courseId courseId
+     * @param format   csv or json, csv by default
+     * @return streamed grade sheet
+     */
+    @Timed
+    @ExceptionMetered
+    @GET
+    @Path("/export/grades")
+    @Produces({"text/csv", MediaType.APPLICATION_JSON})
+    public Response exportGradeSheet(@Auth UserSession session, @QueryParam("courseId") int courseId, @QueryParam("format") String format) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        return ExportResponses.stream(professorInterface.exportGradeSheet(session.getProfessor(), courseId), format, "grades-" + courseId);
     }
 
     /**
@@ -160,39 +201,130 @@ public class ProfessorRestAPI {
      * @param grade grade
      * @return isGradeAdded
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/gradeStudent")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response gradeStudent(@NotNull Grade grade) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
+    public Response gradeStudent(@Auth UserSession session, @NotNull Grade grade) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            return Response
+                    .status(403)
+                    .entity("Access Denied")
+                    .build();
+        }
+        boolean graded = professorInterface.addGrade(session.getProfessor(), grade.getStudentId(), grade.getCourseId(), grade.getGpa());
+        if (graded) {
             return Response
-                    .status(401)
-                    .entity("Login Required.")
+                    .status(201)
+                    .entity("Grade for student with studentId " + grade.getStudentId() + " added successfully.")
                     .build();
         }
-        if (!UserOperation.user.getRole().equals(Roles.Professor)) {
+        return Response
+                .status(400)
+                .entity("Grade for student with studentId " + grade.getStudentId() + " cannot be added.")
+                .build();
+    }
+
+    /**
+     * Endpoint for grading many students of a course at once, graded on the database executor
+     *
+     * @param courseId      courseId
+     * @param grades        grades with studentId and gpa
+     * @param asyncResponse resumed with the number of grades added and the rejected rows
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/grades")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void gradeStudents(@Auth UserSession session, @QueryParam("courseId") int courseId, @NotNull List<Grade> grades,
+                              @Suspended AsyncResponse asyncResponse) {
+        addGrades(session, courseId, grades, asyncResponse);
+    }
+
+    /**
+     * Endpoint for grading many students of a course at once from a CSV upload of studentId,gpa lines, the
+     * upload is read on the request thread and graded on the database executor
+     *
+     * @param courseId      courseId
+     * @param csv           uploaded grades
+     * @param asyncResponse resumed with the number of grades added and the rejected rows
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/grades")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes("text/csv")
+    public void gradeStudentsFromCsv(@Auth UserSession session, @QueryParam("courseId") int courseId, @NotNull InputStream csv,
+                                     @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        List<Grade> grades;
+        try {
+            grades = GradeCsv.read(new InputStreamReader(csv, StandardCharsets.UTF_8), courseId, Courses.MAX_GRADES_PER_UPLOAD);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RESTResponseException(e.getMessage(), 400);
+        }
+        addGrades(session, courseId, grades, asyncResponse);
+    }
+
+    private void addGrades(UserSession session, int courseId, List<Grade> grades, AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Professor)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        if (grades.isEmpty() || grades.size() > Courses.MAX_GRADES_PER_UPLOAD) {
+            throw new RESTResponseException("An upload holds between 1 and " + Courses.MAX_GRADES_PER_UPLOAD + " grades", 400);
+        }
+        dbExecutor.submit("addGrades", asyncResponse, Timeouts.GRADE_UPLOAD_MS, () -> {
+            GradeUploadResult result = professorInterface.addGrades(session.getProfessor(), courseId, grades);
+            if (result == null) {
+                throw new RESTResponseException("Grades for course with courseId " + courseId + " cannot be added.", 500);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Endpoint for sending one notification to all the students enrolled in a course taught by the professor
+     *
+     * @param broadcast broadcast with courseId and content
+     * @return sent broadcast with its id and number of recipients
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/broadcast")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response broadcast(@Auth UserSession session, @NotNull Broadcast broadcast) throws RejectedRequestException {
+        if (!session.hasRole(Roles.Professor)) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
                     .entity("Access Denied")
                     .build();
         }
-        try {
-            boolean graded = professorInterface.addGrade(grade.getStudentId(), grade.getCourseId(), grade.getGpa());
-            if (graded) {
-                return Response
-                        .status(201)
-                        .entity("Grade for student with studentId " + grade.getStudentId() + " added successfully.")
-                        .build();
-            }
+        if (broadcast.getContent() == null || broadcast.getContent().trim().isEmpty()) {
+            throw new RESTResponseException("Broadcast content cannot be empty", 400);
+        }
+        broadcast.setSenderId(session.getUser().getId());
+        if (professorInterface.broadcastToCourse(session.getProfessor(), broadcast)) {
             return Response
-                    .status(400)
-                    .entity("Grade for student with studentId " + grade.getStudentId() + " cannot be added.")
+                    .status(201)
+                    .entity(broadcast)
                     .build();
-        } catch (Exception e) {
-            throw new RESTResponseException(e.getMessage(), 400);
         }
+        return Response
+                .status(400)
+                .entity("Broadcast to course with courseId " + broadcast.getCourseId() + " cannot be sent.")
+                .build();
     }
 }
@@ -0,0 +1,28 @@
+package com.flipkart.restController;
+
+import com.flipkart.exceptions.RejectedRequestException;
+import org.apache.log4j.Logger;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * @author JEDI-07
+ * Answers the expected rejections thrown by the endpoints with the HTTP status of the rejection and its
+ * message, so the endpoints let them through instead of catching and wrapping each of them.
+ */
+@Provider
+public class RejectedRequestMapper implements ExceptionMapper<RejectedRequestException> {
+    private static Logger logger = Logger.getLogger(RejectedRequestMapper.class);
+
+    @Override
+    public Response toResponse(RejectedRequestException e) {
+        String message = "Error: " + e.getMessage();
+        if (logger.isDebugEnabled()) {
+            logger.debug(message);
+        }
+        return Response.status(e.getStatus()).entity(message).type(MediaType.TEXT_PLAIN).build();
+    }
+}
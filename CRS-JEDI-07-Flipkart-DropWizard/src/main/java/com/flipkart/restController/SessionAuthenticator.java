@@ -0,0 +1,35 @@
+package com.flipkart.restController;
+
+import com.flipkart.bean.UserSession;
+import com.flipkart.utils.SessionStore;
+import io.dropwizard.auth.Authenticator;
+
+import java.util.Optional;
+
+/**
+ * @author JEDI-07
+ * Resolves the bearer token of a request into the logged in session
+ */
+public class SessionAuthenticator implements Authenticator<String, UserSession> {
+    private final SessionStore sessionStore;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param sessionStore store holding the open sessions
+     */
+    public SessionAuthenticator(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Method to authenticate a session token
+     *
+     * @param token bearer token sent by the client
+     * @return the session for the token, absent if the token is unknown or expired
+     */
+    @Override
+    public Optional<UserSession> authenticate(String token) {
+        return Optional.ofNullable(sessionStore.resolve(token));
+    }
+}
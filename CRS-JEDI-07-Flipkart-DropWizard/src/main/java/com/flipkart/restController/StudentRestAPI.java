@@ -1,16 +1,33 @@
 package com.flipkart.restController;
 
 
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.Timed;
 import com.flipkart.bean.*;
 import com.flipkart.business.*;
+import com.flipkart.constants.Notifications;
 import com.flipkart.constants.Roles;
+import com.flipkart.constants.Timeouts;
 import com.flipkart.exceptions.RESTResponseException;
+import com.flipkart.utils.DbExecutor;
+import com.flipkart.utils.NotificationHub;
+import io.dropwizard.auth.Auth;
 import org.apache.log4j.Logger;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.server.Request;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.SseFeature;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -23,45 +40,53 @@ public class StudentRestAPI {
     CourseInterface courseInterface = new CourseOperation();
     StudentInterface studentInterface = new StudentOperation();
     NotificationInterface notificationInterface = new NotificationOperation();
+    NotificationHub notificationHub = NotificationHub.getInstance();
     UserInterface userInterface = new UserOperation();
     SemesterRegistrationInterface semesterRegistrationInterface = new SemesterRegistrationOperation();
+    DbExecutor dbExecutor = DbExecutor.getInstance();
 
     /**
      * Endpoint for fetching all the courses
      *
      * @return list of courses
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/courses")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Course> getCourses() {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Student)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public List<Course> getCourses(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
         return courseInterface.getCourses();
     }
 
     /**
-     * Endpoint for getting the gradecard
+     * Endpoint for getting the gradecard, read on the database executor
      *
-     * @return GradeCard
+     * @param asyncResponse resumed with the GradeCard
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/gradecard")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public GradeCard getGradeCard() {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Student)) {
-            logger.info("Error: User not authenticated.");
-            return null;
-        }
-        try {
-            return studentInterface.getGradeCard();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
+    public void getGradeCard(@Auth UserSession session, @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
+        dbExecutor.submit("getGradeCard", asyncResponse, Timeouts.GRADE_CARD_MS, () -> {
+            try {
+                return studentInterface.getGradeCard(session.getStudent());
+            } catch (SQLException e) {
+                throw new RESTResponseException("Error: " + e.getMessage(), 400);
+            }
+        });
     }
 
 
@@ -70,36 +95,146 @@ public class StudentRestAPI {
      *
      * @return list of notifications
      */
+    @Timed
+    @ExceptionMetered
     @GET
     @Path("/notifications")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<Notification> showNotifications() {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Student)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public List<Notification> showNotifications(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
-        return notificationInterface.getNotifications();
+        return notificationInterface.getNotifications(session.getStudent().getStudentId());
     }
 
     /**
-     * Endpoint for paying any fee required
+     * Endpoint for fetching the notifications after a cursor, oldest first.
+     * Polling with the nextCursor of the last page returns only the new notifications.
      *
-     * @return isPayementDone
+     * @param cursor id of the last notification already seen, 0 for the first page
+     * @param limit  page size, capped by the server
+     * @return page of notifications
+     */
+    @Timed
+    @ExceptionMetered
+    @GET
+    @Path("/notifications/feed")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public NotificationPage getNotificationFeed(@Auth UserSession session, @QueryParam("cursor") int cursor, @QueryParam("limit") int limit) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        NotificationPage page = notificationInterface.getNotificationPage(session.getStudent().getStudentId(), cursor, limit);
+        if (page == null) {
+            throw new RESTResponseException("Something went wrong.", 500);
+        }
+        return page;
+    }
+
+    /**
+     * Endpoint streaming the new notifications as server-sent events, named "notification" with the
+     * notification id as event id. A client reconnecting with the Last-Event-ID header first gets the
+     * notifications it missed, up to one page; when more were missed a "gap" event carries the cursor
+     * from which the client pages the rest from /student/notifications/feed.
+     *
+     * @param lastEventId id of the last notification received, -1 to only stream new notifications
+     * @return event stream
+     */
+    @Timed
+    @ExceptionMetered
+    @GET
+    @Path("/notifications/stream")
+    @Produces(SseFeature.SERVER_SENT_EVENTS)
+    public EventOutput streamNotifications(@Auth UserSession session, @Context HttpServletRequest request,
+                                           @HeaderParam(SseFeature.LAST_EVENT_ID_HEADER) @DefaultValue("-1") int lastEventId) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        int studentId = session.getStudent().getStudentId();
+        EventOutput output = new EventOutput();
+        EndPoint endPoint = Request.getBaseRequest(request).getHttpChannel().getEndPoint();
+        NotificationHub.Subscription subscription = notificationHub.subscribe(studentId, output, lastEventId >= 0, endPoint::close);
+        if (subscription == null) {
+            throw new RESTResponseException("Too many open notification streams, use /student/notifications/feed", 503);
+        }
+        if (lastEventId >= 0) {
+            NotificationPage page = notificationInterface.getNotificationPage(studentId, lastEventId, Notifications.MAX_PAGE_SIZE);
+            if (page == null) {
+                notificationHub.catchUp(subscription, Collections.<Notification>emptyList(), lastEventId);
+            } else {
+                notificationHub.catchUp(subscription, page.getNotifications(), page.isHasMore() ? page.getNextCursor() : -1);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Endpoint for counting the unread notifications
+     *
+     * @return number of unread notifications
      */
+    @Timed
+    @ExceptionMetered
+    @GET
+    @Path("/notifications/unread")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public int getUnreadCount(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
+        }
+        int unread = notificationInterface.getUnreadCount(session.getStudent().getStudentId());
+        if (unread < 0) {
+            throw new RESTResponseException("Something went wrong.", 500);
+        }
+        return unread;
+    }
+
+    /**
+     * Endpoint for marking the notifications up to the given one as read
+     *
+     * @param notification notification with the id of the last notification read
+     * @return isMarkedRead
+     */
+    @Timed
+    @ExceptionMetered
     @POST
-    @Path("/payfee")
+    @Path("/notifications/read")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response payfee() {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
+    public Response markNotificationsRead(@Auth UserSession session, @NotNull Notification notification) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
             return Response
-                    .status(401)
-                    .entity("Login Required.")
+                    .status(403)
+                    .entity("Access Denied")
                     .build();
         }
-        if (!UserOperation.user.getRole().equals(Roles.Student) || !StudentOperation.student.isApproved()) {
+        if (notificationInterface.markNotificationsRead(session.getStudent().getStudentId(), notification.getNotificationId())) {
+            return Response.status(200).entity("Notifications up to " + notification.getNotificationId() + " marked as read.").build();
+        }
+        return Response.status(500).entity("Something went wrong.").build();
+    }
+
+    /**
+     * Endpoint for paying any fee required
+     *
+     * @return isPayementDone
+     */
+    @Timed
+    @ExceptionMetered
+    @POST
+    @Path("/payfee")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response payfee(@Auth UserSession session) {
+        if (!session.hasRole(Roles.Student) || !session.getStudent().isApproved()) {
             logger.info("Error: Access Denied");
             return Response
                     .status(403)
@@ -107,9 +242,9 @@ public class StudentRestAPI {
                     .build();
         }
 
-        double feePending = semesterRegistrationInterface.getPendingFee();
+        double feePending = semesterRegistrationInterface.getPendingFee(session.getStudent());
         if (feePending != 0) {
-            boolean feePayed = semesterRegistrationInterface.payFee(feePending);
+            boolean feePayed = semesterRegistrationInterface.payFee(session.getStudent(), feePending);
             if (feePayed) {
                 return Response.status(200).entity("Fee payment Successful.").build();
             }
@@ -120,149 +255,142 @@ public class StudentRestAPI {
 
 
     /**
-     * Endpoing for adding course
+     * Endpoing for adding course, added on the database executor
      *
-     * @param optedCourse optedCourse
-     * @return isCourseAdded
+     * @param optedCourse   optedCourse
+     * @param asyncResponse resumed with isCourseAdded
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/semester/addcourse")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response addcourse(OptedCourse optedCourse) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Student) || !StudentOperation.student.isApproved()) {
+    public void addcourse(@Auth UserSession session, OptedCourse optedCourse, @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Student) || !session.getStudent().isApproved()) {
             logger.info("Error: Access Denied");
-            return Response
+            asyncResponse.resume(Response
                     .status(403)
                     .entity("Access Denied")
-                    .build();
+                    .build());
+            return;
         }
-        try {
-            boolean isCourseAdded = semesterRegistrationInterface.addCourse(optedCourse.getCourseId(), optedCourse.getIsPrimary() ? 1 : 0);
-            if (isCourseAdded) {
-                return Response.status(201).entity("Course with course id: " + optedCourse.getCourseId() + " added successfully").build();
+        dbExecutor.submit("addcourse", asyncResponse, Timeouts.ADD_COURSE_MS, () -> {
+            try {
+                boolean isCourseAdded = semesterRegistrationInterface.addCourse(session.getStudent(), optedCourse.getCourseId(), optedCourse.getIsPrimary() ? 1 : 0);
+                if (isCourseAdded) {
+                    return Response.status(201).entity("Course with course id: " + optedCourse.getCourseId() + " added successfully").build();
+                }
+                return Response.status(200).entity("Course with course id: " + optedCourse.getCourseId() + " cannot be added").build();
+            } catch (SQLException e) {
+                throw new RESTResponseException("Error: " + e.getMessage(), 400);
             }
-            return Response.status(200).entity("Course with course id: " + optedCourse.getCourseId() + " cannot be added").build();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
-        }
+        });
     }
 
 
     /**
-     * Endpoint for dropping course
+     * Endpoint for dropping course, dropped on the database executor
      *
-     * @param optedCourse optedcourse
-     * @return isCourseDropped
+     * @param optedCourse   optedcourse
+     * @param asyncResponse resumed with isCourseDropped
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/semester/dropcourse")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response dropcourse(OptedCourse optedCourse) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Student) || !StudentOperation.student.isApproved()) {
+    public void dropcourse(@Auth UserSession session, OptedCourse optedCourse, @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Student) || !session.getStudent().isApproved()) {
             logger.info("Error: Access Denied");
-            return Response
+            asyncResponse.resume(Response
                     .status(403)
                     .entity("Access Denied")
-                    .build();
+                    .build());
+            return;
         }
-        try {
-            boolean isCourseDropped = semesterRegistrationInterface.dropCourse(optedCourse.getCourseId());
-            if (isCourseDropped) {
+        dbExecutor.submit("dropcourse", asyncResponse, Timeouts.DROP_COURSE_MS, () -> {
+            try {
+                boolean isCourseDropped = semesterRegistrationInterface.dropCourse(session.getStudent(), optedCourse.getCourseId());
+                if (isCourseDropped) {
+                    return Response
+                            .status(201)
+                            .entity("Course with course id: " + optedCourse.getCourseId() + " dropped successfully")
+                            .build();
+                }
                 return Response
-                        .status(201)
-                        .entity("Course with course id: " + optedCourse.getCourseId() + " dropped successfully")
+                        .status(200)
+                        .entity("Course with course id: " + optedCourse.getCourseId() + " cannot be dropped")
                         .build();
+            } catch (SQLException e) {
+                throw new RESTResponseException("Error: " + e.getMessage(), 400);
             }
-            return Response
-                    .status(200)
-                    .entity("Course with course id: " + optedCourse.getCourseId() + " cannot be dropped")
-                    .build();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
-        }
-
+        });
     }
 
     /**
-     * Endpoing for fetching all the selected courses
+     * Endpoing for fetching all the selected courses, read on the database executor
      *
-     * @param selected selectec course only
-     * @return list of optedcourse
+     * @param selected      selectec course only
+     * @param asyncResponse resumed with the list of optedcourse
      */
+    @Timed(name = "getSemesterCourses")
+    @ExceptionMetered(name = "getSemesterCourses.exceptions")
     @GET
     @Path("/semester/courses")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<OptedCourse> getCourses(@QueryParam("selected") int selected) {
-        if (UserOperation.user == null || !UserOperation.user.getRole().equals(Roles.Student)) {
-            logger.info("Error: User not authenticated.");
-            return null;
+    public void getCourses(@Auth UserSession session, @QueryParam("selected") int selected, @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Student)) {
+            logger.info("Error: Access Denied");
+            throw new RESTResponseException("Access Denied", 403);
         }
-        try {
+        dbExecutor.submit("getSemesterCourses", asyncResponse, Timeouts.SEMESTER_COURSES_MS, () -> {
             if (selected == 1) {
-                return semesterRegistrationInterface.getSelectedCourses();
+                return semesterRegistrationInterface.getSelectedCourses(session.getStudent());
             }
-            return semesterRegistrationInterface.getRegisteredCourses();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
-        }
-
+            return semesterRegistrationInterface.getRegisteredCourses(session.getStudent());
+        });
     }
 
     /**
-     * Enpoint for submitting the selected choices
+     * Enpoint for submitting the selected choices, allotted on the database executor
      *
-     * @return isSemesterSubmitted
+     * @param asyncResponse resumed with isSemesterSubmitted
      */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/semester/submit")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response submit() {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-        if (!UserOperation.user.getRole().equals(Roles.Student) || !StudentOperation.student.isApproved()) {
+    public void submit(@Auth UserSession session, @Suspended AsyncResponse asyncResponse) {
+        if (!session.hasRole(Roles.Student) || !session.getStudent().isApproved()) {
             logger.info("Error: Access Denied");
-            return Response
+            asyncResponse.resume(Response
                     .status(403)
                     .entity("Access Denied")
-                    .build();
+                    .build());
+            return;
         }
-        try {
-            boolean isSubmitted = semesterRegistrationInterface.submitCourseChoices();
-            if (isSubmitted) {
+        dbExecutor.submit("submit", asyncResponse, Timeouts.SUBMIT_MS, () -> {
+            try {
+                AllotmentResult allotment = semesterRegistrationInterface.submitCourseChoices(session.getStudent());
+                if (allotment != null) {
+                    return Response
+                            .status(200)
+                            .entity("Course choices for semester submitted successfully. "
+                                    + allotment.getAllottedCourses().size() + " courses allotted, fee payable: " + allotment.getTotalFee())
+                            .build();
+                }
                 return Response
                         .status(200)
-                        .entity("Course choices for semester submitted successfully.")
+                        .entity("Something went wrong.")
                         .build();
+            } catch (SQLException e) {
+                throw new RESTResponseException("Error: " + e.getMessage(), 400);
             }
-            return Response
-                    .status(200)
-                    .entity("Something went wrong.")
-                    .build();
-        } catch (Exception e) {
-            throw new RESTResponseException("Error: " + e.getMessage(), 400);
-        }
+        });
     }
 }
@@ -1,16 +1,24 @@
 package com.flipkart.restController;
 
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.Timed;
+import com.flipkart.bean.LoginResponse;
+import com.flipkart.bean.Professor;
 import com.flipkart.bean.Student;
 import com.flipkart.bean.User;
+import com.flipkart.bean.UserSession;
 import com.flipkart.business.*;
-import com.flipkart.constants.Roles;
 import com.flipkart.exceptions.RESTResponseException;
+import com.flipkart.exceptions.RejectedRequestException;
+import com.flipkart.utils.SessionStore;
+import io.dropwizard.auth.Auth;
 import org.apache.log4j.Logger;
 
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.sql.SQLException;
 
 /**
  * @author JEDI-07
@@ -20,36 +28,52 @@ import javax.ws.rs.core.Response;
 public class UserRestAPI {
     UserInterface userInterface = new UserOperation();
     StudentInterface studentInterface = new StudentOperation();
-    ProfessorInterface professorInterface = new ProfessorOperation();
     private static Logger logger = Logger.getLogger(UserRestAPI.class);
+    private final SessionStore sessionStore;
 
+    /**
+     * Parameterized Constructor
+     *
+     * @param sessionStore store in which login sessions are opened
+     */
+    public UserRestAPI(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
 
+    /**
+     * Endpoint for logging in, the returned token has to be sent as a bearer token.
+     * The user and its student or professor profile are read together, see {@link UserInterface#validateUser}
+     *
+     * @param user user credentials
+     * @return login status and session token
+     */
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/login")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     public Response login(User user) {
-        boolean isValidated = userInterface.validateUser(user.getUserEmailId(), user.getUserPassword());
-        if (isValidated) {
-            if (Roles.Student.equals(UserOperation.user.getRole())) {
-                studentInterface.getStudentByEmailId();
-                if (!StudentOperation.student.isApproved()) {
-                    return Response.status(200).entity("Your admission request is still pending..., login later").build();
-                }
-            }
-            if (Roles.Professor.equals(UserOperation.user.getRole())) {
-                professorInterface.getProfessor();
+        User loggedInUser = userInterface.validateUser(user.getUserEmailId(), user.getUserPassword());
+        if (loggedInUser != null) {
+            Student student = loggedInUser instanceof Student ? (Student) loggedInUser : null;
+            Professor professor = loggedInUser instanceof Professor ? (Professor) loggedInUser : null;
+            if (student != null && !student.isApproved()) {
+                return Response.status(200).entity(new LoginResponse("Your admission request is still pending..., login later", null)).build();
             }
-            return Response.status(200).entity("User Logged In Successfully").build();
+            UserSession session = sessionStore.create(loggedInUser, student, professor);
+            return Response.status(200).entity(new LoginResponse("User Logged In Successfully", session.getToken())).build();
         }
-        return Response.status(200).entity("Invalid EmailId or Password, Try Again").build();
+        return Response.status(200).entity(new LoginResponse("Invalid EmailId or Password, Try Again", null)).build();
     }
 
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/register")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response register(Student student) {
+    public Response register(Student student) throws RejectedRequestException {
         try {
             Student st = studentInterface.register(student.getUserName(), student.getUserEmailId(), student.getUserPassword(), student.getPhoneNo());
             if (st == null) {
@@ -59,18 +83,20 @@ public class UserRestAPI {
                     .status(201)
                     .entity(student.getUserName() + " you are successfully registered, please wait for Admin's Approval")
                     .build();
-        } catch (Exception e) {
+        } catch (SQLException e) {
             throw new RESTResponseException("Error: " + e.getMessage(), 400);
         }
 
     }
 
+    @Timed
+    @ExceptionMetered
     @POST
     @Path("/logout")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response logout() {
-        boolean isLoggedOut = userInterface.logout();
+    public Response logout(@Auth UserSession session) {
+        sessionStore.invalidate(session.getToken());
         return Response.status(200).entity("User Logged out Successfully").build();
     }
 
@@ -80,20 +106,14 @@ public class UserRestAPI {
      * @param user User
      * @return isPasswordUpdated
      */
+    @Timed
+    @ExceptionMetered
     @PUT
     @Path("/updatepassword")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response updatePassword(@NotNull User user) {
-        if (UserOperation.user == null) {
-            logger.info("Error: User not authenticated.");
-            return Response
-                    .status(401)
-                    .entity("Login Required.")
-                    .build();
-        }
-
-        boolean passwordUpdated = userInterface.updateUserPassword(user.getUserPassword());
+    public Response updatePassword(@Auth UserSession session, @NotNull User user) {
+        boolean passwordUpdated = userInterface.updateUserPassword(session.getUser(), user.getUserPassword());
         if (passwordUpdated) {
             return Response
                     .status(200)
@@ -0,0 +1,203 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.bean.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Short lived cache of login checks, so a user logging in again, or retrying a wrong password, within a few
+ * seconds does not cost another password hash and database read.
+ * <p>
+ * Credentials are remembered as an HMAC of the email and password under a key generated at startup, never as
+ * the password. An accepted check keeps the logged in user for {@code acceptedTtlMillis}, a rejected one is
+ * refused again for {@code rejectedTtlMillis}. Entries of a user are dropped when the password is changed, and
+ * a map is emptied when it is full.
+ */
+public class CredentialCache {
+    private static final CredentialCache INSTANCE = new CredentialCache(
+            TimeUnit.SECONDS.toMillis(60), TimeUnit.SECONDS.toMillis(10), 100000);
+
+    private final long acceptedTtlMillis;
+    private final long rejectedTtlMillis;
+    private final int maxSize;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final ConcurrentMap<String, Accepted> accepted = new ConcurrentHashMap<String, Accepted>();
+    private final ConcurrentMap<String, Rejected> rejected = new ConcurrentHashMap<String, Rejected>();
+    private final Counter hits = new Counter();
+    private final Counter misses = new Counter();
+    private final Counter rejections = new Counter();
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param acceptedTtlMillis time an accepted check is remembered
+     * @param rejectedTtlMillis time a rejected check is remembered
+     * @param maxSize           maximum number of accepted, and of rejected, checks
+     */
+    public CredentialCache(long acceptedTtlMillis, long rejectedTtlMillis, int maxSize) {
+        this.acceptedTtlMillis = acceptedTtlMillis;
+        this.rejectedTtlMillis = rejectedTtlMillis;
+        this.maxSize = maxSize;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * Method to get the cache shared by the application
+     *
+     * @return shared CredentialCache
+     */
+    public static CredentialCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to get the user of a recently accepted login
+     *
+     * @param emailId  emailId of the User
+     * @param password password of the User
+     * @return logged in user, null if these credentials were not accepted recently
+     */
+    public User getAccepted(String emailId, String password) {
+        Accepted entry = accepted.get(normalize(emailId));
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()
+                && MessageDigest.isEqual(entry.credentials, credentials(emailId, password))) {
+            hits.inc();
+            return entry.user;
+        }
+        misses.inc();
+        return null;
+    }
+
+    /**
+     * Method to find if a login with these credentials was refused recently
+     *
+     * @param emailId  emailId of the User
+     * @param password password of the User
+     * @return true if the login should be refused again
+     */
+    public boolean isRejected(String emailId, String password) {
+        Rejected entry = rejected.get(Base64.getEncoder().encodeToString(credentials(emailId, password)));
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            rejections.inc();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method to remember an accepted login
+     *
+     * @param emailId  emailId of the User
+     * @param password password of the User
+     * @param user     logged in user, returned as is by {@link #getAccepted(String, String)}
+     */
+    public void accept(String emailId, String password, User user) {
+        if (accepted.size() >= maxSize) {
+            accepted.clear();
+        }
+        accepted.put(normalize(emailId), new Accepted(credentials(emailId, password), user, System.currentTimeMillis() + acceptedTtlMillis));
+    }
+
+    /**
+     * Method to remember a refused login
+     *
+     * @param emailId  emailId of the User
+     * @param password password of the User
+     */
+    public void reject(String emailId, String password) {
+        if (rejected.size() >= maxSize) {
+            rejected.clear();
+        }
+        rejected.put(Base64.getEncoder().encodeToString(credentials(emailId, password)),
+                new Rejected(normalize(emailId), System.currentTimeMillis() + rejectedTtlMillis));
+    }
+
+    /**
+     * Method to forget the checks of a user after the password was changed
+     *
+     * @param emailId emailId of the User
+     */
+    public void invalidate(String emailId) {
+        String email = normalize(emailId);
+        accepted.remove(email);
+        rejected.values().removeIf(entry -> entry.email.equals(email));
+    }
+
+    /**
+     * Method to get the number of remembered checks
+     *
+     * @return accepted and rejected checks
+     */
+    public int size() {
+        return accepted.size() + rejected.size();
+    }
+
+    /**
+     * Method to register the hit, miss and rejection counters and the size of the cache
+     *
+     * @param metrics registry of the application
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(CredentialCache.class, "hits"), hits);
+        metrics.register(MetricRegistry.name(CredentialCache.class, "misses"), misses);
+        metrics.register(MetricRegistry.name(CredentialCache.class, "rejections"), rejections);
+        metrics.register(MetricRegistry.name(CredentialCache.class, "size"), (Gauge<Integer>) this::size);
+    }
+
+    private byte[] credentials(String emailId, String password) {
+        return macs.get().doFinal((normalize(emailId) + "\n" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String normalize(String emailId) {
+        // emails are unique without case, like the unique key of the user table
+        return emailId.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Accepted {
+        private final byte[] credentials;
+        private final User user;
+        private final long expiresAt;
+
+        private Accepted(byte[] credentials, User user, long expiresAt) {
+            this.credentials = credentials;
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Rejected {
+        private final String email;
+        private final long expiresAt;
+
+        private Rejected(String email, long expiresAt) {
+            this.email = email;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
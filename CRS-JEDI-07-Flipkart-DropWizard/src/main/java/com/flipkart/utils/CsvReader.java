@@ -0,0 +1,107 @@
+package com.flipkart.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * Record by record reader of CSV uploads.
+ * <p>
+ * Fields are separated by commas and may be quoted with double quotes, a quoted field can hold commas,
+ * line breaks and doubled quotes, the format written by {@link ExportWriter}. Blank lines and a leading
+ * byte order mark are skipped. Only the record being read is held in memory.
+ */
+public class CsvReader implements Closeable {
+    private final BufferedReader reader;
+    private int lineNumber;
+    private int recordLine;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param reader CSV upload
+     */
+    public CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    /**
+     * Method to read the next record
+     *
+     * @return fields of the record, null at the end of the upload
+     * @throws IOException              if the upload cannot be read
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    public String[] next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+        } while (line.trim().isEmpty());
+        recordLine = lineNumber;
+
+        List<String> fields = new ArrayList<String>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("Line " + recordLine + ": quoted field is not closed");
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Method to get the line the last record started on
+     *
+     * @return 1-based line number
+     */
+    public int getLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
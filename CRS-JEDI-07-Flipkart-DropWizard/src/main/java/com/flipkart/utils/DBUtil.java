@@ -1,42 +1,181 @@
 package com.flipkart.utils;
 
-import java.io.FileNotFoundException;
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.log4j.Logger;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Properties;
 
+/**
+ * @author JEDI-07
+ * Connection pool backing every DAO operation.
+ * <p>
+ * Connections handed out by {@link #getConnection()} are borrowed from a bounded pool and
+ * must be closed by the caller (try-with-resources) to return them to the pool.
+ */
 public class DBUtil {
-    private static Connection connection = null;
-
-    public static Connection getConnection() {
-
-        if (connection != null)
-            return connection;
-        else {
-            try {
-                Properties prop = new Properties();
-                InputStream inputStream = DBUtil.class.getClassLoader().getResourceAsStream("config.properties");
-                prop.load(inputStream);
-                String driver = prop.getProperty("driver");
-                String url = prop.getProperty("url");
-                String user = prop.getProperty("user");
-                String password = prop.getProperty("password");
-                Class.forName(driver);
-                connection = DriverManager.getConnection(url, user, password);
-            } catch (ClassNotFoundException e) {
-                e.printStackTrace();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-            } catch (IOException e) {
-                e.printStackTrace();
+    private static Logger logger = Logger.getLogger(DBUtil.class);
+    private static final String DRIVER_PROPERTY_PREFIX = "db.";
+    private static volatile HikariDataSource dataSource = null;
+
+    /**
+     * Method to borrow a connection from the pool
+     *
+     * @return pooled connection, closing it returns it to the pool
+     * @throws SQLException if no connection could be acquired within the acquire timeout
+     */
+    public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Method to prepare a statement whose executions are recorded by {@link StatementMetrics}.
+     * The driver keeps an LRU cache of prepared statements per pooled connection, so preparing a
+     * query the connection has already seen does not parse it again. Closing the statement
+     * returns it to that cache, callers must close it (try-with-resources).
+     *
+     * @param conn connection borrowed from the pool
+     * @param sql  query to prepare, one of the {@link com.flipkart.constants.SqlQueries} constants
+     * @return prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    public static PreparedStatement prepareStatement(Connection conn, String sql) throws SQLException {
+        return StatementMetrics.instrument(conn.prepareStatement(sql), sql);
+    }
+
+    /**
+     * Method to prepare a statement returning generated keys, see {@link #prepareStatement(Connection, String)}
+     *
+     * @param conn              connection borrowed from the pool
+     * @param sql               query to prepare
+     * @param autoGeneratedKeys {@link java.sql.Statement#RETURN_GENERATED_KEYS} to return generated keys
+     * @return prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    public static PreparedStatement prepareStatement(Connection conn, String sql, int autoGeneratedKeys) throws SQLException {
+        return StatementMetrics.instrument(conn.prepareStatement(sql, autoGeneratedKeys), sql);
+    }
+
+    /**
+     * Method to prepare a read-only, forward-only statement whose rows are fetched from the server
+     * fetchSize at a time instead of all at once, for queries whose result is streamed to the client.
+     * MySQL only fetches in chunks with useCursorFetch enabled, see config.properties.
+     *
+     * @param conn      connection borrowed from the pool
+     * @param sql       query to prepare
+     * @param fetchSize number of rows fetched per round trip
+     * @return prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection conn, String sql, int fetchSize) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(fetchSize);
+        return StatementMetrics.instrument(ps, sql);
+    }
+
+    /**
+     * Method to get the pooled data source, creating it on first use
+     *
+     * @return pooled data source
+     */
+    public static HikariDataSource getDataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DBUtil.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = new HikariDataSource(buildConfig(loadProperties()));
+                    dataSource = ds;
+                }
             }
-            return connection;
         }
+        return ds;
+    }
+
+    /**
+     * Method to publish pool wait time, usage and utilization to the metrics registry
+     *
+     * @param metricRegistry registry to publish the pool metrics to
+     */
+    public static void registerMetrics(MetricRegistry metricRegistry) {
+        getDataSource().setMetricRegistry(metricRegistry);
+    }
+
+    /**
+     * Method to close the pool and all of its connections
+     */
+    public static synchronized void shutdown() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    /**
+     * Method to read config.properties, also read by the other settings of the application
+     *
+     * @return properties of config.properties
+     */
+    public static Properties loadProperties() {
+        Properties prop = new Properties();
+        try (InputStream inputStream = DBUtil.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (inputStream == null) {
+                throw new IllegalStateException("config.properties not found on the classpath");
+            }
+            prop.load(inputStream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read config.properties", e);
+        }
+        return prop;
+    }
+
+    private static HikariConfig buildConfig(Properties prop) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("crs");
+        config.setDriverClassName(prop.getProperty("driver"));
+        config.setJdbcUrl(prop.getProperty("url"));
+        config.setUsername(prop.getProperty("user"));
+        config.setPassword(prop.getProperty("password"));
+
+        config.setMinimumIdle(intProperty(prop, "pool.minIdle", 2));
+        config.setMaximumPoolSize(intProperty(prop, "pool.maxSize", 10));
+        config.setConnectionTimeout(longProperty(prop, "pool.acquireTimeoutMs", 5000));
+        config.setValidationTimeout(longProperty(prop, "pool.validationTimeoutMs", 1000));
+        config.setIdleTimeout(longProperty(prop, "pool.idleTimeoutMs", 600000));
+        config.setMaxLifetime(longProperty(prop, "pool.maxLifetimeMs", 1800000));
+
+        // connections idle for longer than the bypass window are validated on borrow,
+        // an explicit test query is only needed for drivers without JDBC4 isValid().
+        String testQuery = prop.getProperty("pool.validationQuery");
+        if (testQuery != null && !testQuery.trim().isEmpty()) {
+            config.setConnectionTestQuery(testQuery);
+        }
+
+        // driver settings such as the prepared statement cache are passed through from "db." keys
+        for (String key : prop.stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PROPERTY_PREFIX)) {
+                config.addDataSourceProperty(key.substring(DRIVER_PROPERTY_PREFIX.length()), prop.getProperty(key).trim());
+            }
+        }
+
+        logger.info("Connection pool configured with maxSize " + config.getMaximumPoolSize());
+        return config;
+    }
+
+    static int intProperty(Properties prop, String key, int defaultValue) {
+        String value = prop.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
 
+    private static long longProperty(Properties prop, String key, long defaultValue) {
+        String value = prop.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
     }
 }
@@ -0,0 +1,74 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author JEDI-07
+ * Per-method timers for the DAO operations.
+ * <p>
+ * A DAO wrapped with {@link #instrument(Class, Object)} records every call on a timer named after the
+ * implementing class and the method, e.g. {@code com.flipkart.dao.AdminDaoOperation.viewCourses}.
+ * Timers are created in the registry set by {@link #registerMetrics(MetricRegistry)}.
+ */
+public class DaoMetrics {
+    private static volatile MetricRegistry metricRegistry = new MetricRegistry();
+
+    /**
+     * Method to wrap a DAO so that every call is timed
+     *
+     * @param daoInterface interface the DAO is used through
+     * @param dao          DAO implementation
+     * @param <T>          type of the DAO interface
+     * @return DAO recording the time of every call
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> daoInterface, final T dao) {
+        final Map<Method, String> timerNames = new HashMap<Method, String>();
+        for (Method method : daoInterface.getMethods()) {
+            timerNames.put(method, MetricRegistry.name(dao.getClass(), method.getName()));
+        }
+        return (T) Proxy.newProxyInstance(
+                daoInterface.getClassLoader(),
+                new Class<?>[]{daoInterface},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String timerName = timerNames.get(method);
+                        if (timerName == null) {
+                            return invokeDao(method, args);
+                        }
+                        Timer.Context context = metricRegistry.timer(timerName).time();
+                        try {
+                            return invokeDao(method, args);
+                        } finally {
+                            context.stop();
+                        }
+                    }
+
+                    private Object invokeDao(Method method, Object[] args) throws Throwable {
+                        try {
+                            return method.invoke(dao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Method to set the registry the DAO timers are created in
+     *
+     * @param registry registry of the application
+     */
+    public static void registerMetrics(MetricRegistry registry) {
+        metricRegistry = registry;
+    }
+}
@@ -0,0 +1,195 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.log4j.Logger;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JEDI-07
+ * Bounded pool running the database work of the suspended requests of the heavy endpoints.
+ * <p>
+ * The pool has as many threads as the connection pool has connections, so the Jetty threads hand the
+ * request over and go back to accepting requests instead of waiting for a connection. Work that does not
+ * fit in the queue, or that is still queued when the timeout of its endpoint expires, is answered with 503
+ * and a Retry-After header and never runs. Work that has started is always answered with its own result,
+ * its timeout is extended, so a client is never asked to retry a write that may have been committed.
+ * <p>
+ * Exports are written by the Jetty threads, each holding a connection and its server side cursor for the
+ * whole download, so only a few of them may run at once and the others are answered the same way.
+ */
+public class DbExecutor {
+    private static Logger logger = Logger.getLogger(DbExecutor.class);
+    private static final DbExecutor INSTANCE = create(DBUtil.loadProperties());
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int TIMED_OUT = 2;
+
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+    private final int maxExports;
+    private final Semaphore exports;
+    private final Meter rejected = new Meter();
+    private final Meter timedOut = new Meter();
+    private final Meter exportsRejected = new Meter();
+    private volatile MetricRegistry metricRegistry = new MetricRegistry();
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param threads           number of threads, the size of the connection pool
+     * @param queueSize         number of requests waiting for a thread before requests are refused
+     * @param retryAfterSeconds seconds a refused or timed out client is asked to wait before retrying
+     * @param maxExports        number of exports written at once, well below the size of the connection pool
+     */
+    public DbExecutor(int threads, int queueSize, int retryAfterSeconds, int maxExports) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxExports = maxExports;
+        this.exports = new Semaphore(maxExports);
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "db-executor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Method to get the executor shared by the application
+     *
+     * @return shared DbExecutor
+     */
+    public static DbExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to run the work of a suspended request and resume the request with its result. A result that is
+     * a Response is sent as is, an exception is answered like an exception thrown by the endpoint.
+     *
+     * @param endpoint      name of the endpoint, the timer of the requests is named after it
+     * @param response      suspended request
+     * @param timeoutMillis time after which the request is answered with 503 if its work has not started
+     * @param work          database work of the request
+     */
+    public void submit(String endpoint, final AsyncResponse response, final long timeoutMillis, final Callable<?> work) {
+        final Timer.Context context = metricRegistry.timer(MetricRegistry.name(DbExecutor.class, endpoint)).time();
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        response.setTimeoutHandler(suspended -> {
+            if (state.compareAndSet(QUEUED, TIMED_OUT)) {
+                timedOut.mark();
+                suspended.resume(unavailable("The request timed out, try again later"));
+            } else {
+                // the work is running and may commit, the request waits for its result
+                suspended.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+        response.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (state.compareAndSet(QUEUED, STARTED)) {
+                        response.resume(work.call());
+                    }
+                } catch (Throwable e) {
+                    response.resume(e);
+                } finally {
+                    context.stop();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.mark();
+            response.resume(unavailable("Too many requests, try again later"));
+        }
+    }
+
+    /**
+     * Method to take a permit to write an export, released by {@link #endExport()} once it is written
+     *
+     * @return false when the most exports are being written, the request is answered with {@link #exportsUnavailable()}
+     */
+    public boolean tryStartExport() {
+        if (exports.tryAcquire()) {
+            return true;
+        }
+        exportsRejected.mark();
+        return false;
+    }
+
+    /**
+     * Method to release the permit of an export that has been written or has failed
+     */
+    public void endExport() {
+        exports.release();
+    }
+
+    /**
+     * Method to build the answer to an export refused by {@link #tryStartExport()}
+     *
+     * @return 503 response with a Retry-After header
+     */
+    public Response exportsUnavailable() {
+        return unavailable("Too many exports running, try again later");
+    }
+
+    /**
+     * Method to publish the queue, the refused and timed out requests and the request timers
+     *
+     * @param metrics registry of the application
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metricRegistry = metrics;
+        metrics.register(MetricRegistry.name(DbExecutor.class, "queued"), (Gauge<Integer>) () -> executor.getQueue().size());
+        metrics.register(MetricRegistry.name(DbExecutor.class, "active"), (Gauge<Integer>) executor::getActiveCount);
+        metrics.register(MetricRegistry.name(DbExecutor.class, "rejected"), rejected);
+        metrics.register(MetricRegistry.name(DbExecutor.class, "timedOut"), timedOut);
+        metrics.register(MetricRegistry.name(DbExecutor.class, "exports"), (Gauge<Integer>) () -> maxExports - exports.availablePermits());
+        metrics.register(MetricRegistry.name(DbExecutor.class, "exportsRejected"), exportsRejected);
+    }
+
+    /**
+     * Method to stop taking work and wait for the running work to finish
+     *
+     * @param timeoutMillis longest time to wait
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.info("Error: database work still running after " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Response unavailable(String message) {
+        return Response.status(503)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .entity(message)
+                .type(MediaType.TEXT_PLAIN)
+                .build();
+    }
+
+    private static DbExecutor create(Properties prop) {
+        int threads = DBUtil.intProperty(prop, "pool.maxSize", 10);
+        return new DbExecutor(threads, DBUtil.intProperty(prop, "executor.queueSize", 20 * threads),
+                DBUtil.intProperty(prop, "executor.retryAfterSeconds", 1),
+                DBUtil.intProperty(prop, "executor.maxExports", Math.max(1, threads / 4)));
+    }
+}
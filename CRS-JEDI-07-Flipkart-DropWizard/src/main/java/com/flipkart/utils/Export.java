@@ -0,0 +1,19 @@
+package com.flipkart.utils;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * @author JEDI-07
+ * Export whose checks have passed, the rows are read from the database while they are written.
+ */
+public interface Export {
+    /**
+     * Method to write the rows of the export
+     *
+     * @param writer writer of the requested format
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the rows cannot be written
+     */
+    void writeTo(ExportWriter writer) throws SQLException, IOException;
+}
@@ -0,0 +1,181 @@
+package com.flipkart.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @author JEDI-07
+ * Writer of exported rows, in CSV or as a JSON array of objects.
+ * <p>
+ * Rows are written to the stream as they are handed over, nothing is kept once a row is written.
+ */
+public abstract class ExportWriter {
+    public static final String CSV = "csv";
+    public static final String JSON = "json";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final int FETCH_SIZE = 500;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    protected String[] columns;
+
+    /**
+     * Method to create a writer for a format
+     *
+     * @param format {@link #CSV} or {@link #JSON}
+     * @param out    stream the rows are written to
+     * @return writer
+     * @throws IOException              if the stream cannot be written
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static ExportWriter create(String format, OutputStream out) throws IOException {
+        if (CSV.equalsIgnoreCase(format)) {
+            return new Csv(out);
+        }
+        if (JSON.equalsIgnoreCase(format)) {
+            return new Json(out);
+        }
+        throw new IllegalArgumentException("Format must be " + CSV + " or " + JSON);
+    }
+
+    /**
+     * Method to get the media type of a format
+     *
+     * @param format {@link #CSV} or {@link #JSON}
+     * @return media type, null if the format is unknown
+     */
+    public static String mediaType(String format) {
+        if (CSV.equalsIgnoreCase(format)) {
+            return CSV_MEDIA_TYPE;
+        }
+        if (JSON.equalsIgnoreCase(format)) {
+            return "application/json";
+        }
+        return null;
+    }
+
+    /**
+     * Method to start the export
+     *
+     * @param columns names of the columns of every row
+     * @throws IOException if the stream cannot be written
+     */
+    public void start(String... columns) throws IOException {
+        this.columns = columns;
+    }
+
+    /**
+     * Method to write one row
+     *
+     * @param values values of the row, in column order
+     * @throws IOException if the stream cannot be written
+     */
+    public abstract void row(Object... values) throws IOException;
+
+    /**
+     * Method to write every remaining row of a result set, one column per started column
+     *
+     * @param rs forward-only result set
+     * @return number of rows written
+     * @throws SQLException if the rows cannot be read
+     * @throws IOException  if the stream cannot be written
+     */
+    public int rows(ResultSet rs) throws SQLException, IOException {
+        Object[] values = new Object[columns.length];
+        int count = 0;
+        while (rs.next()) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+            row(values);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Method to end the export and flush the stream, the stream is not closed
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public abstract void finish() throws IOException;
+
+    private static final class Csv extends ExportWriter {
+        private final Writer writer;
+
+        private Csv(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void start(String... columns) throws IOException {
+            super.start(columns);
+            row((Object[]) columns);
+        }
+
+        @Override
+        public void row(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(String.valueOf(values[i])));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class Json extends ExportWriter {
+        private final JsonGenerator generator;
+
+        private Json(OutputStream out) throws IOException {
+            this.generator = MAPPER.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void start(String... columns) throws IOException {
+            super.start(columns);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void row(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns[i]);
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.flipkart.utils;
+
+import com.flipkart.bean.Grade;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author JEDI-07
+ * Reader of grade uploads in CSV.
+ * <p>
+ * Every line holds <code>studentId,gpa</code>; an optional header line and blank lines are skipped. The upload is
+ * read line by line as it arrives, and reading stops as soon as it holds more grades than allowed. A gpa only
+ * has to be a number here, its range is checked per row when the grades are added.
+ */
+public class GradeCsv {
+    private static final String HEADER = "studentId,gpa";
+
+    /**
+     * Method to read the grades of an upload
+     *
+     * @param reader   upload
+     * @param courseId unique Id of the course set on every grade
+     * @param maxRows  maximum number of grades
+     * @return grades in upload order
+     * @throws IOException              if the upload cannot be read
+     * @throws IllegalArgumentException if a line is malformed or the upload holds more than maxRows grades
+     */
+    public static List<Grade> read(Reader reader, int courseId, int maxRows) throws IOException {
+        List<Grade> grades = new ArrayList<Grade>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1).trim();
+            }
+            if (line.isEmpty() || (grades.isEmpty() && line.replace(" ", "").equalsIgnoreCase(HEADER))) {
+                continue;
+            }
+            if (grades.size() == maxRows) {
+                throw new IllegalArgumentException("An upload holds at most " + maxRows + " grades");
+            }
+            String[] columns = line.split(",");
+            if (columns.length != 2) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected studentId,gpa");
+            }
+            try {
+                grades.add(new Grade(courseId, Integer.parseInt(columns[0].trim()), Double.parseDouble(columns[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return grades;
+    }
+}
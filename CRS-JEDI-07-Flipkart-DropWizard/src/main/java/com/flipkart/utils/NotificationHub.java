@@ -0,0 +1,425 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.bean.Notification;
+import org.apache.log4j.Logger;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JEDI-07
+ * In-process fan-out of new notifications to the server-sent event streams of the students.
+ * <p>
+ * Streams are held by Jetty as suspended requests, an idle stream costs no thread. Events for a stream
+ * are put in its own bounded queue and written by a small pool, one writer per stream at a time, so
+ * neither the caller of {@link #publish(Collection)} nor the heartbeat ever writes to a socket. A stream
+ * whose queue overflows, or whose write has been blocked longer than the write timeout, is dropped and
+ * its connection aborted, which frees the writer; the client reconnects with its last event id and
+ * picks the missed notifications up from the feed.
+ */
+public class NotificationHub {
+    private static Logger logger = Logger.getLogger(NotificationHub.class);
+    private static final NotificationHub INSTANCE = new NotificationHub(10000, 5, 10000);
+    private static final String EVENT_NAME = "notification";
+    private static final String GAP_EVENT_NAME = "gap";
+    private static final int PUSH_THREADS = 4;
+    private static final int PUSH_QUEUE = 10000;
+    private static final int STREAM_QUEUE = 500;
+
+    private final ConcurrentMap<Integer, Set<Subscription>> subscriptions = new ConcurrentHashMap<Integer, Set<Subscription>>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSubscriptions;
+    private final int maxSubscriptionsPerStudent;
+    private final long writeTimeoutNanos;
+    private final ThreadPoolExecutor pushExecutor;
+    private final Counter pushed = new Counter();
+    private final Counter dropped = new Counter();
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param maxSubscriptions           maximum number of open streams
+     * @param maxSubscriptionsPerStudent maximum number of open streams of one student
+     * @param writeTimeoutMillis         time a write may block before {@link #heartbeat()} aborts its stream
+     */
+    public NotificationHub(int maxSubscriptions, int maxSubscriptionsPerStudent, long writeTimeoutMillis) {
+        this.maxSubscriptions = maxSubscriptions;
+        this.maxSubscriptionsPerStudent = maxSubscriptionsPerStudent;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.pushExecutor = new ThreadPoolExecutor(PUSH_THREADS, PUSH_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(PUSH_QUEUE), runnable -> {
+            Thread thread = new Thread(runnable, "notification-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Method to get the hub shared by the application
+     *
+     * @return shared NotificationHub
+     */
+    public static NotificationHub getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to attach a stream to a student
+     *
+     * @param studentId unique Id for a student
+     * @param output    stream of the request
+     * @param catchUp   whether notifications published before {@link #catchUp(Subscription, List, int)} are held back
+     * @param abort     closes the connection of the stream, failing a blocked write
+     * @return subscription, null when the hub or the student has too many open streams
+     */
+    public Subscription subscribe(int studentId, EventOutput output, boolean catchUp, Runnable abort) {
+        if (size.incrementAndGet() > maxSubscriptions) {
+            size.decrementAndGet();
+            return null;
+        }
+        Subscription subscription = new Subscription(studentId, output, catchUp, abort);
+        boolean[] added = {false};
+        subscriptions.compute(studentId, (id, ofStudent) -> {
+            Set<Subscription> set = ofStudent == null ? ConcurrentHashMap.<Subscription>newKeySet() : ofStudent;
+            if (set.size() < maxSubscriptionsPerStudent) {
+                added[0] = set.add(subscription);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            size.decrementAndGet();
+            return null;
+        }
+        return subscription;
+    }
+
+    /**
+     * Method to detach and close a stream
+     *
+     * @param subscription subscription returned by {@link #subscribe(int, EventOutput, boolean, Runnable)}
+     */
+    public void unsubscribe(Subscription subscription) {
+        detach(subscription);
+        if (subscription.markClosed()) {
+            subscription.closeOutput();
+        }
+    }
+
+    /**
+     * Method to send the notifications missed while the client was away, followed by the ones
+     * published since the subscription, each notification is sent once and in id order
+     *
+     * @param subscription subscription opened with catch up
+     * @param missed       notifications after the client's last event id, oldest first
+     * @param gapCursor    feed cursor of the notifications left out of missed, sent as a "gap" event, -1 when none were
+     * @return false if the stream was dropped
+     */
+    public boolean catchUp(Subscription subscription, List<Notification> missed, int gapCursor) {
+        if (!subscription.catchUp(missed, gapCursor)) {
+            drop(subscription);
+            return false;
+        }
+        schedule(subscription);
+        return true;
+    }
+
+    /**
+     * Method to push inserted notifications to the open streams of their students
+     *
+     * @param notifications notifications with their ids set
+     */
+    public void publish(Collection<Notification> notifications) {
+        if (size.get() == 0) {
+            return;
+        }
+        for (Notification notification : notifications) {
+            Set<Subscription> ofStudent = subscriptions.get(notification.getStudentId());
+            if (ofStudent == null) {
+                continue;
+            }
+            for (Subscription subscription : ofStudent) {
+                if (subscription.send(notification)) {
+                    schedule(subscription);
+                } else {
+                    drop(subscription);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to queue a comment on every stream, keeping proxies from timing them out, to remove the
+     * closed streams and to abort the ones whose write is blocked
+     */
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Set<Subscription> ofStudent : subscriptions.values()) {
+            for (Subscription subscription : ofStudent) {
+                if (subscription.output.isClosed()) {
+                    unsubscribe(subscription);
+                } else if (subscription.isStalled(now, writeTimeoutNanos)) {
+                    logger.info("Error: notification stream of student " + subscription.studentId + " stalled, aborting");
+                    drop(subscription);
+                } else if (subscription.offer(new OutboundEvent.Builder().comment("heartbeat").build())) {
+                    schedule(subscription);
+                } else {
+                    drop(subscription);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to get the number of open streams
+     *
+     * @return open streams
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Method to register the number of open streams and the push counters
+     *
+     * @param metrics registry of the application
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(NotificationHub.class, "subscriptions"), (Gauge<Integer>) this::size);
+        metrics.register(MetricRegistry.name(NotificationHub.class, "pushed"), pushed);
+        metrics.register(MetricRegistry.name(NotificationHub.class, "dropped"), dropped);
+    }
+
+    /**
+     * Method to close every stream
+     */
+    public void closeAll() {
+        for (Set<Subscription> ofStudent : subscriptions.values()) {
+            for (Subscription subscription : ofStudent) {
+                unsubscribe(subscription);
+            }
+        }
+        logger.info("Closed all notification streams");
+    }
+
+    private void detach(Subscription subscription) {
+        boolean[] removed = {false};
+        subscriptions.computeIfPresent(subscription.studentId, (id, ofStudent) -> {
+            removed[0] = ofStudent.remove(subscription);
+            return ofStudent.isEmpty() ? null : ofStudent;
+        });
+        if (removed[0]) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Detaches a stream that fell behind, closing it right away when no write is running, else aborting
+     * its connection so that the blocked writer fails and closes it
+     */
+    private void drop(Subscription subscription) {
+        dropped.inc();
+        detach(subscription);
+        if (subscription.markClosed()) {
+            subscription.closeOutput();
+        } else {
+            subscription.abort.run();
+        }
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.claimWriter()) {
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> write(subscription));
+        } catch (RejectedExecutionException e) {
+            dropped.inc();
+            detach(subscription);
+            subscription.markClosed();
+            subscription.closeOutput();
+        }
+    }
+
+    /**
+     * Writes the queued events of a stream until its queue is empty, runs on the push pool and is the
+     * only writer of the stream
+     */
+    private void write(Subscription subscription) {
+        while (true) {
+            OutboundEvent event;
+            synchronized (subscription) {
+                if (subscription.closed) {
+                    break;
+                }
+                event = subscription.queue.poll();
+                if (event == null) {
+                    subscription.writing = false;
+                    return;
+                }
+            }
+            if (!subscription.write(event)) {
+                detach(subscription);
+                subscription.markClosed();
+                break;
+            }
+            if (event.getComment() == null) {
+                pushed.inc();
+            }
+        }
+        subscription.closeOutput();
+    }
+
+    /**
+     * Open stream of a student
+     */
+    public static final class Subscription {
+        private final int studentId;
+        private final EventOutput output;
+        private final Runnable abort;
+        private final Deque<OutboundEvent> queue = new ArrayDeque<OutboundEvent>();
+        private List<Notification> heldBack;
+        private int lastSentId;
+        private boolean writing;
+        private boolean closed;
+        private volatile long writeStartedNanos;
+
+        private Subscription(int studentId, EventOutput output, boolean catchUp, Runnable abort) {
+            this.studentId = studentId;
+            this.output = output;
+            this.abort = abort;
+            this.heldBack = catchUp ? new ArrayList<Notification>() : null;
+        }
+
+        private synchronized boolean catchUp(List<Notification> missed, int gapCursor) {
+            List<Notification> pending = heldBack == null ? Collections.<Notification>emptyList() : heldBack;
+            heldBack = null;
+            pending.sort(Comparator.comparingInt(Notification::getNotificationId));
+            for (Notification notification : missed) {
+                if (!send(notification)) {
+                    return false;
+                }
+            }
+            if (gapCursor >= 0 && !offer(new OutboundEvent.Builder()
+                    .name(GAP_EVENT_NAME)
+                    .data(String.class, String.valueOf(gapCursor))
+                    .build())) {
+                return false;
+            }
+            for (Notification notification : pending) {
+                if (!send(notification)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private synchronized boolean send(Notification notification) {
+            if (heldBack != null) {
+                heldBack.add(notification);
+                return true;
+            }
+            if (notification.getNotificationId() != 0 && notification.getNotificationId() <= lastSentId) {
+                return true;
+            }
+            OutboundEvent.Builder event = new OutboundEvent.Builder()
+                    .name(EVENT_NAME)
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(Notification.class, notification);
+            if (notification.getNotificationId() != 0) {
+                event.id(String.valueOf(notification.getNotificationId()));
+                lastSentId = notification.getNotificationId();
+            }
+            return offer(event.build());
+        }
+
+        /**
+         * @return false if the queue of the stream is full
+         */
+        private synchronized boolean offer(OutboundEvent event) {
+            if (closed) {
+                return true;
+            }
+            if (queue.size() >= STREAM_QUEUE) {
+                return false;
+            }
+            queue.add(event);
+            return true;
+        }
+
+        /**
+         * @return true if the caller became the writer of the stream and has to schedule it
+         */
+        private synchronized boolean claimWriter() {
+            if (writing || closed || queue.isEmpty()) {
+                return false;
+            }
+            writing = true;
+            return true;
+        }
+
+        /**
+         * @return true if no writer is running and the caller has to close the output
+         */
+        private synchronized boolean markClosed() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            queue.clear();
+            heldBack = null;
+            if (writing) {
+                return false;
+            }
+            writing = true;
+            return true;
+        }
+
+        private boolean isStalled(long now, long writeTimeoutNanos) {
+            long started = writeStartedNanos;
+            return started != 0 && now - started > writeTimeoutNanos;
+        }
+
+        private boolean write(OutboundEvent event) {
+            if (output.isClosed()) {
+                return false;
+            }
+            writeStartedNanos = System.nanoTime();
+            try {
+                output.write(event);
+                return true;
+            } catch (IOException e) {
+                return false;
+            } finally {
+                writeStartedNanos = 0;
+            }
+        }
+
+        private void closeOutput() {
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.info("Error: " + e.getMessage());
+            }
+        }
+    }
+}
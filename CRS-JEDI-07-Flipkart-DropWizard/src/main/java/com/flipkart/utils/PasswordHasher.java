@@ -0,0 +1,102 @@
+package com.flipkart.utils;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Properties;
+
+/**
+ * @author JEDI-07
+ * Salted password hashes, stored in user.password as <code>pbkdf2-sha256$iterations$salt$hash</code>.
+ * <p>
+ * The iteration count is read from <code>password.hashIterations</code> of config.properties and kept in every
+ * hash, so hashes made with an older count still verify and are reported by {@link #needsRehash(String)}.
+ * Passwords stored before hashing was introduced are plaintext, they are compared as is and need a rehash.
+ */
+public class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int DEFAULT_ITERATIONS = 100000;
+    private static final int ITERATIONS = iterations(DBUtil.loadProperties());
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // verified against when the email is unknown, so an unknown email takes as long to refuse as a wrong password
+    private static final String UNKNOWN_USER_HASH = hash("");
+
+    /**
+     * Method to hash a password with a new random salt
+     *
+     * @param password plaintext password
+     * @return encoded hash to store
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + ITERATIONS + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(pbkdf2(password, salt, ITERATIONS));
+    }
+
+    /**
+     * Method to check a password against a stored hash, or a stored plaintext password
+     *
+     * @param password plaintext password
+     * @param stored   stored hash, null when there is no such user
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (stored == null) {
+            verify(password, UNKNOWN_USER_HASH);
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[2]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, decoder.decode(parts[1]), Integer.parseInt(parts[0])));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Method to find if a stored password should be hashed again, it is plaintext or hashed with fewer iterations
+     *
+     * @param stored stored hash or plaintext password
+     * @return true if the password should be stored again
+     */
+    public static boolean needsRehash(String stored) {
+        if (!stored.startsWith(PREFIX)) {
+            return true;
+        }
+        String iterations = stored.substring(PREFIX.length(), stored.indexOf('$', PREFIX.length()));
+        return Integer.parseInt(iterations) < ITERATIONS;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static int iterations(Properties prop) {
+        String value = prop.getProperty("password.hashIterations");
+        return value == null ? DEFAULT_ITERATIONS : Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,143 @@
+package com.flipkart.utils;
+
+import com.flipkart.constants.SqlQueries;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author JEDI-07
+ * Versioned schema changes applied on top of the tables of db_dump.sql.
+ * <p>
+ * A migration is a script under db/migration on the classpath named V&lt;version&gt;__&lt;description&gt;.sql
+ * and listed in {@link #MIGRATIONS}. The versions already applied are kept in the schema_version table, the
+ * pending ones are applied in version order and recorded once all of their statements have run. MySQL commits
+ * DDL as it goes, so a migration failing half way is not undone: startup stops, and the statements that did run
+ * have to be reverted by hand before the next start. Data a migration is known to fail on, such as duplicates
+ * under a new unique index, is looked for before its first statement, and startup stops naming the rows.
+ */
+public class SchemaMigrator {
+    private static Logger logger = Logger.getLogger(SchemaMigrator.class);
+    private static final String LOCATION = "db/migration/";
+    private static final Pattern NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final int MAX_REPORTED_ROWS = 20;
+
+    /**
+     * Migration scripts in version order, a script is never edited once released, changes go in a new one
+     */
+    static final String[] MIGRATIONS = {
+            "V1__hot_predicate_indexes.sql",
+            "V2__password_hashes.sql",
+            "V3__notification_read_marker.sql",
+            "V4__broadcasts.sql",
+            "V5__grade_summaries.sql",
+    };
+
+    /**
+     * Queries run before a migration, listing the rows it would fail on
+     */
+    private static final Map<String, String[]> PREFLIGHTS = Collections.singletonMap("V1__hot_predicate_indexes.sql",
+            new String[]{SqlQueries.DUPLICATE_GRADES, SqlQueries.DUPLICATE_SEMESTER_REGISTRATIONS});
+
+    /**
+     * Method to apply the migrations not applied yet
+     *
+     * @return number of migrations applied
+     * @throws SQLException          if a statement of a migration failed
+     * @throws IllegalStateException if a migration script is missing or misnamed, or the data holds rows a
+     *                               migration would fail on
+     */
+    public static int migrate() throws SQLException {
+        try (Connection conn = DBUtil.getConnection(); Statement st = conn.createStatement()) {
+            st.execute(SqlQueries.CREATE_SCHEMA_VERSION);
+            Set<Integer> applied = new HashSet<Integer>();
+            try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.APPLIED_SCHEMA_VERSIONS);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    applied.add(rs.getInt(1));
+                }
+            }
+
+            int count = 0;
+            for (String migration : MIGRATIONS) {
+                Matcher name = NAME.matcher(migration);
+                if (!name.matches()) {
+                    throw new IllegalStateException("Migration " + migration + " is not named V<version>__<description>.sql");
+                }
+                int version = Integer.parseInt(name.group(1));
+                if (applied.contains(version)) {
+                    continue;
+                }
+                preflight(st, migration);
+                logger.info("Applying schema migration " + migration);
+                for (String sql : statements(migration)) {
+                    st.execute(sql);
+                }
+                try (PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.ADD_SCHEMA_VERSION)) {
+                    ps.setInt(1, version);
+                    ps.setString(2, name.group(2).replace('_', ' '));
+                    ps.executeUpdate();
+                }
+                count++;
+            }
+            logger.info("Schema is at version " + MIGRATIONS.length + ", applied " + count + " migrations");
+            return count;
+        }
+    }
+
+    private static void preflight(Statement st, String migration) throws SQLException {
+        List<String> rows = new ArrayList<String>();
+        for (String sql : PREFLIGHTS.getOrDefault(migration, new String[0])) {
+            try (ResultSet rs = st.executeQuery(sql)) {
+                ResultSetMetaData columns = rs.getMetaData();
+                while (rs.next() && rows.size() < MAX_REPORTED_ROWS) {
+                    StringBuilder row = new StringBuilder(rs.getString(1)).append('(');
+                    for (int i = 2; i <= columns.getColumnCount(); i++) {
+                        row.append(i == 2 ? "" : ", ").append(columns.getColumnLabel(i)).append('=').append(rs.getString(i));
+                    }
+                    rows.add(row.append(')').toString());
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            throw new IllegalStateException("Migration " + migration + " was not applied, remove the duplicate rows first: "
+                    + String.join("; ", rows));
+        }
+    }
+
+    private static List<String> statements(String migration) {
+        String script;
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + migration)) {
+            if (in == null) {
+                throw new IllegalStateException("Migration " + migration + " not found on the classpath");
+            }
+            script = new Scanner(in, StandardCharsets.UTF_8.name()).useDelimiter("\\A").next();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read migration " + migration, e);
+        }
+        List<String> statements = new ArrayList<String>();
+        for (String statement : script.replaceAll("(?m)^\\s*--.*$", "").split(";")) {
+            if (!statement.trim().isEmpty()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,178 @@
+package com.flipkart.utils;
+
+import com.flipkart.bean.Course;
+import com.flipkart.constants.Courses;
+import org.apache.log4j.Logger;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author JEDI-07
+ * In-memory count of the taken seats of every course, keyed by course id.
+ * <p>
+ * Seats are reserved with a compare-and-set on the course's counter, so availability checks and
+ * reservations never touch the database. The course table stays the source of truth: callers write
+ * every reservation through to it and release the seat here if the database rejects it.
+ * Courses not known to the inventory are reported as available and left to the database.
+ */
+public class SeatInventory {
+    private static Logger logger = Logger.getLogger(SeatInventory.class);
+    private static final SeatInventory INSTANCE = new SeatInventory(Courses.MAX_STUDENT_LIMIT);
+
+    private final ConcurrentMap<Integer, AtomicInteger> seatsTaken = new ConcurrentHashMap<Integer, AtomicInteger>();
+    private final int seatLimit;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param seatLimit maximum number of students in a course
+     */
+    public SeatInventory(int seatLimit) {
+        this.seatLimit = seatLimit;
+    }
+
+    /**
+     * Method to get the inventory shared by the application
+     *
+     * @return shared SeatInventory
+     */
+    public static SeatInventory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to replace the inventory with the student counts of the given courses
+     *
+     * @param courses all the courses in the database
+     */
+    public void load(List<Course> courses) {
+        seatsTaken.clear();
+        for (Course course : courses) {
+            seatsTaken.put(course.getCourseId(), new AtomicInteger(course.getStudentCount()));
+        }
+        logger.info("Loaded seat inventory for " + seatsTaken.size() + " courses");
+    }
+
+    /**
+     * Method to check if a course has a free seat
+     *
+     * @param courseId unique Id to represent a course
+     * @return returns true if the course has a free seat or is not tracked
+     */
+    public boolean isAvailable(int courseId) {
+        AtomicInteger taken = seatsTaken.get(courseId);
+        return taken == null || taken.get() < seatLimit;
+    }
+
+    /**
+     * Method to take a seat in a course
+     *
+     * @param courseId unique Id to represent a course
+     * @return returns true if a seat was taken or the course is not tracked
+     */
+    public boolean tryReserve(int courseId) {
+        AtomicInteger taken = seatsTaken.get(courseId);
+        if (taken == null) {
+            return true;
+        }
+        while (true) {
+            int current = taken.get();
+            if (current >= seatLimit) {
+                return false;
+            }
+            if (taken.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Method to give back a seat taken with {@link #tryReserve(int)}
+     *
+     * @param courseId unique Id to represent a course
+     */
+    public void release(int courseId) {
+        AtomicInteger taken = seatsTaken.get(courseId);
+        if (taken == null) {
+            return;
+        }
+        while (true) {
+            int current = taken.get();
+            if (current <= 0 || taken.compareAndSet(current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Method to start tracking a new course
+     *
+     * @param courseId     unique Id to represent a course
+     * @param studentCount seats already taken in the course
+     */
+    public void track(int courseId, int studentCount) {
+        seatsTaken.put(courseId, new AtomicInteger(studentCount));
+    }
+
+    /**
+     * Method to stop tracking a removed course
+     *
+     * @param courseId unique Id to represent a course
+     */
+    public void remove(int courseId) {
+        seatsTaken.remove(courseId);
+    }
+
+    /**
+     * Method to get the seats taken in a course
+     *
+     * @param courseId unique Id to represent a course
+     * @return seats taken, -1 if the course is not tracked
+     */
+    public int getSeatsTaken(int courseId) {
+        AtomicInteger taken = seatsTaken.get(courseId);
+        return taken == null ? -1 : taken.get();
+    }
+
+    /**
+     * Method to re-sync the counters with the student counts in the database.
+     * Reservations still in flight while the courses were read show up as drift and
+     * are corrected by the next reconciliation.
+     *
+     * @param courses all the courses in the database
+     * @return total number of seats by which the inventory differed from the database
+     */
+    public int reconcile(List<Course> courses) {
+        int drift = 0;
+        Set<Integer> courseIds = new HashSet<Integer>();
+        for (Course course : courses) {
+            courseIds.add(course.getCourseId());
+            AtomicInteger taken = seatsTaken.putIfAbsent(course.getCourseId(), new AtomicInteger(course.getStudentCount()));
+            if (taken == null) {
+                continue;
+            }
+            int previous = taken.getAndSet(course.getStudentCount());
+            if (previous != course.getStudentCount()) {
+                logger.info("Seat inventory drift for courseId " + course.getCourseId() + ": "
+                        + previous + " in memory, " + course.getStudentCount() + " in database");
+                drift += Math.abs(previous - course.getStudentCount());
+            }
+        }
+        seatsTaken.keySet().retainAll(courseIds);
+        return drift;
+    }
+
+    /**
+     * Method to get the number of tracked courses
+     *
+     * @return tracked course count
+     */
+    public int size() {
+        return seatsTaken.size();
+    }
+}
@@ -0,0 +1,121 @@
+package com.flipkart.utils;
+
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
+import com.flipkart.bean.User;
+import com.flipkart.bean.UserSession;
+import org.apache.log4j.Logger;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author JEDI-07
+ * In-memory store of logged in sessions keyed by an opaque token.
+ * <p>
+ * Sessions expire after the configured idle time, every successful lookup extends the expiry.
+ * Expired sessions are rejected on lookup and removed by {@link #evictExpired()}.
+ */
+public class SessionStore {
+    private static Logger logger = Logger.getLogger(SessionStore.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final ConcurrentMap<String, UserSession> sessions = new ConcurrentHashMap<String, UserSession>();
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlMillis;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param ttlMillis idle time in millis after which a session expires
+     */
+    public SessionStore(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Method to open a session for an authenticated user
+     *
+     * @param user      authenticated User
+     * @param student   Student profile of the user, null if not a student
+     * @param professor Professor profile of the user, null if not a professor
+     * @return newly created session
+     */
+    public UserSession create(User user, Student student, Professor professor) {
+        UserSession session = new UserSession(newToken(), user, student, professor, System.currentTimeMillis() + ttlMillis);
+        sessions.put(session.getToken(), session);
+        return session;
+    }
+
+    /**
+     * Method to resolve a token into its session
+     *
+     * @param token session token sent by the client
+     * @return the session, or null if the token is unknown or expired
+     */
+    public UserSession resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+        UserSession session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.getExpiresAt() < now) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.setExpiresAt(now + ttlMillis);
+        return session;
+    }
+
+    /**
+     * Method to close a session
+     *
+     * @param token session token
+     * @return returns true if a session was closed
+     */
+    public boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Method to remove all the expired sessions
+     *
+     * @return number of sessions removed
+     */
+    public int evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        Iterator<UserSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().getExpiresAt() < now) {
+                it.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.info("Evicted " + evicted + " expired sessions");
+        }
+        return evicted;
+    }
+
+    /**
+     * Method to get the number of open sessions
+     *
+     * @return open session count
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
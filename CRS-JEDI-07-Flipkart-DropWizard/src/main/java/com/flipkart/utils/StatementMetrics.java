@@ -0,0 +1,122 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.flipkart.constants.SqlQueries;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author JEDI-07
+ * Execution timers for the queries in {@link SqlQueries}.
+ * <p>
+ * One timer is created per query constant, named after the constant, so the count and latency
+ * of every query can be read from the admin port. Statements are timed by wrapping them in
+ * {@link #instrument(PreparedStatement, String)}; queries that are not a constant are recorded
+ * under the template they were formatted from, or under {@link #OTHER_QUERY}.
+ */
+public class StatementMetrics {
+    public static final String OTHER_QUERY = "OTHER";
+
+    private static final Map<String, Timer> timersByName;
+    private static final Map<String, Timer> timersBySql;
+    private static final Map<String, Timer> timersByTemplatePrefix;
+
+    static {
+        Map<String, Timer> byName = new LinkedHashMap<String, Timer>();
+        Map<String, Timer> bySql = new HashMap<String, Timer>();
+        Map<String, Timer> byTemplatePrefix = new HashMap<String, Timer>();
+        for (Field field : SqlQueries.class.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || field.getType() != String.class) {
+                continue;
+            }
+            String sql;
+            try {
+                sql = (String) field.get(null);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            Timer timer = new Timer();
+            byName.put(field.getName(), timer);
+            int placeholder = sql.indexOf("%s");
+            if (placeholder >= 0) {
+                byTemplatePrefix.put(sql.substring(0, placeholder), timer);
+            } else {
+                bySql.putIfAbsent(sql, timer);
+            }
+        }
+        byName.put(OTHER_QUERY, new Timer());
+        timersByName = Collections.unmodifiableMap(byName);
+        timersBySql = Collections.unmodifiableMap(bySql);
+        timersByTemplatePrefix = Collections.unmodifiableMap(byTemplatePrefix);
+    }
+
+    /**
+     * Method to get the timer recording executions of a query
+     *
+     * @param sql query text
+     * @return timer of the query constant, or the timer of {@link #OTHER_QUERY}
+     */
+    public static Timer timerFor(String sql) {
+        Timer timer = timersBySql.get(sql);
+        if (timer != null) {
+            return timer;
+        }
+        for (Map.Entry<String, Timer> template : timersByTemplatePrefix.entrySet()) {
+            if (sql.startsWith(template.getKey())) {
+                return template.getValue();
+            }
+        }
+        return timersByName.get(OTHER_QUERY);
+    }
+
+    /**
+     * Method to wrap a statement so that every execution is recorded on the timer of its query
+     *
+     * @param statement prepared statement
+     * @param sql       query the statement was prepared from
+     * @return statement recording its executions
+     */
+    public static PreparedStatement instrument(final PreparedStatement statement, String sql) {
+        final Timer timer = timerFor(sql);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementMetrics.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        Timer.Context context = method.getName().startsWith("execute") ? timer.time() : null;
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if (context != null) {
+                                context.stop();
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Method to publish the query timers to the metrics registry
+     *
+     * @param metricRegistry registry to publish the timers to
+     */
+    public static void registerMetrics(MetricRegistry metricRegistry) {
+        for (Map.Entry<String, Timer> entry : timersByName.entrySet()) {
+            metricRegistry.register(MetricRegistry.name(SqlQueries.class, entry.getKey()), entry.getValue());
+        }
+    }
+}
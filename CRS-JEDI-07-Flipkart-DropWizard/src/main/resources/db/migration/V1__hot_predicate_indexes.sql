@@ -0,0 +1,23 @@
+-- Indexes for the predicates of the hot SqlQueries, on top of the tables of db_dump.sql.
+-- The single column keys they extend are kept, their foreign keys are defined on them.
+
+-- CHECK_COURSE_STUDENT, IS_STUDENT_ENROLLED, DROP_COURSE, ALLOT_COURSE and the alreadyOpted count of LOCK_STUDENT_FOR_ADD_COURSE
+CREATE INDEX student_course_optedcourse ON optedcourse (studentId, courseId);
+
+-- GET_COURSE_COUNT and the courseCount of LOCK_STUDENT_FOR_ADD_COURSE
+CREATE INDEX student_primary_optedcourse ON optedcourse (studentId, isPrimary);
+
+-- VIEW_ENROLLED_STUDENTS, BROADCAST_TO_COURSE, EXPORT_ROSTER and EXPORT_GRADE_SHEET
+CREATE INDEX course_allotted_optedcourse ON optedcourse (courseId, isAllotted);
+
+-- IS_STUDENT_ALREADY_GRADED and the grade join of EXPORT_GRADE_SHEET, a student is graded once per course
+CREATE UNIQUE INDEX student_course_grade ON grade (studentId, courseId);
+
+-- every lookup of a semester registration is by student, a student registers once
+CREATE UNIQUE INDEX student_semreg ON semesterregistration (studentId);
+
+-- BROADCAST_TO_REGISTERED and BROADCAST_TO_PENDING_FEE
+CREATE INDEX status_semreg ON semesterregistration (registrationStatus, feeStatus);
+
+-- ADMISSION_QUEUE_PAGE pages the pending students in id order, the approvals only touch pending students
+CREATE INDEX approval_student ON student (isApproved, id);
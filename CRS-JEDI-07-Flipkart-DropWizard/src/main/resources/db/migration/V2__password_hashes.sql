@@ -0,0 +1,3 @@
+-- Passwords are stored as salted PBKDF2 hashes, see PasswordHasher. Plaintext passwords stay valid
+-- and are replaced by their hash on the next login.
+ALTER TABLE user MODIFY password varchar(100) NOT NULL;
@@ -0,0 +1,8 @@
+-- Keyset-paginated notification feed with a per-student read marker.
+-- The single column key of notification.studentId is kept, its foreign key is defined on it.
+
+-- id of the last notification the student has read, 0 before the first read
+ALTER TABLE student ADD COLUMN lastReadNotificationId int(11) NOT NULL DEFAULT 0;
+
+-- NOTIFICATION_PAGE, UNREAD_NOTIFICATION_COUNT and MARK_NOTIFICATIONS_READ
+CREATE INDEX student_feed_notification ON notification (studentId, id);
@@ -0,0 +1,18 @@
+-- Broadcast notifications: the content is stored once in broadcast and every recipient row refers to it,
+-- so notificationContent is only set for notifications sent to a single student.
+CREATE TABLE broadcast (
+  id int(11) NOT NULL auto_increment,
+  content varchar(255) NOT NULL,
+  senderId int(11) NOT NULL,
+  PRIMARY KEY (id),
+  KEY user_id_broadcast (senderId),
+  CONSTRAINT user_id_broadcast FOREIGN KEY (senderId) REFERENCES user (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+ALTER TABLE notification MODIFY notificationContent varchar(255) DEFAULT NULL;
+
+ALTER TABLE notification ADD COLUMN broadcastId int(11) DEFAULT NULL;
+
+CREATE INDEX broadcast_id_notification ON notification (broadcastId);
+
+ALTER TABLE notification ADD CONSTRAINT broadcast_id_notification FOREIGN KEY (broadcastId) REFERENCES broadcast (id) ON DELETE CASCADE;
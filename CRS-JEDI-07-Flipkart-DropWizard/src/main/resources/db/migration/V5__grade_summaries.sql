@@ -0,0 +1,14 @@
+-- Running grade sum, count and CGPA per student, kept up to date by ADD_GRADE_TO_SUMMARY
+CREATE TABLE gradesummary (
+  studentId int(11) NOT NULL,
+  gradeSum double NOT NULL DEFAULT 0,
+  gradeCount int(11) NOT NULL DEFAULT 0,
+  cgpa double NOT NULL DEFAULT 0,
+  updatedAt timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (studentId),
+  CONSTRAINT student_id_gradesummary FOREIGN KEY (studentId) REFERENCES student (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- the grades given before the summaries existed
+INSERT INTO gradesummary(studentId, gradeSum, gradeCount, cgpa, updatedAt)
+SELECT studentId, SUM(gpa), COUNT(*), AVG(gpa), CURRENT_TIMESTAMP FROM grade GROUP BY studentId;
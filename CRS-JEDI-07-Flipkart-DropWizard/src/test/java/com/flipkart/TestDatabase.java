@@ -0,0 +1,192 @@
+package com.flipkart;
+
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
+import com.flipkart.constants.Roles;
+import com.flipkart.utils.DBUtil;
+import com.flipkart.utils.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded test database, the schema is loaded from the repository's db_dump.sql
+ * into the in-memory H2 database configured in the test config.properties, and migrated
+ * by {@link SchemaMigrator} as the application does at startup.
+ */
+public class TestDatabase {
+    private static final Path DUMP = Paths.get("..", "db_dump.sql");
+
+    /**
+     * Drops and recreates all the tables from db_dump.sql, then applies the schema migrations
+     */
+    public static void reset() throws SQLException, IOException {
+        List<String> pending = new ArrayList<String>();
+        String dump = new String(Files.readAllBytes(DUMP), StandardCharsets.UTF_8);
+        for (String statement : dump.split(";\\s*\\n")) {
+            String sql = statement
+                    .replaceAll("(?s)/\\*.*?\\*/", "")
+                    .replaceAll("(?m)^--.*$", "")
+                    .replaceAll("DEFAULT CHARSET=\\w+", "")
+                    .trim();
+            if (!sql.isEmpty()) {
+                pending.add(sql);
+            }
+        }
+
+        // tables are created in dump order, which references tables created further down,
+        // so statements failing on a missing table are retried until no more progress is made.
+        try (Connection conn = DBUtil.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            while (!pending.isEmpty()) {
+                List<String> failed = new ArrayList<String>();
+                SQLException lastError = null;
+                for (String sql : pending) {
+                    try {
+                        st.execute(sql);
+                    } catch (SQLException e) {
+                        failed.add(sql);
+                        lastError = e;
+                    }
+                }
+                if (failed.size() == pending.size()) {
+                    throw lastError;
+                }
+                pending = failed;
+            }
+        }
+        SchemaMigrator.migrate();
+    }
+
+    /**
+     * Inserts an approved student
+     *
+     * @param name name of the student, also used to derive a unique email
+     * @return the student with its studentId set
+     */
+    public static Student createStudent(String name) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            PreparedStatement userPs = conn.prepareStatement(
+                    "INSERT INTO user(name, email, password, role, phone) VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            userPs.setString(1, name);
+            userPs.setString(2, name + "@crs.test");
+            userPs.setString(3, "secret");
+            userPs.setString(4, Roles.Student);
+            userPs.setString(5, "9999999999");
+            userPs.executeUpdate();
+            int userId = generatedKey(userPs);
+
+            PreparedStatement studentPs = conn.prepareStatement(
+                    "INSERT INTO student(userId, isApproved) VALUES (?, 1)", Statement.RETURN_GENERATED_KEYS);
+            studentPs.setInt(1, userId);
+            studentPs.executeUpdate();
+
+            Student student = new Student(name, name + "@crs.test", "secret", "9999999999");
+            student.setId(userId);
+            student.setStudentId(generatedKey(studentPs));
+            student.setApproved(true);
+            return student;
+        }
+    }
+
+    /**
+     * Inserts a professor
+     *
+     * @param name name of the professor, also used to derive a unique email
+     * @return the professor with its professorId set
+     */
+    public static Professor createProfessor(String name) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            PreparedStatement userPs = conn.prepareStatement(
+                    "INSERT INTO user(name, email, password, role, phone) VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            userPs.setString(1, name);
+            userPs.setString(2, name + "@crs.test");
+            userPs.setString(3, "secret");
+            userPs.setString(4, Roles.Professor);
+            userPs.setString(5, "9999999999");
+            userPs.executeUpdate();
+            int userId = generatedKey(userPs);
+
+            PreparedStatement professorPs = conn.prepareStatement(
+                    "INSERT INTO professor(userId, department) VALUES (?, 'CSE')", Statement.RETURN_GENERATED_KEYS);
+            professorPs.setInt(1, userId);
+            professorPs.executeUpdate();
+
+            Professor professor = new Professor(name, name + "@crs.test", "secret", Roles.Professor, "9999999999", "CSE", null);
+            professor.setId(userId);
+            professor.setProfessorId(generatedKey(professorPs));
+            return professor;
+        }
+    }
+
+    /**
+     * Inserts a course without a professor
+     *
+     * @param name name of the course
+     * @param fee  fee of the course
+     * @return courseId
+     */
+    public static int createCourse(String name, double fee) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO course(courseName, courseDescription, courseFee) VALUES (?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, name);
+            ps.setString(2, name);
+            ps.setDouble(3, fee);
+            ps.executeUpdate();
+            return generatedKey(ps);
+        }
+    }
+
+    /**
+     * Runs a query returning a single int
+     *
+     * @param sql    query
+     * @param params int parameters of the query
+     * @return value of the first column of the first row
+     */
+    public static int queryInt(String sql, int... params) throws SQLException {
+        try (Connection conn = DBUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setInt(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Runs an insert, update or delete
+     *
+     * @param sql    statement
+     * @param params int parameters of the statement
+     * @return number of rows changed
+     */
+    public static int update(String sql, int... params) throws SQLException {
+        try (Connection conn = DBUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setInt(i + 1, params[i]);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    private static int generatedKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            keys.next();
+            return keys.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.AdmissionPage;
+import com.flipkart.bean.BulkApproval;
+import com.flipkart.bean.Student;
+import com.flipkart.bean.User;
+import com.flipkart.dao.UserDaoOperation;
+import com.flipkart.exceptions.CourseNotFoundException;
+import com.flipkart.utils.DBUtil;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the admission queue, the bulk approval and the course removal of AdminOperation
+ */
+public class AdminOperationTest extends TestCase {
+    private final AdminInterface adminOperation = new AdminOperation();
+    private final List<Student> alphas = new ArrayList<Student>();
+    private final List<Student> betas = new ArrayList<Student>();
+    private int adminUserId;
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        adminUserId = new UserDaoOperation().provisionAdmin(new User("admin", "admin@crs.test", "secret", null, null)).getId();
+        for (int i = 0; i < 7; i++) {
+            alphas.add(TestDatabase.createStudent("alpha" + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            betas.add(TestDatabase.createStudent("beta" + i));
+        }
+        TestDatabase.update("UPDATE student SET isApproved = 0");
+    }
+
+    public void testQueueIsPagedByCursorAndPrefix() throws Exception {
+        AdmissionPage page = adminOperation.getAdmissionRequests(0, "alpha", 3);
+        assertEquals(3, page.getStudents().size());
+        assertTrue(page.isHasMore());
+        assertEquals(alphas.get(0).getStudentId(), page.getStudents().get(0).getStudentId());
+
+        page = adminOperation.getAdmissionRequests(page.getNextCursor(), "alpha", 3);
+        assertEquals(alphas.get(3).getStudentId(), page.getStudents().get(0).getStudentId());
+        page = adminOperation.getAdmissionRequests(page.getNextCursor(), "alpha", 3);
+        assertEquals(1, page.getStudents().size());
+        assertFalse(page.isHasMore());
+
+        assertEquals(3, adminOperation.getAdmissionRequests(0, "beta", 10).getStudents().size());
+        assertEquals(1, adminOperation.getAdmissionRequests(0, "beta2@", 10).getStudents().size());
+        assertEquals(10, adminOperation.getAdmissionRequests(0, null, 0).getStudents().size());
+        assertTrue(adminOperation.getAdmissionRequests(0, "alph_", 10).getStudents().isEmpty());
+    }
+
+    public void testListedStudentsAreApprovedAndNotifiedOnce() throws Exception {
+        TestDatabase.update("UPDATE student SET isApproved = 1 WHERE id = ?", betas.get(0).getStudentId());
+        BulkApproval approval = adminOperation.approveStudentRequests(new BulkApproval(Arrays.asList(
+                betas.get(0).getStudentId(), betas.get(1).getStudentId(), betas.get(2).getStudentId()), null), adminUserId);
+        assertEquals(2, approval.getApproved());
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM student WHERE isApproved = 0 AND id IN (?, ?, ?)",
+                betas.get(0).getStudentId(), betas.get(1).getStudentId(), betas.get(2).getStudentId()));
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE studentId = ?", betas.get(0).getStudentId()));
+        assertEquals(1, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE studentId = ?", betas.get(1).getStudentId()));
+
+        assertEquals(0, adminOperation.approveStudentRequests(new BulkApproval(Arrays.asList(betas.get(1).getStudentId()), null),
+                adminUserId).getApproved());
+    }
+
+    public void testStudentsMatchingPrefixAreApproved() throws Exception {
+        BulkApproval approval = adminOperation.approveStudentRequests(new BulkApproval(null, "alpha"), adminUserId);
+        assertEquals(alphas.size(), approval.getApproved());
+        assertEquals(alphas.size(), TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE broadcastId IS NOT NULL"));
+        assertEquals(betas.size(), TestDatabase.queryInt("SELECT COUNT(*) FROM student WHERE isApproved = 0"));
+
+        assertEquals(betas.size(), adminOperation.approveStudentRequests(new BulkApproval(null, ""), adminUserId).getApproved());
+        assertTrue(adminOperation.getAdmissionRequests(0, null, 10).getStudents().isEmpty());
+    }
+
+    public void testConcurrentApprovalOverlappingTheBulkOne() throws Exception {
+        int contended = alphas.get(3).getStudentId();
+        CompletableFuture<BulkApproval> bulk;
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement("UPDATE student SET isApproved = 1 WHERE id = ?")) {
+                ps.setInt(1, contended);
+                assertEquals(1, ps.executeUpdate());
+                bulk = CompletableFuture.supplyAsync(() -> adminOperation.approveStudentRequests(new BulkApproval(null, "alpha"), adminUserId));
+                Thread.sleep(200);
+                assertFalse(bulk.isDone());
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        BulkApproval approval = bulk.get(10, TimeUnit.SECONDS);
+        assertEquals(alphas.size() - 1, approval.getApproved());
+        assertEquals(alphas.size() - 1, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE broadcastId IS NOT NULL"));
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE studentId = ?", contended));
+        assertEquals(betas.size(), TestDatabase.queryInt("SELECT COUNT(*) FROM student WHERE isApproved = 0"));
+    }
+
+    public void testExistingCourseIsRemoved() throws Exception {
+        int courseId = TestDatabase.createCourse("removed", 100);
+        assertTrue(adminOperation.removeCourse(courseId));
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM course WHERE id = ?", courseId));
+        try {
+            adminOperation.removeCourse(courseId);
+            fail("expected CourseNotFoundException");
+        } catch (CourseNotFoundException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.ImportResult;
+import com.flipkart.bean.ImportRowError;
+import com.flipkart.constants.Imports;
+import com.flipkart.utils.SeatInventory;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+
+/**
+ * Tests for the bulk imports of ImportOperation
+ */
+public class ImportOperationTest extends TestCase {
+    private static final int STUDENTS = Imports.BATCH_SIZE * 2 + 100;
+
+    private final ImportInterface importOperation = new ImportOperation();
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+    }
+
+    public void testStudentsAreImportedInBatchesAndBadRowsRejected() throws Exception {
+        TestDatabase.createStudent("existing");
+        StringBuilder csv = new StringBuilder("name,email,password,phone\n");
+        for (int i = 0; i < STUDENTS; i++) {
+            csv.append("student").append(i).append(",student").append(i).append("@crs.test,secret,99999\n");
+        }
+        csv.append("late,STUDENT1050@crs.test,secret,\n");
+        csv.append("known,existing@crs.test,secret,\n");
+        csv.append("nopassword,np@crs.test,,\n");
+        csv.append("bademail,not-an-email,secret,\n");
+
+        ImportResult result = importOperation.importCsv(Imports.STUDENTS, new StringReader(csv.toString()));
+        assertEquals(STUDENTS, result.getImported());
+        assertEquals(4, result.getRejected());
+        assertEquals(STUDENTS + 2, result.getErrors().get(0).getRow());
+        assertEquals("STUDENT1050@crs.test", result.getErrors().get(0).getKey());
+        assertEquals("Email appears on an earlier row", result.getErrors().get(0).getMessage());
+        assertEquals("A user with this email already exists", result.getErrors().get(1).getMessage());
+        assertEquals("password is required", result.getErrors().get(2).getMessage());
+        assertEquals(STUDENTS + 5, result.getErrors().get(3).getRow());
+
+        assertEquals(STUDENTS + 1, TestDatabase.queryInt(
+                "SELECT COUNT(*) FROM student INNER JOIN user ON user.id = student.userId WHERE user.role = 'student'"));
+        assertEquals(STUDENTS, TestDatabase.queryInt("SELECT COUNT(*) FROM student WHERE isApproved = 0"));
+    }
+
+    public void testProfessorsAndCoursesAreImported() throws Exception {
+        ImportResult professors = importOperation.importCsv(Imports.PROFESSORS, new StringReader(
+                "name,email,password,department,designation\n"
+                        + "\"Turing, Alan\",alan@crs.test,secret,CS,Professor\n"
+                        + "nodept,nodept@crs.test,secret,,\n"));
+        assertEquals(1, professors.getImported());
+        ImportRowError error = professors.getErrors().get(0);
+        assertEquals(3, error.getRow());
+        assertEquals("department is required", error.getMessage());
+        assertEquals(1, TestDatabase.queryInt("SELECT COUNT(*) FROM professor INNER JOIN user ON user.id = professor.userId "
+                + "WHERE user.name = 'Turing, Alan' AND professor.department = 'CS' AND user.role = 'professor'"));
+        assertNotNull(new UserOperation().validateUser("alan@crs.test", "secret"));
+
+        ImportResult courses = importOperation.importCsv(Imports.COURSES, new StringReader(
+                "courseName,courseDescription,courseFee\nalgebra,rings,1200\ngeometry,planes,free\n"));
+        assertEquals(1, courses.getImported());
+        assertEquals("courseFee free is not a number", courses.getErrors().get(0).getMessage());
+        int courseId = TestDatabase.queryInt("SELECT id FROM course WHERE courseName = 'algebra'");
+        assertTrue(SeatInventory.getInstance().isAvailable(courseId));
+    }
+
+    public void testUnknownKindAndMissingColumnsAreRefused() throws Exception {
+        try {
+            importOperation.importCsv("grades", new StringReader("a,b\n"));
+            fail("kind is unknown");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Unknown import"));
+        }
+        try {
+            importOperation.importCsv(Imports.STUDENTS, new StringReader("name,email\nx,x@crs.test\n"));
+            fail("password column is missing");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Missing column password", e.getMessage());
+        }
+    }
+}
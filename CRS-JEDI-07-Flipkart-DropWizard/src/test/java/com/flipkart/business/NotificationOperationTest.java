@@ -0,0 +1,163 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Broadcast;
+import com.flipkart.bean.Notification;
+import com.flipkart.bean.NotificationPage;
+import com.flipkart.bean.Student;
+import com.flipkart.constants.Notifications;
+import com.flipkart.dao.NotificationDaoInterface;
+import com.flipkart.dao.NotificationDaoOperation;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Tests for the notification feed and the broadcasts of NotificationOperation
+ */
+public class NotificationOperationTest extends TestCase {
+    private final NotificationDaoInterface notificationDao = new NotificationDaoOperation();
+    private final NotificationInterface notificationOperation = new NotificationOperation();
+    private Student student;
+    private Student other;
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        student = TestDatabase.createStudent("reader");
+        other = TestDatabase.createStudent("other");
+        for (int i = 0; i < 25; i++) {
+            assertTrue(notificationDao.sendNotification(student.getStudentId(), "notification " + i));
+            assertTrue(notificationDao.sendNotification(other.getStudentId(), "other " + i));
+        }
+    }
+
+    public void testCursorPagesThroughFeed() {
+        NotificationPage first = notificationOperation.getNotificationPage(student.getStudentId(), 0, 10);
+        assertEquals(10, first.getNotifications().size());
+        assertTrue(first.isHasMore());
+        assertEquals("notification 0", first.getNotifications().get(0).getContent());
+
+        NotificationPage second = notificationOperation.getNotificationPage(student.getStudentId(), first.getNextCursor(), 10);
+        assertEquals("notification 10", second.getNotifications().get(0).getContent());
+        assertTrue(second.isHasMore());
+
+        NotificationPage last = notificationOperation.getNotificationPage(student.getStudentId(), second.getNextCursor(), 10);
+        assertEquals(5, last.getNotifications().size());
+        assertFalse(last.isHasMore());
+        assertEquals("notification 24", last.getNotifications().get(4).getContent());
+
+        NotificationPage empty = notificationOperation.getNotificationPage(student.getStudentId(), last.getNextCursor(), 10);
+        assertTrue(empty.getNotifications().isEmpty());
+        assertEquals(last.getNextCursor(), empty.getNextCursor());
+
+        notificationDao.sendNotification(student.getStudentId(), "new");
+        NotificationPage polled = notificationOperation.getNotificationPage(student.getStudentId(), empty.getNextCursor(), 10);
+        assertEquals(1, polled.getNotifications().size());
+        assertEquals("new", polled.getNotifications().get(0).getContent());
+    }
+
+    public void testPageSizeIsCapped() {
+        for (int i = 0; i < Notifications.MAX_PAGE_SIZE; i++) {
+            notificationDao.sendNotification(student.getStudentId(), "more " + i);
+        }
+        assertEquals(Notifications.MAX_PAGE_SIZE,
+                notificationOperation.getNotificationPage(student.getStudentId(), 0, 10000).getNotifications().size());
+        assertEquals(Notifications.DEFAULT_PAGE_SIZE,
+                notificationOperation.getNotificationPage(student.getStudentId(), 0, 0).getNotifications().size());
+    }
+
+    public void testReadMarker() {
+        assertEquals(25, notificationOperation.getUnreadCount(student.getStudentId()));
+
+        NotificationPage page = notificationOperation.getNotificationPage(student.getStudentId(), 0, 12);
+        int lastRead = page.getNextCursor();
+        assertTrue(notificationOperation.markNotificationsRead(student.getStudentId(), lastRead));
+        assertEquals(13, notificationOperation.getUnreadCount(student.getStudentId()));
+
+        page = notificationOperation.getNotificationPage(student.getStudentId(), 0, 20);
+        assertTrue(page.getNotifications().get(11).isRead());
+        assertFalse(page.getNotifications().get(12).isRead());
+
+        // the marker never moves back
+        notificationOperation.markNotificationsRead(student.getStudentId(), page.getNotifications().get(0).getNotificationId());
+        assertEquals(13, notificationOperation.getUnreadCount(student.getStudentId()));
+
+        // nor past the newest notification of the student
+        notificationOperation.markNotificationsRead(student.getStudentId(), Integer.MAX_VALUE);
+        assertEquals(0, notificationOperation.getUnreadCount(student.getStudentId()));
+        notificationDao.sendNotification(student.getStudentId(), "new");
+        assertEquals(1, notificationOperation.getUnreadCount(student.getStudentId()));
+    }
+
+    public void testBroadcastReachesEachCohortOnce() throws Exception {
+        Student unpaid = TestDatabase.createStudent("unpaid");
+        Student unregistered = TestDatabase.createStudent("unregistered");
+        int courseId = TestDatabase.createCourse("course", 100);
+        int otherCourseId = TestDatabase.createCourse("other course", 100);
+        int registrationId = register(student, 1);
+        register(other, 1);
+        int unpaidRegistrationId = register(unpaid, 0);
+        register(unregistered, 0);
+        TestDatabase.update("UPDATE semesterregistration SET registrationStatus = 0 WHERE studentId = ?", unregistered.getStudentId());
+        optCourse(student, registrationId, courseId, 1);
+        optCourse(unpaid, unpaidRegistrationId, courseId, 1);
+        optCourse(other, registrationId, courseId, 0);
+        optCourse(other, registrationId, otherCourseId, 1);
+
+        Broadcast toCourse = new Broadcast(Notifications.AUDIENCE_COURSE, courseId, "class moved to hall B");
+        toCourse.setSenderId(student.getId());
+        assertTrue(notificationOperation.broadcast(toCourse));
+        assertTrue(toCourse.getBroadcastId() > 0);
+        assertEquals(2, toCourse.getRecipients());
+
+        Broadcast toRegistered = new Broadcast(Notifications.AUDIENCE_REGISTERED, 0, "results are out");
+        toRegistered.setSenderId(student.getId());
+        assertTrue(notificationOperation.broadcast(toRegistered));
+        assertEquals(3, toRegistered.getRecipients());
+
+        Broadcast toPendingFee = new Broadcast(Notifications.AUDIENCE_PENDING_FEE, 0, "fee due friday");
+        toPendingFee.setSenderId(student.getId());
+        assertTrue(notificationOperation.broadcast(toPendingFee));
+        assertEquals(1, toPendingFee.getRecipients());
+
+        assertFalse(notificationOperation.broadcast(new Broadcast("everyone", 0, "unknown audience")));
+
+        // the content is stored once per broadcast, not once per student
+        assertEquals(3, TestDatabase.queryInt("SELECT COUNT(*) FROM broadcast"));
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE broadcastId IS NOT NULL AND notificationContent IS NOT NULL"));
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE studentId = ? AND broadcastId IS NOT NULL",
+                unregistered.getStudentId()));
+
+        List<Notification> unpaidNotifications = notificationOperation.getNotifications(unpaid.getStudentId());
+        assertEquals(3, unpaidNotifications.size());
+        assertEquals("class moved to hall B", unpaidNotifications.get(0).getContent());
+        assertEquals("results are out", unpaidNotifications.get(1).getContent());
+        assertEquals("fee due friday", unpaidNotifications.get(2).getContent());
+    }
+
+    public void testBroadcastsAndDirectNotificationsShareTheFeed() throws Exception {
+        register(student, 1);
+        Broadcast broadcast = new Broadcast(Notifications.AUDIENCE_REGISTERED, 0, "broadcast");
+        broadcast.setSenderId(student.getId());
+        assertTrue(notificationOperation.broadcast(broadcast));
+        notificationDao.sendNotification(student.getStudentId(), "direct");
+
+        NotificationPage page = notificationOperation.getNotificationPage(student.getStudentId(), 0, 100);
+        assertEquals(27, page.getNotifications().size());
+        assertEquals("broadcast", page.getNotifications().get(25).getContent());
+        assertEquals("direct", page.getNotifications().get(26).getContent());
+        assertEquals(27, notificationOperation.getUnreadCount(student.getStudentId()));
+    }
+
+    private static int register(Student student, int feeStatus) throws Exception {
+        TestDatabase.update("INSERT INTO semesterregistration(studentId, registrationStatus, feeStatus) VALUES (?, 1, ?)",
+                student.getStudentId(), feeStatus);
+        return TestDatabase.queryInt("SELECT id FROM semesterregistration WHERE studentId = ?", student.getStudentId());
+    }
+
+    private static void optCourse(Student student, int registrationId, int courseId, int isAllotted) throws Exception {
+        TestDatabase.update("INSERT INTO optedcourse(courseId, semesterRegistrationId, isAllotted, studentId) VALUES (?, ?, ?, ?)",
+                courseId, registrationId, isAllotted, student.getStudentId());
+    }
+}
@@ -0,0 +1,186 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Grade;
+import com.flipkart.bean.GradeUploadResult;
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
+import com.flipkart.exceptions.CourseNotSelectedException;
+import com.flipkart.exceptions.CourseNotSelectedExcpetion;
+import com.flipkart.exceptions.StudentAlreadyGradedException;
+import com.flipkart.exceptions.StudentNotEnrolledInCourseException;
+import com.flipkart.utils.ExportWriter;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for the grading, the enrolled students and the exports of ProfessorOperation
+ */
+public class ProfessorOperationTest extends TestCase {
+    private static final int STUDENTS = 300;
+
+    private final ProfessorInterface professorOperation = new ProfessorOperation();
+    private final List<Student> students = new ArrayList<Student>();
+    private Professor professor;
+    private int courseId;
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        professor = TestDatabase.createProfessor("professor");
+        courseId = TestDatabase.createCourse("course", 100);
+        TestDatabase.update("UPDATE course SET professorId = ? WHERE id = ?", professor.getProfessorId(), courseId);
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = TestDatabase.createStudent("student" + i);
+            TestDatabase.update("INSERT INTO semesterregistration(studentId, registrationStatus, feeStatus) VALUES (?, 1, 1)",
+                    student.getStudentId());
+            int registrationId = TestDatabase.queryInt("SELECT id FROM semesterregistration WHERE studentId = ?", student.getStudentId());
+            TestDatabase.update("INSERT INTO optedcourse(courseId, semesterRegistrationId, isAllotted, studentId) VALUES (?, ?, 1, ?)",
+                    courseId, registrationId, student.getStudentId());
+            students.add(student);
+        }
+    }
+
+    public void testWholeCourseIsGradedInOneUpload() throws Exception {
+        List<Grade> grades = new ArrayList<Grade>();
+        for (int i = 0; i < STUDENTS; i++) {
+            grades.add(new Grade(courseId, students.get(i).getStudentId(), 5 + i % 6));
+        }
+
+        GradeUploadResult result = professorOperation.addGrades(professor, courseId, grades);
+        assertEquals(STUDENTS, result.getGraded());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(STUDENTS, TestDatabase.queryInt("SELECT COUNT(*) FROM grade WHERE courseId = ?", courseId));
+        assertEquals(STUDENTS, TestDatabase.queryInt("SELECT COUNT(*) FROM gradesummary WHERE gradeCount = 1"));
+        assertEquals(10, TestDatabase.queryInt("SELECT gradeSum FROM gradesummary WHERE studentId = ?", students.get(5).getStudentId()));
+    }
+
+    public void testRejectedRowsAreReportedAndOthersInserted() throws Exception {
+        Student outsider = TestDatabase.createStudent("outsider");
+        int first = students.get(0).getStudentId();
+        int second = students.get(1).getStudentId();
+        int third = students.get(2).getStudentId();
+        assertEquals(1, professorOperation.addGrades(professor, courseId,
+                Arrays.asList(new Grade(courseId, first, 7))).getGraded());
+
+        GradeUploadResult result = professorOperation.addGrades(professor, courseId, Arrays.asList(
+                new Grade(courseId, second, 8),
+                new Grade(courseId, first, 9),
+                new Grade(courseId, outsider.getStudentId(), 6),
+                new Grade(courseId, third, 5),
+                new Grade(courseId, second, 10)));
+
+        assertEquals(2, result.getGraded());
+        assertEquals(3, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(first, result.getErrors().get(0).getStudentId());
+        assertTrue(result.getErrors().get(0).getMessage().contains("already graded"));
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertTrue(result.getErrors().get(1).getMessage().contains("not enrolled"));
+        assertEquals(5, result.getErrors().get(2).getRow());
+        assertEquals(8, TestDatabase.queryInt("SELECT gpa FROM grade WHERE studentId = ? AND courseId = ?", second, courseId));
+        assertEquals(7, TestDatabase.queryInt("SELECT gpa FROM grade WHERE studentId = ? AND courseId = ?", first, courseId));
+    }
+
+    public void testMissingAndInvalidGpasAreRejectedPerRow() throws Exception {
+        int first = students.get(0).getStudentId();
+        GradeUploadResult result = professorOperation.addGrades(professor, courseId, Arrays.asList(
+                null,
+                new Grade(courseId, first, Double.NaN),
+                new Grade(courseId, first, Double.POSITIVE_INFINITY),
+                new Grade(courseId, first, -1),
+                new Grade(courseId, first, 10.5),
+                new Grade(courseId, first, 10)));
+
+        assertEquals(1, result.getGraded());
+        assertEquals(5, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getRow());
+        assertEquals("Grade is missing", result.getErrors().get(0).getMessage());
+        for (int i = 1; i < 5; i++) {
+            assertEquals(i + 1, result.getErrors().get(i).getRow());
+            assertTrue(result.getErrors().get(i).getMessage().contains("is not between"));
+        }
+        assertEquals(10, TestDatabase.queryInt("SELECT gpa FROM grade WHERE studentId = ? AND courseId = ?", first, courseId));
+    }
+
+    public void testEnrolledStudentsAndSingleGrade() throws Exception {
+        Student waiting = TestDatabase.createStudent("waiting");
+        TestDatabase.update("INSERT INTO semesterregistration(studentId, registrationStatus, feeStatus) VALUES (?, 1, 0)",
+                waiting.getStudentId());
+        TestDatabase.update("INSERT INTO optedcourse(courseId, semesterRegistrationId, isAllotted, studentId) VALUES (?, ?, 0, ?)",
+                courseId, TestDatabase.queryInt("SELECT id FROM semesterregistration WHERE studentId = ?", waiting.getStudentId()),
+                waiting.getStudentId());
+        int duplicated = students.get(1).getStudentId();
+        TestDatabase.update("INSERT INTO optedcourse(courseId, semesterRegistrationId, isAllotted, studentId) VALUES (?, ?, 1, ?)",
+                courseId, TestDatabase.queryInt("SELECT id FROM semesterregistration WHERE studentId = ?", duplicated), duplicated);
+
+        List<Student> enrolled = professorOperation.getEnrolledStudents(professor, courseId);
+        assertEquals(STUDENTS, enrolled.size());
+        for (Student student : enrolled) {
+            assertTrue(student.getStudentId() != waiting.getStudentId());
+        }
+
+        int studentId = students.get(0).getStudentId();
+        assertTrue(professorOperation.addGrade(professor, studentId, courseId, 8));
+        try {
+            professorOperation.addGrade(professor, studentId, courseId, 9);
+            fail("student is already graded");
+        } catch (StudentAlreadyGradedException e) {
+            // expected
+        }
+        try {
+            professorOperation.addGrade(professor, TestDatabase.createStudent("outsider").getStudentId(), courseId, 9);
+            fail("student is not enrolled");
+        } catch (StudentNotEnrolledInCourseException e) {
+            // expected
+        }
+        try {
+            professorOperation.addGrade(TestDatabase.createProfessor("other"), studentId, courseId, 9);
+            fail("course is taught by another professor");
+        } catch (CourseNotSelectedException e) {
+            // expected
+        }
+        assertEquals(8, TestDatabase.queryInt("SELECT gpa FROM grade WHERE studentId = ? AND courseId = ?", studentId, courseId));
+    }
+
+    public void testUploadForCourseOfAnotherProfessorIsRefused() throws Exception {
+        Professor other = TestDatabase.createProfessor("other");
+        try {
+            professorOperation.addGrades(other, courseId, Arrays.asList(new Grade(courseId, students.get(0).getStudentId(), 7)));
+            fail("course is taught by another professor");
+        } catch (CourseNotSelectedException e) {
+            // expected
+        }
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM grade"));
+    }
+
+    public void testRosterAndGradeSheetExports() throws Exception {
+        professorOperation.addGrades(professor, courseId, Arrays.asList(new Grade(courseId, students.get(0).getStudentId(), 9)));
+
+        ByteArrayOutputStream roster = new ByteArrayOutputStream();
+        professorOperation.exportRoster(professor, courseId).writeTo(ExportWriter.create(ExportWriter.CSV, roster));
+        String[] rosterLines = new String(roster.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(STUDENTS + 1, rosterLines.length);
+        assertEquals("studentId,name,email,phone,isPrimary", rosterLines[0]);
+        assertTrue(rosterLines[1].startsWith(students.get(0).getStudentId() + ",student0,student0@crs.test,"));
+
+        ByteArrayOutputStream gradeSheet = new ByteArrayOutputStream();
+        professorOperation.exportGradeSheet(professor, courseId).writeTo(ExportWriter.create(ExportWriter.CSV, gradeSheet));
+        String[] gradeLines = new String(gradeSheet.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(STUDENTS + 1, gradeLines.length);
+        assertEquals(students.get(0).getStudentId() + ",student0,9.0", gradeLines[1]);
+        assertEquals(students.get(1).getStudentId() + ",student1,", gradeLines[2]);
+
+        try {
+            professorOperation.exportRoster(TestDatabase.createProfessor("other"), courseId);
+            fail("course is taught by another professor");
+        } catch (CourseNotSelectedExcpetion e) {
+            // expected
+        }
+    }
+}
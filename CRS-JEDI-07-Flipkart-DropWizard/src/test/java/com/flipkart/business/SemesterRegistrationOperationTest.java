@@ -0,0 +1,129 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.AllotmentResult;
+import com.flipkart.bean.Student;
+import com.flipkart.constants.Courses;
+import com.flipkart.dao.AdminDaoOperation;
+import com.flipkart.exceptions.CourseAlreadyRegisteredException;
+import com.flipkart.exceptions.StudentAlreadyRegisteredForSemesterException;
+import com.flipkart.utils.SeatInventory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency tests for the seat allotment of SemesterRegistrationOperation
+ */
+public class SemesterRegistrationOperationTest extends TestCase {
+    private static final int COURSES = 8;
+    private static final int STUDENTS = 300;
+    private static final int THREADS = 32;
+
+    private final SemesterRegistrationInterface semesterRegistration = new SemesterRegistrationOperation();
+    private final List<Integer> courseIds = new ArrayList<Integer>();
+    private final List<Student> students = new ArrayList<Student>();
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        for (int i = 0; i < COURSES; i++) {
+            courseIds.add(TestDatabase.createCourse("course" + i, 100 + i));
+        }
+        SeatInventory.getInstance().load(new AdminDaoOperation().viewCourses());
+
+        Random random = new Random(7);
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = TestDatabase.createStudent("student" + i);
+            List<Integer> choices = new ArrayList<Integer>(courseIds);
+            Collections.shuffle(choices, random);
+            for (int c = 0; c < Courses.MAX_PRIMARY_COURSES + Courses.MAX_SECONDARY_COURSES; c++) {
+                semesterRegistration.addCourse(student, choices.get(c), c < Courses.MAX_PRIMARY_COURSES ? 1 : 0);
+            }
+            students.add(student);
+        }
+    }
+
+    public void testConcurrentSubmissionsNeverOverbookCourses() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<AllotmentResult>> results = new ArrayList<Future<AllotmentResult>>();
+        for (final Student student : students) {
+            results.add(executor.submit(new Callable<AllotmentResult>() {
+                @Override
+                public AllotmentResult call() throws Exception {
+                    start.await();
+                    return semesterRegistration.submitCourseChoices(student);
+                }
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        int allotted = 0;
+        for (Future<AllotmentResult> result : results) {
+            AllotmentResult allotment = result.get();
+            assertNotNull(allotment);
+            assertTrue(allotment.getAllottedCourses().size() <= Courses.MAX_PRIMARY_COURSES);
+            allotted += allotment.getAllottedCourses().size();
+        }
+
+        int seats = 0;
+        for (int courseId : courseIds) {
+            int studentCount = TestDatabase.queryInt("SELECT studentCount FROM course WHERE id = ?", courseId);
+            int allottedRows = TestDatabase.queryInt("SELECT COUNT(*) FROM optedcourse WHERE courseId = ? AND isAllotted = 1", courseId);
+            assertTrue("course " + courseId + " overbooked: " + studentCount, studentCount <= Courses.MAX_STUDENT_LIMIT);
+            assertEquals(allottedRows, studentCount);
+            assertEquals(studentCount, SeatInventory.getInstance().getSeatsTaken(courseId));
+            seats += studentCount;
+        }
+        assertEquals(COURSES * Courses.MAX_STUDENT_LIMIT, seats);
+        assertEquals(seats, allotted);
+
+        assertEquals(STUDENTS, TestDatabase.queryInt("SELECT COUNT(*) FROM semesterregistration WHERE registrationStatus = 1"));
+    }
+
+    public void testSecondSubmissionIsRejected() throws Exception {
+        Student student = students.get(0);
+        assertNotNull(semesterRegistration.submitCourseChoices(student));
+        try {
+            semesterRegistration.submitCourseChoices(student);
+            fail("expected StudentAlreadyRegisteredForSemesterException");
+        } catch (StudentAlreadyRegisteredForSemesterException e) {
+            // expected
+        }
+    }
+
+    public void testFullCourseRejectionsNameTheStudentState() throws Exception {
+        Student late = TestDatabase.createStudent("late");
+        int courseId = courseIds.get(0);
+        semesterRegistration.addCourse(late, courseId, 1);
+        TestDatabase.update("UPDATE course SET studentCount = ? WHERE id = ?", Courses.MAX_STUDENT_LIMIT, courseId);
+        SeatInventory.getInstance().track(courseId, Courses.MAX_STUDENT_LIMIT);
+        try {
+            semesterRegistration.addCourse(late, courseId, 1);
+            fail("expected CourseAlreadyRegisteredException");
+        } catch (CourseAlreadyRegisteredException e) {
+            // expected
+        }
+
+        Student student = students.get(0);
+        assertNotNull(semesterRegistration.submitCourseChoices(student));
+        try {
+            semesterRegistration.addCourse(student, courseId, 1);
+            fail("expected StudentAlreadyRegisteredForSemesterException");
+        } catch (StudentAlreadyRegisteredForSemesterException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.GradeCard;
+import com.flipkart.bean.Student;
+import com.flipkart.constants.SqlQueries;
+import com.flipkart.dao.ProfessorDaoInterface;
+import com.flipkart.dao.ProfessorDaoOperation;
+import com.flipkart.exceptions.PaymentIncompleteException;
+import com.flipkart.exceptions.StudentNotRegisteredException;
+import com.flipkart.utils.DBUtil;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * Tests for the grade card of StudentOperation
+ */
+public class StudentOperationTest extends TestCase {
+    private final StudentInterface studentOperation = new StudentOperation();
+    private final ProfessorDaoInterface professorDao = new ProfessorDaoOperation();
+    private Student student;
+    private int firstCourseId;
+    private int secondCourseId;
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        student = TestDatabase.createStudent("graded");
+        firstCourseId = TestDatabase.createCourse("first", 100);
+        secondCourseId = TestDatabase.createCourse("second", 100);
+        TestDatabase.update("INSERT INTO semesterregistration(studentId, registrationStatus, feeStatus) VALUES (?, 1, 1)",
+                student.getStudentId());
+    }
+
+    public void testGradeCardWithoutGrades() throws Exception {
+        GradeCard gradeCard = studentOperation.getGradeCard(student);
+        assertTrue(gradeCard.getGrades().isEmpty());
+        assertEquals(0.0, gradeCard.getCgpa());
+    }
+
+    public void testCgpaIsMaintainedOnEveryGrade() throws Exception {
+        assertTrue(professorDao.addGrade(student.getStudentId(), firstCourseId, 8));
+        GradeCard gradeCard = studentOperation.getGradeCard(student);
+        assertEquals(1, gradeCard.getGrades().size());
+        assertEquals(8.0, gradeCard.getCgpa(), 1e-9);
+        assertSame(gradeCard, studentOperation.getGradeCard(student));
+
+        assertTrue(professorDao.addGrade(student.getStudentId(), secondCourseId, 5));
+        gradeCard = studentOperation.getGradeCard(student);
+        assertEquals(2, gradeCard.getGrades().size());
+        assertEquals(6.5, gradeCard.getCgpa(), 1e-9);
+
+        assertEquals(2, TestDatabase.queryInt("SELECT gradeCount FROM gradesummary WHERE studentId = ?", student.getStudentId()));
+        assertEquals(13, TestDatabase.queryInt("SELECT gradeSum FROM gradesummary WHERE studentId = ?", student.getStudentId()));
+    }
+
+    public void testGradeAddedElsewhereRefreshesCachedCard() throws Exception {
+        assertTrue(professorDao.addGrade(student.getStudentId(), firstCourseId, 9));
+        GradeCard cached = studentOperation.getGradeCard(student);
+
+        // another instance adds a grade without touching the cache of this one
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement gradePs = conn.prepareStatement(SqlQueries.ADD_GRADE);
+             PreparedStatement summaryPs = conn.prepareStatement(SqlQueries.ADD_GRADE_TO_SUMMARY)) {
+            gradePs.setInt(1, student.getStudentId());
+            gradePs.setInt(2, secondCourseId);
+            gradePs.setDouble(3, 6);
+            gradePs.executeUpdate();
+            summaryPs.setInt(1, student.getStudentId());
+            summaryPs.setDouble(2, 6);
+            summaryPs.setDouble(3, 6);
+            summaryPs.executeUpdate();
+        }
+
+        GradeCard refreshed = studentOperation.getGradeCard(student);
+        assertNotSame(cached, refreshed);
+        assertEquals(2, refreshed.getGrades().size());
+        assertEquals(7.5, refreshed.getCgpa(), 1e-9);
+    }
+
+    public void testGradeCardNeedsRegistrationAndPayment() throws Exception {
+        TestDatabase.update("UPDATE semesterregistration SET feeStatus = 0 WHERE studentId = ?", student.getStudentId());
+        try {
+            studentOperation.getGradeCard(student);
+            fail("fee is not paid");
+        } catch (PaymentIncompleteException e) {
+            // expected
+        }
+
+        TestDatabase.update("DELETE FROM semesterregistration WHERE studentId = ?", student.getStudentId());
+        try {
+            studentOperation.getGradeCard(student);
+            fail("student is not registered");
+        } catch (StudentNotRegisteredException e) {
+            // expected
+        }
+    }
+}
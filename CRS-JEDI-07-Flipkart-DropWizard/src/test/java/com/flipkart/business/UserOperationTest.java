@@ -0,0 +1,93 @@
+package com.flipkart.business;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
+import com.flipkart.bean.User;
+import com.flipkart.constants.Roles;
+import com.flipkart.dao.UserDaoOperation;
+import com.flipkart.utils.CredentialCache;
+import com.flipkart.utils.DBUtil;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Tests for the login and the password changes of UserOperation
+ */
+public class UserOperationTest extends TestCase {
+    private final UserOperation userOperation = new UserOperation();
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        userOperation.credentialCache = new CredentialCache(60000, 60000, 100);
+    }
+
+    public void testPasswordsAreHashedAndProfilesReadWithTheUser() throws Exception {
+        new UserDaoOperation().provisionAdmin(new User("admin", "admin@crs.test", "secret", null, null));
+        assertTrue(storedPassword("admin@crs.test").startsWith("pbkdf2-sha256$"));
+        User admin = userOperation.validateUser("admin@crs.test", "secret");
+        assertEquals(Roles.Admin, admin.getRole());
+        assertNull(admin.getUserPassword());
+        assertNull(userOperation.validateUser("admin@crs.test", "Secret"));
+        assertNull(userOperation.validateUser("nobody@crs.test", "secret"));
+
+        Professor professor = TestDatabase.createProfessor("professor");
+        User loggedIn = userOperation.validateUser("professor@crs.test", "secret");
+        assertTrue(loggedIn instanceof Professor);
+        assertEquals(professor.getProfessorId(), ((Professor) loggedIn).getProfessorId());
+        assertEquals("CSE", ((Professor) loggedIn).getDepartment());
+    }
+
+    public void testPlaintextPasswordIsHashedOnLogin() throws Exception {
+        Student student = TestDatabase.createStudent("student");
+        assertEquals("secret", storedPassword("student@crs.test"));
+
+        User loggedIn = userOperation.validateUser("student@crs.test", "secret");
+        assertTrue(loggedIn instanceof Student);
+        assertEquals(student.getStudentId(), ((Student) loggedIn).getStudentId());
+        assertEquals(student.getId(), loggedIn.getId());
+        assertTrue(((Student) loggedIn).isApproved());
+        assertTrue(storedPassword("student@crs.test").startsWith("pbkdf2-sha256$"));
+
+        userOperation.credentialCache = new CredentialCache(60000, 60000, 100);
+        assertNotNull(userOperation.validateUser("student@crs.test", "secret"));
+    }
+
+    public void testChecksAreCachedUntilThePasswordChanges() throws Exception {
+        User student = TestDatabase.createStudent("student");
+        assertNotNull(userOperation.validateUser("student@crs.test", "secret"));
+        assertNull(userOperation.validateUser("student@crs.test", "guess"));
+
+        // answered from the cache, the stored password is not read again
+        TestDatabase.update("UPDATE user SET password = 'guess'");
+        assertNotNull(userOperation.validateUser("STUDENT@crs.test", "secret"));
+        assertNull(userOperation.validateUser("student@crs.test", "guess"));
+
+        assertTrue(userOperation.updateUserPassword(student, "changed"));
+        assertNull(userOperation.validateUser("student@crs.test", "secret"));
+        assertNotNull(userOperation.validateUser("student@crs.test", "changed"));
+    }
+
+    public void testPendingStudentIsNotCached() throws Exception {
+        TestDatabase.createStudent("student");
+        TestDatabase.update("UPDATE student SET isApproved = 0");
+        assertFalse(((Student) userOperation.validateUser("student@crs.test", "secret")).isApproved());
+        TestDatabase.update("UPDATE student SET isApproved = 1");
+        assertTrue(((Student) userOperation.validateUser("student@crs.test", "secret")).isApproved());
+    }
+
+    private static String storedPassword(String email) throws Exception {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT password FROM user WHERE email = ?")) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.flipkart.constants;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Student;
+import com.flipkart.utils.DBUtil;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tests for the query plans of the SqlQueries, every query is explained against the migrated and seeded
+ * test database and must not scan a whole table unless it reads the whole table by design
+ */
+public class SqlQueriesPlanTest extends TestCase {
+    private static final Map<String, String> WHOLE_TABLE_READS = new HashMap<String, String>();
+
+    static {
+        WHOLE_TABLE_READS.put("LIST_COURSES", "the catalog lists every course");
+        WHOLE_TABLE_READS.put("EXPORT_CATALOG", "the catalog export lists every course");
+        WHOLE_TABLE_READS.put("LIST_PROFESSORS", "the admin lists every professor");
+        WHOLE_TABLE_READS.put("APPLIED_SCHEMA_VERSIONS", "startup reads every applied version");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+        int professorId = TestDatabase.createProfessor("planner").getProfessorId();
+        List<Integer> courseIds = new ArrayList<Integer>();
+        for (int i = 0; i < 20; i++) {
+            courseIds.add(TestDatabase.createCourse("course" + i, 1000));
+        }
+        TestDatabase.update("UPDATE course SET professorId = ? WHERE id <= ?", professorId, courseIds.get(9));
+        for (int i = 0; i < 200; i++) {
+            Student student = TestDatabase.createStudent("planner" + i);
+            TestDatabase.update("INSERT INTO semesterregistration(studentId, registrationStatus, feeStatus) VALUES (?, ?, ?)",
+                    student.getStudentId(), i % 2, i % 4 == 1 ? 0 : 1);
+            int semesterId = TestDatabase.queryInt("SELECT id FROM semesterregistration WHERE studentId = ?", student.getStudentId());
+            for (int j = 0; j < 4; j++) {
+                int courseId = courseIds.get((i + j) % courseIds.size());
+                TestDatabase.update("INSERT INTO optedcourse(courseId, semesterRegistrationId, isPrimary, isAllotted, studentId) "
+                        + "VALUES (?, ?, ?, ?, ?)", courseId, semesterId, j < 3 ? 1 : 0, i % 2, student.getStudentId());
+                if (i % 2 == 1 && j < 2) {
+                    TestDatabase.update("INSERT INTO grade(studentId, courseId, gpa) VALUES (?, ?, 8)", student.getStudentId(), courseId);
+                }
+            }
+        }
+        TestDatabase.update("UPDATE student SET isApproved = 0 WHERE MOD(id, 10) = 0");
+        TestDatabase.update("ANALYZE");
+    }
+
+    public void testNoQueryScansAWholeTable() throws Exception {
+        List<String> scans = new ArrayList<String>();
+        try (Connection conn = DBUtil.getConnection()) {
+            for (Field field : SqlQueries.class.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || field.getType() != String.class) {
+                    continue;
+                }
+                String sql = String.format((String) field.get(null), "?, ?, ?");
+                String verb = sql.trim().split("\\s+")[0].toUpperCase(Locale.ROOT);
+                if (!verb.equals("SELECT") && !verb.equals("INSERT") && !verb.equals("UPDATE") && !verb.equals("DELETE")) {
+                    continue;
+                }
+                String plan;
+                try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql); ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    plan = rs.getString(1);
+                }
+                if (plan.contains(".tableScan") && !WHOLE_TABLE_READS.containsKey(field.getName())) {
+                    scans.add(field.getName() + ":\n" + plan);
+                }
+            }
+        }
+        assertTrue("Queries scanning a whole table:\n" + String.join("\n\n", scans), scans.isEmpty());
+    }
+}
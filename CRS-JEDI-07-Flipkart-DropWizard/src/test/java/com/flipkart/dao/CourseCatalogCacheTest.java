@@ -0,0 +1,122 @@
+package com.flipkart.dao;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.bean.Course;
+import com.flipkart.utils.SeatInventory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for CourseCatalogCache
+ */
+public class CourseCatalogCacheTest extends TestCase {
+    private final List<Course> courses = new ArrayList<Course>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final SeatInventory seatInventory = new SeatInventory(10);
+    private Runnable duringLoad = () -> {
+    };
+    private CourseCatalogCache cache;
+
+    @Override
+    protected void setUp() {
+        courses.add(course(1, 0));
+        courses.add(course(2, 7));
+        courses.add(course(3, 7));
+        courses.add(course(4, 9));
+        cache = new CourseCatalogCache(new AdminDaoOperation() {
+            @Override
+            public List<Course> viewCourses() {
+                loads.incrementAndGet();
+                duringLoad.run();
+                return new ArrayList<Course>(courses);
+            }
+        }, seatInventory);
+        cache.registerMetrics(metrics);
+    }
+
+    public void testSnapshotIsServedUntilInvalidated() {
+        CourseCatalogCache.Snapshot first = cache.getSnapshot();
+        assertSame(first, cache.getSnapshot());
+        assertEquals(1, loads.get());
+        assertEquals(1, counter("hits").getCount());
+        assertEquals(1, counter("misses").getCount());
+
+        courses.add(course(5, 0));
+        cache.invalidate();
+        CourseCatalogCache.Snapshot second = cache.getSnapshot();
+        assertEquals(2, loads.get());
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(5, second.getCourses().size());
+        assertEquals(4, first.getCourses().size());
+    }
+
+    public void testDerivedViews() {
+        CourseCatalogCache.Snapshot catalog = cache.getSnapshot();
+        assertEquals(1, catalog.getUnassignedCourses().size());
+        assertEquals(1, catalog.getUnassignedCourses().get(0).getCourseId());
+        assertEquals(2, catalog.getCoursesByProfessor(7).size());
+        assertEquals(1, catalog.getCoursesByProfessor(9).size());
+        assertTrue(catalog.getCoursesByProfessor(8).isEmpty());
+        try {
+            catalog.getCourses().clear();
+            fail("expected the catalog to be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    public void testRefreshReloads() {
+        CourseCatalogCache.Snapshot first = cache.getSnapshot();
+        CourseCatalogCache.Snapshot refreshed = cache.refresh();
+        assertNotSame(first, refreshed);
+        assertEquals(2, loads.get());
+        assertSame(refreshed, cache.getSnapshot());
+    }
+
+    public void testAllotmentsSwapInNewStudentCountsWithoutReloading() {
+        seatInventory.load(courses);
+        CourseCatalogCache.Snapshot first = cache.getSnapshot();
+        seatInventory.tryReserve(2);
+        seatInventory.tryReserve(2);
+        cache.updateStudentCounts(Collections.singletonList(2));
+
+        CourseCatalogCache.Snapshot updated = cache.getSnapshot();
+        assertEquals(1, loads.get());
+        assertTrue(updated.getVersion() > first.getVersion());
+        assertEquals(2, updated.getCourses().get(1).getStudentCount());
+        assertEquals(2, updated.getCoursesByProfessor(7).get(0).getStudentCount());
+        assertEquals(0, first.getCourses().get(1).getStudentCount());
+        assertSame(first.getCourses().get(0), updated.getCourses().get(0));
+
+        cache.updateStudentCounts(Arrays.asList(2, 5));
+        cache.getSnapshot();
+        assertEquals(2, loads.get());
+    }
+
+    public void testSnapshotLoadedDuringAWriteIsNotInstalled() {
+        duringLoad = () -> cache.invalidate();
+        CourseCatalogCache.Snapshot loaded = cache.getSnapshot();
+        duringLoad = () -> {
+        };
+        assertNotSame(loaded, cache.getSnapshot());
+        assertEquals(2, loads.get());
+    }
+
+    private Counter counter(String name) {
+        return metrics.getCounters().get(MetricRegistry.name(CourseCatalogCache.class, name));
+    }
+
+    private static Course course(int courseId, int professorId) {
+        Course course = new Course();
+        course.setCourseId(courseId);
+        course.setProfessorId(professorId);
+        return course;
+    }
+}
@@ -0,0 +1,237 @@
+package com.flipkart.dao;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Notification;
+import com.flipkart.bean.Student;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for NotificationOutbox
+ */
+public class NotificationOutboxTest extends TestCase {
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger singleInserts = new AtomicInteger();
+    private File spillFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        spillFile = File.createTempFile("notification-outbox", ".spill");
+        assertTrue(spillFile.delete());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(spillFile.toPath());
+        Files.deleteIfExists(new File(spillFile.getPath() + ".replay").toPath());
+        Files.deleteIfExists(new File(spillFile.getPath() + ".dead").toPath());
+    }
+
+    public void testQueuedNotificationsAreInsertedInBatches() throws Exception {
+        TestDatabase.reset();
+        Student student = TestDatabase.createStudent("outbox");
+        NotificationOutbox outbox = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) throws SQLException {
+                batches.incrementAndGet();
+                return super.sendNotifications(notifications);
+            }
+
+            @Override
+            public boolean sendNotification(int studentId, String notificationContent) {
+                singleInserts.incrementAndGet();
+                return super.sendNotification(studentId, notificationContent);
+            }
+        }, 1000, 50, 20, 50, spillFile);
+
+        outbox.start();
+        for (int i = 0; i < 120; i++) {
+            assertTrue(outbox.send(student.getStudentId(), "notification " + i));
+        }
+        outbox.stop();
+
+        assertEquals(120, TestDatabase.queryInt("SELECT COUNT(*) FROM notification WHERE studentId = ?", student.getStudentId()));
+        assertTrue(batches.get() >= 3);
+        assertTrue(batches.get() < 120);
+        assertEquals(0, singleInserts.get());
+        assertEquals(0, outbox.getQueueDepth());
+        assertFalse(spillFile.exists());
+    }
+
+    public void testFullQueueIsInsertedByCaller() throws Exception {
+        final CountDownLatch writerBlocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        NotificationOutbox outbox = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) {
+                if (!"notification-outbox".equals(Thread.currentThread().getName())) {
+                    singleInserts.incrementAndGet();
+                    return true;
+                }
+                writerBlocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                batches.incrementAndGet();
+                return true;
+            }
+        }, 1, 1, 10, 10, spillFile);
+
+        outbox.start();
+        assertTrue(outbox.send(1, "taken by the writer"));
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        assertTrue(outbox.send(1, "queued"));
+        assertTrue(outbox.send(1, "inserted by the caller"));
+        assertEquals(1, singleInserts.get());
+        assertEquals(1, outbox.getQueueDepth());
+
+        release.countDown();
+        outbox.stop();
+        assertEquals(2, batches.get());
+    }
+
+    public void testUninsertedNotificationsAreSpilledAndReplayed() throws Exception {
+        NotificationOutbox failing = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) throws SQLException {
+                throw new SQLTransientConnectionException("connection is not available");
+            }
+        }, 100, 10, 10, 10, spillFile);
+        failing.start();
+        failing.send(1, "first");
+        failing.send(2, "tab\tnew line\nback\\slash");
+        failing.send(3, "third");
+        failing.stop();
+        assertEquals(3, Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8).size());
+
+        final List<String> replayed = Collections.synchronizedList(new ArrayList<String>());
+        NotificationOutbox recovered = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) {
+                for (Notification notification : notifications) {
+                    replayed.add(notification.getStudentId() + ":" + notification.getContent());
+                }
+                return true;
+            }
+        }, 100, 10, 10, 10, spillFile);
+        recovered.start();
+        recovered.stop();
+
+        assertFalse(spillFile.exists());
+        assertEquals(3, replayed.size());
+        assertTrue(replayed.contains("1:first"));
+        assertTrue(replayed.contains("2:tab\tnew line\nback\\slash"));
+        assertTrue(replayed.contains("3:third"));
+    }
+
+    public void testBatchesAreSpilledWholeWhenTheDatabaseIsDown() throws Exception {
+        NotificationOutbox down = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) throws SQLException {
+                batches.incrementAndGet();
+                throw new SQLTransientConnectionException("connection is not available");
+            }
+        }, 100, 10, 10, 10, spillFile);
+        assertTrue(down.send(1, "sent while stopped"));
+        assertEquals(1, Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8).size());
+
+        down.start();
+        for (int i = 0; i < 10; i++) {
+            down.send(1, "notification " + i);
+        }
+        down.stop();
+        assertEquals(11, Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8).size());
+        // the replayed notification, then one attempt per batch and no row by row retries
+        assertTrue(batches.get() <= 11);
+    }
+
+    public void testRejectedNotificationsAreDeadLetteredOnce() throws Exception {
+        final List<String> inserted = Collections.synchronizedList(new ArrayList<String>());
+        NotificationDaoOperation rejectingStudentTwo = new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) throws SQLException {
+                batches.incrementAndGet();
+                for (Notification notification : notifications) {
+                    if (notification.getStudentId() == 2) {
+                        throw new SQLIntegrityConstraintViolationException("no student 2", "23000");
+                    }
+                }
+                for (Notification notification : notifications) {
+                    inserted.add(notification.getStudentId() + ":" + notification.getContent());
+                }
+                return true;
+            }
+        };
+        NotificationOutbox outbox = new NotificationOutbox(rejectingStudentTwo, 100, 10, 10, 10, spillFile);
+        outbox.start();
+        outbox.send(1, "first");
+        outbox.send(2, "deleted student");
+        outbox.send(3, "third");
+        outbox.stop();
+        assertFalse(outbox.send(2, "rejected while stopped"));
+
+        assertTrue(inserted.contains("1:first"));
+        assertTrue(inserted.contains("3:third"));
+        assertFalse(spillFile.exists());
+        File deadLetterFile = new File(spillFile.getPath() + ".dead");
+        List<String> dead = Files.readAllLines(deadLetterFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, dead.size());
+        assertTrue(dead.contains("2\tdeleted student"));
+
+        // nothing is replayed on the next start
+        int attempts = batches.get();
+        NotificationOutbox restarted = new NotificationOutbox(rejectingStudentTwo, 100, 10, 10, 10, spillFile);
+        restarted.start();
+        restarted.stop();
+        assertEquals(attempts, batches.get());
+        assertEquals(2, Files.readAllLines(deadLetterFile.toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    public void testInterruptedReplayIsReplayedAgain() throws Exception {
+        Files.write(spillFile.toPath(), "1\tfirst\n2\tsecond\n".getBytes(StandardCharsets.UTF_8));
+        NotificationOutbox crashing = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) {
+                throw new IllegalStateException("crashed during the replay");
+            }
+        }, 100, 10, 10, 10, spillFile);
+        try {
+            crashing.start();
+            fail("expected the replay to crash");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        final List<String> replayed = Collections.synchronizedList(new ArrayList<String>());
+        NotificationOutbox recovered = new NotificationOutbox(new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotifications(List<Notification> notifications) {
+                for (Notification notification : notifications) {
+                    replayed.add(notification.getStudentId() + ":" + notification.getContent());
+                }
+                return true;
+            }
+        }, 100, 10, 10, 10, spillFile);
+        recovered.start();
+        recovered.stop();
+
+        assertEquals(2, replayed.size());
+        assertTrue(replayed.contains("2:second"));
+        assertFalse(spillFile.exists());
+        assertFalse(new File(spillFile.getPath() + ".replay").exists());
+    }
+}
@@ -0,0 +1,58 @@
+package com.flipkart.dao;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Professor;
+import com.flipkart.bean.Student;
+import com.flipkart.bean.User;
+import com.flipkart.constants.Roles;
+import junit.framework.TestCase;
+
+import java.sql.SQLException;
+
+/**
+ * Tests for the user provisioning of UserDaoOperation
+ */
+public class UserDaoOperationTest extends TestCase {
+    private final UserDaoInterface userDao = new UserDaoOperation();
+
+    @Override
+    protected void setUp() throws Exception {
+        TestDatabase.reset();
+    }
+
+    public void testStudentIsReturnedWithItsKeys() throws Exception {
+        Student student = userDao.provisionStudent(new Student("ada", "ada@crs.test", "secret", "12345"));
+        assertTrue(student.getId() > 0);
+        assertEquals(Roles.Student, student.getRole());
+        assertFalse(student.isApproved());
+        assertEquals(student.getId(), TestDatabase.queryInt("SELECT userId FROM student WHERE id = ?", student.getStudentId()));
+    }
+
+    public void testFailedRoleRowLeavesNoUser() throws Exception {
+        Professor professor = new Professor("grace", "grace@crs.test", "secret", Roles.Professor, "12345", null, null);
+        try {
+            userDao.provisionProfessor(professor);
+            fail("department is required");
+        } catch (SQLException e) {
+            // expected
+        }
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM user WHERE email = 'grace@crs.test'"));
+
+        professor.setDepartment("CS");
+        userDao.provisionProfessor(professor);
+        assertEquals(professor.getId(), TestDatabase.queryInt("SELECT userId FROM professor WHERE id = ?", professor.getProfessorId()));
+    }
+
+    public void testTakenEmailIsRefused() throws Exception {
+        User admin = userDao.provisionAdmin(new User("root", "root@crs.test", "secret", null, null));
+        assertEquals(Roles.Admin, admin.getRole());
+        assertEquals(1, TestDatabase.queryInt("SELECT COUNT(*) FROM admin WHERE userId = ?", admin.getId()));
+        try {
+            userDao.provisionStudent(new Student("again", "root@crs.test", "secret", null));
+            fail("email is taken");
+        } catch (SQLException e) {
+            // expected
+        }
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM student"));
+    }
+}
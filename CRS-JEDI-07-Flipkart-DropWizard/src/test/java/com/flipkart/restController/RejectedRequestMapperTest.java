@@ -0,0 +1,37 @@
+package com.flipkart.restController;
+
+import com.flipkart.exceptions.NoRegisteredCourseException;
+import com.flipkart.exceptions.RejectedRequestException;
+import com.flipkart.exceptions.SeatNotAvailableException;
+import com.flipkart.exceptions.StudentNotFoundException;
+import junit.framework.TestCase;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Tests for RejectedRequestMapper and the rejections it answers
+ */
+public class RejectedRequestMapperTest extends TestCase {
+
+    public void testRejectionsAreAnsweredWithTheirStatusAndMessage() {
+        RejectedRequestMapper mapper = new RejectedRequestMapper();
+
+        Response full = mapper.toResponse(new SeatNotAvailableException(7));
+        assertEquals(409, full.getStatus());
+        assertEquals("Error: Maximum limit of students for courseId 7 reached.", full.getEntity());
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, full.getMediaType());
+
+        assertEquals(404, mapper.toResponse(new StudentNotFoundException(3)).getStatus());
+        Response none = mapper.toResponse(new NoRegisteredCourseException());
+        assertEquals(400, none.getStatus());
+        assertEquals("Error: " + NoRegisteredCourseException.msg, none.getEntity());
+    }
+
+    public void testRejectionsCarryNoStackTrace() {
+        RejectedRequestException e = new SeatNotAvailableException(7);
+        assertEquals(0, e.getStackTrace().length);
+        e.addSuppressed(new IllegalStateException());
+        assertEquals(0, e.getSuppressed().length);
+    }
+}
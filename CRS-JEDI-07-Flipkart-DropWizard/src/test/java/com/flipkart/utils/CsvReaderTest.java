@@ -0,0 +1,37 @@
+package com.flipkart.utils;
+
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Tests for CsvReader
+ */
+public class CsvReaderTest extends TestCase {
+
+    public void testQuotedFieldsAndLineNumbers() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader(
+                "\uFEFFname,email\r\n\r\n\"Doe, Jane\",jane@x.org\n\"multi\nline \"\"quoted\"\"\", b@x.org\nlast,\n"));
+        assertEquals(Arrays.asList("name", "email"), Arrays.asList(reader.next()));
+        assertEquals(1, reader.getLine());
+        assertEquals(Arrays.asList("Doe, Jane", "jane@x.org"), Arrays.asList(reader.next()));
+        assertEquals(3, reader.getLine());
+        assertEquals(Arrays.asList("multi\nline \"quoted\"", "b@x.org"), Arrays.asList(reader.next()));
+        assertEquals(4, reader.getLine());
+        assertEquals(Arrays.asList("last", ""), Arrays.asList(reader.next()));
+        assertEquals(6, reader.getLine());
+        assertNull(reader.next());
+    }
+
+    public void testUnclosedQuoteIsRefused() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\"open,b\n"));
+        reader.next();
+        try {
+            reader.next();
+            fail("quoted field is not closed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Line 2"));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.MetricRegistry;
+import com.flipkart.dao.NotificationDaoInterface;
+import com.flipkart.dao.NotificationDaoOperation;
+import junit.framework.TestCase;
+
+/**
+ * Tests for DaoMetrics
+ */
+public class DaoMetricsTest extends TestCase {
+
+    public void testCallsAreTimedPerMethod() {
+        MetricRegistry metrics = new MetricRegistry();
+        DaoMetrics.registerMetrics(metrics);
+        NotificationDaoInterface notificationDao = new NotificationDaoOperation() {
+            @Override
+            public boolean sendNotification(int studentId, String notificationContent) {
+                if (studentId < 0) {
+                    throw new IllegalArgumentException("studentId");
+                }
+                return true;
+            }
+        };
+        NotificationDaoInterface dao = DaoMetrics.instrument(NotificationDaoInterface.class, notificationDao);
+
+        assertTrue(dao.sendNotification(1, "hello"));
+        try {
+            dao.sendNotification(-1, "hello");
+            fail("expected the exception of the dao to be rethrown");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        String timerName = MetricRegistry.name(notificationDao.getClass(), "sendNotification");
+        assertEquals(2, metrics.timer(timerName).getCount());
+    }
+}
@@ -0,0 +1,186 @@
+package com.flipkart.utils;
+
+import junit.framework.TestCase;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for DbExecutor
+ */
+public class DbExecutorTest extends TestCase {
+    private DbExecutor executor;
+
+    @Override
+    protected void setUp() {
+        executor = new DbExecutor(1, 1, 7, 1);
+    }
+
+    @Override
+    protected void tearDown() {
+        executor.shutdown(1000);
+    }
+
+    public void testResultsAndExceptionsResumeTheRequest() throws Exception {
+        RecordingResponse ok = new RecordingResponse();
+        executor.submit("test", ok, 10000, () -> "done");
+        assertEquals("done", ok.await());
+
+        RecordingResponse failed = new RecordingResponse();
+        IllegalStateException error = new IllegalStateException("failed");
+        executor.submit("test", failed, 10000, () -> {
+            throw error;
+        });
+        assertSame(error, failed.await());
+    }
+
+    public void testOverflowAndTimeoutAreAnsweredWithRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingResponse running = new RecordingResponse();
+        executor.submit("test", running, 10000, () -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        RecordingResponse queued = new RecordingResponse();
+        executor.submit("test", queued, 10000, () -> "queued");
+
+        RecordingResponse refused = new RecordingResponse();
+        executor.submit("test", refused, 10000, () -> "refused");
+        Response response = (Response) refused.await();
+        assertEquals(503, response.getStatus());
+        assertEquals("7", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+
+        // the timeout handler answers the queued request, its work is then skipped
+        queued.timeout();
+        assertEquals(503, ((Response) queued.await()).getStatus());
+        // the running work may commit, its request waits for the result
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        running.timeout();
+        assertFalse(running.isDone());
+        assertEquals(2, running.timeoutsSet);
+        release.countDown();
+        assertEquals(true, running.await());
+        executor.shutdown(1000);
+        assertEquals(1, queued.resumed);
+    }
+
+    public void testExportsBeyondTheLimitAreAnsweredWithRetryAfter() {
+        assertTrue(executor.tryStartExport());
+        assertFalse(executor.tryStartExport());
+        Response response = executor.exportsUnavailable();
+        assertEquals(503, response.getStatus());
+        assertEquals("7", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+
+        executor.endExport();
+        assertTrue(executor.tryStartExport());
+    }
+
+    /**
+     * AsyncResponse recording what the request is resumed with
+     */
+    private static final class RecordingResponse implements AsyncResponse {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Object result;
+        private volatile int resumed;
+        private volatile TimeoutHandler timeoutHandler;
+        private volatile int timeoutsSet;
+
+        Object await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            return result;
+        }
+
+        void timeout() {
+            timeoutHandler.handleTimeout(this);
+        }
+
+        private synchronized boolean complete(Object value) {
+            if (resumed++ > 0) {
+                return false;
+            }
+            result = value;
+            done.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean resume(Object response) {
+            return complete(response);
+        }
+
+        @Override
+        public boolean resume(Throwable response) {
+            return complete(response);
+        }
+
+        @Override
+        public boolean cancel() {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(int retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(Date retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return done.getCount() > 0;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public boolean setTimeout(long time, TimeUnit unit) {
+            timeoutsSet++;
+            return true;
+        }
+
+        @Override
+        public void setTimeoutHandler(TimeoutHandler handler) {
+            timeoutHandler = handler;
+        }
+
+        @Override
+        public Collection<Class<?>> register(Class<?> callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Collection<Class<?>> register(Object callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+            return Collections.emptyMap();
+        }
+    }
+}
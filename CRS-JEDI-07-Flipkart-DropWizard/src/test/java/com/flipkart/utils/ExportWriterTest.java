@@ -0,0 +1,50 @@
+package com.flipkart.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for ExportWriter
+ */
+public class ExportWriterTest extends TestCase {
+
+    public void testCsvQuotesOnlyWhenNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create("CSV", out);
+        writer.start("id", "name", "gpa");
+        writer.row(1, "Doe, Jane", 8.5);
+        writer.row(2, "say \"hi\"", null);
+        writer.finish();
+        assertEquals("id,name,gpa\r\n1,\"Doe, Jane\",8.5\r\n2,\"say \"\"hi\"\"\",\r\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testJsonIsAnArrayOfObjects() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(ExportWriter.JSON, out);
+        writer.start("id", "name", "gpa");
+        writer.row(1, "Jane", 8.5);
+        writer.row(2, "John", null);
+        writer.finish();
+
+        JsonNode rows = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0).get("id").asInt());
+        assertEquals("Jane", rows.get(0).get("name").asText());
+        assertTrue(rows.get(1).get("gpa").isNull());
+    }
+
+    public void testUnknownFormatIsRefused() throws Exception {
+        assertNull(ExportWriter.mediaType("xml"));
+        try {
+            ExportWriter.create("xml", new ByteArrayOutputStream());
+            fail("xml is not an export format");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.flipkart.utils;
+
+import com.flipkart.bean.Grade;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * Tests for GradeCsv
+ */
+public class GradeCsvTest extends TestCase {
+
+    public void testHeaderAndBlankLinesAreSkipped() throws Exception {
+        List<Grade> grades = GradeCsv.read(new StringReader("\uFEFFstudentId, gpa\r\n12,8.5\n\n 13 , 7\n"), 4, 10);
+        assertEquals(2, grades.size());
+        assertEquals(12, grades.get(0).getStudentId());
+        assertEquals(8.5, grades.get(0).getGpa());
+        assertEquals(4, grades.get(0).getCourseId());
+        assertEquals(13, grades.get(1).getStudentId());
+    }
+
+    public void testMalformedLinesAndOversizedUploadsAreRefused() throws Exception {
+        try {
+            GradeCsv.read(new StringReader("12,8\n13;7\n"), 4, 10);
+            fail("line 2 is malformed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Line 2"));
+        }
+        try {
+            GradeCsv.read(new StringReader("12,eight\n"), 4, 10);
+            fail("gpa is not a number");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Line 1"));
+        }
+        try {
+            GradeCsv.read(new StringReader("1,8\n2,8\n3,8\n"), 4, 2);
+            fail("upload holds too many grades");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("at most 2"));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.flipkart.utils;
+
+import com.flipkart.bean.Notification;
+import junit.framework.TestCase;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for NotificationHub
+ */
+public class NotificationHubTest extends TestCase {
+    private NotificationHub hub;
+
+    @Override
+    protected void setUp() {
+        hub = new NotificationHub(100, 2, 50);
+    }
+
+    public void testNotificationsReachOnlyTheirStudent() throws Exception {
+        RecordingOutput first = new RecordingOutput();
+        RecordingOutput second = new RecordingOutput();
+        assertNotNull(subscribe(1, first, false));
+        assertNotNull(subscribe(2, second, false));
+
+        hub.publish(Arrays.asList(notification(1, 10), notification(2, 11), notification(1, 12)));
+
+        assertEquals(Arrays.asList("10", "12"), first.awaitIds(2));
+        assertEquals(Collections.singletonList("11"), second.awaitIds(1));
+        assertEquals("notification", first.events.get(0).getName());
+    }
+
+    public void testCatchUpSendsMissedNotificationsOnceAndInOrder() throws Exception {
+        RecordingOutput output = new RecordingOutput();
+        NotificationHub.Subscription subscription = subscribe(1, output, true);
+
+        hub.publish(Arrays.asList(notification(1, 5), notification(1, 6)));
+        Thread.sleep(100);
+        assertTrue(output.events.isEmpty());
+
+        assertTrue(hub.catchUp(subscription, Arrays.asList(notification(1, 3), notification(1, 4), notification(1, 5)), -1));
+        assertEquals(Arrays.asList("3", "4", "5", "6"), output.awaitIds(4));
+    }
+
+    public void testCatchUpAnnouncesTheNotificationsLeftOut() throws Exception {
+        RecordingOutput output = new RecordingOutput();
+        NotificationHub.Subscription subscription = subscribe(1, output, true);
+
+        hub.publish(Collections.singletonList(notification(1, 9)));
+        assertTrue(hub.catchUp(subscription, Arrays.asList(notification(1, 3), notification(1, 4)), 4));
+
+        assertEquals(Arrays.asList("3", "4", null, "9"), output.awaitIds(4));
+        assertEquals("gap", output.events.get(2).getName());
+        assertEquals("4", output.events.get(2).getData());
+    }
+
+    public void testStalledStreamsAreAbortedWithoutBlockingTheOthers() throws Exception {
+        List<StalledOutput> stalled = new ArrayList<StalledOutput>();
+        List<Notification> notifications = new ArrayList<Notification>();
+        for (int studentId = 1; studentId <= 4; studentId++) {
+            StalledOutput output = new StalledOutput();
+            assertNotNull(hub.subscribe(studentId, output, false, output.released::countDown));
+            stalled.add(output);
+            notifications.add(notification(studentId, 10 + studentId));
+        }
+        RecordingOutput healthy = new RecordingOutput();
+        assertNotNull(subscribe(5, healthy, false));
+        notifications.add(notification(5, 15));
+
+        hub.publish(notifications);
+        for (StalledOutput output : stalled) {
+            assertTrue(output.started.await(5, TimeUnit.SECONDS));
+        }
+        Thread.sleep(100);
+        assertTrue(healthy.events.isEmpty());
+
+        hub.heartbeat();
+        assertEquals(1, hub.size());
+        assertEquals(Collections.singletonList("15"), healthy.awaitIds(1));
+        for (StalledOutput output : stalled) {
+            assertEquals(0, output.released.getCount());
+        }
+    }
+
+    public void testStreamFallingBehindIsDropped() throws Exception {
+        StalledOutput output = new StalledOutput();
+        assertNotNull(hub.subscribe(1, output, false, output.released::countDown));
+        hub.publish(Collections.singletonList(notification(1, 1)));
+        assertTrue(output.started.await(5, TimeUnit.SECONDS));
+
+        List<Notification> notifications = new ArrayList<Notification>();
+        for (int id = 2; id <= 600; id++) {
+            notifications.add(notification(1, id));
+        }
+        hub.publish(notifications);
+
+        assertEquals(0, hub.size());
+        assertEquals(0, output.released.getCount());
+    }
+
+    public void testStreamLimitsAndClosedStreams() throws Exception {
+        RecordingOutput first = new RecordingOutput();
+        assertNotNull(subscribe(1, first, false));
+        assertNotNull(subscribe(1, new RecordingOutput(), false));
+        assertNull(subscribe(1, new RecordingOutput(), false));
+        assertEquals(2, hub.size());
+
+        first.close();
+        hub.heartbeat();
+        assertEquals(1, hub.size());
+        assertNotNull(subscribe(1, new RecordingOutput(), false));
+    }
+
+    private NotificationHub.Subscription subscribe(int studentId, RecordingOutput output, boolean catchUp) {
+        return hub.subscribe(studentId, output, catchUp, output::close);
+    }
+
+    private static Notification notification(int studentId, int notificationId) {
+        Notification notification = new Notification("content " + notificationId, studentId);
+        notification.setNotificationId(notificationId);
+        return notification;
+    }
+
+    private static class RecordingOutput extends EventOutput {
+        private final List<OutboundEvent> events = new CopyOnWriteArrayList<OutboundEvent>();
+        private volatile boolean closed;
+
+        @Override
+        public void write(OutboundEvent event) throws IOException {
+            if (closed) {
+                throw new IOException("closed");
+            }
+            if (!event.isReconnectDelaySet() && event.getComment() == null) {
+                events.add(event);
+            }
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private List<String> awaitIds(int count) throws InterruptedException {
+            for (int i = 0; i < 100 && events.size() < count; i++) {
+                Thread.sleep(20);
+            }
+            String[] ids = new String[events.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = events.get(i).getId();
+            }
+            return Arrays.asList(ids);
+        }
+    }
+
+    private static class StalledOutput extends EventOutput {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void write(OutboundEvent event) throws IOException {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("aborted");
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.flipkart.utils;
+
+import com.flipkart.TestDatabase;
+import com.flipkart.bean.Student;
+import junit.framework.TestCase;
+
+/**
+ * Tests for SchemaMigrator
+ */
+public class SchemaMigratorTest extends TestCase {
+
+    public void testMigratedDatabaseIsNotMigratedAgain() throws Exception {
+        TestDatabase.reset();
+        assertEquals(0, SchemaMigrator.migrate());
+        assertEquals(SchemaMigrator.MIGRATIONS.length, TestDatabase.queryInt("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    public void testDuplicateRowsStopTheUniqueIndexesBeforeAnyStatementRuns() throws Exception {
+        TestDatabase.reset();
+        Student student = TestDatabase.createStudent("twice");
+        int courseId = TestDatabase.createCourse("repeated", 100);
+
+        // the database as it was before V1, holding a student graded twice in a course
+        for (String index : new String[]{"student_course_optedcourse", "student_primary_optedcourse", "course_allotted_optedcourse",
+                "student_course_grade", "student_semreg", "status_semreg", "approval_student"}) {
+            TestDatabase.update("DROP INDEX " + index);
+        }
+        TestDatabase.update("DELETE FROM schema_version WHERE version = ?", 1);
+        for (int i = 0; i < 2; i++) {
+            TestDatabase.update("INSERT INTO grade(studentId, courseId, gpa) VALUES (?, ?, 8)", student.getStudentId(), courseId);
+        }
+
+        try {
+            SchemaMigrator.migrate();
+            fail("grade holds duplicates");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("grade(studentid=" + student.getStudentId()
+                    + ", courseid=" + courseId + ", copies=2)"));
+        }
+        assertEquals(0, TestDatabase.queryInt("SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'student_course_optedcourse'"));
+
+        TestDatabase.update("DELETE FROM grade WHERE id = (SELECT MAX(id) FROM grade)");
+        assertEquals(1, SchemaMigrator.migrate());
+    }
+
+    public void testGradeSummariesAreBackfilledFromExistingGrades() throws Exception {
+        TestDatabase.reset();
+        Student student = TestDatabase.createStudent("graded");
+        for (int gpa = 6; gpa <= 8; gpa++) {
+            int courseId = TestDatabase.createCourse("course" + gpa, 100);
+            TestDatabase.update("INSERT INTO grade(studentId, courseId, gpa) VALUES (?, ?, ?)", student.getStudentId(), courseId, gpa);
+        }
+
+        // the database as it was before the summaries
+        TestDatabase.update("DROP TABLE gradesummary");
+        TestDatabase.update("DELETE FROM schema_version WHERE version = ?", 5);
+        assertEquals(1, SchemaMigrator.migrate());
+
+        assertEquals(3, TestDatabase.queryInt("SELECT gradeCount FROM gradesummary WHERE studentId = ?", student.getStudentId()));
+        assertEquals(21, TestDatabase.queryInt("SELECT gradeSum FROM gradesummary WHERE studentId = ?", student.getStudentId()));
+        assertEquals(7, TestDatabase.queryInt("SELECT cgpa FROM gradesummary WHERE studentId = ?", student.getStudentId()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.flipkart.utils;
+
+import com.flipkart.bean.Course;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for SeatInventory
+ */
+public class SeatInventoryTest extends TestCase {
+    private static final int SEAT_LIMIT = 10;
+
+    private SeatInventory seatInventory;
+
+    @Override
+    protected void setUp() {
+        seatInventory = new SeatInventory(SEAT_LIMIT);
+        seatInventory.load(Arrays.asList(course(1, 0), course(2, SEAT_LIMIT)));
+    }
+
+    public void testConcurrentReservationsStopAtLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger reserved = new AtomicInteger();
+        for (int i = 0; i < 500; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (seatInventory.tryReserve(1)) {
+                    reserved.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(SEAT_LIMIT, reserved.get());
+        assertEquals(SEAT_LIMIT, seatInventory.getSeatsTaken(1));
+        assertFalse(seatInventory.isAvailable(1));
+    }
+
+    public void testReleaseFreesSeat() {
+        assertFalse(seatInventory.tryReserve(2));
+        seatInventory.release(2);
+        assertTrue(seatInventory.isAvailable(2));
+        assertTrue(seatInventory.tryReserve(2));
+    }
+
+    public void testUntrackedCourseIsLeftToDatabase() {
+        assertTrue(seatInventory.isAvailable(3));
+        assertTrue(seatInventory.tryReserve(3));
+        assertEquals(-1, seatInventory.getSeatsTaken(3));
+    }
+
+    public void testReconcileReportsDrift() {
+        seatInventory.tryReserve(1);
+        seatInventory.tryReserve(1);
+
+        List<Course> courses = new ArrayList<Course>();
+        courses.add(course(1, 5));
+        courses.add(course(3, 4));
+        assertEquals(3, seatInventory.reconcile(courses));
+
+        assertEquals(5, seatInventory.getSeatsTaken(1));
+        assertEquals(4, seatInventory.getSeatsTaken(3));
+        assertEquals(-1, seatInventory.getSeatsTaken(2));
+        assertEquals(0, seatInventory.reconcile(courses));
+        assertEquals(0, seatInventory.reconcile(Collections.<Course>emptyList()));
+        assertEquals(0, seatInventory.size());
+    }
+
+    private static Course course(int courseId, int studentCount) {
+        Course course = new Course();
+        course.setCourseId(courseId);
+        course.setStudentCount(studentCount);
+        return course;
+    }
+}
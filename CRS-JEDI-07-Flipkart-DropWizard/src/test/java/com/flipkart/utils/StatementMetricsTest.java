@@ -0,0 +1,45 @@
+package com.flipkart.utils;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.flipkart.TestDatabase;
+import com.flipkart.constants.SqlQueries;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Tests for StatementMetrics
+ */
+public class StatementMetricsTest extends TestCase {
+
+    public void testQueriesAreTimedByConstant() throws Exception {
+        TestDatabase.reset();
+        Timer timer = StatementMetrics.timerFor(SqlQueries.LIST_COURSES);
+        long before = timer.getCount();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = DBUtil.prepareStatement(conn, SqlQueries.LIST_COURSES)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                assertFalse(rs.next());
+            }
+            ps.executeQuery().close();
+        }
+        assertEquals(before + 2, timer.getCount());
+    }
+
+    public void testFormattedAndUnknownQueries() {
+        assertSame(StatementMetrics.timerFor(SqlQueries.LOCK_COURSES_FOR_ALLOTMENT),
+                StatementMetrics.timerFor(String.format(SqlQueries.LOCK_COURSES_FOR_ALLOTMENT, "?, ?")));
+        assertNotSame(StatementMetrics.timerFor(SqlQueries.LIST_COURSES), StatementMetrics.timerFor("SELECT 1"));
+    }
+
+    public void testTimersAreRegisteredByConstantName() {
+        MetricRegistry metrics = new MetricRegistry();
+        StatementMetrics.registerMetrics(metrics);
+        assertSame(StatementMetrics.timerFor(SqlQueries.LIST_COURSES),
+                metrics.getTimers().get(MetricRegistry.name(SqlQueries.class, "LIST_COURSES")));
+        assertTrue(metrics.getTimers().containsKey(MetricRegistry.name(SqlQueries.class, StatementMetrics.OTHER_QUERY)));
+    }
+}
@@ -0,0 +1,142 @@
+package com.flipkart.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author JEDI-07
+ * Minimal JSON client of the CRS REST API that records every call in the statistics of a {@link Phase}.
+ * <p>
+ * Responses are read to the end so that the JVM keeps the connection alive for the next request.
+ */
+public class CrsClient {
+    private static final ObjectMapper MAPPER = Jackson.newObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final String url;
+    private final int timeoutMillis;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param url           root of the service, e.g. http://localhost:8080
+     * @param timeoutMillis connect and read timeout of a request
+     */
+    public CrsClient(String url, int timeoutMillis) {
+        this.url = url;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Method to call an endpoint
+     *
+     * @param phase  phase the call is recorded in
+     * @param method HTTP method
+     * @param path   path of the endpoint, e.g. /student/semester/submit
+     * @param token  session token, null for the endpoints that do not need a login
+     * @param body   request entity written as JSON, null for none
+     * @return response, null if the request failed without a response
+     */
+    public Response call(Phase phase, String method, String path, String token, Object body) {
+        EndpointStats stats = phase.stats(method + " " + path);
+        long start = System.nanoTime();
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setRequestProperty("Accept", "application/json");
+            if (token != null) {
+                connection.setRequestProperty("Authorization", "Bearer " + token);
+            }
+            if (body != null || "POST".equals(method) || "PUT".equals(method)) {
+                byte[] entity = MAPPER.writeValueAsBytes(body);
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                connection.setFixedLengthStreamingMode(entity.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(entity);
+                }
+            }
+            int status = connection.getResponseCode();
+            String entity = readFully(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+            stats.record(System.nanoTime() - start, status);
+            return new Response(status, entity);
+        } catch (IOException e) {
+            stats.recordIoError(System.nanoTime() - start);
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Method to read a JSON response
+     *
+     * @param response response of a successful call
+     * @param type     type of the entity
+     * @param <T>      type of the entity
+     * @return entity
+     * @throws IOException when the entity is not of the type
+     */
+    public static <T> T read(Response response, TypeReference<T> type) throws IOException {
+        return MAPPER.readValue(response.getEntity(), type);
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Status and entity of a response
+     */
+    public static class Response {
+        private final int status;
+        private final String entity;
+
+        Response(int status, String entity) {
+            this.status = status;
+            this.entity = entity;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getEntity() {
+            return entity;
+        }
+
+        /**
+         * Method to check for a 2xx status
+         *
+         * @return whether the call succeeded
+         */
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.flipkart.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author JEDI-07
+ * Latency histogram and response counts of one endpoint, shared by all the clients.
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param name endpoint, e.g. POST /student/semester/submit
+     */
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Method to record a response
+     *
+     * @param elapsedNanos time from sending the request to reading the whole response
+     * @param status       HTTP status of the response
+     */
+    public void record(long elapsedNanos, int status) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_LATENCY_MICROS));
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    /**
+     * Method to record a request that got no response
+     *
+     * @param elapsedNanos time until the request failed
+     */
+    public void recordIoError(long elapsedNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_LATENCY_MICROS));
+        ioErrors.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the latencies in microseconds
+     *
+     * @return histogram
+     */
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getRequests() {
+        return successes.sum() + clientErrors.sum() + serverErrors.sum() + ioErrors.sum();
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getIoErrors() {
+        return ioErrors.sum();
+    }
+
+    /**
+     * Method to get the share of requests without a 2xx or 3xx response
+     *
+     * @return error rate between 0 and 1
+     */
+    public double getErrorRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0 : (double) (requests - getSuccesses()) / requests;
+    }
+}
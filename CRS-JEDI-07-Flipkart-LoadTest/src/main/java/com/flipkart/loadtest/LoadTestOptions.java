@@ -0,0 +1,153 @@
+package com.flipkart.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author JEDI-07
+ * Command line options of the load generator, given as {@code --name=value}.
+ */
+public class LoadTestOptions {
+    private String url = "http://localhost:8080";
+    private String adminEmail = "admin@crs.com";
+    private String adminPassword = "admin";
+    private int students = 20000;
+    private int concurrency = 200;
+    private int rampSeconds = 10;
+    private int createCourses = 0;
+    private int timeoutMillis = 30000;
+    private long seed = 42;
+    private String histogramDir;
+    private int loginP99Millis = 0;
+
+    /**
+     * Method to parse the command line
+     *
+     * @param args command line arguments
+     * @return parsed options
+     * @throws IllegalArgumentException when an option is unknown or malformed
+     */
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "url":
+                    options.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "adminEmail":
+                    options.adminEmail = value;
+                    break;
+                case "adminPassword":
+                    options.adminPassword = value;
+                    break;
+                case "students":
+                    options.students = Integer.parseInt(value);
+                    break;
+                case "concurrency":
+                    options.concurrency = Integer.parseInt(value);
+                    break;
+                case "rampSeconds":
+                    options.rampSeconds = Integer.parseInt(value);
+                    break;
+                case "createCourses":
+                    options.createCourses = Integer.parseInt(value);
+                    break;
+                case "timeoutMillis":
+                    options.timeoutMillis = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "histogramDir":
+                    options.histogramDir = value;
+                    break;
+                case "loginP99Millis":
+                    options.loginP99Millis = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + entry.getKey());
+            }
+        }
+        if (options.students <= 0 || options.concurrency <= 0 || options.rampSeconds < 0 || options.createCourses < 0) {
+            throw new IllegalArgumentException("students and concurrency must be positive, rampSeconds and createCourses non-negative");
+        }
+        if (options.loginP99Millis < 0) {
+            throw new IllegalArgumentException("loginP99Millis must be non-negative");
+        }
+        return options;
+    }
+
+    /**
+     * Method to describe the options
+     *
+     * @return usage text
+     */
+    public static String usage() {
+        return "java -jar target/loadtest.jar [--name=value ...]\n"
+                + "  --url=http://localhost:8080  root of the running service\n"
+                + "  --adminEmail=admin@crs.com   admin approving the students and checking the courses\n"
+                + "  --adminPassword=admin\n"
+                + "  --students=20000             students going through the journey\n"
+                + "  --concurrency=200            concurrent clients\n"
+                + "  --rampSeconds=10             time over which the clients are started\n"
+                + "  --createCourses=0            courses to add before the storm, 0 uses the existing catalog\n"
+                + "  --timeoutMillis=30000        connect and read timeout of a request\n"
+                + "  --seed=42                    seed of the course choices\n"
+                + "  --histogramDir=<dir>         write the full latency distribution of every endpoint\n"
+                + "  --loginP99Millis=0           target p99 of the opening bell logins, 0 for no target";
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getAdminEmail() {
+        return adminEmail;
+    }
+
+    public String getAdminPassword() {
+        return adminPassword;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getRampSeconds() {
+        return rampSeconds;
+    }
+
+    public int getCreateCourses() {
+        return createCourses;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getHistogramDir() {
+        return histogramDir;
+    }
+
+    public int getLoginP99Millis() {
+        return loginP99Millis;
+    }
+}
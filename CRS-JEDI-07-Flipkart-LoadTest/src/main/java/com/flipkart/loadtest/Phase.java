@@ -0,0 +1,128 @@
+package com.flipkart.loadtest;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JEDI-07
+ * Stage of the load test, e.g. onboarding or the opening bell, with the statistics of the endpoints it calls.
+ */
+public class Phase {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String name;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<String, EndpointStats>();
+    private final List<String> order = new ArrayList<String>();
+    private long startNanos;
+    private long endNanos;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param name name of the phase
+     */
+    public Phase(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Method to get the statistics of an endpoint, creating them on the first call
+     *
+     * @param endpoint method and path of the endpoint
+     * @return statistics of the endpoint
+     */
+    public EndpointStats stats(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats == null) {
+            synchronized (order) {
+                stats = endpoints.get(endpoint);
+                if (stats == null) {
+                    stats = new EndpointStats(endpoint);
+                    endpoints.put(endpoint, stats);
+                    order.add(endpoint);
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Method to mark the start of the phase
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Method to mark the end of the phase
+     */
+    public void end() {
+        endNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to get the duration of the phase
+     *
+     * @return seconds between start and end
+     */
+    public double getSeconds() {
+        return (endNanos - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Method to print throughput, error counts and latency percentiles of every endpoint
+     *
+     * @param out stream to print to
+     */
+    public void report(PrintStream out) {
+        out.printf("%n== %s: %.1f s%n", name, getSeconds());
+        out.printf("%-34s %8s %9s %7s %7s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "2xx", "4xx", "5xx", "io", "err%",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (String endpoint : endpoints()) {
+            EndpointStats stats = endpoints.get(endpoint);
+            out.printf("%-34s %8d %9.1f %7d %7d %7d %7d %7.2f",
+                    endpoint, stats.getRequests(), stats.getRequests() / getSeconds(),
+                    stats.getSuccesses(), stats.getClientErrors(), stats.getServerErrors(), stats.getIoErrors(),
+                    stats.getErrorRate() * 100);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.2f", stats.getLatencies().getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(" %9.2f%n", stats.getLatencies().getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * Method to write the latency distribution of every endpoint in milliseconds, one .hgrm file per endpoint
+     *
+     * @param directory directory the files are written to
+     * @throws FileNotFoundException when a file cannot be created
+     */
+    public void writeHistograms(File directory) throws FileNotFoundException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new FileNotFoundException("Cannot create " + directory);
+        }
+        for (String endpoint : endpoints()) {
+            String fileName = name + "-" + endpoint.replaceAll("[^A-Za-z0-9]+", "-") + ".hgrm";
+            try (PrintStream out = new PrintStream(new File(directory, fileName))) {
+                endpoints.get(endpoint).getLatencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private List<String> endpoints() {
+        synchronized (order) {
+            return new ArrayList<String>(order);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.flipkart.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.flipkart.bean.BulkApproval;
+import com.flipkart.bean.Course;
+import com.flipkart.bean.LoginResponse;
+import com.flipkart.bean.OptedCourse;
+import com.flipkart.bean.Student;
+import com.flipkart.bean.User;
+import com.flipkart.constants.Courses;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author JEDI-07
+ * Load generator reproducing the registration storm at the opening of a semester.
+ * <p>
+ * Every student goes through the whole journey against a running service: register and get approved by the
+ * admin (onboarding), then login, add courses, submit and pay the fee (opening bell). The opening bell
+ * clients are started over the ramp. At the end the report shows throughput, error counts and latency
+ * percentiles per endpoint, and the course table is checked for courses allotted over
+ * {@link Courses#MAX_STUDENT_LIMIT} students. The exit status is 1 when a course was oversold or when the
+ * p99 of the opening bell logins is over --loginP99Millis.
+ */
+public class RegistrationStorm {
+    private static final String PASSWORD = "password";
+    private static final int COURSE_CHOICES = Courses.MAX_PRIMARY_COURSES + Courses.MAX_SECONDARY_COURSES;
+    private static final int MAX_ADD_ATTEMPTS = 2 * COURSE_CHOICES;
+    private static final Pattern ALLOTTED = Pattern.compile("(\\d+) courses allotted");
+
+    private final LoadTestOptions options;
+    private final CrsClient client;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final LongAdder journeysCompleted = new LongAdder();
+    private final LongAdder journeysAbandoned = new LongAdder();
+    private final LongAdder seatsAllotted = new LongAdder();
+    private String adminToken;
+
+    /**
+     * Parameterized Constructor
+     *
+     * @param options options of the run
+     */
+    public RegistrationStorm(LoadTestOptions options) {
+        this.options = options;
+        this.client = new CrsClient(options.getUrl(), options.getTimeoutMillis());
+    }
+
+    /**
+     * Method to run the storm and print the report
+     *
+     * @return true if no course was oversold and the logins met their target p99
+     */
+    public boolean run() throws IOException, InterruptedException {
+        Phase setup = new Phase("setup");
+        setup.start();
+        adminToken = login(setup, options.getAdminEmail(), options.getAdminPassword());
+        if (adminToken == null) {
+            throw new IllegalStateException("Admin login failed for " + options.getAdminEmail());
+        }
+        for (int i = 0; i < options.getCreateCourses(); i++) {
+            client.call(setup, "POST", "/admin/course", adminToken, new Course("Storm " + runId + " " + i, "Load test course", 1000));
+        }
+        List<Course> catalog = viewCourses(setup);
+        setup.end();
+        if (catalog.size() < COURSE_CHOICES) {
+            throw new IllegalStateException("The catalog has " + catalog.size() + " courses, at least "
+                    + COURSE_CHOICES + " are needed, use --createCourses");
+        }
+        Map<Integer, Integer> countsBefore = studentCounts(catalog);
+        List<Integer> courseIds = new ArrayList<Integer>(countsBefore.keySet());
+        Collections.sort(courseIds);
+
+        Phase onboarding = new Phase("onboarding");
+        onboarding.start();
+        runClients(onboarding, options.getStudents(), 0, i -> client.call(onboarding, "POST", "/user/register", null,
+                new Student("Storm Student " + i, email(i), PASSWORD, String.valueOf(9000000000L + i))));
+        // the students of this run are approved at once, requests of earlier runs are left alone
+        CrsClient.Response approved = client.call(onboarding, "POST", "/admin/admissions/approve", adminToken,
+                new BulkApproval(null, "s" + runId + "."));
+        if (approved == null || !approved.isSuccessful()) {
+            throw new IOException("Unable to approve the admission requests");
+        }
+        onboarding.end();
+
+        Phase openingBell = new Phase("opening-bell");
+        openingBell.start();
+        runClients(openingBell, options.getStudents(), options.getRampSeconds(), i -> journey(openingBell, i, courseIds));
+        openingBell.end();
+
+        Phase verification = new Phase("verification");
+        verification.start();
+        List<Course> after = viewCourses(verification);
+        verification.end();
+
+        for (Phase phase : new Phase[]{setup, onboarding, openingBell, verification}) {
+            phase.report(System.out);
+            if (options.getHistogramDir() != null) {
+                phase.writeHistograms(new File(options.getHistogramDir()));
+            }
+        }
+        int oversold = reportOversell(countsBefore, after);
+        return oversold == 0 & reportLoginTarget(openingBell);
+    }
+
+    private void journey(Phase phase, int student, List<Integer> courseIds) {
+        String token = login(phase, email(student), PASSWORD);
+        if (token == null) {
+            journeysAbandoned.increment();
+            return;
+        }
+
+        List<Integer> choices = new ArrayList<Integer>(courseIds);
+        Collections.shuffle(choices, new Random(options.getSeed() + student));
+        int added = 0;
+        for (int attempt = 0; attempt < MAX_ADD_ATTEMPTS && attempt < choices.size() && added < COURSE_CHOICES; attempt++) {
+            OptedCourse optedCourse = new OptedCourse();
+            optedCourse.setCourseId(choices.get(attempt));
+            optedCourse.setIsPrimary(added < Courses.MAX_PRIMARY_COURSES);
+            CrsClient.Response response = client.call(phase, "POST", "/student/semester/addcourse", token, optedCourse);
+            if (response != null && response.getStatus() == 201) {
+                added++;
+            }
+        }
+
+        CrsClient.Response submitted = client.call(phase, "POST", "/student/semester/submit", token, null);
+        if (submitted == null || !submitted.isSuccessful()) {
+            journeysAbandoned.increment();
+            return;
+        }
+        Matcher allotted = ALLOTTED.matcher(submitted.getEntity());
+        if (allotted.find()) {
+            seatsAllotted.add(Integer.parseInt(allotted.group(1)));
+        }
+        client.call(phase, "POST", "/student/payfee", token, null);
+        journeysCompleted.increment();
+    }
+
+    private String login(Phase phase, String email, String password) {
+        User user = new User();
+        user.setUserEmailId(email);
+        user.setUserPassword(password);
+        CrsClient.Response response = client.call(phase, "POST", "/user/login", null, user);
+        if (response == null || !response.isSuccessful()) {
+            return null;
+        }
+        try {
+            return CrsClient.read(response, new TypeReference<LoginResponse>() {
+            }).getToken();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private List<Course> viewCourses(Phase phase) throws IOException {
+        CrsClient.Response response = client.call(phase, "GET", "/admin/courses", adminToken, null);
+        if (response == null || !response.isSuccessful()) {
+            throw new IOException("Unable to list the courses");
+        }
+        return CrsClient.read(response, new TypeReference<List<Course>>() {
+        });
+    }
+
+    private void runClients(Phase phase, int tasks, int rampSeconds, IntConsumer task) throws InterruptedException {
+        int clients = options.getConcurrency();
+        long rampMillis = TimeUnit.SECONDS.toMillis(rampSeconds);
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            long delay = rampMillis * c / clients;
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = next.getAndIncrement(); i < tasks; i = next.getAndIncrement()) {
+                    task.accept(i);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.DAYS)) {
+            throw new IllegalStateException(phase.getName() + " did not finish");
+        }
+    }
+
+    private int reportOversell(Map<Integer, Integer> countsBefore, List<Course> after) {
+        int oversold = 0;
+        long seatsTaken = 0;
+        System.out.printf("%n== oversell check%n");
+        for (Course course : after) {
+            Integer before = countsBefore.get(course.getCourseId());
+            seatsTaken += course.getStudentCount() - (before == null ? 0 : before);
+            if (course.getStudentCount() > Courses.MAX_STUDENT_LIMIT) {
+                oversold++;
+                System.out.printf("course %d (%s) has %d students, the limit is %d%n",
+                        course.getCourseId(), course.getCourseName(), course.getStudentCount(), Courses.MAX_STUDENT_LIMIT);
+            }
+        }
+        System.out.printf("journeys completed: %d, abandoned: %d%n", journeysCompleted.sum(), journeysAbandoned.sum());
+        System.out.printf("seats allotted by /student/semester/submit: %d, seats taken in the course table: %d%n",
+                seatsAllotted.sum(), seatsTaken);
+        System.out.printf("oversold courses: %d%n", oversold);
+        return oversold;
+    }
+
+    private boolean reportLoginTarget(Phase openingBell) {
+        if (options.getLoginP99Millis() == 0) {
+            return true;
+        }
+        double p99 = openingBell.stats("POST /user/login").getLatencies().getValueAtPercentile(99) / 1000.0;
+        boolean met = p99 <= options.getLoginP99Millis();
+        System.out.printf("%n== login target%n");
+        System.out.printf("opening bell login p99: %.1f ms, target: %d ms, %s%n",
+                p99, options.getLoginP99Millis(), met ? "met" : "missed");
+        return met;
+    }
+
+    private static Map<Integer, Integer> studentCounts(List<Course> courses) {
+        Map<Integer, Integer> counts = new HashMap<Integer, Integer>();
+        for (Course course : courses) {
+            counts.put(course.getCourseId(), course.getStudentCount());
+        }
+        return counts;
+    }
+
+    private String email(int student) {
+        // user.email is varchar(30)
+        return "s" + runId + "." + student + "@lt.io";
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(LoadTestOptions.usage());
+            System.exit(2);
+            return;
+        }
+        // keep a pooled connection for every client
+        System.setProperty("http.maxConnections", String.valueOf(options.getConcurrency()));
+        boolean passed = new RegistrationStorm(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+}